@@ -8,7 +8,7 @@ import java.awt.event.ActionEvent;
 import java.awt.event.InputEvent;
 import java.awt.event.KeyEvent;
 
-public class CopyAction extends DesignerActionBase {
+public class CopyAction extends DesignerActionBase implements DesignPanel.SelectionListener {
     private DesignPanel designPanel;
 
     public CopyAction(DesignPanel designPanel) {
@@ -18,15 +18,22 @@ public class CopyAction extends DesignerActionBase {
         putValue(SHORT_DESCRIPTION, "Copy");
         putValue(MNEMONIC_KEY, KeyEvent.VK_C);
         putValue(ACCELERATOR_KEY, KeyStroke.getKeyStroke(KeyEvent.VK_C, ActionEvent.CTRL_MASK));
+        init();
     }
 
     @Override
     public void init() {
+        designPanel.addSelectionListener(this);
+    }
 
+    @Override
+    public void selectionChanged(DesignPanel canvas) {
+        setEnabled(!canvas.getSelectionModel().isEmpty());
     }
 
     @Override
     public void actionPerformed(ActionEvent e) {
-
+        designPanel.copySelection();
+        setExecuted(true);
     }
 }
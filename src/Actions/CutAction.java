@@ -0,0 +1,38 @@
+package Actions;
+
+import Base.DesignerActionBase;
+import Designer.DesignPanel;
+
+import javax.swing.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.KeyEvent;
+
+public class CutAction extends DesignerActionBase implements DesignPanel.SelectionListener {
+    private DesignPanel designPanel;
+
+    public CutAction(DesignPanel designPanel) {
+        super("Cut",null);
+        this.designPanel = designPanel;
+        this.setEnabled(false);
+        putValue(SHORT_DESCRIPTION, "Cut");
+        putValue(MNEMONIC_KEY, KeyEvent.VK_T);
+        putValue(ACCELERATOR_KEY, KeyStroke.getKeyStroke(KeyEvent.VK_X, ActionEvent.CTRL_MASK));
+        init();
+    }
+
+    @Override
+    public void init() {
+        designPanel.addSelectionListener(this);
+    }
+
+    @Override
+    public void selectionChanged(DesignPanel canvas) {
+        setEnabled(!canvas.getSelectionModel().isEmpty());
+    }
+
+    @Override
+    public void actionPerformed(ActionEvent e) {
+        designPanel.cutSelection();
+        setExecuted(true);
+    }
+}
@@ -0,0 +1,30 @@
+package Actions;
+
+import Base.DesignerActionBase;
+import Designer.DesignPanel;
+
+import javax.swing.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.KeyEvent;
+
+public class PasteAction extends DesignerActionBase {
+    private DesignPanel designPanel;
+
+    public PasteAction(DesignPanel designPanel) {
+        super("Paste", null);
+        this.designPanel = designPanel;
+        putValue(SHORT_DESCRIPTION, "Paste");
+        putValue(MNEMONIC_KEY, KeyEvent.VK_P);
+        putValue(ACCELERATOR_KEY, KeyStroke.getKeyStroke(KeyEvent.VK_V, ActionEvent.CTRL_MASK));
+    }
+
+    @Override
+    public void init() {
+
+    }
+
+    @Override
+    public void actionPerformed(ActionEvent e) {
+        setExecuted(designPanel.paste());
+    }
+}
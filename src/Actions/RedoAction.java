@@ -0,0 +1,46 @@
+package Actions;
+
+import Base.CommandHistory;
+import Base.DesignerActionBase;
+import Designer.DesignPanel;
+
+import javax.swing.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.KeyEvent;
+
+public class RedoAction extends DesignerActionBase implements CommandHistory.HistoryListener {
+    private DesignPanel designPanel;
+
+    public RedoAction(DesignPanel designPanel) {
+        super("Redo", null);
+        this.designPanel = designPanel;
+        putValue(SHORT_DESCRIPTION, "Redo");
+        putValue(MNEMONIC_KEY, KeyEvent.VK_R);
+        putValue(ACCELERATOR_KEY, KeyStroke.getKeyStroke(KeyEvent.VK_Y, ActionEvent.CTRL_MASK));
+        init();
+    }
+
+    @Override
+    public void init() {
+        CommandHistory.getInstance().addHistoryListener(this);
+        historyChanged(CommandHistory.getInstance());
+    }
+
+    @Override
+    public void historyChanged(CommandHistory history) {
+        setEnabled(history.canRedo());
+        String name = history.getRedoPresentationName();
+        putValue(NAME, name != null ? "Redo " + name : "Redo");
+    }
+
+    @Override
+    public void actionPerformed(ActionEvent e) {
+        designPanel.commitPendingEdits();
+        CommandHistory history = CommandHistory.getInstance();
+        if (history.canRedo()) {
+            history.redo();
+            setExecuted(true);
+            designPanel.modelChanged();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package Actions;
+
+import Base.CommandHistory;
+import Base.DesignerActionBase;
+import Designer.DesignPanel;
+
+import javax.swing.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.KeyEvent;
+
+public class UndoAction extends DesignerActionBase implements CommandHistory.HistoryListener {
+    private DesignPanel designPanel;
+
+    public UndoAction(DesignPanel designPanel) {
+        super("Undo", null);
+        this.designPanel = designPanel;
+        putValue(SHORT_DESCRIPTION, "Undo");
+        putValue(MNEMONIC_KEY, KeyEvent.VK_U);
+        putValue(ACCELERATOR_KEY, KeyStroke.getKeyStroke(KeyEvent.VK_Z, ActionEvent.CTRL_MASK));
+        init();
+    }
+
+    @Override
+    public void init() {
+        CommandHistory.getInstance().addHistoryListener(this);
+        historyChanged(CommandHistory.getInstance());
+    }
+
+    @Override
+    public void historyChanged(CommandHistory history) {
+        setEnabled(history.canUndo());
+        String name = history.getUndoPresentationName();
+        putValue(NAME, name != null ? "Undo " + name : "Undo");
+    }
+
+    @Override
+    public void actionPerformed(ActionEvent e) {
+        designPanel.commitPendingEdits();
+        CommandHistory history = CommandHistory.getInstance();
+        if (history.canUndo()) {
+            history.undo();
+            setExecuted(true);
+            designPanel.modelChanged();
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package Base;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Undo and redo stacks shared by the whole designer
+ * The history is capped by the total size of the stored commands,
+ * the oldest commands are dropped once the byte budget is exceeded
+ */
+public class CommandHistory {
+    public static final long DEFAULT_BYTE_BUDGET = 16L * 1024 * 1024;
+
+    private static CommandHistory instance;
+
+    private final Deque<UndoableCommand> undoStack;
+    private final Deque<UndoableCommand> redoStack;
+    private final List<HistoryListener> listeners;
+    private long byteBudget;
+    private long usedBytes;
+    private boolean applying;
+
+    public interface HistoryListener {
+        void historyChanged(CommandHistory history);
+    }
+
+    private CommandHistory() {
+        undoStack = new ArrayDeque<>();
+        redoStack = new ArrayDeque<>();
+        listeners = new ArrayList<>();
+        byteBudget = DEFAULT_BYTE_BUDGET;
+    }
+
+    public static CommandHistory getInstance() {
+        if (instance == null) {
+            instance = new CommandHistory();
+        }
+        return instance;
+    }
+
+    /**
+     * Records a command that has already been applied to the model
+     * Commands recorded while undoing or redoing are ignored
+     */
+    public void addCommand(UndoableCommand command) {
+        if (applying) {
+            return;
+        }
+        clearRedo();
+
+        UndoableCommand last = undoStack.peekFirst();
+        if (last != null) {
+            long sizeBefore = last.getSizeInBytes();
+            if (last.merge(command)) {
+                usedBytes += last.getSizeInBytes() - sizeBefore;
+                trimToBudget();
+                fireHistoryChanged();
+                return;
+            }
+        }
+
+        undoStack.push(command);
+        usedBytes += command.getSizeInBytes();
+        trimToBudget();
+        fireHistoryChanged();
+    }
+
+    public boolean canUndo() {
+        return !undoStack.isEmpty();
+    }
+
+    public boolean canRedo() {
+        return !redoStack.isEmpty();
+    }
+
+    public String getUndoPresentationName() {
+        return canUndo() ? undoStack.peekFirst().getPresentationName() : null;
+    }
+
+    public String getRedoPresentationName() {
+        return canRedo() ? redoStack.peekFirst().getPresentationName() : null;
+    }
+
+    public void undo() {
+        UndoableCommand command = undoStack.poll();
+        if (command == null) {
+            return;
+        }
+        applying = true;
+        try {
+            command.undo();
+        } finally {
+            applying = false;
+        }
+        redoStack.push(command);
+        fireHistoryChanged();
+    }
+
+    public void redo() {
+        UndoableCommand command = redoStack.poll();
+        if (command == null) {
+            return;
+        }
+        applying = true;
+        try {
+            command.redo();
+        } finally {
+            applying = false;
+        }
+        undoStack.push(command);
+        fireHistoryChanged();
+    }
+
+    public boolean isApplying() {
+        return applying;
+    }
+
+    public void clear() {
+        undoStack.clear();
+        redoStack.clear();
+        usedBytes = 0;
+        fireHistoryChanged();
+    }
+
+    public long getByteBudget() {
+        return byteBudget;
+    }
+
+    public void setByteBudget(long byteBudget) {
+        this.byteBudget = Math.max(0, byteBudget);
+        trimToBudget();
+        fireHistoryChanged();
+    }
+
+    public long getUsedBytes() {
+        return usedBytes;
+    }
+
+    public void addHistoryListener(HistoryListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeHistoryListener(HistoryListener listener) {
+        listeners.remove(listener);
+    }
+
+    private void clearRedo() {
+        for (UndoableCommand command : redoStack) {
+            usedBytes -= command.getSizeInBytes();
+        }
+        redoStack.clear();
+    }
+
+    // Drops the oldest commands, keeping at least the most recent one
+    private void trimToBudget() {
+        while (usedBytes > byteBudget && undoStack.size() > 1) {
+            usedBytes -= undoStack.removeLast().getSizeInBytes();
+        }
+    }
+
+    private void fireHistoryChanged() {
+        for (HistoryListener listener : new ArrayList<>(listeners)) {
+            listener.historyChanged(this);
+        }
+    }
+}
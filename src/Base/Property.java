@@ -5,6 +5,7 @@ import Designer.DesignComponent;
 import java.awt.*;
 import java.beans.EventSetDescriptor;
 import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
 
 public class Property {
 
@@ -23,6 +24,10 @@ public class Property {
     public boolean isReplaced;
     public boolean isLayoutProperty;
 
+    // Compiled accessors, typed (Object)Object and (Object,Object)void
+    public MethodHandle getter;
+    public MethodHandle setter;
+
     public Property(PropertyDescriptor propertyDescriptor, Object value) {
 
         this.propertyDescriptor = propertyDescriptor;
@@ -55,4 +60,32 @@ public class Property {
         this.propertyDescriptor = null;
     }
 
+    public Property(Property template, Object value) {
+        this(template.propertyDescriptor, value);
+        this.getter = template.getter;
+        this.setter = template.setter;
+    }
+
+    public Object read(Object bean) {
+        try {
+            return (Object) getter.invokeExact(bean);
+        } catch (Throwable e) {
+            throw new IllegalStateException("Cannot read property " + name, e);
+        }
+    }
+
+    public void write(Object bean, Object value) {
+        try {
+            setter.invokeExact(bean, value);
+        } catch (Throwable e) {
+            throw new IllegalStateException("Cannot write property " + name, e);
+        }
+    }
+
+    public String getWriteMethodName() {
+        return propertyDescriptor != null && propertyDescriptor.getWriteMethod() != null
+                ? propertyDescriptor.getWriteMethod().getName()
+                : "set" + Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
 }
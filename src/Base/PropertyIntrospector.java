@@ -0,0 +1,133 @@
+package Base;
+
+import java.awt.Component;
+import java.beans.BeanInfo;
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.*;
+
+/**
+ * Introspects Swing component classes once and caches their editable properties
+ * Accessors are compiled into method handles so that reading and writing a property
+ * does not go through reflection on every selection
+ */
+public class PropertyIntrospector {
+
+    // Simple value types that can be edited and written as Java literals
+    private static final Set<Class<?>> EDITABLE_TYPES = Set.of(String.class, int.class, boolean.class);
+
+    // Properties already modelled by DesignComponent or managed by the designer
+    private static final Set<String> DESIGN_PROPERTIES = Set.of(
+            "text", "label", "background", "visible", "enabled", "editable", "selected", "columns",
+            "bounds", "location", "size", "x", "y", "width", "height", "name", "actionCommand",
+            "layout", "UIClassID", "ignoreRepaint", "focusTraversalKeysEnabled", "focusCycleRoot",
+            "focusTraversalPolicyProvider", "inheritsPopupMenu", "autoscrolls", "verifyInputWhenFocusTarget",
+            "requestFocusEnabled", "doubleBuffered", "debugGraphicsOptions", "componentPopupMenu",
+            // Runtime state rather than design-time configuration
+            "caretPosition", "selectionStart", "selectionEnd", "scrollOffset", "popupVisible",
+            "valueIsAdjusting", "displayedMnemonicIndex");
+
+    private static final ClassValue<List<Property>> PROPERTIES = new ClassValue<>() {
+        @Override
+        protected List<Property> computeValue(Class<?> type) {
+            return introspect(type);
+        }
+    };
+
+    private PropertyIntrospector() {
+    }
+
+    /**
+     * Cached property templates of the class, sorted by name.
+     * The returned instances are shared and must not be modified,
+     * use {@link #createProperties} for per-component values
+     */
+    public static List<Property> getProperties(Class<?> type) {
+        return PROPERTIES.get(type);
+    }
+
+    public static Property getProperty(Class<?> type, String name) {
+        for (Property property : getProperties(type)) {
+            if (property.name.equals(name)) {
+                return property;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Creates property instances for a component, taking changed values from the map
+     */
+    public static List<Property> createProperties(Class<?> type, Map<String, Object> values) {
+        List<Property> properties = new ArrayList<>();
+        for (Property template : getProperties(type)) {
+            Property property = new Property(template, template.value);
+            if (values.containsKey(template.name)) {
+                property.newValue = values.get(template.name);
+                property.isChanged = !Objects.equals(property.newValue, template.value);
+            }
+            properties.add(property);
+        }
+        return properties;
+    }
+
+    private static List<Property> introspect(Class<?> type) {
+        BeanInfo beanInfo;
+        try {
+            beanInfo = Introspector.getBeanInfo(type, Component.class);
+        } catch (IntrospectionException e) {
+            e.printStackTrace();
+            return Collections.emptyList();
+        }
+
+        // Default values come from one prototype instance per class
+        Object prototype = createPrototype(type);
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+
+        List<Property> properties = new ArrayList<>();
+        for (PropertyDescriptor descriptor : beanInfo.getPropertyDescriptors()) {
+            if (!isEditable(descriptor)) {
+                continue;
+            }
+            try {
+                MethodHandle getter = lookup.unreflect(descriptor.getReadMethod())
+                        .asType(MethodType.methodType(Object.class, Object.class));
+                MethodHandle setter = lookup.unreflect(descriptor.getWriteMethod())
+                        .asType(MethodType.methodType(void.class, Object.class, Object.class));
+
+                Object defaultValue = prototype != null ? (Object) getter.invokeExact(prototype) : null;
+                Property property = new Property(descriptor, defaultValue);
+                property.getter = getter;
+                property.setter = setter;
+                properties.add(property);
+            } catch (Throwable e) {
+                // Property is skipped when its accessors cannot be used
+            }
+        }
+
+        properties.sort(Comparator.comparing(property -> property.name));
+        return Collections.unmodifiableList(properties);
+    }
+
+    private static boolean isEditable(PropertyDescriptor descriptor) {
+        return descriptor.getReadMethod() != null
+                && descriptor.getWriteMethod() != null
+                && !descriptor.isHidden()
+                && !descriptor.isExpert()
+                && EDITABLE_TYPES.contains(descriptor.getPropertyType())
+                && !DESIGN_PROPERTIES.contains(descriptor.getName())
+                && !descriptor.getReadMethod().isAnnotationPresent(Deprecated.class);
+    }
+
+    private static Object createPrototype(Class<?> type) {
+        try {
+            return type.getConstructor().newInstance();
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package Base;
+
+/**
+ * A reversible change of the design model
+ * Commands store only the values they changed so that the memory they hold
+ * does not grow with the size of the screen they were applied to
+ */
+public interface UndoableCommand {
+
+    void undo();
+
+    void redo();
+
+    String getPresentationName();
+
+    /**
+     * Approximate number of bytes retained by this command, used for the history budget
+     */
+    long getSizeInBytes();
+
+    /**
+     * Absorbs the following command into this one, returns false if they cannot be merged
+     */
+    default boolean merge(UndoableCommand next) {
+        return false;
+    }
+}
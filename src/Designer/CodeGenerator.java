@@ -1,13 +1,47 @@
 package Designer;
 
-import javax.swing.*;
+import Base.Property;
+import Base.PropertyIntrospector;
+
 import java.awt.*;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 public class CodeGenerator {
 
+    // Class generated for every symbol used by the form, in order of first use
+    private Map<ComponentSymbol, String> symbolClasses = new LinkedHashMap<>();
+
+    /**
+     * How the generated form positions its components
+     */
+    public enum LayoutStyle {
+        // setLayout(null) with the current bounds
+        ABSOLUTE,
+        // GroupLayout that reproduces the bounds and keeps anchors and equal sizes on resize
+        GROUP_LAYOUT
+    }
+
     public String generateCode(List<DesignComponent> components) {
+        return generateCode(components, null, LayoutStyle.ABSOLUTE);
+    }
+
+    public String generateCode(List<DesignComponent> components, ConstraintLayout layout, LayoutStyle style) {
+        boolean groupLayout = style == LayoutStyle.GROUP_LAYOUT && layout != null;
         StringBuilder code = new StringBuilder();
+        symbolClasses = new LinkedHashMap<>();
+        collectSymbols(components);
+
+        // Every component of the hierarchy gets a field, containers before their children
+        List<DesignComponent> all = new ArrayList<>();
+        collectComponents(components, all);
+        Map<DesignComponent, String> names = new IdentityHashMap<>();
+        for (int i = 0; i < all.size(); i++) {
+            names.put(all.get(i), getComponentName(all.get(i), i));
+        }
 
         // Class header
         code.append("import javax.swing.*;\n");
@@ -18,10 +52,9 @@ public class CodeGenerator {
         code.append("    // Component declarations\n");
 
         // Generate component declarations
-        for (int i = 0; i < components.size(); i++) {
-            DesignComponent comp = components.get(i);
-            String componentName = getComponentName(comp, i);
-            String componentType = getJavaComponentType(comp.getComponentType());
+        for (DesignComponent comp : all) {
+            String componentName = names.get(comp);
+            String componentType = getJavaComponentType(comp);
             code.append("    private ").append(componentType).append(" ").append(componentName).append(";\n");
         }
 
@@ -32,44 +65,152 @@ public class CodeGenerator {
         code.append("    }\n\n");
 
         // Initialize components method
-        generateInitializeMethod(code, components);
+        generateInitializeMethod(code, all, names);
 
         // Setup layout method
-        generateLayoutMethod(code, components);
+        if (groupLayout) {
+            generateGroupLayoutMethod(code, components, names, layout);
+        } else {
+            generateLayoutMethod(code, components, names);
+        }
 
         // Setup frame method
-        generateFrameMethod(code);
+        generateFrameMethod(code, groupLayout);
 
         // Main method
         generateMainMethod(code);
 
         code.append("}\n");
 
+        // One reusable class per custom component, instantiated for each of its instances
+        for (Map.Entry<ComponentSymbol, String> entry : symbolClasses.entrySet()) {
+            generateSymbolClass(code, entry.getKey(), entry.getValue());
+        }
+
         return code.toString();
     }
 
-    private void generateInitializeMethod(StringBuilder code, List<DesignComponent> components) {
+    private static void collectComponents(List<DesignComponent> components, List<DesignComponent> all) {
+        for (DesignComponent comp : components) {
+            all.add(comp);
+            collectComponents(comp.getChildren(), all);
+        }
+    }
+
+    /**
+     * Gives every symbol reachable from the components a unique class name,
+     * including symbols used inside the masters of other symbols
+     */
+    private void collectSymbols(List<DesignComponent> components) {
+        for (DesignComponent comp : components) {
+            ComponentSymbol symbol = comp.getSymbol();
+            if (symbol != null) {
+                if (!symbolClasses.containsKey(symbol)) {
+                    symbolClasses.put(symbol, getSymbolClassName(symbol));
+                    collectSymbols(symbol.getMaster().getChildren());
+                }
+            } else {
+                collectSymbols(comp.getChildren());
+            }
+        }
+    }
+
+    private String getSymbolClassName(ComponentSymbol symbol) {
+        StringBuilder name = new StringBuilder();
+        boolean upper = true;
+        for (char c : symbol.getName().toCharArray()) {
+            if (Character.isJavaIdentifierPart(c) && c != '$') {
+                name.append(upper ? Character.toUpperCase(c) : c);
+                upper = false;
+            } else {
+                upper = true;
+            }
+        }
+        if (name.length() == 0 || !Character.isJavaIdentifierStart(name.charAt(0))) {
+            name.insert(0, "Custom");
+        }
+        String base = name.toString();
+        String unique = base;
+        for (int i = 2; unique.equals("GeneratedForm") || symbolClasses.containsValue(unique); i++) {
+            unique = base + i;
+        }
+        return unique;
+    }
+
+    private void generateInitializeMethod(StringBuilder code, List<DesignComponent> components,
+                                          Map<DesignComponent, String> names) {
         code.append("    private void initializeComponents() {\n");
 
-        for (int i = 0; i < components.size(); i++) {
-            DesignComponent comp = components.get(i);
-            String componentName = getComponentName(comp, i);
-            String componentType = getJavaComponentType(comp.getComponentType());
+        for (DesignComponent comp : components) {
+            generateComponentCreation(code, comp, names.get(comp));
+        }
 
-            code.append("        ").append(componentName).append(" = new ").append(componentType).append("();\n");
+        code.append("    }\n\n");
+    }
+
+    private void generateComponentCreation(StringBuilder code, DesignComponent comp, String componentName) {
+        code.append("        ").append(componentName).append(" = new ").append(getJavaComponentType(comp)).append("();\n");
 
+        if (comp.getSymbol() != null) {
+            // Everything but the bounds comes from the custom component class
+            if (!comp.isVisible()) {
+                code.append("        ").append(componentName).append(".setVisible(false);\n");
+            }
+        } else {
             // Set component properties
             generateComponentProperties(code, comp, componentName);
+        }
+        code.append("\n");
+    }
+
+    /**
+     * A JPanel subclass that builds the master of the symbol with absolute positioning
+     */
+    private void generateSymbolClass(StringBuilder code, ComponentSymbol symbol, String className) {
+        DesignComponent master = symbol.getMaster();
+        List<DesignComponent> all = new ArrayList<>();
+        collectComponents(master.getChildren(), all);
+        Map<DesignComponent, String> names = new IdentityHashMap<>();
+        for (int i = 0; i < all.size(); i++) {
+            names.put(all.get(i), getComponentName(all.get(i), i));
+        }
+
+        code.append("\nclass ").append(className).append(" extends JPanel {\n");
+        for (DesignComponent comp : all) {
+            code.append("    private ").append(getJavaComponentType(comp)).append(" ").append(names.get(comp)).append(";\n");
+        }
+        if (!all.isEmpty()) {
             code.append("\n");
         }
 
-        code.append("    }\n\n");
+        code.append("    public ").append(className).append("() {\n");
+        code.append("        setLayout(null);\n");
+        code.append("        setPreferredSize(new Dimension(").append(master.getBounds().width).append(", ")
+                .append(master.getBounds().height).append("));\n");
+        generateBeanProperties(code, master, "this");
+        generateBackgroundColor(code, master, "this");
+        code.append("\n");
+
+        for (DesignComponent comp : all) {
+            generateComponentCreation(code, comp, names.get(comp));
+        }
+        for (DesignComponent comp : master.getChildren()) {
+            generateAbsolutePlacement(code, comp, names, null);
+        }
+        for (DesignComponent comp : master.getChildren()) {
+            generateContainerLayout(code, comp, names);
+        }
+
+        // Drop the blank line after the last statement
+        code.setLength(code.length() - 1);
+        code.append("    }\n");
+        code.append("}\n");
     }
 
     private void generateComponentProperties(StringBuilder code, DesignComponent comp, String componentName) {
         // Set text property
         if (comp.getText() != null && !comp.getText().isEmpty()) {
-            code.append("        ").append(componentName).append(".setText(\"").append(comp.getText()).append("\");\n");
+            code.append("        ").append(componentName).append(".setText(").append(toJavaLiteral(comp.getText())).append(");\n");
         }
 
         // Set enabled property
@@ -85,22 +226,52 @@ public class CodeGenerator {
         // Component-specific properties
         generateSpecificProperties(code, comp, componentName);
 
+        // Swing bean properties changed in the property panel
+        generateBeanProperties(code, comp, componentName);
+
         // Set background color if not default
         generateBackgroundColor(code, comp, componentName);
     }
 
     private void generateSpecificProperties(StringBuilder code, DesignComponent comp, String componentName) {
-        if (comp.getComponentType() == JTextField.class && !comp.isEditable()) {
-            code.append("        ").append(componentName).append(".setEditable(false);\n");
-        }
+        comp.getDescriptor().generateSpecificCode(code, comp, componentName);
+    }
 
-        if (comp.getComponentType() == JCheckBox.class && comp.isSelected()) {
-            code.append("        ").append(componentName).append(".setSelected(true);\n");
+    private void generateBeanProperties(StringBuilder code, DesignComponent comp, String componentName) {
+        for (Property property : PropertyIntrospector.createProperties(comp.getComponentType(), comp.getBeanProperties())) {
+            if (property.isChanged) {
+                code.append("        ").append(componentName).append(".").append(property.getWriteMethodName())
+                        .append("(").append(toJavaLiteral(property.newValue)).append(");\n");
+            }
         }
+    }
 
-        if (comp.getComponentType() == JTextField.class && comp.getColumns() != 10) {
-            code.append("        ").append(componentName).append(".setColumns(").append(comp.getColumns()).append(");\n");
+    private String toJavaLiteral(Object value) {
+        if (!(value instanceof String)) {
+            return String.valueOf(value);
+        }
+        String text = (String) value;
+        StringBuilder literal = new StringBuilder(text.length() + 2).append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"': literal.append("\\\""); break;
+                case '\\': literal.append("\\\\"); break;
+                case '\n': literal.append("\\n"); break;
+                case '\r': literal.append("\\r"); break;
+                case '\t': literal.append("\\t"); break;
+                default:
+                    // Unicode escapes of line breaks would end the line before the literal does,
+                    // so those are written as named escapes above
+                    if (Character.isISOControl(c) || Character.isWhitespace(c) && c != ' '
+                            || Character.getType(c) == Character.FORMAT) {
+                        literal.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        literal.append(c);
+                    }
+            }
         }
+        return literal.append('"').toString();
     }
 
     private void generateBackgroundColor(StringBuilder code, DesignComponent comp, String componentName) {
@@ -111,34 +282,135 @@ public class CodeGenerator {
         }
 
         // Make panels opaque to show background color
-        if (comp.getComponentType() == JPanel.class) {
+        if (comp.getDescriptor().isContainer()) {
             code.append("        ").append(componentName).append(".setOpaque(true);\n");
         }
     }
 
-    private void generateLayoutMethod(StringBuilder code, List<DesignComponent> components) {
+    private void generateLayoutMethod(StringBuilder code, List<DesignComponent> components,
+                                      Map<DesignComponent, String> names) {
         code.append("    private void setupLayout() {\n");
         code.append("        setLayout(null); // Using absolute positioning\n\n");
 
-        for (int i = 0; i < components.size(); i++) {
-            DesignComponent comp = components.get(i);
-            String componentName = getComponentName(comp, i);
-            Rectangle bounds = comp.getBounds();
+        for (DesignComponent comp : components) {
+            generateAbsolutePlacement(code, comp, names, null);
+        }
+        for (DesignComponent comp : components) {
+            generateContainerLayout(code, comp, names);
+        }
+
+        code.append("    }\n\n");
+    }
+
+    private void generateAbsolutePlacement(StringBuilder code, DesignComponent comp,
+                                           Map<DesignComponent, String> names, String containerName) {
+        String componentName = names.get(comp);
+        Rectangle bounds = comp.getBounds();
+
+        code.append("        ").append(componentName).append(".setBounds(")
+                .append(bounds.x).append(", ").append(bounds.y).append(", ")
+                .append(bounds.width).append(", ").append(bounds.height).append(");\n");
+        code.append("        ").append(containerName != null ? containerName + "." : "")
+                .append("add(").append(componentName).append(");\n\n");
+    }
 
-            code.append("        ").append(componentName).append(".setBounds(")
-                    .append(bounds.x).append(", ").append(bounds.y).append(", ")
-                    .append(bounds.width).append(", ").append(bounds.height).append(");\n");
-            code.append("        add(").append(componentName).append(");\n\n");
+    /**
+     * Children of containers are placed absolutely inside their container, at their relative bounds
+     */
+    private void generateContainerLayout(StringBuilder code, DesignComponent container,
+                                         Map<DesignComponent, String> names) {
+        if (container.getChildren().isEmpty()) {
+            return;
+        }
+        String containerName = names.get(container);
+        code.append("        ").append(containerName).append(".setLayout(null);\n");
+        for (DesignComponent child : container.getChildren()) {
+            generateAbsolutePlacement(code, child, names, containerName);
+        }
+        for (DesignComponent child : container.getChildren()) {
+            generateContainerLayout(code, child, names);
+        }
+    }
+
+    /**
+     * One sequential group per component and axis inside a parallel group, so every component
+     * keeps its solved position. Anchored edges get fixed gaps to the container and the free side
+     * a stretchable gap, components anchored on both sides stretch, equal sizes are linked
+     */
+    private void generateGroupLayoutMethod(StringBuilder code, List<DesignComponent> components,
+                                           Map<DesignComponent, String> names, ConstraintLayout layout) {
+        code.append("    private void setupLayout() {\n");
+        code.append("        GroupLayout layout = new GroupLayout(getContentPane());\n");
+        code.append("        getContentPane().setLayout(layout);\n");
+        code.append("        getContentPane().setPreferredSize(new Dimension(")
+                .append(layout.getContainerWidth()).append(", ").append(layout.getContainerHeight()).append("));\n\n");
+
+        for (boolean horizontal : new boolean[]{true, false}) {
+            code.append("        layout.set").append(horizontal ? "Horizontal" : "Vertical")
+                    .append("Group(layout.createParallelGroup(GroupLayout.Alignment.LEADING)");
+            for (DesignComponent comp : components) {
+                generateAxisGroup(code, comp, names.get(comp), layout, horizontal);
+            }
+            code.append(");\n");
         }
 
+        for (LayoutConstraint constraint : layout.getConstraints()) {
+            LayoutConstraint.Type type = constraint.getType();
+            if ((type == LayoutConstraint.Type.EQUAL_WIDTH || type == LayoutConstraint.Type.EQUAL_HEIGHT)
+                    && names.containsKey(constraint.getFirst()) && names.containsKey(constraint.getSecond())) {
+                code.append("        layout.linkSize(SwingConstants.")
+                        .append(type == LayoutConstraint.Type.EQUAL_WIDTH ? "HORIZONTAL" : "VERTICAL").append(", ")
+                        .append(names.get(constraint.getFirst())).append(", ")
+                        .append(names.get(constraint.getSecond())).append(");\n");
+            }
+        }
+        for (DesignComponent comp : components) {
+            if (!comp.getChildren().isEmpty()) {
+                code.append("\n");
+                generateContainerLayout(code, comp, names);
+            }
+        }
         code.append("    }\n\n");
     }
 
-    private void generateFrameMethod(StringBuilder code) {
+    private void generateAxisGroup(StringBuilder code, DesignComponent comp, String componentName,
+                                   ConstraintLayout layout, boolean horizontal) {
+        Rectangle bounds = comp.getBounds();
+        int position = Math.max(0, horizontal ? bounds.x : bounds.y);
+        int size = horizontal ? bounds.width : bounds.height;
+        boolean leading = false;
+        Integer trailing = null;
+        for (LayoutConstraint constraint : layout.getConstraints(comp)) {
+            LayoutConstraint.Type type = constraint.getType();
+            if (type == (horizontal ? LayoutConstraint.Type.ANCHOR_LEFT : LayoutConstraint.Type.ANCHOR_TOP)) {
+                leading = true;
+            } else if (type == (horizontal ? LayoutConstraint.Type.ANCHOR_RIGHT : LayoutConstraint.Type.ANCHOR_BOTTOM)) {
+                trailing = Math.max(0, constraint.getValue());
+            }
+        }
+
+        code.append("\n                .addGroup(layout.createSequentialGroup()");
+        if (trailing != null && !leading) {
+            code.append("\n                        .addGap(").append(position).append(", ").append(position)
+                    .append(", Short.MAX_VALUE)");
+        } else {
+            code.append("\n                        .addGap(").append(position).append(")");
+        }
+        code.append("\n                        .addComponent(").append(componentName).append(", ")
+                .append(trailing != null && leading ? "GroupLayout.DEFAULT_SIZE" : "GroupLayout.PREFERRED_SIZE")
+                .append(", ").append(size).append(", ")
+                .append(trailing != null && leading ? "Short.MAX_VALUE" : "GroupLayout.PREFERRED_SIZE").append(")");
+        if (trailing != null) {
+            code.append("\n                        .addGap(").append(trailing).append(")");
+        }
+        code.append(")");
+    }
+
+    private void generateFrameMethod(StringBuilder code, boolean packed) {
         code.append("    private void setupFrame() {\n");
         code.append("        setTitle(\"Generated Form\");\n");
         code.append("        setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);\n");
-        code.append("        setSize(800, 600);\n");
+        code.append(packed ? "        pack();\n" : "        setSize(800, 600);\n");
         code.append("        setLocationRelativeTo(null);\n");
         code.append("    }\n\n");
     }
@@ -157,6 +429,10 @@ public class CodeGenerator {
     }
 
     private String getComponentName(DesignComponent comp, int index) {
+        if (comp.getSymbol() != null) {
+            String className = symbolClasses.get(comp.getSymbol());
+            return Character.toLowerCase(className.charAt(0)) + className.substring(1) + (index + 1);
+        }
         String baseName = comp.getComponentType().getSimpleName().toLowerCase();
         if (baseName.startsWith("j")) {
             baseName = baseName.substring(1); // Remove 'j' prefix
@@ -164,7 +440,10 @@ public class CodeGenerator {
         return baseName + (index + 1);
     }
 
-    private String getJavaComponentType(Class<?> componentType) {
-        return componentType.getSimpleName();
+    private String getJavaComponentType(DesignComponent comp) {
+        if (comp.getSymbol() != null) {
+            return symbolClasses.get(comp.getSymbol());
+        }
+        return comp.getDescriptor().getJavaTypeName();
     }
 }
\ No newline at end of file
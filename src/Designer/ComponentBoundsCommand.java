@@ -0,0 +1,103 @@
+package Designer;
+
+import Base.UndoableCommand;
+
+import java.awt.*;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Move or resize of one or more components
+ * Old and new bounds are packed into one int array, eight values per component
+ */
+class ComponentBoundsCommand implements UndoableCommand {
+    private static final long MERGE_WINDOW_MILLIS = 1000;
+
+    private final DesignComponent[] components;
+    private final int[] bounds;
+    private final boolean move;
+    private long timestamp;
+
+    private ComponentBoundsCommand(DesignComponent[] components, int[] bounds, boolean move) {
+        this.components = components;
+        this.bounds = bounds;
+        this.move = move;
+        this.timestamp = System.currentTimeMillis();
+    }
+
+    /**
+     * Creates a command from the bounds before the change, null if nothing changed
+     */
+    static ComponentBoundsCommand create(Map<DesignComponent, Rectangle> oldBounds, boolean move) {
+        DesignComponent[] changed = new DesignComponent[oldBounds.size()];
+        int[] values = new int[oldBounds.size() * 8];
+        int count = 0;
+        for (Map.Entry<DesignComponent, Rectangle> entry : oldBounds.entrySet()) {
+            Rectangle before = entry.getValue();
+            Rectangle after = entry.getKey().getBounds();
+            if (before.equals(after)) {
+                continue;
+            }
+            int offset = count * 8;
+            values[offset] = before.x;
+            values[offset + 1] = before.y;
+            values[offset + 2] = before.width;
+            values[offset + 3] = before.height;
+            values[offset + 4] = after.x;
+            values[offset + 5] = after.y;
+            values[offset + 6] = after.width;
+            values[offset + 7] = after.height;
+            changed[count++] = entry.getKey();
+        }
+        if (count == 0) {
+            return null;
+        }
+        return new ComponentBoundsCommand(Arrays.copyOf(changed, count), Arrays.copyOf(values, count * 8), move);
+    }
+
+    @Override
+    public void undo() {
+        apply(0);
+    }
+
+    @Override
+    public void redo() {
+        apply(4);
+    }
+
+    private void apply(int offset) {
+        DesignComponent.batchChanges(() -> {
+            for (int i = 0; i < components.length; i++) {
+                int base = i * 8 + offset;
+                components[i].setBounds(bounds[base], bounds[base + 1], bounds[base + 2], bounds[base + 3]);
+            }
+        });
+    }
+
+    @Override
+    public String getPresentationName() {
+        return move ? "Move" : "Resize";
+    }
+
+    @Override
+    public long getSizeInBytes() {
+        return 64 + components.length * 8L + bounds.length * 4L;
+    }
+
+    /**
+     * Consecutive moves of the same components are merged into one step
+     */
+    @Override
+    public boolean merge(UndoableCommand next) {
+        if (!(next instanceof ComponentBoundsCommand other) || !move || !other.move
+                || other.timestamp - timestamp > MERGE_WINDOW_MILLIS
+                || !Arrays.equals(components, other.components)) {
+            return false;
+        }
+        for (int i = 0; i < components.length; i++) {
+            System.arraycopy(other.bounds, i * 8 + 4, bounds, i * 8 + 4, 4);
+        }
+        timestamp = other.timestamp;
+        return true;
+    }
+}
@@ -0,0 +1,268 @@
+package Designer;
+
+import javax.swing.*;
+import java.awt.*;
+import java.io.*;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary encoding of design components for the clipboard
+ * Class names and strings are written once into a table and referenced by index,
+ * numbers are written as zig-zag varints so that typical bounds take one or two bytes.
+ * Each record is followed by the records of its children, the first version had no children.
+ * Symbol instances are written with the content of their master, so a pasted instance is a plain copy
+ */
+final class ComponentCodec {
+    private static final int MAGIC_FLAT = 0x53444331; // "SDC1"
+    private static final int MAGIC = 0x53444332; // "SDC2"
+    private static final String TEXT_HEADER = "ScreenDesigner-Components/1";
+
+    private static final int FLAG_VISIBLE = 1;
+    private static final int FLAG_ENABLED = 2;
+    private static final int FLAG_EDITABLE = 4;
+    private static final int FLAG_SELECTED = 8;
+
+    // Deepest nesting accepted from the clipboard
+    private static final int MAX_DEPTH = 64;
+
+    private static final int VALUE_STRING = 0;
+    private static final int VALUE_INT = 1;
+    private static final int VALUE_BOOLEAN = 2;
+
+    private ComponentCodec() {
+    }
+
+    static byte[] encode(List<DesignComponent> components) {
+        // Build the string table first so that it can precede the records
+        Map<String, Integer> strings = new HashMap<>();
+        List<String> table = new ArrayList<>();
+        internAll(components, strings, table);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + components.size() * 16);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            writeVarInt(out, table.size());
+            for (String value : table) {
+                out.writeUTF(value);
+            }
+
+            writeComponents(out, components, strings);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void writeComponents(DataOutputStream out, List<DesignComponent> components,
+                                        Map<String, Integer> strings) throws IOException {
+        writeVarInt(out, components.size());
+        for (DesignComponent instance : components) {
+            Rectangle bounds = instance.getBounds();
+            DesignComponent component = contentOf(instance);
+            writeVarInt(out, strings.get(component.getComponentType().getName()));
+            writeVarInt(out, bounds.x);
+            writeVarInt(out, bounds.y);
+            writeVarInt(out, bounds.width);
+            writeVarInt(out, bounds.height);
+            writeVarInt(out, component.getText() == null ? 0 : strings.get(component.getText()) + 1);
+            out.writeInt(component.getBackgroundColor().getRGB());
+            out.writeByte((component.isVisible() ? FLAG_VISIBLE : 0)
+                    | (component.isEnabled() ? FLAG_ENABLED : 0)
+                    | (component.isEditable() ? FLAG_EDITABLE : 0)
+                    | (component.isSelected() ? FLAG_SELECTED : 0));
+            writeVarInt(out, component.getColumns());
+
+            Map<String, Object> beanProperties = component.getBeanProperties();
+            writeVarInt(out, beanProperties.size());
+            for (Map.Entry<String, Object> entry : beanProperties.entrySet()) {
+                writeVarInt(out, strings.get(entry.getKey()));
+                Object value = entry.getValue();
+                if (value instanceof String text) {
+                    out.writeByte(VALUE_STRING);
+                    writeVarInt(out, strings.get(text));
+                } else if (value instanceof Boolean flag) {
+                    out.writeByte(VALUE_BOOLEAN);
+                    out.writeBoolean(flag);
+                } else {
+                    out.writeByte(VALUE_INT);
+                    writeVarInt(out, ((Number) value).intValue());
+                }
+            }
+            writeComponents(out, component.getChildren(), strings);
+        }
+    }
+
+    static List<DesignComponent> decode(byte[] data) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        int magic = in.readInt();
+        if (magic != MAGIC && magic != MAGIC_FLAT) {
+            throw new IOException("Not a component clipboard format");
+        }
+        String[] table = new String[readCount(in)];
+        for (int i = 0; i < table.length; i++) {
+            table[i] = in.readUTF();
+        }
+        return readComponents(in, table, new HashMap<>(), magic == MAGIC, 0);
+    }
+
+    private static List<DesignComponent> readComponents(DataInputStream in, String[] table, Map<String, Class<?>> types,
+                                                        boolean nested, int depth) throws IOException {
+        int count = readCount(in);
+        if (count > 0 && depth > MAX_DEPTH) {
+            throw new IOException("Components nested too deeply");
+        }
+        List<DesignComponent> components = new ArrayList<>(Math.min(count, 4096));
+        for (int i = 0; i < count; i++) {
+            String typeName = readString(in, table);
+            Class<?> type = types.get(typeName);
+            if (type == null) {
+                type = resolveType(typeName);
+                types.put(typeName, type);
+            }
+
+            DesignComponent component = new DesignComponent(type, readVarInt(in), readVarInt(in));
+            component.setSize(readVarInt(in), readVarInt(in));
+            int textIndex = readVarInt(in);
+            component.setText(textIndex == 0 ? null : lookup(table, textIndex - 1));
+            component.setBackgroundColor(new Color(in.readInt(), true));
+            int flags = in.readUnsignedByte();
+            component.setVisible((flags & FLAG_VISIBLE) != 0);
+            component.setEnabled((flags & FLAG_ENABLED) != 0);
+            component.setEditable((flags & FLAG_EDITABLE) != 0);
+            component.setSelected((flags & FLAG_SELECTED) != 0);
+            component.setColumns(readVarInt(in));
+
+            int propertyCount = readCount(in);
+            for (int j = 0; j < propertyCount; j++) {
+                String name = readString(in, table);
+                int kind = in.readUnsignedByte();
+                switch (kind) {
+                    case VALUE_STRING -> component.setBeanProperty(name, readString(in, table));
+                    case VALUE_INT -> component.setBeanProperty(name, readVarInt(in));
+                    case VALUE_BOOLEAN -> component.setBeanProperty(name, in.readBoolean());
+                    default -> throw new IOException("Unknown property value kind " + kind);
+                }
+            }
+
+            if (nested) {
+                List<DesignComponent> children = readComponents(in, table, types, true, depth + 1);
+                if (!children.isEmpty() && !component.isContainer()) {
+                    throw new IOException(typeName + " cannot contain components");
+                }
+                for (DesignComponent child : children) {
+                    component.addChild(child);
+                }
+            }
+            components.add(component);
+        }
+        return components;
+    }
+
+    /**
+     * Text form of the encoding, used for the plain text clipboard flavor
+     */
+    static String toText(byte[] data) {
+        return TEXT_HEADER + "\n" + Base64.getMimeEncoder().encodeToString(data) + "\n";
+    }
+
+    /**
+     * Decodes the text form, returns null if the text was not produced by {@link #toText}
+     */
+    static byte[] fromText(String text) {
+        String trimmed = text.trim();
+        if (!trimmed.startsWith(TEXT_HEADER)) {
+            return null;
+        }
+        try {
+            return Base64.getMimeDecoder().decode(trimmed.substring(TEXT_HEADER.length()).trim());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    // Only Swing components may be created from clipboard content
+    private static Class<?> resolveType(String typeName) throws IOException {
+        try {
+            Class<?> type = ComponentRegistry.getInstance().resolveType(typeName);
+            if (!JComponent.class.isAssignableFrom(type)) {
+                throw new IOException("Not a Swing component: " + typeName);
+            }
+            return type;
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Unknown component type: " + typeName, e);
+        }
+    }
+
+    private static String readString(DataInputStream in, String[] table) throws IOException {
+        return lookup(table, readVarInt(in));
+    }
+
+    private static String lookup(String[] table, int index) throws IOException {
+        if (index < 0 || index >= table.length) {
+            throw new IOException("Invalid string index " + index);
+        }
+        return table[index];
+    }
+
+    private static int readCount(DataInputStream in) throws IOException {
+        int count = readVarInt(in);
+        if (count < 0) {
+            throw new IOException("Invalid count " + count);
+        }
+        return count;
+    }
+
+    // Component whose properties and children are written for the component
+    private static DesignComponent contentOf(DesignComponent component) {
+        return component.getSymbol() != null ? component.getSymbol().getMaster() : component;
+    }
+
+    private static void internAll(List<DesignComponent> components, Map<String, Integer> strings, List<String> table) {
+        for (DesignComponent instance : components) {
+            DesignComponent component = contentOf(instance);
+            intern(component.getComponentType().getName(), strings, table);
+            if (component.getText() != null) {
+                intern(component.getText(), strings, table);
+            }
+            for (Map.Entry<String, Object> entry : component.getBeanProperties().entrySet()) {
+                intern(entry.getKey(), strings, table);
+                if (entry.getValue() instanceof String value) {
+                    intern(value, strings, table);
+                }
+            }
+            internAll(component.getChildren(), strings, table);
+        }
+    }
+
+    private static void intern(String value, Map<String, Integer> strings, List<String> table) {
+        if (!strings.containsKey(value)) {
+            strings.put(value, table.size());
+            table.add(value);
+        }
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        int zigZag = (value << 1) ^ (value >> 31);
+        while ((zigZag & ~0x7F) != 0) {
+            out.writeByte((zigZag & 0x7F) | 0x80);
+            zigZag >>>= 7;
+        }
+        out.writeByte(zigZag);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int result = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.readUnsignedByte();
+            result |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return (result >>> 1) ^ -(result & 1);
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+}
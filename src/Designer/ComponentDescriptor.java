@@ -0,0 +1,212 @@
+package Designer;
+
+import javax.swing.*;
+import javax.swing.text.JTextComponent;
+import java.awt.*;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Describes a kind of component the designer can place: its palette entry, defaults,
+ * the rows it adds to the property panel, how it is drawn on the canvas and in SVG exports,
+ * previewed and generated as code.
+ * Plugins provide descriptors through {@link java.util.ServiceLoader}. A provider annotated with
+ * {@link PaletteEntry} is only created when a component of its kind is first placed or loaded,
+ * the palette is built from the annotation. Creating a descriptor must be cheap and must not load
+ * the component class. The component class and the renderer are loaded on first use and then kept
+ */
+public abstract class ComponentDescriptor {
+    /**
+     * Palette entry of a descriptor, read by the registry without creating the descriptor
+     * Must match what the descriptor returns for the same properties
+     */
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target(ElementType.TYPE)
+    public @interface PaletteEntry {
+        String typeName();
+
+        String displayName();
+
+        int paletteOrder() default 1000;
+    }
+
+    /**
+     * Design properties that only some kinds of components offer in the property panel
+     */
+    public enum SpecificProperty {
+        COLUMNS,
+        EDITABLE,
+        SELECTED
+    }
+
+    private volatile Class<?> componentType;
+    private volatile ComponentRenderer renderer;
+
+    protected ComponentDescriptor() {
+    }
+
+    // For classes that are already loaded
+    ComponentDescriptor(Class<?> componentType) {
+        this.componentType = componentType;
+    }
+
+    /**
+     * Fully qualified name of the Swing class
+     */
+    public abstract String getTypeName();
+
+    /**
+     * Name shown in the palette
+     */
+    public abstract String getDisplayName();
+
+    /**
+     * Position in the palette, lower values first
+     */
+    public int getPaletteOrder() {
+        return 1000;
+    }
+
+    /**
+     * Whether other components can be placed inside components of this kind
+     */
+    public boolean isContainer() {
+        return false;
+    }
+
+    public Dimension getDefaultSize() {
+        return new Dimension(100, 30);
+    }
+
+    public String getDefaultText() {
+        String typeName = getTypeName();
+        return typeName.substring(Math.max(typeName.lastIndexOf('.'), typeName.lastIndexOf('$')) + 1);
+    }
+
+    public Color getDefaultBackground() {
+        return Color.LIGHT_GRAY;
+    }
+
+    /**
+     * Properties the property panel offers for this kind beyond the common ones, none by default
+     */
+    public Set<SpecificProperty> getSpecificProperties() {
+        return Collections.emptySet();
+    }
+
+    /**
+     * Events a handler method can be named for in the property panel, "Click" by default
+     */
+    public List<String> getEventNames() {
+        return List.of("Click");
+    }
+
+    /**
+     * Draws the content of the component inside the frame the canvas draws,
+     * called once when the component is first drawn
+     */
+    protected ComponentRenderer createRenderer() {
+        return ComponentRenderer.CENTERED_TEXT;
+    }
+
+    /**
+     * The component class, loaded through the class loader of the descriptor on first use
+     */
+    public final Class<?> getComponentType() {
+        Class<?> type = componentType;
+        if (type == null) {
+            try {
+                type = Class.forName(getTypeName(), false, getTypeLoader());
+            } catch (ClassNotFoundException e) {
+                throw new IllegalStateException("Component class of " + getDisplayName() + " not found", e);
+            }
+            componentType = type;
+        }
+        return type;
+    }
+
+    // Loader of the plugin that provides the descriptor
+    ClassLoader getTypeLoader() {
+        return getClass().getClassLoader();
+    }
+
+    public final ComponentRenderer getRenderer() {
+        ComponentRenderer current = renderer;
+        if (current == null) {
+            current = createRenderer();
+            renderer = current;
+        }
+        return current;
+    }
+
+    /**
+     * Appends the SVG elements of the content inside the frame, in the coordinates of the parent
+     * Counterpart of the renderer for the SVG export, centered text by default
+     */
+    public void appendSvgContent(StringBuilder svg, ComponentSnapshot component, String indent) {
+        Rectangle bounds = component.getBounds();
+        appendSvgText(svg, component, indent, bounds.x + bounds.width / 2, "middle");
+    }
+
+    /**
+     * Appends the text of the component, vertically centered and anchored at x
+     * with "start", "middle" or "end"
+     */
+    protected static void appendSvgText(StringBuilder svg, ComponentSnapshot component, String indent,
+                                        int x, String anchor) {
+        String text = component.getText();
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+        Rectangle bounds = component.getBounds();
+        svg.append(indent).append("<text x=\"").append(x).append("\" y=\"").append(bounds.y + bounds.height / 2)
+                .append("\" text-anchor=\"").append(anchor)
+                .append("\" dominant-baseline=\"central\" font-family=\"sans-serif\" font-size=\"12\" fill=\"")
+                .append(component.isEnabled() ? "#000000" : "#808080").append("\">")
+                .append(text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;"))
+                .append("</text>\n");
+    }
+
+    /**
+     * Creates the Swing component the form preview shows, without bounds and common properties
+     * By default the no-argument constructor is used and the text set where the class has one
+     */
+    public JComponent createPreviewComponent(DesignComponent component) throws ReflectiveOperationException {
+        JComponent preview = (JComponent) getComponentType().getDeclaredConstructor().newInstance();
+        if (preview instanceof AbstractButton) {
+            ((AbstractButton) preview).setText(component.getText());
+        } else if (preview instanceof JLabel) {
+            ((JLabel) preview).setText(component.getText());
+        } else if (preview instanceof JTextComponent) {
+            ((JTextComponent) preview).setText(component.getText());
+        }
+        return preview;
+    }
+
+    /**
+     * Appends statements for the properties only this kind of component has
+     */
+    public void generateSpecificCode(StringBuilder code, DesignComponent component, String componentName) {
+    }
+
+    /**
+     * Type name used in generated code, which imports javax.swing.*
+     */
+    public String getJavaTypeName() {
+        String typeName = getTypeName().replace('$', '.');
+        if (typeName.startsWith("javax.swing.") && typeName.indexOf('.', "javax.swing.".length()) < 0) {
+            return typeName.substring("javax.swing.".length());
+        }
+        return typeName;
+    }
+
+    @Override
+    public String toString() {
+        return getDisplayName();
+    }
+}
@@ -0,0 +1,112 @@
+package Designer;
+
+import Base.UndoableCommand;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Addition or removal of components on a screen
+ * Only the affected components and their list positions are stored
+ */
+public class ComponentListCommand implements UndoableCommand {
+    // Rough retained size of a component held only by a removal command
+    private static final long COMPONENT_BYTES = 256;
+
+    private final List<DesignComponent> list;
+    private final DesignComponent[] components;
+    private final int[] indices;
+    private final boolean removal;
+    private final String presentationName;
+
+    private ComponentListCommand(List<DesignComponent> list, List<DesignComponent> components,
+                                 boolean removal, String presentationName) {
+        this.list = list;
+        this.components = new DesignComponent[components.size()];
+        this.indices = new int[components.size()];
+        this.removal = removal;
+        this.presentationName = presentationName;
+
+        // Positions are taken in list order, so reinserting in ascending order restores them
+        Set<DesignComponent> affected = Collections.newSetFromMap(new IdentityHashMap<>());
+        affected.addAll(components);
+        int count = 0;
+        for (int i = 0; i < list.size() && count < this.components.length; i++) {
+            if (affected.contains(list.get(i))) {
+                this.components[count] = list.get(i);
+                this.indices[count++] = i;
+            }
+        }
+    }
+
+    /**
+     * Records components that were just added to the list
+     */
+    public static ComponentListCommand added(List<DesignComponent> list, List<DesignComponent> components,
+                                             String presentationName) {
+        return new ComponentListCommand(list, components, false, presentationName);
+    }
+
+    /**
+     * Records components about to be removed from the list, call before removing them
+     */
+    public static ComponentListCommand removed(List<DesignComponent> list, List<DesignComponent> components,
+                                               String presentationName) {
+        return new ComponentListCommand(list, components, true, presentationName);
+    }
+
+    @Override
+    public void undo() {
+        if (removal) {
+            insert();
+        } else {
+            remove();
+        }
+    }
+
+    @Override
+    public void redo() {
+        if (removal) {
+            remove();
+        } else {
+            insert();
+        }
+    }
+
+    // Consecutive positions are inserted as one batch
+    private void insert() {
+        List<DesignComponent> all = Arrays.asList(components);
+        int start = 0;
+        while (start < components.length) {
+            int end = start + 1;
+            while (end < components.length && indices[end] == indices[end - 1] + 1) {
+                end++;
+            }
+            list.addAll(Math.min(indices[start], list.size()), all.subList(start, end));
+            start = end;
+        }
+    }
+
+    private void remove() {
+        Set<DesignComponent> affected = Collections.newSetFromMap(new IdentityHashMap<>());
+        Collections.addAll(affected, components);
+        list.removeIf(affected::contains);
+    }
+
+    @Override
+    public String getPresentationName() {
+        return presentationName;
+    }
+
+    @Override
+    public long getSizeInBytes() {
+        long size = 64 + components.length * 12L;
+        if (removal) {
+            size += components.length * COMPONENT_BYTES;
+        }
+        return size;
+    }
+}
@@ -7,7 +7,8 @@ import java.awt.event.MouseEvent;
 
 /**
  * Component palette containing draggable UI components
- * Users can drag components from here to the design canvas
+ * Users can drag components from here to the design canvas.
+ * Entries come from the {@link ComponentRegistry}, component classes are only loaded when dragged
  */
 public class ComponentPalette extends JPanel {
 
@@ -16,22 +17,17 @@ public class ComponentPalette extends JPanel {
         setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
 
         // Add draggable component buttons
-        addComponent("Button", JButton.class);
-        addComponent("Label", JLabel.class);
-        addComponent("TextField", JTextField.class);
-        addComponent("CheckBox", JCheckBox.class);
-        addComponent("Panel", JPanel.class);
-        addComponent("ComboBox", JComboBox.class);
-        addComponent("List", JList.class);
-        addComponent("TextArea", JTextArea.class);
+        for (ComponentDescriptor descriptor : ComponentRegistry.getInstance().getPaletteDescriptors()) {
+            addComponent(descriptor);
+        }
     }
 
-    private void addComponent(String name, Class<?> componentClass) {
-        JButton button = createDraggableComponent(name, componentClass);
+    private void addComponent(ComponentDescriptor descriptor) {
+        JButton button = createDraggableComponent(descriptor.getDisplayName(), descriptor);
         add(button);
     }
 
-    private JButton createDraggableComponent(String name, Class<?> componentClass) {
+    private JButton createDraggableComponent(String name, ComponentDescriptor descriptor) {
         JButton button = new JButton(name);
         button.setPreferredSize(new Dimension(150, 30));
         button.setToolTipText("Drag to canvas to add " + name);
@@ -41,7 +37,7 @@ public class ComponentPalette extends JPanel {
         button.setBorder(BorderFactory.createEmptyBorder(5, 5, 5, 5));
 
         // Make the button draggable
-        button.setTransferHandler(new ComponentTransferHandler(componentClass));
+        button.setTransferHandler(new ComponentTransferHandler(descriptor));
         button.addMouseListener(new PaletteMouseListener());
 
         return button;
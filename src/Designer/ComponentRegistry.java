@@ -0,0 +1,250 @@
+package Designer;
+
+import javax.swing.*;
+import java.awt.*;
+import java.io.File;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+
+/**
+ * All kinds of components the designer knows, the built-in Swing components plus the
+ * {@link ComponentDescriptor} providers found by {@link ServiceLoader} in the plugin jars.
+ * The registry is created on first use. Plugin jars are read from the directory named by the
+ * "screendesigner.plugins" system property, "plugins" by default, and from the class path.
+ * Providers annotated with {@link ComponentDescriptor.PaletteEntry} are kept unloaded until
+ * their kind of component is first used. Descriptors are looked up by component class through a {@link ClassValue}, so dispatching
+ * on the type of a component is a single lookup after the first. Safe to use from any thread
+ */
+public final class ComponentRegistry {
+    public static final String PLUGIN_DIRECTORY_PROPERTY = "screendesigner.plugins";
+
+    private static final ClassValue<ComponentDescriptor> BY_TYPE = new ClassValue<>() {
+        @Override
+        protected ComponentDescriptor computeValue(Class<?> type) {
+            ComponentDescriptor descriptor = getInstance().byTypeName.get(type.getName());
+            return descriptor != null ? descriptor : new GenericDescriptor(type);
+        }
+    };
+
+    private static final class Holder {
+        static final ComponentRegistry INSTANCE = new ComponentRegistry();
+    }
+
+    private final ClassLoader pluginLoader;
+    private final Map<String, ComponentDescriptor> byTypeName;
+    private final List<ComponentDescriptor> paletteDescriptors;
+
+    private ComponentRegistry() {
+        pluginLoader = createPluginLoader(new File(System.getProperty(PLUGIN_DIRECTORY_PROPERTY, "plugins")));
+
+        Map<String, ComponentDescriptor> descriptors = new HashMap<>();
+        for (ComponentDescriptor descriptor : SwingComponents.all()) {
+            descriptors.put(descriptor.getTypeName(), descriptor);
+        }
+        // A broken plugin must not keep the others from loading
+        Iterator<ServiceLoader.Provider<ComponentDescriptor>> providers =
+                ServiceLoader.load(ComponentDescriptor.class, pluginLoader).stream().iterator();
+        while (true) {
+            try {
+                if (!providers.hasNext()) {
+                    break;
+                }
+                ServiceLoader.Provider<ComponentDescriptor> provider = providers.next();
+                ComponentDescriptor.PaletteEntry entry =
+                        provider.type().getAnnotation(ComponentDescriptor.PaletteEntry.class);
+                ComponentDescriptor descriptor = entry != null ? new DeferredDescriptor(provider, entry) : provider.get();
+                descriptors.put(descriptor.getTypeName(), descriptor);
+            } catch (ServiceConfigurationError e) {
+                System.err.println("Skipping component plugin: " + e.getMessage());
+            }
+        }
+        byTypeName = descriptors;
+
+        List<ComponentDescriptor> palette = new ArrayList<>(descriptors.values());
+        palette.sort(Comparator.comparingInt(ComponentDescriptor::getPaletteOrder)
+                .thenComparing(ComponentDescriptor::getDisplayName));
+        paletteDescriptors = Collections.unmodifiableList(palette);
+    }
+
+    public static ComponentRegistry getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    private static ClassLoader createPluginLoader(File directory) {
+        ClassLoader parent = ComponentRegistry.class.getClassLoader();
+        File[] jars = directory.listFiles((dir, name) -> name.toLowerCase().endsWith(".jar"));
+        if (jars == null || jars.length == 0) {
+            return parent;
+        }
+        List<URL> urls = new ArrayList<>(jars.length);
+        for (File jar : jars) {
+            try {
+                urls.add(jar.toURI().toURL());
+            } catch (MalformedURLException e) {
+                System.err.println("Skipping component plugin " + jar + ": " + e.getMessage());
+            }
+        }
+        return new URLClassLoader(urls.toArray(new URL[0]), parent);
+    }
+
+    /**
+     * Descriptor of the component class, a generic one for classes no descriptor was registered for
+     */
+    public ComponentDescriptor getDescriptor(Class<?> type) {
+        return BY_TYPE.get(type);
+    }
+
+    /**
+     * Registered descriptors in palette order
+     */
+    public List<ComponentDescriptor> getPaletteDescriptors() {
+        return paletteDescriptors;
+    }
+
+    /**
+     * Loads a component class by name, also from the plugin jars
+     */
+    public Class<?> resolveType(String typeName) throws ClassNotFoundException {
+        ComponentDescriptor descriptor = byTypeName.get(typeName);
+        if (descriptor != null) {
+            return descriptor.getComponentType();
+        }
+        return Class.forName(typeName, false, pluginLoader);
+    }
+
+    // Palette entry of a plugin descriptor that is created on first use of anything else
+    private static final class DeferredDescriptor extends ComponentDescriptor {
+        private final ServiceLoader.Provider<ComponentDescriptor> provider;
+        private final ComponentDescriptor.PaletteEntry entry;
+        private volatile ComponentDescriptor descriptor;
+
+        DeferredDescriptor(ServiceLoader.Provider<ComponentDescriptor> provider, ComponentDescriptor.PaletteEntry entry) {
+            this.provider = provider;
+            this.entry = entry;
+        }
+
+        private ComponentDescriptor descriptor() {
+            ComponentDescriptor current = descriptor;
+            if (current == null) {
+                try {
+                    current = provider.get();
+                } catch (ServiceConfigurationError e) {
+                    throw new IllegalStateException("Component plugin " + entry.displayName() + " cannot be created", e);
+                }
+                descriptor = current;
+            }
+            return current;
+        }
+
+        @Override
+        public String getTypeName() {
+            return entry.typeName();
+        }
+
+        @Override
+        public String getDisplayName() {
+            return entry.displayName();
+        }
+
+        @Override
+        public int getPaletteOrder() {
+            return entry.paletteOrder();
+        }
+
+        @Override
+        public boolean isContainer() {
+            return descriptor().isContainer();
+        }
+
+        @Override
+        public Dimension getDefaultSize() {
+            return descriptor().getDefaultSize();
+        }
+
+        @Override
+        public String getDefaultText() {
+            return descriptor().getDefaultText();
+        }
+
+        @Override
+        public Color getDefaultBackground() {
+            return descriptor().getDefaultBackground();
+        }
+
+        @Override
+        public Set<SpecificProperty> getSpecificProperties() {
+            return descriptor().getSpecificProperties();
+        }
+
+        @Override
+        public List<String> getEventNames() {
+            return descriptor().getEventNames();
+        }
+
+        @Override
+        protected ComponentRenderer createRenderer() {
+            return descriptor().getRenderer();
+        }
+
+        @Override
+        public void appendSvgContent(StringBuilder svg, ComponentSnapshot component, String indent) {
+            descriptor().appendSvgContent(svg, component, indent);
+        }
+
+        @Override
+        public JComponent createPreviewComponent(DesignComponent component) throws ReflectiveOperationException {
+            return descriptor().createPreviewComponent(component);
+        }
+
+        @Override
+        public void generateSpecificCode(StringBuilder code, DesignComponent component, String componentName) {
+            descriptor().generateSpecificCode(code, component, componentName);
+        }
+
+        @Override
+        public String getJavaTypeName() {
+            return descriptor().getJavaTypeName();
+        }
+
+        @Override
+        ClassLoader getTypeLoader() {
+            return provider.type().getClassLoader();
+        }
+    }
+
+    // Components of classes without a descriptor keep the defaults
+    private static final class GenericDescriptor extends ComponentDescriptor {
+        private final Class<?> type;
+
+        GenericDescriptor(Class<?> type) {
+            super(type);
+            this.type = type;
+        }
+
+        @Override
+        public String getTypeName() {
+            return type.getName();
+        }
+
+        @Override
+        public String getDisplayName() {
+            return type.getSimpleName();
+        }
+
+        @Override
+        public String getDefaultText() {
+            return type.getSimpleName();
+        }
+    }
+}
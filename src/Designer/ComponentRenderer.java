@@ -0,0 +1,28 @@
+package Designer;
+
+import java.awt.*;
+
+/**
+ * Draws the content of a component on the canvas
+ * The component draws its background, border and disabled overlay itself. Renderers are
+ * shared by all components of a kind and may be called from background threads
+ */
+public interface ComponentRenderer {
+
+    /**
+     * The text centered in the bounds
+     */
+    ComponentRenderer CENTERED_TEXT = (g2d, component) -> {
+        String text = component.getText();
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+        Rectangle bounds = component.getBounds();
+        FontMetrics fm = g2d.getFontMetrics();
+        g2d.setColor(component.isEnabled() ? Color.BLACK : Color.GRAY);
+        g2d.drawString(text, bounds.x + (bounds.width - fm.stringWidth(text)) / 2,
+                bounds.y + (bounds.height + fm.getAscent()) / 2);
+    };
+
+    void paintContent(Graphics2D g2d, DesignComponent component);
+}
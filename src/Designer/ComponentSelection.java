@@ -0,0 +1,46 @@
+package Designer;
+
+import java.awt.datatransfer.*;
+import java.io.ByteArrayInputStream;
+
+/**
+ * Clipboard content for copied design components
+ * Offers the binary encoding for designers and a text form that survives
+ * being pasted through applications that only understand plain text
+ */
+class ComponentSelection implements Transferable, ClipboardOwner {
+    private static final DataFlavor[] FLAVORS = {
+            ComponentTransferHandler.COMPONENTS_FLAVOR, DataFlavor.stringFlavor
+    };
+
+    private final byte[] data;
+
+    ComponentSelection(byte[] data) {
+        this.data = data;
+    }
+
+    @Override
+    public DataFlavor[] getTransferDataFlavors() {
+        return FLAVORS.clone();
+    }
+
+    @Override
+    public boolean isDataFlavorSupported(DataFlavor flavor) {
+        return ComponentTransferHandler.COMPONENTS_FLAVOR.equals(flavor) || DataFlavor.stringFlavor.equals(flavor);
+    }
+
+    @Override
+    public Object getTransferData(DataFlavor flavor) throws UnsupportedFlavorException {
+        if (ComponentTransferHandler.COMPONENTS_FLAVOR.equals(flavor)) {
+            return new ByteArrayInputStream(data);
+        }
+        if (DataFlavor.stringFlavor.equals(flavor)) {
+            return ComponentCodec.toText(data);
+        }
+        throw new UnsupportedFlavorException(flavor);
+    }
+
+    @Override
+    public void lostOwnership(Clipboard clipboard, Transferable contents) {
+    }
+}
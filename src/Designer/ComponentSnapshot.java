@@ -0,0 +1,139 @@
+package Designer;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable copy of the state of a {@link DesignComponent}
+ * Snapshots can be read from any thread while the component keeps being edited.
+ * The snapshot of a container includes the snapshots of its children, the snapshot of a
+ * symbol instance the state of the master it showed
+ */
+public final class ComponentSnapshot {
+    private final int id;
+    private final Class<?> componentType;
+    private final int x;
+    private final int y;
+    private final int width;
+    private final int height;
+    private final String text;
+    private final Color backgroundColor;
+    private final boolean visible;
+    private final boolean enabled;
+    private final boolean editable;
+    private final boolean selected;
+    private final int columns;
+    private final Map<String, Object> beanProperties;
+    private final List<ComponentSnapshot> children;
+    private final ComponentSymbol.Rendering symbolRendering;
+    // Created on first draw, snapshots shared between screen versions keep it
+    private volatile DesignComponent view;
+
+    ComponentSnapshot(DesignComponent component) {
+        Rectangle bounds = component.getBounds();
+        this.id = component.getId();
+        this.componentType = component.getComponentType();
+        this.x = bounds.x;
+        this.y = bounds.y;
+        this.width = bounds.width;
+        this.height = bounds.height;
+        this.text = component.getText();
+        this.backgroundColor = component.getBackgroundColor();
+        this.visible = component.isVisible();
+        this.enabled = component.isEnabled();
+        this.editable = component.isEditable();
+        this.selected = component.isSelected();
+        this.columns = component.getColumns();
+        this.beanProperties = component.getBeanProperties().isEmpty()
+                ? Collections.emptyMap()
+                : Collections.unmodifiableMap(new LinkedHashMap<>(component.getBeanProperties()));
+        List<DesignComponent> componentChildren = component.getChildren();
+        if (componentChildren.isEmpty()) {
+            this.children = Collections.emptyList();
+        } else {
+            List<ComponentSnapshot> childSnapshots = new ArrayList<>(componentChildren.size());
+            for (DesignComponent child : componentChildren) {
+                childSnapshots.add(new ComponentSnapshot(child));
+            }
+            this.children = Collections.unmodifiableList(childSnapshots);
+        }
+        this.symbolRendering = component.getSymbol() != null ? component.getSymbolRendering() : null;
+    }
+
+    /**
+     * Creates a new, unattached component with the state of this snapshot and its children
+     * The components take new ids, use {@link #draw(Graphics2D)} to render the snapshot
+     */
+    public DesignComponent toComponent() {
+        DesignComponent component = symbolRendering != null
+                ? new DesignComponent(symbolRendering.getSymbol(), symbolRendering, x, y)
+                : new DesignComponent(componentType, x, y);
+        component.setSize(width, height);
+        component.setText(text);
+        component.setBackgroundColor(backgroundColor);
+        component.setVisible(visible);
+        component.setEnabled(enabled);
+        component.setEditable(editable);
+        component.setSelected(selected);
+        component.setColumns(columns);
+        for (Map.Entry<String, Object> entry : beanProperties.entrySet()) {
+            component.setBeanProperty(entry.getKey(), entry.getValue());
+        }
+        for (ComponentSnapshot child : children) {
+            component.addChild(child.toComponent());
+        }
+        return component;
+    }
+
+    /**
+     * Draws the component and its children as the canvas does, safe to call from any thread
+     */
+    public void draw(Graphics2D g2d) {
+        DesignComponent current = view;
+        if (current == null) {
+            current = new DesignComponent(this, getBounds());
+            view = current;
+        }
+        current.draw(g2d);
+    }
+
+    /**
+     * Draws the component at other bounds, for example the ones a layout resolved
+     */
+    public void draw(Graphics2D g2d, Rectangle bounds) {
+        if (bounds.x == x && bounds.y == y && bounds.width == width && bounds.height == height) {
+            draw(g2d);
+        } else {
+            new DesignComponent(this, bounds).draw(g2d);
+        }
+    }
+
+    /**
+     * Id of the component this snapshot was taken from
+     */
+    public int getId() { return id; }
+    public Class<?> getComponentType() { return componentType; }
+    public Rectangle getBounds() { return new Rectangle(x, y, width, height); }
+    public String getText() { return text; }
+    public Color getBackgroundColor() { return backgroundColor; }
+    public boolean isVisible() { return visible; }
+    public boolean isEnabled() { return enabled; }
+    public boolean isEditable() { return editable; }
+    public boolean isSelected() { return selected; }
+    public int getColumns() { return columns; }
+    public Map<String, Object> getBeanProperties() { return beanProperties; }
+
+    /**
+     * Snapshots of the child components, bounds relative to this component
+     */
+    public List<ComponentSnapshot> getChildren() { return children; }
+
+    /**
+     * State of the master shown by a symbol instance, null for ordinary components
+     */
+    public ComponentSymbol.Rendering getSymbolRendering() { return symbolRendering; }
+}
@@ -0,0 +1,227 @@
+package Designer;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * A reusable group of components, defined once by its master container and instanced many times
+ * Instances hold only their own bounds, everything else is read from the master. All instances
+ * draw the same cached image of the master, rendered once per master version and zoom level.
+ * Editing the master reports a change of every live instance to its screen, other components
+ * are not touched. Must be edited on the Event Dispatch Thread
+ */
+public class ComponentSymbol implements DesignComponent.Listener {
+    public static final Color INSTANCE_OUTLINE = new Color(150, 80, 200);
+
+    // Sharper images are not worth the memory at higher zoom levels
+    private static final double MAX_IMAGE_SCALE = 4.0;
+    // Images kept per version, enough for the zoom levels of the open canvases and exports
+    private static final int MAX_IMAGES = 4;
+
+    /**
+     * Notified after the master of the symbol changed
+     */
+    public interface Listener {
+        void symbolChanged(ComponentSymbol symbol);
+    }
+
+    /**
+     * Immutable state of the master at one version, shared by all instances and by snapshots
+     * The image is rendered on first use and may be requested from any thread
+     */
+    public static final class Rendering {
+        private final ComponentSymbol symbol;
+        private final int version;
+        private final ComponentSnapshot master;
+        // Least recently used last
+        private final Map<Double, BufferedImage> images = new LinkedHashMap<>(8, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Double, BufferedImage> eldest) {
+                return size() > MAX_IMAGES;
+            }
+        };
+
+        private Rendering(ComponentSymbol symbol, int version, ComponentSnapshot master) {
+            this.symbol = symbol;
+            this.version = version;
+            this.master = master;
+        }
+
+        public ComponentSymbol getSymbol() { return symbol; }
+        public int getVersion() { return version; }
+
+        /**
+         * The master as it was at this version
+         */
+        public ComponentSnapshot getMaster() { return master; }
+
+        /**
+         * Draws the master into the bounds of an instance, clipped to the instance
+         */
+        void draw(Graphics2D g2d, Rectangle bounds) {
+            double scale = Math.min(MAX_IMAGE_SCALE, Math.max(1.0, Math.abs(g2d.getTransform().getScaleX())));
+            Rectangle masterBounds = master.getBounds();
+            BufferedImage rendered = getImage(scale);
+
+            Shape oldClip = g2d.getClip();
+            g2d.clipRect(bounds.x, bounds.y, bounds.width + 1, bounds.height + 1);
+            g2d.drawImage(rendered, bounds.x, bounds.y, bounds.x + masterBounds.width + 1,
+                    bounds.y + masterBounds.height + 1, 0, 0, rendered.getWidth(), rendered.getHeight(), null);
+            g2d.setClip(oldClip);
+
+            g2d.setColor(INSTANCE_OUTLINE);
+            g2d.drawRect(bounds.x, bounds.y, bounds.width, bounds.height);
+        }
+
+        private synchronized BufferedImage getImage(double scale) {
+            BufferedImage image = images.get(scale);
+            if (image == null) {
+                Rectangle bounds = master.getBounds();
+                image = new BufferedImage((int) Math.ceil((bounds.width + 1) * scale),
+                        (int) Math.ceil((bounds.height + 1) * scale), BufferedImage.TYPE_INT_ARGB);
+                images.put(scale, image);
+                Graphics2D g = image.createGraphics();
+                g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+                g.scale(scale, scale);
+                g.translate(-bounds.x, -bounds.y);
+                master.draw(g);
+                g.dispose();
+            }
+            return image;
+        }
+    }
+
+    private final String name;
+    private final DesignComponent master;
+    private final Set<DesignComponent> instances;
+    private final List<Listener> listeners;
+    private int version;
+    private Rendering rendering;
+
+    /**
+     * Creates a symbol owning the master, which must be a container not placed on any screen
+     */
+    public ComponentSymbol(String name, DesignComponent master) {
+        if (!master.isContainer()) {
+            throw new IllegalArgumentException(master.getComponentType().getSimpleName() + " cannot be a symbol master");
+        }
+        if (master.getParent() != null || master.getListener() != null) {
+            throw new IllegalArgumentException("Master is already placed");
+        }
+        this.name = name;
+        this.master = master;
+        this.instances = Collections.newSetFromMap(new WeakHashMap<>());
+        this.listeners = new ArrayList<>();
+        master.setListener(this);
+    }
+
+    /**
+     * Creates a symbol from copies of the components, placed in a new borderless panel
+     * that just fits them. Bounds are taken in the coordinates of the canvas
+     */
+    public static ComponentSymbol fromComponents(String name, List<DesignComponent> components) {
+        if (components.size() == 1 && components.get(0).isContainer()) {
+            DesignComponent master = components.get(0).copy();
+            master.setLocation(0, 0);
+            return new ComponentSymbol(name, master);
+        }
+
+        Rectangle union = null;
+        for (DesignComponent component : components) {
+            Rectangle bounds = component.getAbsoluteBounds();
+            union = union == null ? bounds : union.union(bounds);
+        }
+        DesignComponent master = new DesignComponent(JPanel.class, 0, 0);
+        master.setSize(union.width, union.height);
+        master.setText("");
+        for (DesignComponent component : components) {
+            Rectangle bounds = component.getAbsoluteBounds();
+            DesignComponent child = component.copy();
+            child.setLocation(bounds.x - union.x, bounds.y - union.y);
+            master.addChild(child);
+        }
+        return new ComponentSymbol(name, master);
+    }
+
+    /**
+     * Creates a new, unattached instance sized like the master
+     */
+    public DesignComponent createInstance(int x, int y) {
+        DesignComponent instance = new DesignComponent(this, null, x, y);
+        register(instance);
+        return instance;
+    }
+
+    void register(DesignComponent instance) {
+        instances.add(instance);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * The definition of the symbol, edits to it are propagated to all instances
+     */
+    public DesignComponent getMaster() {
+        return master;
+    }
+
+    /**
+     * Incremented on every change of the master
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Number of instances still reachable, including those only held by the undo history
+     */
+    public int getInstanceCount() {
+        return instances.size();
+    }
+
+    /**
+     * The current state of the master, taken once per version
+     */
+    public Rendering getRendering() {
+        if (rendering == null) {
+            rendering = new Rendering(this, version, master.snapshot());
+        }
+        return rendering;
+    }
+
+    @Override
+    public void componentChanged(DesignComponent component) {
+        version++;
+        rendering = null;
+        for (DesignComponent instance : new ArrayList<>(instances)) {
+            instance.symbolChanged();
+        }
+        for (Listener listener : new ArrayList<>(listeners)) {
+            listener.symbolChanged(this);
+        }
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -10,15 +10,20 @@ import java.awt.datatransfer.*;
 public class ComponentTransferHandler extends TransferHandler {
     public static final DataFlavor COMPONENT_FLAVOR = new DataFlavor(Class.class, "ComponentClass");
 
-    private Class<?> componentClass;
+    // Copied design components in the compact encoding of ComponentCodec
+    public static final DataFlavor COMPONENTS_FLAVOR = new DataFlavor(
+            "application/x-screen-designer-components; class=java.io.InputStream", "Design Components");
 
-    public ComponentTransferHandler(Class<?> componentClass) {
-        this.componentClass = componentClass;
+    private ComponentDescriptor descriptor;
+
+    public ComponentTransferHandler(ComponentDescriptor descriptor) {
+        this.descriptor = descriptor;
     }
 
     @Override
     protected Transferable createTransferable(JComponent c) {
-        return new ComponentTransferable(componentClass);
+        // The component class is loaded when it is first dragged
+        return new ComponentTransferable(descriptor.getComponentType());
     }
 
     @Override
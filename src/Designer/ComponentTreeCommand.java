@@ -0,0 +1,199 @@
+package Designer;
+
+import Base.UndoableCommand;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Change of the containers that hold components: adding to or removing from a container
+ * and moving between containers or to and from the top level of the screen.
+ * Constraints dropped because a component left the top level are restored on undo
+ * A symbol created together with the change is taken out of its library on undo
+ */
+class ComponentTreeCommand implements UndoableCommand {
+    private static final long COMPONENT_BYTES = 256;
+
+    // Container (null for the top level), position (-1 if not placed) and relative bounds
+    private static final class Placement {
+        final DesignComponent container;
+        final int index;
+        final Rectangle bounds;
+
+        Placement(DesignComponent container, int index, Rectangle bounds) {
+            this.container = container;
+            this.index = index;
+            this.bounds = bounds;
+        }
+    }
+
+    private final List<DesignComponent> list;
+    private final ConstraintLayout layout;
+    private final DesignComponent[] components;
+    private final Placement[] before;
+    private final Placement[] after;
+    private final List<LayoutConstraint> constraints;
+    private final String presentationName;
+    private ComponentBoundsCommand boundsChange;
+    private ComponentSymbol symbol;
+    private Consumer<ComponentSymbol> addSymbol;
+    private Consumer<ComponentSymbol> removeSymbol;
+
+    private ComponentTreeCommand(List<DesignComponent> list, ConstraintLayout layout, List<DesignComponent> components,
+                                 String presentationName) {
+        this.list = list;
+        this.layout = layout;
+        this.components = components.toArray(new DesignComponent[0]);
+        this.before = new Placement[this.components.length];
+        this.after = new Placement[this.components.length];
+        this.presentationName = presentationName;
+        Set<LayoutConstraint> affected = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (int i = 0; i < this.components.length; i++) {
+            before[i] = placement(this.components[i]);
+            if (layout != null) {
+                affected.addAll(layout.getConstraints(this.components[i]));
+            }
+        }
+        this.constraints = new ArrayList<>(affected);
+    }
+
+    /**
+     * Records where the components are now, call before changing their containers
+     */
+    static ComponentTreeCommand record(List<DesignComponent> list, ConstraintLayout layout,
+                                       List<DesignComponent> components, String presentationName) {
+        return new ComponentTreeCommand(list, layout, components, presentationName);
+    }
+
+    /**
+     * Records where the components ended up, call after changing their containers
+     */
+    ComponentTreeCommand finish() {
+        for (int i = 0; i < components.length; i++) {
+            after[i] = placement(components[i]);
+        }
+        return this;
+    }
+
+    /**
+     * Moves or resizes made before the change of containers, undone after it
+     */
+    ComponentTreeCommand withBoundsChange(ComponentBoundsCommand boundsChange) {
+        this.boundsChange = boundsChange;
+        return this;
+    }
+
+    /**
+     * A symbol added to the library with the change, removed from it on undo and added again on redo
+     */
+    ComponentTreeCommand withSymbol(ComponentSymbol symbol, Consumer<ComponentSymbol> addSymbol,
+                                    Consumer<ComponentSymbol> removeSymbol) {
+        this.symbol = symbol;
+        this.addSymbol = addSymbol;
+        this.removeSymbol = removeSymbol;
+        return this;
+    }
+
+    private Placement placement(DesignComponent component) {
+        DesignComponent container = component.getParent();
+        int index = container != null ? container.getChildren().indexOf(component) : indexOf(list, component);
+        return new Placement(container, index, new Rectangle(component.getBounds()));
+    }
+
+    private static int indexOf(List<DesignComponent> list, DesignComponent component) {
+        for (int i = 0; i < list.size(); i++) {
+            if (list.get(i) == component) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public void undo() {
+        apply(after, before);
+        if (layout != null) {
+            for (LayoutConstraint constraint : constraints) {
+                if (constraint.getFirst().getParent() == null
+                        && (constraint.getSecond() == null || constraint.getSecond().getParent() == null)) {
+                    layout.restore(constraint);
+                }
+            }
+        }
+        if (boundsChange != null) {
+            boundsChange.undo();
+        }
+        if (symbol != null) {
+            removeSymbol.accept(symbol);
+        }
+    }
+
+    @Override
+    public void redo() {
+        if (symbol != null) {
+            addSymbol.accept(symbol);
+        }
+        if (boundsChange != null) {
+            boundsChange.redo();
+        }
+        apply(before, after);
+    }
+
+    private void apply(Placement[] from, Placement[] to) {
+        // Take everything out first, top-level components in one batch
+        Set<DesignComponent> topLevel = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (int i = 0; i < components.length; i++) {
+            if (from[i].index < 0) {
+                continue;
+            }
+            if (from[i].container != null) {
+                from[i].container.removeChild(components[i]);
+            } else {
+                topLevel.add(components[i]);
+            }
+        }
+        if (!topLevel.isEmpty()) {
+            list.removeIf(topLevel::contains);
+            if (layout != null) {
+                layout.removeComponents(topLevel);
+            }
+        }
+
+        // Reinsert in ascending position so that every component lands where it was
+        Integer[] order = new Integer[components.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Integer.compare(to[a].index, to[b].index));
+        for (int i : order) {
+            Placement placement = to[i];
+            if (placement.index < 0) {
+                continue;
+            }
+            DesignComponent component = components[i];
+            component.setBounds(placement.bounds.x, placement.bounds.y, placement.bounds.width, placement.bounds.height);
+            if (placement.container != null) {
+                placement.container.addChild(Math.min(placement.index, placement.container.getChildren().size()), component);
+            } else {
+                list.add(Math.min(placement.index, list.size()), component);
+            }
+        }
+    }
+
+    @Override
+    public String getPresentationName() {
+        return presentationName;
+    }
+
+    @Override
+    public long getSizeInBytes() {
+        return 64 + components.length * (80L + COMPONENT_BYTES) + constraints.size() * 64L
+                + (boundsChange != null ? boundsChange.getSizeInBytes() : 0);
+    }
+}
@@ -0,0 +1,62 @@
+package Designer;
+
+import Base.UndoableCommand;
+
+import java.util.List;
+
+/**
+ * Addition or removal of layout constraints together with the moves they caused
+ */
+class ConstraintCommand implements UndoableCommand {
+    private final ConstraintLayout layout;
+    private final List<LayoutConstraint> added;
+    private final List<LayoutConstraint> removed;
+    private final ComponentBoundsCommand boundsChange;
+    private final String presentationName;
+
+    ConstraintCommand(ConstraintLayout layout, List<LayoutConstraint> added, List<LayoutConstraint> removed,
+                      ComponentBoundsCommand boundsChange, String presentationName) {
+        this.layout = layout;
+        this.added = added;
+        this.removed = removed;
+        this.boundsChange = boundsChange;
+        this.presentationName = presentationName;
+    }
+
+    @Override
+    public void undo() {
+        if (boundsChange != null) {
+            boundsChange.undo();
+        }
+        for (LayoutConstraint constraint : added) {
+            layout.remove(constraint);
+        }
+        for (LayoutConstraint constraint : removed) {
+            layout.restore(constraint);
+        }
+    }
+
+    @Override
+    public void redo() {
+        for (LayoutConstraint constraint : removed) {
+            layout.remove(constraint);
+        }
+        for (LayoutConstraint constraint : added) {
+            layout.restore(constraint);
+        }
+        if (boundsChange != null) {
+            boundsChange.redo();
+        }
+    }
+
+    @Override
+    public String getPresentationName() {
+        return presentationName;
+    }
+
+    @Override
+    public long getSizeInBytes() {
+        return 64 + (added.size() + removed.size()) * 64L
+                + (boundsChange != null ? boundsChange.getSizeInBytes() : 0);
+    }
+}
@@ -0,0 +1,350 @@
+package Designer;
+
+import java.awt.*;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Layout constraints of one screen with an incremental solver
+ * Constraints are required, edited edges are strong and all other edges keep their value
+ * unless a constraint needs them to change. Solving starts from the edited edges and walks only
+ * the constraints reachable from edges that actually changed, adjusting one free edge per
+ * violated constraint (positions before sizes, the dependent component before the reference).
+ * An edge pinned by an anchor never moves. If an edit cannot be satisfied, the edit is dropped on
+ * that axis, so a component that is fully constrained horizontally can still be dragged vertically.
+ * The solver returns new bounds instead of applying them so callers can record undo information.
+ * {@link #resolve} evaluates the layout for another screen size without changing anything, so a
+ * frozen copy can be resolved for several target resolutions from different threads at once
+ */
+public class ConstraintLayout {
+    // Center alignment of odd sizes is off by half a pixel after rounding
+    private static final double TOLERANCE = 0.5;
+
+    private final List<LayoutConstraint> constraints = new ArrayList<>();
+    private final Map<DesignComponent, List<LayoutConstraint>> byComponent = new IdentityHashMap<>();
+    private int containerWidth;
+    private int containerHeight;
+    private int version;
+
+    // Working values of one solve, x, y, width, height and whether each was set
+    private static final class Slot {
+        final double[] values = new double[4];
+        final boolean[] fixed = new boolean[4];
+
+        Slot(Rectangle bounds) {
+            values[LayoutConstraint.X] = bounds.x;
+            values[LayoutConstraint.Y] = bounds.y;
+            values[LayoutConstraint.WIDTH] = bounds.width;
+            values[LayoutConstraint.HEIGHT] = bounds.height;
+        }
+    }
+
+    // State of one solve: the slots touched so far, the bounds they start from and the container size
+    private final class Solve {
+        final Map<DesignComponent, Slot> slots = new IdentityHashMap<>();
+        final Map<DesignComponent, Rectangle> initialBounds;
+        final int width;
+        final int height;
+
+        Solve(Map<DesignComponent, Rectangle> initialBounds, int width, int height) {
+            this.initialBounds = initialBounds;
+            this.width = width;
+            this.height = height;
+        }
+
+        Rectangle initial(DesignComponent component) {
+            Rectangle bounds = initialBounds != null ? initialBounds.get(component) : null;
+            return bounds != null ? bounds : component.getBounds();
+        }
+
+        Slot slot(DesignComponent component) {
+            return slots.computeIfAbsent(component, key -> new Slot(initial(key)));
+        }
+
+        void setEdited(DesignComponent component, int index, double value, Deque<Object> queue) {
+            Slot slot = slot(component);
+            if (slot.values[index] != value) {
+                slot.values[index] = value;
+                slot.fixed[index] = true;
+                queue.add(component);
+                queue.add(index);
+            }
+        }
+
+        boolean propagate(boolean horizontal, Deque<Object> queue) {
+            while (!queue.isEmpty()) {
+                DesignComponent component = (DesignComponent) queue.poll();
+                queue.poll();
+                for (LayoutConstraint constraint : byComponent.getOrDefault(component, Collections.emptyList())) {
+                    if (constraint.getType().isHorizontal() == horizontal && !satisfy(constraint, queue)) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        // Adjusts one free edge so the constraint holds, false if every edge is already fixed or pinned
+        boolean satisfy(LayoutConstraint constraint, Deque<Object> queue) {
+            int terms = constraint.termComponents.length;
+            double error = -constraint.getConstant(width, height);
+            for (int i = 0; i < terms; i++) {
+                error += constraint.termFactors[i] * slot(constraint.termComponents[i]).values[constraint.termIndices[i]];
+            }
+            if (Math.abs(error) <= TOLERANCE) {
+                return true;
+            }
+
+            for (int i = 0; i < terms; i++) {
+                DesignComponent component = constraint.termComponents[i];
+                int index = constraint.termIndices[i];
+                Slot slot = slot(component);
+                if (slot.fixed[index] || isPinned(component, index, constraint)) {
+                    continue;
+                }
+                double value = slot.values[index] - error / constraint.termFactors[i];
+                if ((index == LayoutConstraint.WIDTH || index == LayoutConstraint.HEIGHT) && value < 1) {
+                    continue;
+                }
+                slot.values[index] = value;
+                slot.fixed[index] = true;
+                queue.add(component);
+                queue.add(index);
+                return true;
+            }
+            return false;
+        }
+
+        // Moves the container edges and satisfies the anchors that depend on them
+        void resizeContainer(boolean widthChanged, boolean heightChanged) {
+            for (boolean horizontal : new boolean[]{true, false}) {
+                if (horizontal ? !widthChanged : !heightChanged) {
+                    continue;
+                }
+                Deque<Object> queue = new ArrayDeque<>();
+                boolean solved = true;
+                for (LayoutConstraint constraint : constraints) {
+                    LayoutConstraint.Type type = constraint.getType();
+                    if (type == (horizontal ? LayoutConstraint.Type.ANCHOR_RIGHT : LayoutConstraint.Type.ANCHOR_BOTTOM)) {
+                        solved = satisfy(constraint, queue);
+                        if (!solved) {
+                            break;
+                        }
+                    }
+                }
+                if (!solved || !propagate(horizontal, queue)) {
+                    resetAxis(horizontal);
+                }
+            }
+        }
+
+        void resetAxis(boolean horizontal) {
+            int position = horizontal ? LayoutConstraint.X : LayoutConstraint.Y;
+            int size = horizontal ? LayoutConstraint.WIDTH : LayoutConstraint.HEIGHT;
+            for (Map.Entry<DesignComponent, Slot> entry : slots.entrySet()) {
+                Rectangle bounds = initial(entry.getKey());
+                Slot slot = entry.getValue();
+                slot.values[position] = horizontal ? bounds.x : bounds.y;
+                slot.values[size] = horizontal ? bounds.width : bounds.height;
+                slot.fixed[position] = false;
+                slot.fixed[size] = false;
+            }
+        }
+
+        Map<DesignComponent, Rectangle> toBounds(Map<DesignComponent, Rectangle> edits) {
+            Map<DesignComponent, Rectangle> result = new IdentityHashMap<>();
+            for (Map.Entry<DesignComponent, Slot> entry : slots.entrySet()) {
+                double[] values = entry.getValue().values;
+                Rectangle bounds = new Rectangle(
+                        (int) Math.round(values[LayoutConstraint.X]), (int) Math.round(values[LayoutConstraint.Y]),
+                        (int) Math.round(values[LayoutConstraint.WIDTH]), (int) Math.round(values[LayoutConstraint.HEIGHT]));
+                if (edits.containsKey(entry.getKey()) || !bounds.equals(initial(entry.getKey()))) {
+                    result.put(entry.getKey(), bounds);
+                }
+            }
+            return result;
+        }
+    }
+
+    public ConstraintLayout(int containerWidth, int containerHeight) {
+        this.containerWidth = containerWidth;
+        this.containerHeight = containerHeight;
+    }
+
+    public List<LayoutConstraint> getConstraints() {
+        return Collections.unmodifiableList(constraints);
+    }
+
+    public List<LayoutConstraint> getConstraints(DesignComponent component) {
+        List<LayoutConstraint> list = byComponent.get(component);
+        return list != null ? Collections.unmodifiableList(list) : Collections.emptyList();
+    }
+
+    public boolean isEmpty() {
+        return constraints.isEmpty();
+    }
+
+    public int getContainerWidth() { return containerWidth; }
+    public int getContainerHeight() { return containerHeight; }
+
+    /**
+     * Incremented whenever constraints are added or removed or the container is resized
+     */
+    public int getVersion() { return version; }
+
+    /**
+     * Adds the constraint and returns the bounds that satisfy it, moving the dependent component.
+     * Throws IllegalArgumentException and leaves the layout unchanged if it conflicts with the others
+     */
+    public Map<DesignComponent, Rectangle> add(LayoutConstraint constraint) {
+        register(constraint);
+        Solve solve = new Solve(null, containerWidth, containerHeight);
+        Deque<Object> queue = new ArrayDeque<>();
+        if (!solve.satisfy(constraint, queue) || !solve.propagate(constraint.getType().isHorizontal(), queue)) {
+            unregister(constraint);
+            throw new IllegalArgumentException(constraint.getType().getDisplayName()
+                    + " conflicts with the existing constraints");
+        }
+        return solve.toBounds(Collections.emptyMap());
+    }
+
+    public void remove(LayoutConstraint constraint) {
+        if (constraints.contains(constraint)) {
+            unregister(constraint);
+        }
+    }
+
+    /**
+     * Adds a constraint that is known to hold, used by undo and redo
+     */
+    void restore(LayoutConstraint constraint) {
+        if (!constraints.contains(constraint)) {
+            register(constraint);
+        }
+    }
+
+    /**
+     * Drops all constraints of the components, for example after they were deleted
+     */
+    public void removeComponents(Collection<DesignComponent> components) {
+        for (DesignComponent component : components) {
+            List<LayoutConstraint> list = byComponent.get(component);
+            if (list != null) {
+                for (LayoutConstraint constraint : new ArrayList<>(list)) {
+                    unregister(constraint);
+                }
+            }
+        }
+    }
+
+    /**
+     * Changes the screen size and returns the bounds that keep the anchors satisfied
+     */
+    public Map<DesignComponent, Rectangle> setContainerSize(int width, int height) {
+        boolean widthChanged = width != containerWidth;
+        boolean heightChanged = height != containerHeight;
+        containerWidth = width;
+        containerHeight = height;
+        if (widthChanged || heightChanged) {
+            version++;
+        }
+        Solve solve = new Solve(null, width, height);
+        solve.resizeContainer(widthChanged, heightChanged);
+        return solve.toBounds(Collections.emptyMap());
+    }
+
+    /**
+     * Bounds of the constrained components when the screen is shown at another size, starting from
+     * the given bounds at the design size (the current component bounds for components not in the map).
+     * Components that keep their bounds are left out. Only reads the layout, so it may be called from
+     * several threads at once as long as nobody edits the layout meanwhile
+     */
+    public Map<DesignComponent, Rectangle> resolve(int width, int height, Map<DesignComponent, Rectangle> initialBounds) {
+        Solve solve = new Solve(initialBounds, width, height);
+        solve.resizeContainer(width != containerWidth, height != containerHeight);
+        return solve.toBounds(Collections.emptyMap());
+    }
+
+    /**
+     * Solves for the edited bounds and returns the new bounds of every component that has to change,
+     * including the edited ones. Only constraints reachable from changed edges are evaluated
+     */
+    public Map<DesignComponent, Rectangle> solve(Map<DesignComponent, Rectangle> edits) {
+        Solve solve = new Solve(null, containerWidth, containerHeight);
+        for (boolean horizontal : new boolean[]{true, false}) {
+            int position = horizontal ? LayoutConstraint.X : LayoutConstraint.Y;
+            int size = horizontal ? LayoutConstraint.WIDTH : LayoutConstraint.HEIGHT;
+            Deque<Object> queue = new ArrayDeque<>();
+            for (Map.Entry<DesignComponent, Rectangle> edit : edits.entrySet()) {
+                Rectangle target = edit.getValue();
+                solve.setEdited(edit.getKey(), position, horizontal ? target.x : target.y, queue);
+                solve.setEdited(edit.getKey(), size, horizontal ? target.width : target.height, queue);
+            }
+            if (!solve.propagate(horizontal, queue)) {
+                solve.resetAxis(horizontal);
+            }
+        }
+        return solve.toBounds(edits);
+    }
+
+    /**
+     * Copy of the layout for copied components, constraints of components missing from the map are left out
+     */
+    public ConstraintLayout copy(Map<DesignComponent, DesignComponent> mapping) {
+        ConstraintLayout copy = new ConstraintLayout(containerWidth, containerHeight);
+        for (LayoutConstraint constraint : constraints) {
+            DesignComponent first = mapping.get(constraint.getFirst());
+            DesignComponent second = constraint.getSecond() != null ? mapping.get(constraint.getSecond()) : null;
+            if (first != null && (constraint.getSecond() == null || second != null)) {
+                copy.register(constraint.withComponents(first, second));
+            }
+        }
+        return copy;
+    }
+
+    // Solving
+
+    // Edges held by a single-edge anchor other than the constraint being satisfied
+    private boolean isPinned(DesignComponent component, int index, LayoutConstraint except) {
+        if (index != LayoutConstraint.X && index != LayoutConstraint.Y) {
+            return false;
+        }
+        LayoutConstraint.Type anchor = index == LayoutConstraint.X
+                ? LayoutConstraint.Type.ANCHOR_LEFT : LayoutConstraint.Type.ANCHOR_TOP;
+        for (LayoutConstraint constraint : byComponent.getOrDefault(component, Collections.emptyList())) {
+            if (constraint != except && constraint.getType() == anchor) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void register(LayoutConstraint constraint) {
+        version++;
+        constraints.add(constraint);
+        byComponent.computeIfAbsent(constraint.getFirst(), key -> new ArrayList<>(2)).add(constraint);
+        if (constraint.getSecond() != null) {
+            byComponent.computeIfAbsent(constraint.getSecond(), key -> new ArrayList<>(2)).add(constraint);
+        }
+    }
+
+    private void unregister(LayoutConstraint constraint) {
+        version++;
+        constraints.remove(constraint);
+        for (DesignComponent component : new DesignComponent[]{constraint.getFirst(), constraint.getSecond()}) {
+            List<LayoutConstraint> list = component != null ? byComponent.get(component) : null;
+            if (list != null) {
+                list.remove(constraint);
+                if (list.isEmpty()) {
+                    byComponent.remove(component);
+                }
+            }
+        }
+    }
+}
@@ -2,54 +2,260 @@ package Designer;
 
 import javax.swing.*;
 import java.awt.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Represents a UI component on the design canvas
- * Stores all properties and handles visual rendering
+ * Stores all properties and handles visual rendering.
+ * Property values live in a State object that copies share until one of them is edited.
+ * Containers hold child components whose bounds are relative to the container, so moving
+ * a container moves its whole subtree without touching the children. Only top-level
+ * components have a listener, edits anywhere in a subtree are reported as a change of its root.
+ * Instances of a {@link ComponentSymbol} have no children of their own, they draw the master of the symbol
  */
 public class DesignComponent {
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+    public static final String BEAN_PREFIX = "bean:";
+
+    // Top-level components changed inside batchChanges, null outside of it
+    private static Set<DesignComponent> batchedChanges;
+
+    private final int id;
     private final Class<?> componentType;
-    private Rectangle bounds;
-    private String text;
-    private Color backgroundColor;
-    private boolean visible;
-    private boolean enabled;
-    private boolean editable;
-    private boolean selected;
-    private int columns;
+    private final ComponentDescriptor descriptor;
+    private State state;
+    private Listener listener;
+    private DesignComponent parent;
+    private List<DesignComponent> children;
+    private boolean collapsed;
+    private ComponentSymbol symbol;
+    // Master state an instance created from a snapshot keeps showing, null for live instances
+    private ComponentSymbol.Rendering pinnedRendering;
+
+    /**
+     * Property values of a component, shared copy-on-write between copies
+     */
+    private static final class State {
+        final Rectangle bounds;
+        String text;
+        Color backgroundColor;
+        boolean visible;
+        boolean enabled;
+        boolean editable;
+        boolean selected;
+        int columns;
+        final Map<String, Object> beanProperties;
+
+        // Number of components using this state, only the single owner may modify it
+        int owners = 1;
+
+        State(Rectangle bounds, Map<String, Object> beanProperties) {
+            this.bounds = bounds;
+            this.beanProperties = beanProperties;
+        }
+
+        State copy() {
+            State copy = new State(new Rectangle(bounds), new LinkedHashMap<>(beanProperties));
+            copy.text = text;
+            copy.backgroundColor = backgroundColor;
+            copy.visible = visible;
+            copy.enabled = enabled;
+            copy.editable = editable;
+            copy.selected = selected;
+            copy.columns = columns;
+            return copy;
+        }
+    }
+
+    /**
+     * Notified after any property of the component changes
+     */
+    public interface Listener {
+        void componentChanged(DesignComponent component);
+
+        /**
+         * Several components changed in one {@link DesignComponent#batchChanges(Runnable)} call
+         */
+        default void componentsChanged(Collection<DesignComponent> components) {
+            for (DesignComponent component : components) {
+                componentChanged(component);
+            }
+        }
+    }
 
     public DesignComponent(Class<?> type, int x, int y) {
+        this.id = NEXT_ID.getAndIncrement();
         this.componentType = type;
-        this.bounds = new Rectangle(x, y, 100, 30);
-        this.text = type.getSimpleName();
-        this.backgroundColor = Color.LIGHT_GRAY;
-        this.visible = true;
-        this.enabled = true;
-        this.editable = true;
-        this.selected = false;
-        this.columns = 10;
-
-        initializeDefaults();
-    }
-
-    private void initializeDefaults() {
-        if (componentType == JPanel.class) {
-            bounds.setSize(150, 100);
-            backgroundColor = Color.WHITE;
-        } else if (componentType == JTextField.class) {
-            bounds.setSize(120, 25);
-            text = "TextField";
-        } else if (componentType == JButton.class) {
-            text = "Button";
-        } else if (componentType == JLabel.class) {
-            text = "Label";
-        } else if (componentType == JCheckBox.class) {
-            text = "CheckBox";
+        this.descriptor = ComponentRegistry.getInstance().getDescriptor(type);
+        Dimension size = descriptor.getDefaultSize();
+        this.state = new State(new Rectangle(x, y, size.width, size.height), new LinkedHashMap<>());
+        state.text = descriptor.getDefaultText();
+        state.backgroundColor = descriptor.getDefaultBackground();
+        state.visible = true;
+        state.enabled = true;
+        state.editable = true;
+        state.selected = false;
+        state.columns = 10;
+    }
+
+    // Instance of a symbol, live when no rendering is pinned
+    DesignComponent(ComponentSymbol symbol, ComponentSymbol.Rendering pinnedRendering, int x, int y) {
+        this(JPanel.class, x, y);
+        this.symbol = symbol;
+        this.pinnedRendering = pinnedRendering;
+        Rectangle masterBounds = pinnedRendering != null
+                ? pinnedRendering.getMaster().getBounds() : symbol.getMaster().getBounds();
+        state.bounds.setSize(masterBounds.width, masterBounds.height);
+        state.text = symbol.getName();
+    }
+
+    // Read-only view of a snapshot for drawing. Views take no id, so rendering snapshots in the
+    // background leaves the id counter and the selection bit sets alone
+    DesignComponent(ComponentSnapshot snapshot, Rectangle bounds) {
+        this.id = -1;
+        this.componentType = snapshot.getComponentType();
+        this.descriptor = ComponentRegistry.getInstance().getDescriptor(componentType);
+        this.state = new State(new Rectangle(bounds), snapshot.getBeanProperties());
+        state.text = snapshot.getText();
+        state.backgroundColor = snapshot.getBackgroundColor();
+        state.visible = snapshot.isVisible();
+        state.enabled = snapshot.isEnabled();
+        state.editable = snapshot.isEditable();
+        state.selected = snapshot.isSelected();
+        state.columns = snapshot.getColumns();
+        if (snapshot.getSymbolRendering() != null) {
+            this.symbol = snapshot.getSymbolRendering().getSymbol();
+            this.pinnedRendering = snapshot.getSymbolRendering();
+        } else if (!snapshot.getChildren().isEmpty()) {
+            this.children = new ArrayList<>(snapshot.getChildren().size());
+            for (ComponentSnapshot child : snapshot.getChildren()) {
+                DesignComponent view = new DesignComponent(child, child.getBounds());
+                view.parent = this;
+                children.add(view);
+            }
+        }
+    }
+
+    // Shares the state of the source until either component is edited
+    private DesignComponent(DesignComponent source) {
+        this.id = NEXT_ID.getAndIncrement();
+        this.componentType = source.componentType;
+        this.descriptor = source.descriptor;
+        this.state = source.state;
+        state.owners++;
+    }
+
+    /**
+     * Creates an identical, unattached copy of this component and its children
+     * The copy shares its property values with this component until one of them changes
+     */
+    public DesignComponent copy() {
+        DesignComponent copy = new DesignComponent(this);
+        copy.collapsed = collapsed;
+        copy.symbol = symbol;
+        copy.pinnedRendering = pinnedRendering;
+        if (symbol != null && pinnedRendering == null) {
+            symbol.register(copy);
+        }
+        if (children != null) {
+            copy.children = new ArrayList<>(children.size());
+            for (DesignComponent child : children) {
+                DesignComponent childCopy = child.copy();
+                childCopy.parent = copy;
+                copy.children.add(childCopy);
+            }
         }
+        return copy;
     }
 
+    /**
+     * Whether the property values are still shared with a copy
+     */
+    public boolean isShared() {
+        return state.owners > 1;
+    }
+
+    // Gives this component its own state before the first modification
+    private State writableState() {
+        if (state.owners > 1) {
+            state.owners--;
+            state = state.copy();
+        }
+        return state;
+    }
+
+    /**
+     * Draws the component and all of its children
+     */
     public void draw(Graphics2D g2d) {
-        if (!visible) return;
+        draw(g2d, null, false);
+    }
+
+    /**
+     * Draws the component and its subtree, in the coordinates of the parent.
+     * Subtrees outside the visible area (null for everything) are skipped, as are the children
+     * of collapsed containers if requested. Children are clipped to their container
+     */
+    public void draw(Graphics2D g2d, Rectangle visibleArea, boolean skipCollapsed) {
+        Rectangle bounds = state.bounds;
+        if (!state.visible) return;
+        // Outlines reach one pixel past the bounds
+        if (visibleArea != null && !visibleArea.intersects(bounds.x, bounds.y, bounds.width + 1, bounds.height + 1)) {
+            return;
+        }
+        if (symbol != null) {
+            getSymbolRendering().draw(g2d, bounds);
+            return;
+        }
+        drawComponent(g2d);
+        if (children == null || children.isEmpty()) {
+            return;
+        }
+        if (skipCollapsed && collapsed) {
+            drawCollapsedBadge(g2d);
+            return;
+        }
+
+        Shape oldClip = g2d.getClip();
+        g2d.translate(bounds.x, bounds.y);
+        g2d.clipRect(0, 0, bounds.width, bounds.height);
+        Rectangle childArea = null;
+        if (visibleArea != null) {
+            childArea = visibleArea.intersection(bounds);
+            childArea.translate(-bounds.x, -bounds.y);
+        }
+        for (DesignComponent child : children) {
+            child.draw(g2d, childArea, skipCollapsed);
+        }
+        g2d.translate(-bounds.x, -bounds.y);
+        g2d.setClip(oldClip);
+    }
+
+    private void drawCollapsedBadge(Graphics2D g2d) {
+        Rectangle bounds = state.bounds;
+        String badge = "+" + children.size();
+        FontMetrics fm = g2d.getFontMetrics();
+        int width = fm.stringWidth(badge) + 8;
+        int x = bounds.x + bounds.width - width - 2;
+        int y = bounds.y + 2;
+        g2d.setColor(new Color(0, 0, 0, 120));
+        g2d.fillRoundRect(x, y, width, fm.getHeight(), 6, 6);
+        g2d.setColor(Color.WHITE);
+        g2d.drawString(badge, x + 4, y + fm.getAscent());
+    }
+
+    private void drawComponent(Graphics2D g2d) {
+        Rectangle bounds = state.bounds;
+        boolean enabled = state.enabled;
+        Color backgroundColor = state.backgroundColor;
 
         // Draw component representation
         Color fillColor = enabled ? backgroundColor : backgroundColor.darker();
@@ -60,13 +266,8 @@ public class DesignComponent {
         g2d.setColor(Color.BLACK);
         g2d.drawRect(bounds.x, bounds.y, bounds.width, bounds.height);
 
-        // Draw component-specific details
-        drawComponentSpecifics(g2d);
-
-        // Draw component text
-        if (text != null && !text.isEmpty()) {
-            drawComponentText(g2d);
-        }
+        // Draw component-specific details and text
+        descriptor.getRenderer().paintContent(g2d, this);
 
         // Draw disabled overlay
         if (!enabled) {
@@ -75,114 +276,377 @@ public class DesignComponent {
         }
     }
 
-    private void drawComponentSpecifics(Graphics2D g2d) {
-        if (componentType == JCheckBox.class) {
-            // Draw checkbox square
-            int checkSize = 12;
-            int checkX = bounds.x + 5;
-            int checkY = bounds.y + (bounds.height - checkSize) / 2;
-            g2d.setColor(Color.WHITE);
-            g2d.fillRect(checkX, checkY, checkSize, checkSize);
-            g2d.setColor(Color.BLACK);
-            g2d.drawRect(checkX, checkY, checkSize, checkSize);
-
-            if (selected) {
-                g2d.drawLine(checkX + 2, checkY + 6, checkX + 5, checkY + 9);
-                g2d.drawLine(checkX + 5, checkY + 9, checkX + 10, checkY + 4);
-            }
-        }
-    }
-
-    private void drawComponentText(Graphics2D g2d) {
-        g2d.setColor(enabled ? Color.BLACK : Color.GRAY);
-        FontMetrics fm = g2d.getFontMetrics();
-
-        int textX, textY;
-        if (componentType == JCheckBox.class) {
-            textX = bounds.x + 20;
-            textY = bounds.y + (bounds.height + fm.getAscent()) / 2;
-        } else {
-            textX = bounds.x + (bounds.width - fm.stringWidth(text)) / 2;
-            textY = bounds.y + (bounds.height + fm.getAscent()) / 2;
-        }
+    // Getters and Setters
 
-        g2d.drawString(text, textX, textY);
+    /**
+     * Small unique number of this component, used to index selections
+     */
+    public int getId() {
+        return id;
     }
 
-    // Getters and Setters
+    /**
+     * Current bounds, the returned rectangle must not be modified
+     */
     public Rectangle getBounds() {
-        return bounds;
+        return state.bounds;
     }
 
     public void setLocation(int x, int y) {
-        bounds.setLocation(x, y);
+        writableState().bounds.setLocation(x, y);
+        fireChanged();
     }
 
     public void setSize(int width, int height) {
-        bounds.setSize(width, height);
+        writableState().bounds.setSize(width, height);
+        fireChanged();
     }
 
     public void setBounds(int x, int y, int width, int height) {
-        bounds.setBounds(x, y, width, height);
+        writableState().bounds.setBounds(x, y, width, height);
+        fireChanged();
+    }
+
+    /**
+     * Bounds in the coordinates of the canvas, adding up the positions of all containers
+     */
+    public Rectangle getAbsoluteBounds() {
+        Rectangle bounds = new Rectangle(state.bounds);
+        Point origin = getOrigin();
+        bounds.translate(origin.x, origin.y);
+        return bounds;
+    }
+
+    /**
+     * Position of the coordinate system of the bounds on the canvas, (0, 0) for top-level components
+     */
+    public Point getOrigin() {
+        Point origin = new Point();
+        for (DesignComponent container = parent; container != null; container = container.parent) {
+            origin.translate(container.state.bounds.x, container.state.bounds.y);
+        }
+        return origin;
     }
 
     public Class<?> getComponentType() {
         return componentType;
     }
 
+    /**
+     * Descriptor of the component class, from the {@link ComponentRegistry}
+     */
+    public ComponentDescriptor getDescriptor() {
+        return descriptor;
+    }
+
+    // Containment
+
+    /**
+     * Whether other components can be placed inside this one
+     */
+    public boolean isContainer() {
+        return descriptor.isContainer() && symbol == null;
+    }
+
+    /**
+     * Symbol this component is an instance of, null for ordinary components
+     */
+    public ComponentSymbol getSymbol() {
+        return symbol;
+    }
+
+    /**
+     * State of the master this instance shows
+     */
+    ComponentSymbol.Rendering getSymbolRendering() {
+        return pinnedRendering != null ? pinnedRendering : symbol.getRendering();
+    }
+
+    // The master of the symbol changed
+    void symbolChanged() {
+        fireChanged();
+    }
+
+    /**
+     * Container holding this component, null for top-level components
+     */
+    public DesignComponent getParent() {
+        return parent;
+    }
+
+    /**
+     * Top-level component of the subtree this component belongs to
+     */
+    public DesignComponent getRoot() {
+        DesignComponent root = this;
+        while (root.parent != null) {
+            root = root.parent;
+        }
+        return root;
+    }
+
+    public boolean isAncestorOf(DesignComponent component) {
+        for (DesignComponent container = component.parent; container != null; container = container.parent) {
+            if (container == this) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Child components in z-order, bounds relative to this component
+     */
+    public List<DesignComponent> getChildren() {
+        return children != null ? Collections.unmodifiableList(children) : Collections.emptyList();
+    }
+
+    public void addChild(DesignComponent child) {
+        addChild(children != null ? children.size() : 0, child);
+    }
+
+    /**
+     * Inserts a component that is not part of any screen or container, keeping its bounds as relative bounds
+     */
+    public void addChild(int index, DesignComponent child) {
+        if (!isContainer()) {
+            throw new IllegalArgumentException(componentType.getSimpleName() + " cannot contain components");
+        }
+        if (child.parent != null || child.listener != null || child == this || child.isAncestorOf(this)) {
+            throw new IllegalArgumentException("Component is already placed");
+        }
+        if (children == null) {
+            children = new ArrayList<>();
+        }
+        children.add(index, child);
+        child.parent = this;
+        fireChanged();
+    }
+
+    /**
+     * Removes the child and returns its former position, -1 if it was not a child of this component
+     */
+    public int removeChild(DesignComponent child) {
+        int index = children != null ? children.indexOf(child) : -1;
+        if (index >= 0) {
+            children.remove(index);
+            child.parent = null;
+            fireChanged();
+        }
+        return index;
+    }
+
+    /**
+     * Whether the canvas hides the children of this container
+     */
+    public boolean isCollapsed() {
+        return collapsed;
+    }
+
+    public void setCollapsed(boolean collapsed) {
+        this.collapsed = collapsed;
+    }
+
+    /**
+     * Deepest component of this subtree containing the point, given in the coordinates of the parent.
+     * Children of collapsed containers are not hit if requested,
+     * containers that do not contain the point are not descended into
+     */
+    public DesignComponent findComponentAt(int x, int y, boolean skipCollapsed) {
+        Rectangle bounds = state.bounds;
+        if (!bounds.contains(x, y)) {
+            return null;
+        }
+        if (children != null && !(skipCollapsed && collapsed)) {
+            for (int i = children.size() - 1; i >= 0; i--) {
+                DesignComponent hit = children.get(i).findComponentAt(x - bounds.x, y - bounds.y, skipCollapsed);
+                if (hit != null) {
+                    return hit;
+                }
+            }
+        }
+        return this;
+    }
+
     public String getText() {
-        return text;
+        return state.text;
     }
 
     public void setText(String text) {
-        this.text = text;
+        writableState().text = text;
+        fireChanged();
     }
 
     public Color getBackgroundColor() {
-        return backgroundColor;
+        return state.backgroundColor;
     }
 
     public void setBackgroundColor(Color backgroundColor) {
-        this.backgroundColor = backgroundColor;
+        writableState().backgroundColor = backgroundColor;
+        fireChanged();
     }
 
     public boolean isVisible() {
-        return visible;
+        return state.visible;
     }
 
     public void setVisible(boolean visible) {
-        this.visible = visible;
+        writableState().visible = visible;
+        fireChanged();
     }
 
     public boolean isEnabled() {
-        return enabled;
+        return state.enabled;
     }
 
     public void setEnabled(boolean enabled) {
-        this.enabled = enabled;
+        writableState().enabled = enabled;
+        fireChanged();
     }
 
     public boolean isEditable() {
-        return editable;
+        return state.editable;
     }
 
     public void setEditable(boolean editable) {
-        this.editable = editable;
+        writableState().editable = editable;
+        fireChanged();
     }
 
     public boolean isSelected() {
-        return selected;
+        return state.selected;
     }
 
     public void setSelected(boolean selected) {
-        this.selected = selected;
+        writableState().selected = selected;
+        fireChanged();
     }
 
     public int getColumns() {
-        return columns;
+        return state.columns;
     }
 
     public void setColumns(int columns) {
-        this.columns = columns;
+        writableState().columns = columns;
+        fireChanged();
+    }
+
+    /**
+     * Swing bean properties changed from their default, keyed by property name
+     */
+    public Map<String, Object> getBeanProperties() {
+        return Collections.unmodifiableMap(state.beanProperties);
+    }
+
+    public Object getBeanProperty(String name, Object defaultValue) {
+        return state.beanProperties.getOrDefault(name, defaultValue);
+    }
+
+    /**
+     * Sets a Swing bean property, a null value restores the default
+     */
+    public void setBeanProperty(String name, Object value) {
+        if (value == null) {
+            writableState().beanProperties.remove(name);
+        } else {
+            writableState().beanProperties.put(name, value);
+        }
+        fireChanged();
+    }
+
+    /**
+     * Reads a property by the name used in the property panel,
+     * bean properties are addressed as "bean:" followed by the property name
+     */
+    public Object getPropertyValue(String name) {
+        if (name.startsWith(BEAN_PREFIX)) {
+            return state.beanProperties.get(name.substring(BEAN_PREFIX.length()));
+        }
+        switch (name) {
+            case "x": return state.bounds.x;
+            case "y": return state.bounds.y;
+            case "width": return state.bounds.width;
+            case "height": return state.bounds.height;
+            case "text": return state.text;
+            case "background": return state.backgroundColor;
+            case "visible": return state.visible;
+            case "enabled": return state.enabled;
+            case "editable": return state.editable;
+            case "selected": return state.selected;
+            case "columns": return state.columns;
+            default: throw new IllegalArgumentException("Unknown property: " + name);
+        }
+    }
+
+    public void setPropertyValue(String name, Object value) {
+        if (name.startsWith(BEAN_PREFIX)) {
+            setBeanProperty(name.substring(BEAN_PREFIX.length()), value);
+            return;
+        }
+        switch (name) {
+            case "x": setLocation((Integer) value, state.bounds.y); break;
+            case "y": setLocation(state.bounds.x, (Integer) value); break;
+            case "width": setSize((Integer) value, state.bounds.height); break;
+            case "height": setSize(state.bounds.width, (Integer) value); break;
+            case "text": setText((String) value); break;
+            case "background": setBackgroundColor((Color) value); break;
+            case "visible": setVisible((Boolean) value); break;
+            case "enabled": setEnabled((Boolean) value); break;
+            case "editable": setEditable((Boolean) value); break;
+            case "selected": setSelected((Boolean) value); break;
+            case "columns": setColumns((Integer) value); break;
+            default: throw new IllegalArgumentException("Unknown property: " + name);
+        }
+    }
+
+    /**
+     * Immutable copy of the current state, safe to hand to background threads
+     */
+    public ComponentSnapshot snapshot() {
+        return new ComponentSnapshot(this);
+    }
+
+    public Listener getListener() {
+        return listener;
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Runs the edits and reports every changed top-level component once afterwards,
+     * with one componentsChanged call per listener. Must be called on the Event Dispatch Thread
+     */
+    public static void batchChanges(Runnable edits) {
+        if (batchedChanges != null) {
+            edits.run();
+            return;
+        }
+        Set<DesignComponent> changed = new LinkedHashSet<>();
+        batchedChanges = changed;
+        try {
+            edits.run();
+        } finally {
+            batchedChanges = null;
+            Map<Listener, List<DesignComponent>> byListener = new LinkedHashMap<>();
+            for (DesignComponent root : changed) {
+                if (root.listener != null) {
+                    byListener.computeIfAbsent(root.listener, key -> new ArrayList<>()).add(root);
+                }
+            }
+            for (Map.Entry<Listener, List<DesignComponent>> entry : byListener.entrySet()) {
+                entry.getKey().componentsChanged(entry.getValue());
+            }
+        }
+    }
+
+    private void fireChanged() {
+        DesignComponent root = getRoot();
+        if (batchedChanges != null) {
+            batchedChanges.add(root);
+        } else if (root.listener != null) {
+            root.listener.componentChanged(root);
+        }
     }
-}
\ No newline at end of file
+}
@@ -1,14 +1,25 @@
 package Designer;
 
+import Base.CommandHistory;
 import Designer.DesignComponent;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.datatransfer.Clipboard;
+import java.awt.datatransfer.DataFlavor;
+import java.awt.datatransfer.UnsupportedFlavorException;
 import java.awt.dnd.*;
 import java.awt.event.*;
 import java.awt.geom.AffineTransform;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * The main design canvas where components are dropped and arranged
@@ -17,9 +28,34 @@ import java.util.List;
  */
 public class DesignPanel extends JPanel implements DropTargetListener {
     private List<DesignComponent> components;
-    private DesignComponent selectedComponent;
+    private final SelectionModel selection = new SelectionModel();
     private Point dragOffset;
     private boolean dragging = false;
+    private Map<DesignComponent, Rectangle> dragStartBounds;
+    private Map<DesignComponent, Rectangle> layoutStartBounds;
+    private Rectangle dragStartArea;
+    // Moved component that carries the primary one, itself or its topmost selected container
+    private DesignComponent dragAnchor;
+
+    // Constraints of the screen shown, moves and resizes are solved through them
+    private ConstraintLayout constraintLayout;
+    private Color constraintColor = new Color(0, 150, 136);
+
+    // Smart guides
+    private static final int GUIDE_SNAP_DISTANCE = 6;
+    private boolean smartGuides = true;
+    private SnapIndex snapIndex;
+    private Integer guideX;
+    private Integer guideY;
+    private Color guideColor = new Color(230, 0, 160);
+
+    // Rubber-band selection
+    private Rectangle marquee;
+    private Point marqueeStart;
+    private SpatialIndex marqueeIndex;
+    private List<DesignComponent> marqueeBaseSelection;
+    // Components the marquee covered on the last drag event, their outlines are cleared when dropped
+    private List<DesignComponent> marqueeHits;
     private PropertyPanel propertyPanel;
     private ResizeHandle activeResizeHandle;
     private boolean resizing = false;
@@ -45,6 +81,16 @@ public class DesignPanel extends JPanel implements DropTargetListener {
     // Mode system
     private InteractionMode currentMode = InteractionMode.SELECTION;
     private ModeChangeListener modeChangeListener;
+    private final List<SelectionListener> selectionListeners = new ArrayList<>();
+
+    // Validation warnings drawn over the components
+    private Map<DesignComponent, List<String>> componentWarnings = Collections.emptyMap();
+    private List<String> screenWarnings = Collections.emptyList();
+    private Color warningColor = new Color(230, 140, 0);
+
+    // Offset of the next paste, grows while the same content is pasted repeatedly
+    private static final int PASTE_OFFSET = 20;
+    private int pasteOffset = PASTE_OFFSET;
 
     // Resize handle types
     public enum ResizeHandle {
@@ -74,6 +120,10 @@ public class DesignPanel extends JPanel implements DropTargetListener {
         void modeChanged(InteractionMode newMode);
     }
 
+    public interface SelectionListener {
+        void selectionChanged(DesignPanel canvas);
+    }
+
     public DesignPanel() {
         setBackground(Color.WHITE);
         setPreferredSize(new Dimension(800, 600));
@@ -100,6 +150,14 @@ public class DesignPanel extends JPanel implements DropTargetListener {
         this.modeChangeListener = listener;
     }
 
+    public void addSelectionListener(SelectionListener listener) {
+        selectionListeners.add(listener);
+    }
+
+    public void removeSelectionListener(SelectionListener listener) {
+        selectionListeners.remove(listener);
+    }
+
     public InteractionMode getCurrentMode() {
         return currentMode;
     }
@@ -109,10 +167,11 @@ public class DesignPanel extends JPanel implements DropTargetListener {
 
         // Clear selection when switching to pan mode
         if (mode == InteractionMode.PAN) {
-            selectedComponent = null;
+            selection.clear();
             if (propertyPanel != null) {
                 propertyPanel.updateProperties(null);
             }
+            fireSelectionChanged();
         }
 
         // Update cursor
@@ -140,6 +199,594 @@ public class DesignPanel extends JPanel implements DropTargetListener {
         return components;
     }
 
+    /**
+     * Binds the canvas to the given component list, edits go directly to that list
+     */
+    public void setDesignComponents(List<DesignComponent> components) {
+        this.components = components;
+        componentWarnings = Collections.emptyMap();
+        screenWarnings = Collections.emptyList();
+        selection.clear();
+        marquee = null;
+        snapIndex = null;
+        activeResizeHandle = ResizeHandle.NONE;
+        dragging = false;
+        resizing = false;
+        if (propertyPanel != null) {
+            propertyPanel.clearSelection();
+        }
+        fireSelectionChanged();
+        repaint();
+    }
+
+    /**
+     * Warnings to draw over the components and about the screen itself,
+     * replaced whenever a new validation result arrives
+     */
+    public void setWarnings(Map<DesignComponent, List<String>> componentWarnings, List<String> screenWarnings) {
+        this.componentWarnings = componentWarnings;
+        this.screenWarnings = screenWarnings;
+        // Tooltips show the warnings under the mouse
+        setToolTipText(componentWarnings.isEmpty() && screenWarnings.isEmpty() ? null : "");
+        repaint();
+    }
+
+    @Override
+    public String getToolTipText(MouseEvent e) {
+        DesignComponent comp = getDesignComponentAt(screenToCanvas(e.getPoint()));
+        if (comp != null) {
+            // The warnings of the innermost component that has any
+            for (; comp != null; comp = comp.getParent()) {
+                List<String> warnings = componentWarnings.get(comp);
+                if (warnings != null) {
+                    return toTooltip(warnings);
+                }
+            }
+            return null;
+        }
+        return screenWarnings.isEmpty() ? null : toTooltip(screenWarnings);
+    }
+
+    private static String toTooltip(List<String> warnings) {
+        StringBuilder html = new StringBuilder("<html>");
+        for (String warning : warnings) {
+            html.append(html.length() > 6 ? "<br>" : "").append("⚠ ")
+                    .append(warning.replace("&", "&amp;").replace("<", "&lt;"));
+        }
+        return html.append("</html>").toString();
+    }
+
+    /**
+     * Deepest component at the point in canvas coordinates, null over empty canvas.
+     * Only the containers containing the point are searched, children of collapsed containers are skipped
+     */
+    public DesignComponent getDesignComponentAt(Point canvasPoint) {
+        for (int i = components.size() - 1; i >= 0; i--) {
+            DesignComponent hit = components.get(i).findComponentAt(canvasPoint.x, canvasPoint.y, true);
+            if (hit != null) {
+                return hit;
+            }
+        }
+        return null;
+    }
+
+    // Deepest expanded container at the point that is not one of the excluded components or inside them
+    private DesignComponent findContainerAt(Point canvasPoint, List<DesignComponent> excluded) {
+        return findContainerAt(components, canvasPoint.x, canvasPoint.y, excluded);
+    }
+
+    private static DesignComponent findContainerAt(List<DesignComponent> candidates, int x, int y,
+                                                   List<DesignComponent> excluded) {
+        for (int i = candidates.size() - 1; i >= 0; i--) {
+            DesignComponent candidate = candidates.get(i);
+            Rectangle bounds = candidate.getBounds();
+            if (!candidate.isContainer() || candidate.isCollapsed() || !bounds.contains(x, y)
+                    || excluded.contains(candidate)) {
+                continue;
+            }
+            DesignComponent inner = findContainerAt(candidate.getChildren(), x - bounds.x, y - bounds.y, excluded);
+            return inner != null ? inner : candidate;
+        }
+        return null;
+    }
+
+    // Selection methods
+    public SelectionModel getSelectionModel() {
+        return selection;
+    }
+
+    /**
+     * Primary selected component, the one shown in the property panel
+     */
+    public DesignComponent getSelectedComponent() {
+        return selection.getPrimary();
+    }
+
+    /**
+     * All selected components in z-order
+     */
+    public List<DesignComponent> getSelectedComponents() {
+        return selection.getSelected(components);
+    }
+
+    public void setSelectedComponents(List<DesignComponent> selected) {
+        selection.setSelection(selected);
+        selectionChanged();
+    }
+
+    /**
+     * Selects the component and scrolls it into view, used to navigate to search results
+     */
+    public void revealComponent(DesignComponent component) {
+        revealComponents(Collections.singletonList(component));
+    }
+
+    /**
+     * Selects the components and scrolls so that all of them are visible
+     */
+    public void revealComponents(List<DesignComponent> targets) {
+        if (targets.isEmpty()) {
+            return;
+        }
+        // Components inside collapsed containers are neither drawn nor selectable
+        for (DesignComponent target : targets) {
+            for (DesignComponent container = target.getParent(); container != null; container = container.getParent()) {
+                if (container.isCollapsed()) {
+                    container.setCollapsed(false);
+                }
+            }
+        }
+        setSelectedComponents(targets);
+        Rectangle area = null;
+        for (DesignComponent target : targets) {
+            area = area == null ? getComponentPaintArea(target) : area.union(getComponentPaintArea(target));
+        }
+        Point topLeft = canvasToScreen(area.getLocation());
+        Point bottomRight = canvasToScreen(new Point(area.x + area.width, area.y + area.height));
+        scrollRectToVisible(new Rectangle(topLeft.x, topLeft.y, bottomRight.x - topLeft.x, bottomRight.y - topLeft.y));
+    }
+
+    /**
+     * Collapses the selected containers, or expands them if all of them are collapsed.
+     * The children of a collapsed container are neither drawn nor hit on the canvas
+     */
+    public void toggleCollapsedSelection() {
+        List<DesignComponent> containers = new ArrayList<>();
+        boolean allCollapsed = true;
+        for (DesignComponent comp : getSelectedComponents()) {
+            if (comp.isContainer() && !comp.getChildren().isEmpty()) {
+                containers.add(comp);
+                allCollapsed &= comp.isCollapsed();
+            }
+        }
+        for (DesignComponent container : containers) {
+            container.setCollapsed(!allCollapsed);
+            // Children hidden by collapsing cannot stay selected
+            if (!allCollapsed) {
+                for (DesignComponent comp : getSelectedComponents()) {
+                    if (container.isAncestorOf(comp)) {
+                        selection.remove(comp);
+                    }
+                }
+            }
+        }
+        if (!containers.isEmpty()) {
+            selectionChanged();
+        }
+    }
+
+    /**
+     * Turns the selected components into a symbol and replaces them with one instance of it,
+     * placed in their container if they share one. The symbol is added to its library with the
+     * same undoable change, so undo also takes it out again. Returns null if nothing is selected
+     */
+    public ComponentSymbol createSymbolFromSelection(String name, Consumer<ComponentSymbol> addSymbol,
+                                                     Consumer<ComponentSymbol> removeSymbol) {
+        List<DesignComponent> selected = selection.getSelectedTopmost(components);
+        if (currentMode != InteractionMode.SELECTION || selected.isEmpty()) {
+            return null;
+        }
+        ComponentSymbol symbol = ComponentSymbol.fromComponents(name, selected);
+
+        DesignComponent container = selected.get(0).getParent();
+        Rectangle union = null;
+        for (DesignComponent comp : selected) {
+            if (comp.getParent() != container) {
+                container = null;
+            }
+            Rectangle bounds = comp.getAbsoluteBounds();
+            union = union == null ? bounds : union.union(bounds);
+        }
+        Point origin = container != null ? container.getAbsoluteBounds().getLocation() : new Point();
+        DesignComponent instance = symbol.createInstance(union.x - origin.x, union.y - origin.y);
+
+        List<DesignComponent> affected = new ArrayList<>(selected);
+        affected.add(instance);
+        ComponentTreeCommand command = ComponentTreeCommand.record(components, constraintLayout, affected,
+                "Create Custom Component").withSymbol(symbol, addSymbol, removeSymbol);
+        addSymbol.accept(symbol);
+        for (DesignComponent comp : selected) {
+            if (comp.getParent() != null) {
+                comp.getParent().removeChild(comp);
+            }
+        }
+        components.removeIf(selection::contains);
+        if (container != null) {
+            container.addChild(instance);
+        } else {
+            components.add(instance);
+        }
+        CommandHistory.getInstance().addCommand(command.finish());
+
+        selection.setSelection(List.of(instance));
+        snapIndex = null;
+        selectionChanged();
+        return symbol;
+    }
+
+    /**
+     * Adds an instance of the symbol near the top left corner of the visible area and selects it
+     */
+    public void insertSymbolInstance(ComponentSymbol symbol) {
+        Point location = screenToCanvas(new Point(PASTE_OFFSET, PASTE_OFFSET));
+        DesignComponent instance = symbol.createInstance(Math.max(0, location.x), Math.max(0, location.y));
+        components.add(instance);
+        CommandHistory.getInstance().addCommand(
+                ComponentListCommand.added(components, List.of(instance), "Add " + symbol.getName()));
+        selection.setSelection(List.of(instance));
+        selectionChanged();
+    }
+
+    public void selectAll() {
+        if (currentMode != InteractionMode.SELECTION) {
+            return;
+        }
+        selection.setSelection(components);
+        selectionChanged();
+    }
+
+    /**
+     * Removes all selected components in one model update
+     */
+    public void deleteSelection() {
+        deleteSelection("Delete");
+    }
+
+    private void deleteSelection(String presentationName) {
+        if (selection.isEmpty()) {
+            return;
+        }
+        List<DesignComponent> removed = selection.getSelectedTopmost(components);
+        boolean nested = false;
+        boolean constrained = false;
+        for (DesignComponent comp : removed) {
+            nested |= comp.getParent() != null;
+            constrained |= constraintLayout != null && !constraintLayout.getConstraints(comp).isEmpty();
+        }
+        // The tree command also restores the constraints the removal drops
+        if (nested || constrained) {
+            ComponentTreeCommand command = ComponentTreeCommand.record(components, constraintLayout, removed, presentationName);
+            for (DesignComponent comp : removed) {
+                if (comp.getParent() != null) {
+                    comp.getParent().removeChild(comp);
+                }
+            }
+            components.removeIf(selection::contains);
+            CommandHistory.getInstance().addCommand(command.finish());
+        } else {
+            CommandHistory.getInstance().addCommand(
+                    ComponentListCommand.removed(components, removed, presentationName));
+            components.removeIf(selection::contains);
+        }
+        selection.clear();
+        snapIndex = null;
+        selectionChanged();
+    }
+
+    /**
+     * Moves all selected components by the given offset
+     */
+    public void moveSelection(int dx, int dy) {
+        Map<DesignComponent, Rectangle> targets = new IdentityHashMap<>();
+        for (DesignComponent comp : selection.getSelectedTopmost(components)) {
+            Rectangle target = new Rectangle(comp.getBounds());
+            target.translate(dx, dy);
+            targets.put(comp, target);
+        }
+        Map<DesignComponent, Rectangle> oldBounds = new IdentityHashMap<>();
+        applyLayout(targets, oldBounds);
+        for (Map.Entry<DesignComponent, Rectangle> entry : oldBounds.entrySet()) {
+            componentBoundsChanged(entry.getKey(), entry.getValue());
+        }
+        recordBoundsChange(oldBounds, true);
+        if (propertyPanel != null) {
+            propertyPanel.refreshProperties();
+        }
+        repaint();
+    }
+
+    public boolean isSmartGuides() {
+        return smartGuides;
+    }
+
+    public void setSmartGuides(boolean smartGuides) {
+        this.smartGuides = smartGuides;
+    }
+
+    public void setConstraintLayout(ConstraintLayout constraintLayout) {
+        this.constraintLayout = constraintLayout;
+        repaint();
+    }
+
+    public ConstraintLayout getConstraintLayout() {
+        return constraintLayout;
+    }
+
+    /**
+     * Moves or resizes components to the target bounds, along with every component the layout
+     * constraints tie to them. The bounds before the change are added to oldBounds
+     */
+    private void applyLayout(Map<DesignComponent, Rectangle> targets, Map<DesignComponent, Rectangle> oldBounds) {
+        Map<DesignComponent, Rectangle> solved = constraintLayout != null && !constraintLayout.isEmpty()
+                ? constraintLayout.solve(targets) : targets;
+        // One change notification for the whole selection instead of one per component
+        DesignComponent.batchChanges(() -> {
+            for (Map.Entry<DesignComponent, Rectangle> entry : solved.entrySet()) {
+                DesignComponent comp = entry.getKey();
+                Rectangle bounds = entry.getValue();
+                if (!bounds.equals(comp.getBounds())) {
+                    oldBounds.putIfAbsent(comp, new Rectangle(comp.getBounds()));
+                    comp.setBounds(bounds.x, bounds.y, bounds.width, bounds.height);
+                }
+            }
+        });
+    }
+
+    /**
+     * Adds a constraint of the type for the selection: an anchor at the current distance for each
+     * selected component, or a relation from the primary component to each other one. Spacing
+     * constraints chain the selection in order along their axis, keeping the current gaps.
+     * Only top-level components can be constrained.
+     * Throws IllegalArgumentException if the selection does not fit or a constraint conflicts
+     */
+    public void constrainSelection(LayoutConstraint.Type type) {
+        List<DesignComponent> selected = getSelectedComponents();
+        DesignComponent primary = selection.getPrimary();
+        if (constraintLayout == null || selected.isEmpty()) {
+            return;
+        }
+        if (type.isPair() && selected.size() < 2) {
+            throw new IllegalArgumentException(type.getDisplayName() + " needs at least two selected components");
+        }
+        for (DesignComponent comp : selected) {
+            if (comp.getParent() != null) {
+                throw new IllegalArgumentException("Components inside a container cannot be constrained");
+            }
+        }
+
+        List<LayoutConstraint> created = new ArrayList<>();
+        if (!type.isPair()) {
+            for (DesignComponent comp : selected) {
+                created.add(LayoutConstraint.anchor(type, comp, getAnchorDistance(type, comp.getBounds())));
+            }
+        } else if (type == LayoutConstraint.Type.SPACING_HORIZONTAL || type == LayoutConstraint.Type.SPACING_VERTICAL) {
+            boolean horizontal = type.isHorizontal();
+            List<DesignComponent> ordered = new ArrayList<>(selected);
+            ordered.sort((a, b) -> horizontal ? a.getBounds().x - b.getBounds().x : a.getBounds().y - b.getBounds().y);
+            for (int i = 1; i < ordered.size(); i++) {
+                Rectangle before = ordered.get(i - 1).getBounds();
+                Rectangle after = ordered.get(i).getBounds();
+                int gap = horizontal ? after.x - before.x - before.width : after.y - before.y - before.height;
+                created.add(LayoutConstraint.between(type, ordered.get(i - 1), ordered.get(i), gap));
+            }
+        } else {
+            for (DesignComponent comp : selected) {
+                if (comp != primary) {
+                    created.add(LayoutConstraint.between(type, primary, comp, 0));
+                }
+            }
+        }
+
+        Map<DesignComponent, Rectangle> oldBounds = new IdentityHashMap<>();
+        List<LayoutConstraint> added = new ArrayList<>();
+        try {
+            for (LayoutConstraint constraint : created) {
+                Map<DesignComponent, Rectangle> solved = constraintLayout.add(constraint);
+                added.add(constraint);
+                for (Map.Entry<DesignComponent, Rectangle> entry : solved.entrySet()) {
+                    Rectangle bounds = entry.getValue();
+                    oldBounds.putIfAbsent(entry.getKey(), new Rectangle(entry.getKey().getBounds()));
+                    entry.getKey().setBounds(bounds.x, bounds.y, bounds.width, bounds.height);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            // Keep the selection consistent, either all constraints are added or none
+            for (LayoutConstraint constraint : added) {
+                constraintLayout.remove(constraint);
+            }
+            for (Map.Entry<DesignComponent, Rectangle> entry : oldBounds.entrySet()) {
+                Rectangle bounds = entry.getValue();
+                entry.getKey().setBounds(bounds.x, bounds.y, bounds.width, bounds.height);
+            }
+            throw e;
+        }
+
+        CommandHistory.getInstance().addCommand(new ConstraintCommand(constraintLayout, added,
+                Collections.emptyList(), ComponentBoundsCommand.create(oldBounds, false), type.getDisplayName()));
+        snapIndex = null;
+        selectionChanged();
+    }
+
+    /**
+     * Removes every layout constraint of the selected components
+     */
+    public void removeSelectionConstraints() {
+        if (constraintLayout == null) {
+            return;
+        }
+        Set<LayoutConstraint> removed = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (DesignComponent comp : getSelectedComponents()) {
+            removed.addAll(constraintLayout.getConstraints(comp));
+        }
+        if (removed.isEmpty()) {
+            return;
+        }
+        for (LayoutConstraint constraint : removed) {
+            constraintLayout.remove(constraint);
+        }
+        CommandHistory.getInstance().addCommand(new ConstraintCommand(constraintLayout, Collections.emptyList(),
+                new ArrayList<>(removed), null, "Remove Constraints"));
+        repaint();
+    }
+
+    private int getAnchorDistance(LayoutConstraint.Type type, Rectangle bounds) {
+        switch (type) {
+            case ANCHOR_LEFT: return bounds.x;
+            case ANCHOR_TOP: return bounds.y;
+            case ANCHOR_RIGHT: return constraintLayout.getContainerWidth() - bounds.x - bounds.width;
+            default: return constraintLayout.getContainerHeight() - bounds.y - bounds.height;
+        }
+    }
+
+    /**
+     * Keeps the smart guide index in step with a component whose bounds changed
+     */
+    void componentBoundsChanged(DesignComponent comp, Rectangle oldBounds) {
+        if (snapIndex != null && comp.getParent() == null && !oldBounds.equals(comp.getBounds())) {
+            snapIndex.update(comp, oldBounds);
+        }
+    }
+
+    private SnapIndex getSnapIndex() {
+        if (snapIndex == null || snapIndex.getComponentCount() != components.size()) {
+            snapIndex = SnapIndex.build(components);
+        }
+        return snapIndex;
+    }
+
+    private int getGuideSnapDistance() {
+        return (int) Math.max(1, Math.round(GUIDE_SNAP_DISTANCE / zoomFactor));
+    }
+
+    /**
+     * Brings selection, guides and property panel up to date after the model
+     * was changed outside of the canvas, for example by undo or redo
+     */
+    public void modelChanged() {
+        selection.retainAll(components);
+        snapIndex = null;
+        selectionChanged();
+    }
+
+    /**
+     * Applies property edits that are still pending so that they are recorded before undo or redo
+     */
+    public void commitPendingEdits() {
+        if (propertyPanel != null) {
+            propertyPanel.flushEdits();
+        }
+    }
+
+    private void recordBoundsChange(Map<DesignComponent, Rectangle> oldBounds, boolean move) {
+        ComponentBoundsCommand command = ComponentBoundsCommand.create(oldBounds, move);
+        if (command != null) {
+            CommandHistory.getInstance().addCommand(command);
+        }
+    }
+
+    // Clipboard methods
+    public void copySelection() {
+        copySelection(Toolkit.getDefaultToolkit().getSystemClipboard());
+    }
+
+    public void cutSelection() {
+        cutSelection(Toolkit.getDefaultToolkit().getSystemClipboard());
+    }
+
+    public boolean paste() {
+        return paste(Toolkit.getDefaultToolkit().getSystemClipboard());
+    }
+
+    /**
+     * Puts the selected components on the clipboard in z-order
+     */
+    public void copySelection(Clipboard clipboard) {
+        if (selection.isEmpty()) {
+            return;
+        }
+        ComponentSelection contents = new ComponentSelection(ComponentCodec.encode(getSelectedComponents()));
+        clipboard.setContents(contents, contents);
+        pasteOffset = PASTE_OFFSET;
+    }
+
+    public void cutSelection(Clipboard clipboard) {
+        copySelection(clipboard);
+        deleteSelection("Cut");
+        pasteOffset = 0;
+    }
+
+    /**
+     * Inserts components from the clipboard in one batch and selects them,
+     * returns false if the clipboard holds no design components
+     */
+    public boolean paste(Clipboard clipboard) {
+        if (currentMode != InteractionMode.SELECTION) {
+            return false;
+        }
+        List<DesignComponent> pasted;
+        try {
+            byte[] data = readClipboard(clipboard);
+            if (data == null) {
+                return false;
+            }
+            pasted = ComponentCodec.decode(data);
+        } catch (IOException | UnsupportedFlavorException | IllegalStateException e) {
+            // Clipboard unavailable or content from an incompatible designer
+            return false;
+        }
+        if (pasted.isEmpty()) {
+            return false;
+        }
+
+        for (DesignComponent comp : pasted) {
+            Rectangle bounds = comp.getBounds();
+            comp.setLocation(bounds.x + pasteOffset, bounds.y + pasteOffset);
+        }
+        pasteOffset += PASTE_OFFSET;
+
+        components.addAll(pasted);
+        CommandHistory.getInstance().addCommand(ComponentListCommand.added(components, pasted, "Paste"));
+        selection.setSelection(pasted);
+        selectionChanged();
+        return true;
+    }
+
+    private static byte[] readClipboard(Clipboard clipboard) throws IOException, UnsupportedFlavorException {
+        if (clipboard.isDataFlavorAvailable(ComponentTransferHandler.COMPONENTS_FLAVOR)) {
+            try (InputStream in = (InputStream) clipboard.getData(ComponentTransferHandler.COMPONENTS_FLAVOR)) {
+                return in.readAllBytes();
+            }
+        }
+        if (clipboard.isDataFlavorAvailable(DataFlavor.stringFlavor)) {
+            return ComponentCodec.fromText((String) clipboard.getData(DataFlavor.stringFlavor));
+        }
+        return null;
+    }
+
+    private void selectionChanged() {
+        if (propertyPanel != null) {
+            propertyPanel.updateProperties(selection.getPrimary());
+        }
+        fireSelectionChanged();
+        repaint();
+    }
+
+    private void fireSelectionChanged() {
+        for (SelectionListener listener : new ArrayList<>(selectionListeners)) {
+            listener.selectionChanged(this);
+        }
+    }
+
     // Zoom and pan methods
     public void zoomIn() {
         setZoomFactor(Math.min(zoomFactor + ZOOM_STEP, MAX_ZOOM));
@@ -195,6 +842,33 @@ public class DesignPanel extends JPanel implements DropTargetListener {
         );
     }
 
+    /**
+     * Area in canvas coordinates painted for the component,
+     * including overflowing text and selection handles
+     */
+    public Rectangle getComponentPaintArea(DesignComponent comp) {
+        Rectangle area = comp.getAbsoluteBounds();
+        String text = comp.getText();
+        if (text != null && !text.isEmpty()) {
+            int textWidth = getFontMetrics(getFont()).stringWidth(text);
+            int overflow = Math.max(0, textWidth + 20 - area.width);
+            area.grow(overflow, 0);
+        }
+        area.grow(6, 6); // Selection rectangle and resize handles
+        return area;
+    }
+
+    /**
+     * Repaints only the given area, specified in canvas coordinates
+     */
+    public void repaintCanvasArea(Rectangle canvasArea) {
+        int x = (int) Math.floor(canvasArea.x * zoomFactor + offsetX);
+        int y = (int) Math.floor(canvasArea.y * zoomFactor + offsetY);
+        int width = (int) Math.ceil(canvasArea.width * zoomFactor);
+        int height = (int) Math.ceil(canvasArea.height * zoomFactor);
+        repaint(x - 1, y - 1, width + 2, height + 2);
+    }
+
     // Grid and ruler control methods
     public boolean isShowGrid() {
         return showGrid;
@@ -255,20 +929,50 @@ public class DesignPanel extends JPanel implements DropTargetListener {
         // Draw grid
         drawGrid(g2d);
 
-        // Draw all components
+        // Draw all components, skipping subtrees outside the repainted area
+        Rectangle visibleArea = g2d.getClipBounds();
         for (DesignComponent comp : components) {
-            comp.draw(g2d);
+            comp.draw(g2d, visibleArea, true);
+        }
+
+        // Draw the layout constraints of the selection
+        if (constraintLayout != null && !constraintLayout.isEmpty() && !selection.isEmpty()) {
+            drawConstraints(g2d);
+        }
+
+        // Draw validation warnings
+        if (!componentWarnings.isEmpty()) {
+            drawWarnings(g2d);
+        }
+
+        // Draw selection outlines, handles only for the primary component (selection mode only)
+        if (currentMode == InteractionMode.SELECTION && !selection.isEmpty()) {
+            for (DesignComponent comp : getSelectedComponents()) {
+                if (comp == selection.getPrimary()) {
+                    drawSelectionHandles(g2d, comp);
+                } else {
+                    drawSelectionOutline(g2d, comp);
+                }
+            }
+        }
+
+        // Draw smart guides
+        if (guideX != null || guideY != null) {
+            drawGuides(g2d);
         }
 
-        // Draw selection handles for selected component (only in selection mode)
-        if (selectedComponent != null && currentMode == InteractionMode.SELECTION) {
-            drawSelectionHandles(g2d, selectedComponent);
+        // Draw rubber-band selection
+        if (marquee != null) {
+            drawMarquee(g2d);
         }
 
         // Draw mode info
         g2d.dispose();
         drawModeInfo(g);
         drawZoomInfo(g);
+        if (!screenWarnings.isEmpty()) {
+            drawScreenWarnings(g);
+        }
     }
 
     private void drawModeInfo(Graphics g) {
@@ -310,6 +1014,77 @@ public class DesignPanel extends JPanel implements DropTargetListener {
         g2d.drawString(zoomText, getWidth() - textWidth - 12, 25);
     }
 
+    private void drawConstraints(Graphics2D g2d) {
+        Stroke oldStroke = g2d.getStroke();
+        g2d.setStroke(new BasicStroke((float) (1 / zoomFactor)));
+        g2d.setColor(constraintColor);
+        Set<LayoutConstraint> drawn = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (DesignComponent comp : getSelectedComponents()) {
+            for (LayoutConstraint constraint : constraintLayout.getConstraints(comp)) {
+                if (drawn.add(constraint)) {
+                    drawConstraint(g2d, constraint);
+                }
+            }
+        }
+        g2d.setStroke(oldStroke);
+    }
+
+    private void drawConstraint(Graphics2D g2d, LayoutConstraint constraint) {
+        Rectangle first = constraint.getFirst().getBounds();
+        int centerX = first.x + first.width / 2;
+        int centerY = first.y + first.height / 2;
+        switch (constraint.getType()) {
+            case ANCHOR_LEFT:
+                g2d.drawLine(0, centerY, first.x, centerY);
+                break;
+            case ANCHOR_RIGHT:
+                g2d.drawLine(first.x + first.width, centerY, constraintLayout.getContainerWidth(), centerY);
+                break;
+            case ANCHOR_TOP:
+                g2d.drawLine(centerX, 0, centerX, first.y);
+                break;
+            case ANCHOR_BOTTOM:
+                g2d.drawLine(centerX, first.y + first.height, centerX, constraintLayout.getContainerHeight());
+                break;
+            default:
+                Rectangle second = constraint.getSecond().getBounds();
+                g2d.drawLine(centerX, centerY, second.x + second.width / 2, second.y + second.height / 2);
+                break;
+        }
+    }
+
+    private void drawWarnings(Graphics2D g2d) {
+        Stroke oldStroke = g2d.getStroke();
+        g2d.setStroke(new BasicStroke((float) (1.5 / zoomFactor), BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER,
+                10f, new float[]{(float) (3 / zoomFactor), (float) (3 / zoomFactor)}, 0f));
+        int badge = (int) Math.ceil(10 / zoomFactor);
+        for (DesignComponent comp : componentWarnings.keySet()) {
+            Rectangle bounds = comp.getAbsoluteBounds();
+            g2d.setColor(warningColor);
+            g2d.drawRect(bounds.x - 1, bounds.y - 1, bounds.width + 2, bounds.height + 2);
+
+            // Warning badge on the top-right corner
+            int x = bounds.x + bounds.width - badge / 2;
+            int y = bounds.y - badge / 2;
+            g2d.fillPolygon(new int[]{x, x + badge / 2, x + badge}, new int[]{y + badge, y, y + badge}, 3);
+        }
+        g2d.setStroke(oldStroke);
+    }
+
+    private void drawScreenWarnings(Graphics g) {
+        Graphics2D g2d = (Graphics2D) g;
+        g2d.setFont(new Font(Font.SANS_SERIF, Font.BOLD, 11));
+        String text = "⚠ " + screenWarnings.get(0)
+                + (screenWarnings.size() > 1 ? " (+" + (screenWarnings.size() - 1) + " more)" : "");
+        FontMetrics fm = g2d.getFontMetrics();
+        int textWidth = fm.stringWidth(text);
+
+        g2d.setColor(new Color(warningColor.getRed(), warningColor.getGreen(), warningColor.getBlue(), 220));
+        g2d.fillRoundRect(10, getHeight() - 32, textWidth + 20, 22, 8, 8);
+        g2d.setColor(Color.WHITE);
+        g2d.drawString(text, 20, getHeight() - 16);
+    }
+
     private void drawGrid(Graphics2D g2d) {
         g2d.setColor(Color.LIGHT_GRAY);
         int gridSize = 10;
@@ -324,7 +1099,7 @@ public class DesignPanel extends JPanel implements DropTargetListener {
 
     private void drawSelectionHandles(Graphics2D g2d, DesignComponent comp) {
         g2d.setColor(Color.BLUE);
-        Rectangle bounds = comp.getBounds();
+        Rectangle bounds = comp.getAbsoluteBounds();
 
         // Draw selection rectangle
         g2d.drawRect(bounds.x - 2, bounds.y - 2, bounds.width + 4, bounds.height + 4);
@@ -347,6 +1122,37 @@ public class DesignPanel extends JPanel implements DropTargetListener {
         drawResizeHandle(g2d, bounds.x - handleSize/2, bounds.y + bounds.height/2 - handleSize/2, handleSize); // W
     }
 
+    private void drawSelectionOutline(Graphics2D g2d, DesignComponent comp) {
+        Rectangle bounds = comp.getAbsoluteBounds();
+        g2d.setColor(Color.BLUE);
+        g2d.drawRect(bounds.x - 2, bounds.y - 2, bounds.width + 4, bounds.height + 4);
+    }
+
+    private void drawGuides(Graphics2D g2d) {
+        Point topLeft = screenToCanvas(new Point(0, 0));
+        Point bottomRight = screenToCanvas(new Point(getWidth(), getHeight()));
+        Stroke oldStroke = g2d.getStroke();
+        g2d.setStroke(new BasicStroke((float) (1 / zoomFactor)));
+        g2d.setColor(guideColor);
+        if (guideX != null) {
+            g2d.drawLine(guideX, topLeft.y, guideX, bottomRight.y);
+        }
+        if (guideY != null) {
+            g2d.drawLine(topLeft.x, guideY, bottomRight.x, guideY);
+        }
+        g2d.setStroke(oldStroke);
+    }
+
+    private void drawMarquee(Graphics2D g2d) {
+        g2d.setColor(new Color(0, 120, 215, 40));
+        g2d.fillRect(marquee.x, marquee.y, marquee.width, marquee.height);
+        Stroke oldStroke = g2d.getStroke();
+        g2d.setStroke(new BasicStroke(1f, BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER, 10f, new float[]{4f, 4f}, 0f));
+        g2d.setColor(new Color(0, 120, 215));
+        g2d.drawRect(marquee.x, marquee.y, marquee.width, marquee.height);
+        g2d.setStroke(oldStroke);
+    }
+
     private void drawResizeHandle(Graphics2D g2d, int x, int y, int size) {
         g2d.fillRect(x, y, size, size);
         g2d.setColor(Color.BLUE);
@@ -391,8 +1197,12 @@ public class DesignPanel extends JPanel implements DropTargetListener {
         }
     }
 
-    private void handleResize(Point mousePoint) {
+    private void handleResize(Point canvasPoint) {
+        DesignComponent selectedComponent = selection.getPrimary();
         Rectangle bounds = selectedComponent.getBounds();
+        // Resize in the coordinates of the container
+        Point origin = selectedComponent.getOrigin();
+        Point mousePoint = new Point(canvasPoint.x - origin.x, canvasPoint.y - origin.y);
         int minSize = 20; // Minimum component size
 
         int newX = bounds.x;
@@ -437,19 +1247,189 @@ public class DesignPanel extends JPanel implements DropTargetListener {
                 break;
         }
 
-        // Snap to grid if enabled
+        // Snap the moving edges to nearby component edges
+        guideX = null;
+        guideY = null;
+        if (smartGuides && selectedComponent.getParent() == null) {
+            SnapIndex index = getSnapIndex();
+            int tolerance = getGuideSnapDistance();
+            SnapIndex.Snap snap = null;
+            if (activeResizeHandle == ResizeHandle.W || activeResizeHandle == ResizeHandle.NW
+                    || activeResizeHandle == ResizeHandle.SW) {
+                snap = index.snapEdgeX(newX, tolerance, selection);
+                if (snap != null && newWidth - snap.delta >= minSize) {
+                    newX += snap.delta;
+                    newWidth -= snap.delta;
+                    guideX = snap.guide;
+                }
+            } else if (activeResizeHandle == ResizeHandle.E || activeResizeHandle == ResizeHandle.NE
+                    || activeResizeHandle == ResizeHandle.SE) {
+                snap = index.snapEdgeX(newX + newWidth, tolerance, selection);
+                if (snap != null && newWidth + snap.delta >= minSize) {
+                    newWidth += snap.delta;
+                    guideX = snap.guide;
+                }
+            }
+            if (activeResizeHandle == ResizeHandle.N || activeResizeHandle == ResizeHandle.NW
+                    || activeResizeHandle == ResizeHandle.NE) {
+                snap = index.snapEdgeY(newY, tolerance, selection);
+                if (snap != null && newHeight - snap.delta >= minSize) {
+                    newY += snap.delta;
+                    newHeight -= snap.delta;
+                    guideY = snap.guide;
+                }
+            } else if (activeResizeHandle == ResizeHandle.S || activeResizeHandle == ResizeHandle.SW
+                    || activeResizeHandle == ResizeHandle.SE) {
+                snap = index.snapEdgeY(newY + newHeight, tolerance, selection);
+                if (snap != null && newHeight + snap.delta >= minSize) {
+                    newHeight += snap.delta;
+                    guideY = snap.guide;
+                }
+            }
+        }
+
+        // Snap to grid if enabled, on the axes without a guide
         if (snapToGrid) {
-            newX = (newX / gridSize) * gridSize;
-            newY = (newY / gridSize) * gridSize;
-            newWidth = ((newWidth + gridSize/2) / gridSize) * gridSize; // Round to nearest grid
-            newHeight = ((newHeight + gridSize/2) / gridSize) * gridSize;
+            if (guideX == null) {
+                newX = (newX / gridSize) * gridSize;
+                newWidth = ((newWidth + gridSize/2) / gridSize) * gridSize; // Round to nearest grid
+            }
+            if (guideY == null) {
+                newY = (newY / gridSize) * gridSize;
+                newHeight = ((newHeight + gridSize/2) / gridSize) * gridSize;
+            }
         }
 
         // Ensure minimum size
         newWidth = Math.max(newWidth, minSize);
         newHeight = Math.max(newHeight, minSize);
 
-        selectedComponent.setBounds(newX, newY, newWidth, newHeight);
+        Map<DesignComponent, Rectangle> targets = new IdentityHashMap<>();
+        targets.put(selectedComponent, new Rectangle(newX, newY, newWidth, newHeight));
+
+        // Apply the same change to the other selected components
+        Rectangle start = dragStartBounds.get(selectedComponent);
+        if (start != null && dragStartBounds.size() > 1) {
+            int dx = newX - start.x;
+            int dy = newY - start.y;
+            int dw = newWidth - start.width;
+            int dh = newHeight - start.height;
+            for (Map.Entry<DesignComponent, Rectangle> entry : dragStartBounds.entrySet()) {
+                if (entry.getKey() != selectedComponent) {
+                    Rectangle original = entry.getValue();
+                    targets.put(entry.getKey(), new Rectangle(original.x + dx, original.y + dy,
+                            Math.max(original.width + dw, minSize), Math.max(original.height + dh, minSize)));
+                }
+            }
+        }
+        applyLayout(targets, layoutStartBounds);
+    }
+
+    private void captureDragStart() {
+        dragStartBounds = new IdentityHashMap<>();
+        layoutStartBounds = new IdentityHashMap<>();
+        dragStartArea = null;
+        // Children of selected containers move with them
+        for (DesignComponent comp : selection.getSelectedTopmost(components)) {
+            dragStartBounds.put(comp, new Rectangle(comp.getBounds()));
+            Rectangle absolute = comp.getAbsoluteBounds();
+            dragStartArea = dragStartArea == null ? absolute : dragStartArea.union(absolute);
+        }
+        dragAnchor = null;
+        for (DesignComponent comp = selection.getPrimary(); comp != null; comp = comp.getParent()) {
+            if (dragStartBounds.containsKey(comp)) {
+                dragAnchor = comp;
+            }
+        }
+    }
+
+    private void finishDrag(boolean move) {
+        if (dragStartBounds != null) {
+            recordBoundsChange(getDragOldBounds(), move);
+        }
+        clearDrag();
+    }
+
+    // Bounds before the drag, components moved by the layout constraints are part of the same step
+    private Map<DesignComponent, Rectangle> getDragOldBounds() {
+        Map<DesignComponent, Rectangle> oldBounds = new IdentityHashMap<>(dragStartBounds);
+        for (Map.Entry<DesignComponent, Rectangle> entry : layoutStartBounds.entrySet()) {
+            oldBounds.putIfAbsent(entry.getKey(), entry.getValue());
+        }
+        for (Map.Entry<DesignComponent, Rectangle> entry : oldBounds.entrySet()) {
+            componentBoundsChanged(entry.getKey(), entry.getValue());
+        }
+        return oldBounds;
+    }
+
+    /**
+     * Ends a move, placing the moved components into the expanded container under the pointer
+     * or at the top level, at the same position on the canvas. Moving into a container drops
+     * the layout constraints of the moved components
+     */
+    private void finishMove(Point canvasPoint) {
+        if (dragStartBounds == null) {
+            finishDrag(true);
+            return;
+        }
+        List<DesignComponent> moved = new ArrayList<>();
+        for (DesignComponent comp : selection.getSelectedTopmost(components)) {
+            if (dragStartBounds.containsKey(comp)) {
+                moved.add(comp);
+            }
+        }
+        DesignComponent target = findContainerAt(canvasPoint, moved);
+        List<DesignComponent> reparented = new ArrayList<>();
+        for (DesignComponent comp : moved) {
+            if (comp.getParent() != target) {
+                reparented.add(comp);
+            }
+        }
+        if (reparented.isEmpty()) {
+            finishDrag(true);
+            return;
+        }
+
+        ComponentBoundsCommand boundsChange = ComponentBoundsCommand.create(getDragOldBounds(), true);
+        ComponentTreeCommand command = ComponentTreeCommand.record(components, constraintLayout, reparented,
+                target != null ? "Move Into " + target.getComponentType().getSimpleName() : "Move Out of Container");
+        Map<DesignComponent, Rectangle> absoluteBounds = new IdentityHashMap<>();
+        for (DesignComponent comp : reparented) {
+            absoluteBounds.put(comp, comp.getAbsoluteBounds());
+            if (comp.getParent() != null) {
+                comp.getParent().removeChild(comp);
+            }
+        }
+        components.removeIf(absoluteBounds::containsKey);
+        if (constraintLayout != null) {
+            constraintLayout.removeComponents(reparented);
+        }
+        Point targetOrigin = target != null ? target.getAbsoluteBounds().getLocation() : new Point();
+        for (DesignComponent comp : reparented) {
+            Rectangle bounds = absoluteBounds.get(comp);
+            comp.setBounds(bounds.x - targetOrigin.x, bounds.y - targetOrigin.y, bounds.width, bounds.height);
+            if (target != null) {
+                target.addChild(comp);
+            } else {
+                components.add(comp);
+            }
+        }
+        CommandHistory.getInstance().addCommand(command.finish().withBoundsChange(boundsChange));
+        snapIndex = null;
+        clearDrag();
+        selectionChanged();
+    }
+
+    private void clearDrag() {
+        dragStartBounds = null;
+        layoutStartBounds = null;
+        dragStartArea = null;
+        dragAnchor = null;
+        if (guideX != null || guideY != null) {
+            guideX = null;
+            guideY = null;
+            repaint();
+        }
     }
 
     // DropTargetListener implementation
@@ -481,17 +1461,26 @@ public class DesignPanel extends JPanel implements DropTargetListener {
                 // Standard component
                 Class<?> componentClass = (Class<?>) transferable.getTransferData(ComponentTransferHandler.COMPONENT_FLAVOR);
                 DesignComponent newComp = new DesignComponent(componentClass, dropPoint.x, dropPoint.y);
-                components.add(newComp);
-                selectedComponent = newComp;
+                DesignComponent container = findContainerAt(dropPoint, Collections.emptyList());
+                if (container != null) {
+                    // Dropped into a container, place it relative to the container
+                    Point origin = container.getAbsoluteBounds().getLocation();
+                    newComp.setLocation(dropPoint.x - origin.x, dropPoint.y - origin.y);
+                    ComponentTreeCommand command = ComponentTreeCommand.record(components, constraintLayout,
+                            List.of(newComp), "Add " + componentClass.getSimpleName());
+                    container.addChild(newComp);
+                    CommandHistory.getInstance().addCommand(command.finish());
+                } else {
+                    components.add(newComp);
+                    CommandHistory.getInstance().addCommand(
+                            ComponentListCommand.added(components, List.of(newComp), "Add " + componentClass.getSimpleName()));
+                }
+                selection.select(newComp);
 
             }
 
             // Update property panel for new component
-            if (propertyPanel != null && selectedComponent != null) {
-                propertyPanel.updateProperties(selectedComponent);
-            }
-
-            repaint();
+            selectionChanged();
             dtde.dropComplete(true);
 
         } catch (Exception e) {
@@ -507,48 +1496,85 @@ public class DesignPanel extends JPanel implements DropTargetListener {
             // Request focus for keyboard support
             requestFocusInWindow();
 
+            if (currentMode == InteractionMode.PAN) {
+                lastPanPoint = e.getPoint();
+                return;
+            }
+
+            Point canvasPoint = screenToCanvas(e.getPoint());
+            DesignComponent primary = selection.getPrimary();
+
             // Check if clicking on resize handle of selected component
-            if (selectedComponent != null) {
-                activeResizeHandle = getResizeHandleAt(e.getPoint(), selectedComponent.getBounds());
+            if (primary != null) {
+                activeResizeHandle = getResizeHandleAt(canvasPoint, primary.getAbsoluteBounds());
                 if (activeResizeHandle != ResizeHandle.NONE) {
                     resizing = true;
+                    captureDragStart();
                     return;
                 }
             }
 
-            selectedComponent = null;
             activeResizeHandle = ResizeHandle.NONE;
+            dragOffset = null;
+            boolean extend = e.isShiftDown() || e.isControlDown();
+
+            // Find clicked component, the deepest one in the container hierarchy
+            DesignComponent clicked = getDesignComponentAt(canvasPoint);
 
-            // Find clicked component
-            for (int i = components.size() - 1; i >= 0; i--) {
-                DesignComponent comp = components.get(i);
-                if (comp.getBounds().contains(e.getPoint())) {
-                    selectedComponent = comp;
-                    dragOffset = new Point(
-                            e.getX() - comp.getBounds().x,
-                            e.getY() - comp.getBounds().y
-                    );
-                    break;
+            if (clicked == null) {
+                // Start rubber-band selection on empty canvas
+                if (!extend) {
+                    selection.clear();
                 }
+                marqueeStart = canvasPoint;
+                marquee = new Rectangle(canvasPoint);
+                marqueeIndex = SpatialIndex.build(components);
+                marqueeBaseSelection = getSelectedComponents();
+                marqueeHits = Collections.emptyList();
+            } else if (extend) {
+                selection.toggle(clicked);
+            } else {
+                if (!selection.contains(clicked)) {
+                    selection.select(clicked);
+                } else {
+                    selection.add(clicked); // Keep the group, make it primary
+                }
+                captureDragStart();
+                // Offset to the component that carries the clicked one, which does not move while dragged
+                Point anchorLocation = dragAnchor.getAbsoluteBounds().getLocation();
+                dragOffset = new Point(canvasPoint.x - anchorLocation.x, canvasPoint.y - anchorLocation.y);
             }
 
             // Update property panel
-            if (propertyPanel != null) {
-                propertyPanel.updateProperties(selectedComponent);
-            }
-
-            repaint();
+            selectionChanged();
         }
 
         @Override
         public void mouseReleased(MouseEvent e) {
+            boolean wasResizing = resizing;
+            boolean wasDragging = dragging;
             dragging = false;
             resizing = false;
             activeResizeHandle = ResizeHandle.NONE;
-            setCursor(Cursor.getDefaultCursor());
+            if (wasDragging) {
+                finishMove(screenToCanvas(e.getPoint()));
+            } else {
+                finishDrag(!wasResizing);
+            }
+            lastPanPoint = null;
+            setCursor(currentMode.getCursor());
+
+            if (marquee != null) {
+                marquee = null;
+                marqueeIndex = null;
+                marqueeBaseSelection = null;
+                marqueeHits = null;
+                selectionChanged();
+                return;
+            }
 
             // Update property panel after resize/move
-            if (selectedComponent != null && propertyPanel != null) {
+            if (selection.getPrimary() != null && propertyPanel != null) {
                 propertyPanel.refreshProperties();
             }
         }
@@ -569,27 +1595,72 @@ public class DesignPanel extends JPanel implements DropTargetListener {
                 return;
             }
 
-            // Selection mode - handle component manipulation
-            if (selectedComponent != null && SwingUtilities.isLeftMouseButton(e)) {
-                Point canvasPoint = screenToCanvas(e.getPoint());
+            if (!SwingUtilities.isLeftMouseButton(e)) {
+                return;
+            }
+            Point canvasPoint = screenToCanvas(e.getPoint());
+
+            if (marquee != null) {
+                updateMarquee(canvasPoint);
+                return;
+            }
 
+            // Selection mode - handle component manipulation
+            DesignComponent selectedComponent = selection.getPrimary();
+            if (selectedComponent != null && dragStartBounds != null) {
                 if (resizing && activeResizeHandle != ResizeHandle.NONE) {
                     // Handle resizing
                     handleResize(canvasPoint);
-                } else if (dragOffset != null) {
-                    // Handle moving
-                    dragging = true;
-                    int newX = canvasPoint.x - dragOffset.x;
-                    int newY = canvasPoint.y - dragOffset.y;
+                } else if (dragOffset != null && dragAnchor != null) {
+                    // Handle moving, driven by the component that carries the primary one
+                    Point origin = dragAnchor.getOrigin();
+                    int newX = canvasPoint.x - origin.x - dragOffset.x;
+                    int newY = canvasPoint.y - origin.y - dragOffset.y;
+                    Rectangle start = dragStartBounds.get(dragAnchor);
+
+                    // Snap the edges or centers of the moved area to nearby components
+                    guideX = null;
+                    guideY = null;
+                    if (smartGuides) {
+                        SnapIndex index = getSnapIndex();
+                        int tolerance = getGuideSnapDistance();
+                        Rectangle movedArea = new Rectangle(dragStartArea);
+                        movedArea.translate(newX - start.x, newY - start.y);
+                        // Guides are in canvas coordinates, snapping offsets are the same in both
+                        SnapIndex.Snap snapX = index.snapX(movedArea, tolerance, selection);
+                        if (snapX != null) {
+                            newX += snapX.delta;
+                            guideX = snapX.guide;
+                        }
+                        SnapIndex.Snap snapY = index.snapY(movedArea, tolerance, selection);
+                        if (snapY != null) {
+                            newY += snapY.delta;
+                            guideY = snapY.guide;
+                        }
+                    }
 
-                    // Snap to grid if enabled
+                    // Snap to grid if enabled, on the axes without a guide
                     if (snapToGrid) {
                         int effectiveGridSize = (int) Math.max(1, gridSize / zoomFactor);
-                        newX = (newX / effectiveGridSize) * effectiveGridSize;
-                        newY = (newY / effectiveGridSize) * effectiveGridSize;
+                        if (guideX == null) {
+                            newX = (newX / effectiveGridSize) * effectiveGridSize;
+                        }
+                        if (guideY == null) {
+                            newY = (newY / effectiveGridSize) * effectiveGridSize;
+                        }
                     }
 
-                    selectedComponent.setLocation(newX, newY);
+                    // Move the whole selection by the offset of the anchor
+                    int dx = newX - start.x;
+                    int dy = newY - start.y;
+                    Map<DesignComponent, Rectangle> targets = new IdentityHashMap<>();
+                    for (Map.Entry<DesignComponent, Rectangle> entry : dragStartBounds.entrySet()) {
+                        Rectangle original = entry.getValue();
+                        Dimension size = entry.getKey().getBounds().getSize();
+                        targets.put(entry.getKey(), new Rectangle(original.x + dx, original.y + dy, size.width, size.height));
+                    }
+                    applyLayout(targets, layoutStartBounds);
+                    dragging = true;
                 }
 
                 repaint();
@@ -605,9 +1676,10 @@ public class DesignPanel extends JPanel implements DropTargetListener {
             }
 
             // Selection mode - update cursor based on mouse position over resize handles
+            DesignComponent selectedComponent = selection.getPrimary();
             if (selectedComponent != null) {
                 Point canvasPoint = screenToCanvas(e.getPoint());
-                ResizeHandle handle = getResizeHandleAt(canvasPoint, selectedComponent.getBounds());
+                ResizeHandle handle = getResizeHandleAt(canvasPoint, selectedComponent.getAbsoluteBounds());
                 setCursor(getResizeCursor(handle));
             } else {
                 setCursor(currentMode.getCursor());
@@ -615,6 +1687,39 @@ public class DesignPanel extends JPanel implements DropTargetListener {
         }
     }
 
+    private void updateMarquee(Point canvasPoint) {
+        Rectangle oldMarquee = new Rectangle(marquee);
+        marquee = new Rectangle(marqueeStart);
+        marquee.add(canvasPoint);
+
+        // Resolve the covered components through the spatial index
+        List<DesignComponent> hits = marqueeIndex.query(marquee);
+        List<DesignComponent> previousHits = marqueeHits;
+        marqueeHits = hits;
+        if (!marqueeBaseSelection.isEmpty()) {
+            selection.setSelection(marqueeBaseSelection);
+            List<DesignComponent> combined = new ArrayList<>(marqueeBaseSelection);
+            for (DesignComponent hit : hits) {
+                if (!selection.contains(hit)) {
+                    combined.add(hit);
+                }
+            }
+            hits = combined;
+        }
+        selection.setSelection(hits);
+
+        // Covered components may stick out of both marquees, including those no longer covered
+        Rectangle dirtyArea = oldMarquee.union(marquee);
+        for (DesignComponent comp : previousHits) {
+            dirtyArea.add(comp.getBounds());
+        }
+        for (DesignComponent comp : marqueeHits) {
+            dirtyArea.add(comp.getBounds());
+        }
+        dirtyArea.grow(6, 6);
+        repaintCanvasArea(dirtyArea);
+    }
+
     // Mouse wheel listener for zooming
     private class CanvasMouseWheelListener implements MouseWheelListener {
         @Override
@@ -655,43 +1760,28 @@ public class DesignPanel extends JPanel implements DropTargetListener {
             }
 
             // Component manipulation (only in selection mode)
-            if (currentMode == InteractionMode.SELECTION && selectedComponent != null) {
-                Rectangle bounds = selectedComponent.getBounds();
-                boolean moved = false;
-
+            if (currentMode == InteractionMode.SELECTION && !selection.isEmpty()) {
                 switch (e.getKeyCode()) {
                     case KeyEvent.VK_DELETE:
-                        components.remove(selectedComponent);
-                        selectedComponent = null;
-                        if (propertyPanel != null) {
-                            propertyPanel.clearSelection();
-                        }
-                        moved = true;
+                        deleteSelection();
                         break;
                     case KeyEvent.VK_LEFT:
-                        selectedComponent.setLocation(bounds.x - 10, bounds.y);
-                        moved = true;
+                        moveSelection(-10, 0);
                         break;
                     case KeyEvent.VK_RIGHT:
-                        selectedComponent.setLocation(bounds.x + 10, bounds.y);
-                        moved = true;
+                        moveSelection(10, 0);
                         break;
                     case KeyEvent.VK_UP:
-                        selectedComponent.setLocation(bounds.x, bounds.y - 10);
-                        moved = true;
+                        moveSelection(0, -10);
                         break;
                     case KeyEvent.VK_DOWN:
-                        selectedComponent.setLocation(bounds.x, bounds.y + 10);
-                        moved = true;
+                        moveSelection(0, 10);
                         break;
                 }
+            }
 
-                if (moved) {
-                    if (propertyPanel != null && selectedComponent != null) {
-                        propertyPanel.refreshProperties();
-                    }
-                    repaint();
-                }
+            if (currentMode == InteractionMode.SELECTION && e.isControlDown() && e.getKeyCode() == KeyEvent.VK_A) {
+                selectAll();
             }
 
             // Pan with arrow keys in pan mode
@@ -1,5 +1,8 @@
 package Designer;
 
+import Base.Property;
+import Base.PropertyIntrospector;
+
 import javax.swing.*;
 import java.awt.*;
 import java.util.List;
@@ -24,6 +27,17 @@ public class FormPreview {
     }
 
     private JComponent createActualComponent(DesignComponent designComp) {
+        if (designComp.getSymbol() != null) {
+            // Instances are built from the master, only the bounds are their own
+            JComponent component = createActualComponent(designComp.getSymbol().getMaster());
+            if (component != null) {
+                Rectangle bounds = designComp.getBounds();
+                component.setBounds(bounds.x, bounds.y, bounds.width, bounds.height);
+                component.setVisible(designComp.isVisible());
+            }
+            return component;
+        }
+
         JComponent component = null;
 
         try {
@@ -31,11 +45,25 @@ public class FormPreview {
             component = createComponentByType(designComp);
 
             if (component != null) {
+                // Children keep their bounds relative to the container
+                if (!designComp.getChildren().isEmpty()) {
+                    component.setLayout(null);
+                    for (DesignComponent child : designComp.getChildren()) {
+                        JComponent actualChild = createActualComponent(child);
+                        if (actualChild != null) {
+                            component.add(actualChild);
+                        }
+                    }
+                }
+
                 // Apply common properties
                 applyCommonProperties(component, designComp);
 
                 // Apply component-specific properties
                 applySpecificProperties(component, designComp);
+
+                // Apply Swing bean properties
+                applyBeanProperties(component, designComp);
             }
 
         } catch (Exception e) {
@@ -45,41 +73,8 @@ public class FormPreview {
         return component;
     }
 
-    private JComponent createComponentByType(DesignComponent designComp) {
-        Class<?> type = designComp.getComponentType();
-
-        if (type == JButton.class) {
-            return new JButton(designComp.getText());
-        } else if (type == JLabel.class) {
-            return new JLabel(designComp.getText());
-        } else if (type == JTextField.class) {
-            JTextField textField = new JTextField(designComp.getText());
-            textField.setEditable(designComp.isEditable());
-            textField.setColumns(designComp.getColumns());
-            return textField;
-        } else if (type == JCheckBox.class) {
-            JCheckBox checkBox = new JCheckBox(designComp.getText());
-            checkBox.setSelected(designComp.isSelected());
-            return checkBox;
-        } else if (type == JPanel.class) {
-            JPanel panel = new JPanel();
-            panel.setBorder(BorderFactory.createTitledBorder("Panel"));
-            return panel;
-        } else if (type == JComboBox.class) {
-            JComboBox<String> comboBox = new JComboBox<>(new String[]{"Option 1", "Option 2", "Option 3"});
-            return comboBox;
-        } else if (type == JList.class) {
-            JList<String> list = new JList<>(new String[]{"Item 1", "Item 2", "Item 3", "Item 4"});
-            list.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
-            return new JScrollPane(list);
-        } else if (type == JTextArea.class) {
-            JTextArea textArea = new JTextArea(designComp.getText());
-            textArea.setRows(5);
-            textArea.setColumns(20);
-            return new JScrollPane(textArea);
-        }
-
-        return null;
+    private JComponent createComponentByType(DesignComponent designComp) throws ReflectiveOperationException {
+        return designComp.getDescriptor().createPreviewComponent(designComp);
     }
 
     private void applyCommonProperties(JComponent component, DesignComponent designComp) {
@@ -95,6 +90,24 @@ public class FormPreview {
         }
     }
 
+    private void applyBeanProperties(JComponent component, DesignComponent designComp) {
+        if (designComp.getBeanProperties().isEmpty()) {
+            return;
+        }
+
+        // Lists and text areas are wrapped in a scroll pane
+        Component target = component;
+        if (component instanceof JScrollPane) {
+            target = ((JScrollPane) component).getViewport().getView();
+        }
+
+        for (Property property : PropertyIntrospector.createProperties(designComp.getComponentType(), designComp.getBeanProperties())) {
+            if (property.isChanged) {
+                property.write(target, property.newValue);
+            }
+        }
+    }
+
     private void applySpecificProperties(JComponent component, DesignComponent designComp) {
         // Apply component-specific properties that aren't handled in creation
         if (component instanceof JTextField) {
@@ -0,0 +1,188 @@
+package Designer;
+
+/**
+ * A linear relation between component edges kept by {@link ConstraintLayout}
+ * Anchors tie one component to an edge of the screen, the other types relate two components.
+ * Each constraint is a sum of edge terms that must equal zero
+ */
+public final class LayoutConstraint {
+
+    public enum Type {
+        ANCHOR_LEFT("Anchor Left", true, false),
+        ANCHOR_RIGHT("Anchor Right", true, false),
+        ANCHOR_TOP("Anchor Top", false, false),
+        ANCHOR_BOTTOM("Anchor Bottom", false, false),
+        ALIGN_LEFT("Align Left", true, true),
+        ALIGN_RIGHT("Align Right", true, true),
+        ALIGN_CENTER_X("Align Horizontal Centers", true, true),
+        ALIGN_TOP("Align Top", false, true),
+        ALIGN_BOTTOM("Align Bottom", false, true),
+        ALIGN_CENTER_Y("Align Vertical Centers", false, true),
+        EQUAL_WIDTH("Same Width", true, true),
+        EQUAL_HEIGHT("Same Height", false, true),
+        SPACING_HORIZONTAL("Horizontal Spacing", true, true),
+        SPACING_VERTICAL("Vertical Spacing", false, true);
+
+        private final String displayName;
+        private final boolean horizontal;
+        private final boolean pair;
+
+        Type(String displayName, boolean horizontal, boolean pair) {
+            this.displayName = displayName;
+            this.horizontal = horizontal;
+            this.pair = pair;
+        }
+
+        public String getDisplayName() { return displayName; }
+        public boolean isHorizontal() { return horizontal; }
+
+        /**
+         * Whether the constraint relates two components rather than one component and the screen
+         */
+        public boolean isPair() { return pair; }
+    }
+
+    // Indices of the edge values in the solver's x, y, width, height slots
+    static final int X = 0;
+    static final int Y = 1;
+    static final int WIDTH = 2;
+    static final int HEIGHT = 3;
+
+    private final Type type;
+    private final DesignComponent first;
+    private final DesignComponent second;
+    private final int value;
+
+    // Terms in the order the solver prefers to adjust them
+    final DesignComponent[] termComponents;
+    final int[] termIndices;
+    final double[] termFactors;
+
+    private LayoutConstraint(Type type, DesignComponent first, DesignComponent second, int value) {
+        this.type = type;
+        this.first = first;
+        this.second = second;
+        this.value = value;
+
+        int position = type.horizontal ? X : Y;
+        int size = type.horizontal ? WIDTH : HEIGHT;
+        switch (type) {
+            case ANCHOR_LEFT:
+            case ANCHOR_TOP:
+                termComponents = new DesignComponent[]{first};
+                termIndices = new int[]{position};
+                termFactors = new double[]{1};
+                break;
+            case ANCHOR_RIGHT:
+            case ANCHOR_BOTTOM:
+                termComponents = new DesignComponent[]{first, first};
+                termIndices = new int[]{position, size};
+                termFactors = new double[]{1, 1};
+                break;
+            case ALIGN_LEFT:
+            case ALIGN_TOP:
+                termComponents = new DesignComponent[]{second, first};
+                termIndices = new int[]{position, position};
+                termFactors = new double[]{1, -1};
+                break;
+            case ALIGN_RIGHT:
+            case ALIGN_BOTTOM:
+                termComponents = new DesignComponent[]{second, first, second, first};
+                termIndices = new int[]{position, position, size, size};
+                termFactors = new double[]{1, -1, 1, -1};
+                break;
+            case ALIGN_CENTER_X:
+            case ALIGN_CENTER_Y:
+                termComponents = new DesignComponent[]{second, first, second, first};
+                termIndices = new int[]{position, position, size, size};
+                termFactors = new double[]{1, -1, 0.5, -0.5};
+                break;
+            case EQUAL_WIDTH:
+            case EQUAL_HEIGHT:
+                termComponents = new DesignComponent[]{second, first};
+                termIndices = new int[]{size, size};
+                termFactors = new double[]{1, -1};
+                break;
+            default:
+                // second.position - first.position - first.size - gap = 0
+                termComponents = new DesignComponent[]{second, first, first};
+                termIndices = new int[]{position, position, size};
+                termFactors = new double[]{1, -1, -1};
+                break;
+        }
+    }
+
+    /**
+     * Keeps the component at the given distance from an edge of the screen
+     */
+    public static LayoutConstraint anchor(Type type, DesignComponent component, int distance) {
+        if (type.pair) {
+            throw new IllegalArgumentException(type + " is not an anchor");
+        }
+        return new LayoutConstraint(type, component, null, distance);
+    }
+
+    /**
+     * Relates the second component to the first, the gap is only used by spacing constraints
+     */
+    public static LayoutConstraint between(Type type, DesignComponent first, DesignComponent second, int gap) {
+        if (!type.pair) {
+            throw new IllegalArgumentException(type + " needs a single component");
+        }
+        if (first == second) {
+            throw new IllegalArgumentException("A component cannot be constrained to itself");
+        }
+        return new LayoutConstraint(type, first, second, gap);
+    }
+
+    public Type getType() { return type; }
+    public DesignComponent getFirst() { return first; }
+
+    /**
+     * The dependent component of a pair, null for anchors
+     */
+    public DesignComponent getSecond() { return second; }
+
+    /**
+     * Distance to the screen edge for anchors, gap for spacing constraints
+     */
+    public int getValue() { return value; }
+
+    public boolean involves(DesignComponent component) {
+        return first == component || second == component;
+    }
+
+    /**
+     * Value the terms must add up to for a screen of the given size
+     */
+    double getConstant(int containerWidth, int containerHeight) {
+        switch (type) {
+            case ANCHOR_LEFT:
+            case ANCHOR_TOP:
+                return value;
+            case ANCHOR_RIGHT:
+                return containerWidth - value;
+            case ANCHOR_BOTTOM:
+                return containerHeight - value;
+            case SPACING_HORIZONTAL:
+            case SPACING_VERTICAL:
+                return value;
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * Same constraint on other components, used when components are copied
+     */
+    LayoutConstraint withComponents(DesignComponent newFirst, DesignComponent newSecond) {
+        return new LayoutConstraint(type, newFirst, newSecond, value);
+    }
+
+    @Override
+    public String toString() {
+        String name = first.getComponentType().getSimpleName();
+        return type.displayName + ": " + name
+                + (second != null ? " → " + second.getComponentType().getSimpleName() : " (" + value + ")");
+    }
+}
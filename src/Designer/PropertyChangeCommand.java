@@ -0,0 +1,106 @@
+package Designer;
+
+import Base.UndoableCommand;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Property edit made through the property panel on one or more components
+ * Values are kept per component and property name as read with
+ * {@link DesignComponent#getPropertyValue(String)}
+ */
+class PropertyChangeCommand implements UndoableCommand {
+    private static final long MERGE_WINDOW_MILLIS = 1000;
+
+    private final DesignComponent[] components;
+    private final String[] names;
+    private final Object[] oldValues;
+    private final Object[] newValues;
+    private long timestamp;
+
+    PropertyChangeCommand(DesignComponent[] components, String[] names, Object[] oldValues, Object[] newValues) {
+        this.components = components;
+        this.names = names;
+        this.oldValues = oldValues;
+        this.newValues = newValues;
+        this.timestamp = System.currentTimeMillis();
+    }
+
+    /**
+     * Reads the current values of the named properties of all components
+     */
+    static Object[] readValues(DesignComponent[] components, String[] names) {
+        Object[] values = new Object[components.length * names.length];
+        for (int i = 0; i < components.length; i++) {
+            for (int j = 0; j < names.length; j++) {
+                values[i * names.length + j] = components[i].getPropertyValue(names[j]);
+            }
+        }
+        return values;
+    }
+
+    boolean isEmpty() {
+        return Arrays.equals(oldValues, newValues);
+    }
+
+    @Override
+    public void undo() {
+        apply(oldValues);
+    }
+
+    @Override
+    public void redo() {
+        apply(newValues);
+    }
+
+    private void apply(Object[] values) {
+        DesignComponent.batchChanges(() -> {
+            for (int i = 0; i < components.length; i++) {
+                for (int j = names.length - 1; j >= 0; j--) {
+                    Object value = values[i * names.length + j];
+                    if (!Objects.equals(components[i].getPropertyValue(names[j]), value)) {
+                        components[i].setPropertyValue(names[j], value);
+                    }
+                }
+            }
+        });
+    }
+
+    @Override
+    public String getPresentationName() {
+        return names.length == 1 ? "Change " + names[0] : "Change Properties";
+    }
+
+    @Override
+    public long getSizeInBytes() {
+        long size = 64 + components.length * 8L + names.length * 8L + oldValues.length * 16L;
+        for (Object value : oldValues) {
+            size += valueSize(value);
+        }
+        for (Object value : newValues) {
+            size += valueSize(value);
+        }
+        return size;
+    }
+
+    private static long valueSize(Object value) {
+        return value instanceof String text ? 40 + text.length() * 2L : 16;
+    }
+
+    /**
+     * Consecutive edits of the same properties, such as a slider drag, are merged into one step
+     */
+    @Override
+    public boolean merge(UndoableCommand next) {
+        if (!(next instanceof PropertyChangeCommand other)
+                || other.timestamp - timestamp > MERGE_WINDOW_MILLIS
+                || !Arrays.equals(components, other.components)
+                || !Arrays.equals(names, other.names)) {
+            return false;
+        }
+        System.arraycopy(other.newValues, 0, newValues, 0, newValues.length);
+        timestamp = other.timestamp;
+        return true;
+    }
+}
@@ -0,0 +1,102 @@
+package Designer;
+
+import Base.CommandHistory;
+
+import javax.swing.Timer;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Coalesces rapid property edits coming from the property panel
+ * Edits are keyed by property name so that only the latest value of each property
+ * within one frame is applied, followed by a single repaint of the affected area
+ * and one undoable command
+ */
+class PropertyEditQueue {
+    private static final int FRAME_DELAY = 16;
+
+    private final DesignPanel canvas;
+    private final Map<String, Consumer<DesignComponent>> pendingEdits;
+    private final Timer flushTimer;
+    private DesignComponent pendingComponent;
+
+    PropertyEditQueue(DesignPanel canvas) {
+        this.canvas = canvas;
+        this.pendingEdits = new LinkedHashMap<>();
+        this.flushTimer = new Timer(FRAME_DELAY, e -> flush());
+        this.flushTimer.setRepeats(false);
+    }
+
+    /**
+     * Queues an edit of the given property, replacing an earlier edit of the same property
+     */
+    void submit(DesignComponent component, String property, Consumer<DesignComponent> edit) {
+        if (pendingComponent != null && pendingComponent != component) {
+            flush();
+        }
+        pendingComponent = component;
+        pendingEdits.put(property, edit);
+        if (!flushTimer.isRunning()) {
+            flushTimer.start();
+        }
+    }
+
+    /**
+     * Applies all pending edits immediately
+     */
+    void flush() {
+        flushTimer.stop();
+        if (pendingComponent == null || pendingEdits.isEmpty()) {
+            pendingComponent = null;
+            return;
+        }
+
+        DesignComponent component = pendingComponent;
+        List<String> pendingNames = new ArrayList<>(pendingEdits.keySet());
+        List<Consumer<DesignComponent>> edits = new ArrayList<>(pendingEdits.values());
+        pendingEdits.clear();
+        pendingComponent = null;
+
+        // An edit of a selected component applies to the whole selection
+        List<DesignComponent> targets = canvas.getSelectedComponents();
+        if (!targets.contains(component)) {
+            targets = List.of(component);
+        }
+
+        DesignComponent[] changed = targets.toArray(new DesignComponent[0]);
+        String[] names = pendingNames.toArray(new String[0]);
+        Object[] oldValues = PropertyChangeCommand.readValues(changed, names);
+
+        Rectangle[] areas = new Rectangle[changed.length];
+        Rectangle[] oldBounds = new Rectangle[changed.length];
+        for (int i = 0; i < changed.length; i++) {
+            areas[i] = canvas.getComponentPaintArea(changed[i]);
+            oldBounds[i] = new Rectangle(changed[i].getBounds());
+        }
+        // One change notification for all targets instead of one per component
+        DesignComponent.batchChanges(() -> {
+            for (DesignComponent target : changed) {
+                for (Consumer<DesignComponent> edit : edits) {
+                    edit.accept(target);
+                }
+            }
+        });
+        Rectangle dirtyArea = null;
+        for (int i = 0; i < changed.length; i++) {
+            canvas.componentBoundsChanged(changed[i], oldBounds[i]);
+            areas[i].add(canvas.getComponentPaintArea(changed[i]));
+            dirtyArea = dirtyArea == null ? areas[i] : dirtyArea.union(areas[i]);
+        }
+        canvas.repaintCanvasArea(dirtyArea);
+
+        PropertyChangeCommand command = new PropertyChangeCommand(changed, names, oldValues,
+                PropertyChangeCommand.readValues(changed, names));
+        if (!command.isEmpty()) {
+            CommandHistory.getInstance().addCommand(command);
+        }
+    }
+}
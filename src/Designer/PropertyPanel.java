@@ -1,61 +1,99 @@
 package Designer;
 
+import Base.Property;
+import Base.PropertyIntrospector;
+
 import javax.swing.*;
 import javax.swing.event.DocumentEvent;
 import javax.swing.event.DocumentListener;
 import java.awt.*;
-import java.awt.event.FocusAdapter;
-import java.awt.event.FocusEvent;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 
 /**
  * Dynamic property panel with real-time updates and event handling
- * Provides comprehensive property editing with immediate visual feedback
+ * Provides comprehensive property editing with immediate visual feedback.
+ * One editor form is built per component type and rebound to the selected component
  */
 public class PropertyPanel extends JPanel {
     private JPanel propertyContainer;
+    private JPanel noSelectionPanel;
+    private JComponent visibleEditor;
+    private final Map<Class<?>, PropertyForm> forms;
+    private PropertyForm currentForm;
     private DesignComponent currentComponent;
     private DesignPanel canvas;
+    private PropertyEditQueue editQueue;
+    private boolean synchronizingControls;
 
     public PropertyPanel() {
         setLayout(new BorderLayout());
         setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+        forms = new HashMap<>();
 
         JLabel titleLabel = new JLabel("Properties");
         titleLabel.setFont(titleLabel.getFont().deriveFont(Font.BOLD, 14f));
         add(titleLabel, BorderLayout.NORTH);
 
-        propertyContainer = new JPanel();
-        propertyContainer.setLayout(new GridBagLayout());
+        propertyContainer = new JPanel(new BorderLayout());
 
         JScrollPane scrollPane = new JScrollPane(propertyContainer);
         scrollPane.setVerticalScrollBarPolicy(JScrollPane.VERTICAL_SCROLLBAR_AS_NEEDED);
         scrollPane.setHorizontalScrollBarPolicy(JScrollPane.HORIZONTAL_SCROLLBAR_NEVER);
         add(scrollPane, BorderLayout.CENTER);
 
-        showNoSelectionMessage();
+        noSelectionPanel = createNoSelectionPanel();
+        showEditor(noSelectionPanel);
     }
 
     public void setCanvas(DesignPanel canvas) {
         this.canvas = canvas;
+        this.editQueue = new PropertyEditQueue(canvas);
     }
 
     public void updateProperties(DesignComponent component) {
+        // Apply edits still pending for the previous component
+        if (editQueue != null) {
+            editQueue.flush();
+        }
         this.currentComponent = component;
-        propertyContainer.removeAll();
 
         if (component == null) {
-            showNoSelectionMessage();
-        } else {
-            showComponentProperties(component);
+            currentForm = null;
+            showEditor(noSelectionPanel);
+            return;
         }
 
-        propertyContainer.revalidate();
-        propertyContainer.repaint();
+        PropertyForm form = forms.get(component.getComponentType());
+        if (form == null) {
+            form = new PropertyForm(component.getComponentType());
+            forms.put(component.getComponentType(), form);
+        }
+        form.bind(component);
+        currentForm = form;
+        showEditor(form);
     }
 
     public void refreshProperties() {
-        if (currentComponent != null) {
-            updateProperties(currentComponent);
+        if (currentForm != null) {
+            if (editQueue != null) {
+                editQueue.flush();
+            }
+            currentForm.refresh();
+        }
+    }
+
+    /**
+     * Applies property edits that are still waiting for the next frame
+     */
+    void flushEdits() {
+        if (editQueue != null) {
+            editQueue.flush();
         }
     }
 
@@ -63,7 +101,22 @@ public class PropertyPanel extends JPanel {
         updateProperties(null);
     }
 
-    private void showNoSelectionMessage() {
+    // Swaps the visible editor only when the component type changes
+    private void showEditor(JComponent editor) {
+        if (visibleEditor == editor) {
+            return;
+        }
+        if (visibleEditor != null) {
+            propertyContainer.remove(visibleEditor);
+        }
+        visibleEditor = editor;
+        propertyContainer.add(editor, BorderLayout.NORTH);
+        propertyContainer.revalidate();
+        propertyContainer.repaint();
+    }
+
+    private JPanel createNoSelectionPanel() {
+        JPanel panel = new JPanel(new GridBagLayout());
         GridBagConstraints gbc = new GridBagConstraints();
         gbc.gridx = 0;
         gbc.gridy = 0;
@@ -71,369 +124,462 @@ public class PropertyPanel extends JPanel {
 
         JLabel noSelectionLabel = new JLabel("<html><center><b>Select a component</b><br>to edit properties</center></html>");
         noSelectionLabel.setForeground(Color.GRAY);
-        propertyContainer.add(noSelectionLabel, gbc);
+        panel.add(noSelectionLabel, gbc);
+        return panel;
     }
 
-    private void showComponentProperties(DesignComponent component) {
-        GridBagConstraints gbc = new GridBagConstraints();
-        gbc.fill = GridBagConstraints.HORIZONTAL;
-        gbc.insets = new Insets(3, 3, 3, 3);
-        gbc.anchor = GridBagConstraints.WEST;
+    private void submitEdit(DesignComponent component, String property, Consumer<DesignComponent> edit) {
+        if (component != null && !synchronizingControls) {
+            editQueue.submit(component, property, edit);
+        }
+    }
 
-        int row = 0;
+    private void synchronizeControl(Runnable update) {
+        boolean wasSynchronizing = synchronizingControls;
+        synchronizingControls = true;
+        try {
+            update.run();
+        } finally {
+            synchronizingControls = wasSynchronizing;
+        }
+    }
 
-        // Component Type (read-only with icon)
-        JLabel typeLabel = new JLabel(component.getComponentType().getSimpleName());
-        typeLabel.setFont(typeLabel.getFont().deriveFont(Font.BOLD));
-        typeLabel.setForeground(new Color(0, 100, 0));
-        addPropertyRow("Type:", typeLabel, gbc, row++);
+    /**
+     * Property editor for one component type
+     * Widgets are created once, {@link #bind} points them at another component
+     * and {@link #refresh} only touches widgets whose value changed
+     */
+    private class PropertyForm extends JPanel {
+        private final Class<?> componentType;
+        private final ComponentDescriptor descriptor;
+        private DesignComponent component;
+
+        private JTextField textField;
+        private JSlider xSlider, ySlider, widthSlider, heightSlider;
+        private JSpinner xSpinner, ySpinner, widthSpinner, heightSpinner;
+        private JPanel colorPreview;
+        private JCheckBox visibleCheckBox;
+        private JCheckBox enabledCheckBox;
+        private JSlider columnsSlider;
+        private JSpinner columnsSpinner;
+        private JCheckBox editableCheckBox;
+        private JCheckBox selectedCheckBox;
+        private final Map<Property, JComponent> beanEditors = new LinkedHashMap<>();
+
+        PropertyForm(Class<?> componentType) {
+            super(new GridBagLayout());
+            this.componentType = componentType;
+            this.descriptor = ComponentRegistry.getInstance().getDescriptor(componentType);
+            buildForm();
+        }
 
-        // Add separator
-        addSeparator(gbc, row++);
+        void bind(DesignComponent component) {
+            this.component = component;
+            refresh();
+        }
 
-        // Text Property - Dynamic with real-time updates
-        addTextProperty(component, gbc, row++);
+        void refresh() {
+            if (component == null) {
+                return;
+            }
+            synchronizeControl(() -> {
+                String text = component.getText() != null ? component.getText() : "";
+                if (!textField.getText().equals(text)) {
+                    textField.setText(text);
+                }
 
-        // Add separator
-        addSeparator(gbc, row++);
+                Rectangle bounds = component.getBounds();
+                setValue(xSlider, xSpinner, bounds.x);
+                setValue(ySlider, ySpinner, bounds.y);
+                setValue(widthSlider, widthSpinner, bounds.width);
+                setValue(heightSlider, heightSpinner, bounds.height);
 
-        // Position and Size Properties - Dynamic with range sliders
-        addPositionProperties(component, gbc, row);
-        row += 4;
+                if (!Objects.equals(colorPreview.getBackground(), component.getBackgroundColor())) {
+                    colorPreview.setBackground(component.getBackgroundColor());
+                }
+                setSelected(visibleCheckBox, component.isVisible());
+                setSelected(enabledCheckBox, component.isEnabled());
 
-        // Add separator
-        addSeparator(gbc, row++);
+                if (columnsSlider != null) {
+                    setValue(columnsSlider, columnsSpinner, component.getColumns());
+                }
+                if (editableCheckBox != null) {
+                    setSelected(editableCheckBox, component.isEditable());
+                }
+                if (selectedCheckBox != null) {
+                    setSelected(selectedCheckBox, component.isSelected());
+                }
 
-        // Appearance Properties
-        addAppearanceProperties(component, gbc, row);
-        row += 3;
+                for (Map.Entry<Property, JComponent> entry : beanEditors.entrySet()) {
+                    Property property = entry.getKey();
+                    setEditorValue(entry.getValue(), component.getBeanProperty(property.name, property.value));
+                }
+            });
+        }
 
-        // Add separator
-        addSeparator(gbc, row++);
+        private void setValue(JSlider slider, JSpinner spinner, int value) {
+            int sliderValue = Math.max(slider.getMinimum(), Math.min(value, slider.getMaximum()));
+            if (slider.getValue() != sliderValue) {
+                slider.setValue(sliderValue);
+            }
+            if (!Integer.valueOf(value).equals(spinner.getValue())) {
+                spinner.setValue(value);
+            }
+        }
 
-        // Component-specific properties
-        addComponentSpecificProperties(component, gbc, row);
-        row += getComponentSpecificPropertyCount(component);
+        private void setEditorValue(JComponent editor, Object value) {
+            if (editor instanceof JCheckBox) {
+                setSelected((JCheckBox) editor, Boolean.TRUE.equals(value));
+            } else if (editor instanceof JSpinner) {
+                JSpinner spinner = (JSpinner) editor;
+                // JSpinner rejects null, a property without a value keeps what the editor shows
+                if (value != null && !Objects.equals(spinner.getValue(), value)) {
+                    spinner.setValue(value);
+                }
+            } else if (editor instanceof JTextField) {
+                JTextField field = (JTextField) editor;
+                String text = value != null ? value.toString() : "";
+                if (!field.getText().equals(text)) {
+                    field.setText(text);
+                }
+            }
+        }
 
-        // Add separator
-        addSeparator(gbc, row++);
+        private void setSelected(JCheckBox checkBox, boolean selected) {
+            if (checkBox.isSelected() != selected) {
+                checkBox.setSelected(selected);
+            }
+        }
 
-        // Event Properties
-        addEventProperties(component, gbc, row);
-    }
+        private void buildForm() {
+            GridBagConstraints gbc = new GridBagConstraints();
+            gbc.fill = GridBagConstraints.HORIZONTAL;
+            gbc.insets = new Insets(3, 3, 3, 3);
+            gbc.anchor = GridBagConstraints.WEST;
 
-    private void addTextProperty(DesignComponent component, GridBagConstraints gbc, int row) {
-        JTextField textField = new JTextField(component.getText());
-        textField.setToolTipText("Enter component text - updates in real-time");
+            int row = 0;
 
-        // Real-time text updates
-        addRealTimeTextListener(textField, component);
+            // Component Type (read-only with icon)
+            JLabel typeLabel = new JLabel(componentType.getSimpleName());
+            typeLabel.setFont(typeLabel.getFont().deriveFont(Font.BOLD));
+            typeLabel.setForeground(new Color(0, 100, 0));
+            addPropertyRow("Type:", typeLabel, gbc, row++);
 
-        // Style the text field
-        textField.setBorder(BorderFactory.createCompoundBorder(
-                BorderFactory.createLineBorder(Color.LIGHT_GRAY),
-                BorderFactory.createEmptyBorder(2, 4, 2, 4)
-        ));
+            // Add separator
+            addSeparator(gbc, row++);
 
-        addPropertyRow("Text:", textField, gbc, row);
-    }
+            // Text Property - Dynamic with real-time updates
+            addTextProperty(gbc, row++);
 
-    private void addRealTimeTextListener(JTextField textField, DesignComponent component) {
-        textField.getDocument().addDocumentListener(new DocumentListener() {
-            @Override
-            public void insertUpdate(DocumentEvent e) { updateText(); }
-            @Override
-            public void removeUpdate(DocumentEvent e) { updateText(); }
-            @Override
-            public void changedUpdate(DocumentEvent e) { updateText(); }
-
-            private void updateText() {
-                SwingUtilities.invokeLater(() -> {
-                    component.setText(textField.getText());
-                    canvas.repaint();
-                });
-            }
-        });
-    }
+            // Add separator
+            addSeparator(gbc, row++);
 
-    private void addPositionProperties(DesignComponent component, GridBagConstraints gbc, int startRow) {
-        Rectangle bounds = component.getBounds();
+            // Position and Size Properties - Dynamic with range sliders
+            addPositionProperties(gbc, row);
+            row += 4;
 
-        // X Position with slider
-        JSlider xSlider = new JSlider(0, 800, bounds.x);
-        JSpinner xSpinner = new JSpinner(new SpinnerNumberModel(bounds.x, 0, 2000, 1));
-        addDynamicPositionProperty("X:", xSlider, xSpinner, component, true, gbc, startRow);
+            // Add separator
+            addSeparator(gbc, row++);
 
-        // Y Position with slider
-        JSlider ySlider = new JSlider(0, 600, bounds.y);
-        JSpinner ySpinner = new JSpinner(new SpinnerNumberModel(bounds.y, 0, 2000, 1));
-        addDynamicPositionProperty("Y:", ySlider, ySpinner, component, false, gbc, startRow + 1);
+            // Appearance Properties
+            addAppearanceProperties(gbc, row);
+            row += 3;
 
-        // Width with slider
-        JSlider widthSlider = new JSlider(20, 400, bounds.width);
-        JSpinner widthSpinner = new JSpinner(new SpinnerNumberModel(bounds.width, 10, 1000, 1));
-        addDynamicSizeProperty("Width:", widthSlider, widthSpinner, component, true, gbc, startRow + 2);
+            // Add separator
+            addSeparator(gbc, row++);
 
-        // Height with slider
-        JSlider heightSlider = new JSlider(20, 400, bounds.height);
-        JSpinner heightSpinner = new JSpinner(new SpinnerNumberModel(bounds.height, 10, 1000, 1));
-        addDynamicSizeProperty("Height:", heightSlider, heightSpinner, component, false, gbc, startRow + 3);
-    }
+            // Component-specific properties
+            row = addComponentSpecificProperties(gbc, row);
 
-    private void addDynamicPositionProperty(String label, JSlider slider, JSpinner spinner,
-                                            DesignComponent component, boolean isX,
-                                            GridBagConstraints gbc, int row) {
-        JPanel controlPanel = new JPanel(new BorderLayout(5, 0));
-        controlPanel.add(slider, BorderLayout.CENTER);
-        controlPanel.add(spinner, BorderLayout.EAST);
-
-        // Sync slider and spinner
-        slider.addChangeListener(e -> {
-            if (!slider.getValueIsAdjusting()) {
-                spinner.setValue(slider.getValue());
-                updatePosition(component, isX, slider.getValue());
+            // Swing bean properties found by introspection
+            if (!PropertyIntrospector.getProperties(componentType).isEmpty()) {
+                addSeparator(gbc, row++);
+                row = addBeanProperties(gbc, row);
             }
-        });
 
-        spinner.addChangeListener(e -> {
-            int value = (Integer) spinner.getValue();
-            slider.setValue(Math.min(value, slider.getMaximum()));
-            updatePosition(component, isX, value);
-        });
+            // Add separator
+            addSeparator(gbc, row++);
 
-        addPropertyRow(label, controlPanel, gbc, row);
-    }
+            // Event Properties
+            addEventProperties(gbc, row);
+        }
 
-    private void addDynamicSizeProperty(String label, JSlider slider, JSpinner spinner,
-                                        DesignComponent component, boolean isWidth,
-                                        GridBagConstraints gbc, int row) {
-        JPanel controlPanel = new JPanel(new BorderLayout(5, 0));
-        controlPanel.add(slider, BorderLayout.CENTER);
-        controlPanel.add(spinner, BorderLayout.EAST);
-
-        // Sync slider and spinner
-        slider.addChangeListener(e -> {
-            if (!slider.getValueIsAdjusting()) {
-                spinner.setValue(slider.getValue());
-                updateSize(component, isWidth, slider.getValue());
-            }
-        });
+        private void addTextProperty(GridBagConstraints gbc, int row) {
+            textField = new JTextField();
+            textField.setToolTipText("Enter component text - updates in real-time");
 
-        spinner.addChangeListener(e -> {
-            int value = (Integer) spinner.getValue();
-            slider.setValue(Math.min(value, slider.getMaximum()));
-            updateSize(component, isWidth, value);
-        });
+            // Real-time text updates
+            addRealTimeTextListener(textField);
 
-        addPropertyRow(label, controlPanel, gbc, row);
-    }
+            // Style the text field
+            textField.setBorder(BorderFactory.createCompoundBorder(
+                    BorderFactory.createLineBorder(Color.LIGHT_GRAY),
+                    BorderFactory.createEmptyBorder(2, 4, 2, 4)
+            ));
 
-    private void updatePosition(DesignComponent component, boolean isX, int value) {
-        Rectangle bounds = component.getBounds();
-        if (isX) {
-            component.setLocation(value, bounds.y);
-        } else {
-            component.setLocation(bounds.x, value);
+            addPropertyRow("Text:", textField, gbc, row);
         }
-        canvas.repaint();
-    }
 
-    private void updateSize(DesignComponent component, boolean isWidth, int value) {
-        Rectangle bounds = component.getBounds();
-        if (isWidth) {
-            component.setSize(value, bounds.height);
-        } else {
-            component.setSize(bounds.width, value);
+        private void addRealTimeTextListener(JTextField textField) {
+            textField.getDocument().addDocumentListener(new DocumentListener() {
+                @Override
+                public void insertUpdate(DocumentEvent e) { updateText(); }
+                @Override
+                public void removeUpdate(DocumentEvent e) { updateText(); }
+                @Override
+                public void changedUpdate(DocumentEvent e) { updateText(); }
+
+                private void updateText() {
+                    String text = textField.getText();
+                    submitEdit(component, "text", c -> c.setText(text));
+                }
+            });
         }
-        canvas.repaint();
-    }
 
-    private void addAppearanceProperties(DesignComponent component, GridBagConstraints gbc, int startRow) {
-        // Background Color with preview
-        JPanel colorPanel = new JPanel(new BorderLayout(5, 0));
-        JButton colorButton = new JButton("Choose");
-        colorButton.setPreferredSize(new Dimension(70, 25));
-
-        JPanel colorPreview = new JPanel();
-        colorPreview.setBackground(component.getBackgroundColor());
-        colorPreview.setPreferredSize(new Dimension(40, 25));
-        colorPreview.setBorder(BorderFactory.createLineBorder(Color.BLACK));
-
-        colorPanel.add(colorPreview, BorderLayout.WEST);
-        colorPanel.add(colorButton, BorderLayout.CENTER);
-
-        colorButton.addActionListener(e -> {
-            Color newColor = JColorChooser.showDialog(this, "Choose Background Color", component.getBackgroundColor());
-            if (newColor != null) {
-                component.setBackgroundColor(newColor);
-                colorPreview.setBackground(newColor);
-                canvas.repaint();
-            }
-        });
-
-        addPropertyRow("Background:", colorPanel, gbc, startRow);
-
-        // Visible Property with enhanced checkbox
-        JCheckBox visibleCheckBox = new JCheckBox("", component.isVisible());
-        visibleCheckBox.addActionListener(e -> {
-            component.setVisible(visibleCheckBox.isSelected());
-            canvas.repaint();
-        });
-        addPropertyRow("Visible:", visibleCheckBox, gbc, startRow + 1);
-
-        // Enabled Property
-        JCheckBox enabledCheckBox = new JCheckBox("", component.isEnabled());
-        enabledCheckBox.addActionListener(e -> {
-            component.setEnabled(enabledCheckBox.isSelected());
-            canvas.repaint();
-        });
-        addPropertyRow("Enabled:", enabledCheckBox, gbc, startRow + 2);
-    }
+        private void addPositionProperties(GridBagConstraints gbc, int startRow) {
+            // X Position with slider
+            xSlider = new JSlider(0, 800, 0);
+            xSpinner = new JSpinner(new SpinnerNumberModel(0, 0, 2000, 1));
+            addDynamicProperty("X:", xSlider, xSpinner, this::updateX, gbc, startRow);
+
+            // Y Position with slider
+            ySlider = new JSlider(0, 600, 0);
+            ySpinner = new JSpinner(new SpinnerNumberModel(0, 0, 2000, 1));
+            addDynamicProperty("Y:", ySlider, ySpinner, this::updateY, gbc, startRow + 1);
+
+            // Width with slider
+            widthSlider = new JSlider(20, 400, 100);
+            widthSpinner = new JSpinner(new SpinnerNumberModel(100, 10, 1000, 1));
+            addDynamicProperty("Width:", widthSlider, widthSpinner, this::updateWidth, gbc, startRow + 2);
+
+            // Height with slider
+            heightSlider = new JSlider(20, 400, 30);
+            heightSpinner = new JSpinner(new SpinnerNumberModel(30, 10, 1000, 1));
+            addDynamicProperty("Height:", heightSlider, heightSpinner, this::updateHeight, gbc, startRow + 3);
+        }
 
-    private void addEventProperties(DesignComponent component, GridBagConstraints gbc, int startRow) {
-        int row = startRow;
-
-        // Events section header
-        JLabel eventsLabel = new JLabel("Events");
-        eventsLabel.setFont(eventsLabel.getFont().deriveFont(Font.BOLD));
-        eventsLabel.setForeground(new Color(0, 0, 150));
-        addPropertyRow("", eventsLabel, gbc, row++);
-
-        // Click Event
-        JTextField clickEventField = new JTextField("onClick");
-        clickEventField.setToolTipText("Method name for click event");
-        clickEventField.getDocument().addDocumentListener(new DocumentListener() {
-            @Override
-            public void insertUpdate(DocumentEvent e) { updateEvent(); }
-            @Override
-            public void removeUpdate(DocumentEvent e) { updateEvent(); }
-            @Override
-            public void changedUpdate(DocumentEvent e) { updateEvent(); }
-
-            private void updateEvent() {
-                // Store event handler name in component
-                SwingUtilities.invokeLater(() -> {
-                    // You could extend DesignComponent to store event handlers
-                    canvas.repaint();
-                });
-            }
-        });
-        addPropertyRow("Click Event:", clickEventField, gbc, row++);
+        private void addDynamicProperty(String label, JSlider slider, JSpinner spinner,
+                                        IntConsumer update,
+                                        GridBagConstraints gbc, int row) {
+            JPanel controlPanel = new JPanel(new BorderLayout(5, 0));
+            controlPanel.add(slider, BorderLayout.CENTER);
+            controlPanel.add(spinner, BorderLayout.EAST);
+
+            // Sync slider and spinner without letting them trigger each other
+            slider.addChangeListener(e -> {
+                if (synchronizingControls) return;
+                synchronizeControl(() -> spinner.setValue(slider.getValue()));
+                update.accept(slider.getValue());
+            });
+
+            spinner.addChangeListener(e -> {
+                if (synchronizingControls) return;
+                int value = (Integer) spinner.getValue();
+                synchronizeControl(() -> slider.setValue(Math.min(value, slider.getMaximum())));
+                update.accept(value);
+            });
 
-        // Focus Event (for text components)
-        if (component.getComponentType() == JTextField.class ||
-                component.getComponentType() == JTextArea.class) {
-            JTextField focusEventField = new JTextField("onFocus");
-            focusEventField.setToolTipText("Method name for focus event");
-            addPropertyRow("Focus Event:", focusEventField, gbc, row++);
+            addPropertyRow(label, controlPanel, gbc, row);
         }
 
-        // Selection Event (for checkboxes, lists, etc.)
-        if (component.getComponentType() == JCheckBox.class ||
-                component.getComponentType() == JComboBox.class ||
-                component.getComponentType() == JList.class) {
-            JTextField selectionEventField = new JTextField("onSelection");
-            selectionEventField.setToolTipText("Method name for selection change event");
-            addPropertyRow("Selection Event:", selectionEventField, gbc, row++);
+        private void updateX(int value) {
+            submitEdit(component, "x", c -> c.setLocation(value, c.getBounds().y));
         }
-    }
 
-    private void addComponentSpecificProperties(DesignComponent component, GridBagConstraints gbc, int startRow) {
-        int row = startRow;
-
-        // Component-specific properties header
-        JLabel specificLabel = new JLabel("Component Properties");
-        specificLabel.setFont(specificLabel.getFont().deriveFont(Font.BOLD));
-        specificLabel.setForeground(new Color(150, 0, 0));
-        addPropertyRow("", specificLabel, gbc, row++);
-
-        if (component.getComponentType() == JTextField.class) {
-            // TextField-specific properties
-            JSlider columnsSlider = new JSlider(1, 50, component.getColumns());
-            JSpinner columnsSpinner = new JSpinner(new SpinnerNumberModel(component.getColumns(), 1, 50, 1));
-
-            JPanel columnsPanel = new JPanel(new BorderLayout(5, 0));
-            columnsPanel.add(columnsSlider, BorderLayout.CENTER);
-            columnsPanel.add(columnsSpinner, BorderLayout.EAST);
-
-            columnsSlider.addChangeListener(e -> {
-                if (!columnsSlider.getValueIsAdjusting()) {
-                    columnsSpinner.setValue(columnsSlider.getValue());
-                    component.setColumns(columnsSlider.getValue());
-                    canvas.repaint();
-                }
-            });
+        private void updateY(int value) {
+            submitEdit(component, "y", c -> c.setLocation(c.getBounds().x, value));
+        }
+
+        private void updateWidth(int value) {
+            submitEdit(component, "width", c -> c.setSize(value, c.getBounds().height));
+        }
 
-            columnsSpinner.addChangeListener(e -> {
-                int value = (Integer) columnsSpinner.getValue();
-                columnsSlider.setValue(value);
-                component.setColumns(value);
-                canvas.repaint();
+        private void updateHeight(int value) {
+            submitEdit(component, "height", c -> c.setSize(c.getBounds().width, value));
+        }
+
+        private void addAppearanceProperties(GridBagConstraints gbc, int startRow) {
+            // Background Color with preview
+            JPanel colorPanel = new JPanel(new BorderLayout(5, 0));
+            JButton colorButton = new JButton("Choose");
+            colorButton.setPreferredSize(new Dimension(70, 25));
+
+            colorPreview = new JPanel();
+            colorPreview.setPreferredSize(new Dimension(40, 25));
+            colorPreview.setBorder(BorderFactory.createLineBorder(Color.BLACK));
+
+            colorPanel.add(colorPreview, BorderLayout.WEST);
+            colorPanel.add(colorButton, BorderLayout.CENTER);
+
+            colorButton.addActionListener(e -> {
+                Color newColor = JColorChooser.showDialog(PropertyPanel.this, "Choose Background Color",
+                        component.getBackgroundColor());
+                if (newColor != null) {
+                    colorPreview.setBackground(newColor);
+                    submitEdit(component, "background", c -> c.setBackgroundColor(newColor));
+                }
             });
 
-            addPropertyRow("Columns:", columnsPanel, gbc, row++);
+            addPropertyRow("Background:", colorPanel, gbc, startRow);
 
-            JCheckBox editableCheckBox = new JCheckBox("", component.isEditable());
-            editableCheckBox.addActionListener(e -> {
-                component.setEditable(editableCheckBox.isSelected());
-                canvas.repaint();
+            // Visible Property with enhanced checkbox
+            visibleCheckBox = new JCheckBox("");
+            visibleCheckBox.addActionListener(e -> {
+                boolean visible = visibleCheckBox.isSelected();
+                submitEdit(component, "visible", c -> c.setVisible(visible));
             });
-            addPropertyRow("Editable:", editableCheckBox, gbc, row++);
+            addPropertyRow("Visible:", visibleCheckBox, gbc, startRow + 1);
 
-        } else if (component.getComponentType() == JCheckBox.class) {
-            JCheckBox selectedCheckBox = new JCheckBox("", component.isSelected());
-            selectedCheckBox.addActionListener(e -> {
-                component.setSelected(selectedCheckBox.isSelected());
-                canvas.repaint();
+            // Enabled Property
+            enabledCheckBox = new JCheckBox("");
+            enabledCheckBox.addActionListener(e -> {
+                boolean enabled = enabledCheckBox.isSelected();
+                submitEdit(component, "enabled", c -> c.setEnabled(enabled));
             });
-            addPropertyRow("Selected:", selectedCheckBox, gbc, row++);
+            addPropertyRow("Enabled:", enabledCheckBox, gbc, startRow + 2);
         }
-    }
 
-    private int getComponentSpecificPropertyCount(DesignComponent component) {
-        if (component.getComponentType() == JTextField.class) {
-            return 3; // Header + Columns + Editable
-        } else if (component.getComponentType() == JCheckBox.class) {
-            return 2; // Header + Selected
+        private void addEventProperties(GridBagConstraints gbc, int startRow) {
+            int row = startRow;
+
+            // Events section header
+            JLabel eventsLabel = new JLabel("Events");
+            eventsLabel.setFont(eventsLabel.getFont().deriveFont(Font.BOLD));
+            eventsLabel.setForeground(new Color(0, 0, 150));
+            addPropertyRow("", eventsLabel, gbc, row++);
+
+            // Events of this kind of component, handler names are not stored on the component yet
+            for (String eventName : descriptor.getEventNames()) {
+                JTextField eventField = new JTextField("on" + eventName);
+                eventField.setToolTipText("Method name for " + eventName.toLowerCase() + " event");
+                addPropertyRow(eventName + " Event:", eventField, gbc, row++);
+            }
         }
-        return 1; // Just header
-    }
 
-    private void addSeparator(GridBagConstraints gbc, int row) {
-        gbc.gridx = 0;
-        gbc.gridy = row;
-        gbc.gridwidth = 2;
-        gbc.fill = GridBagConstraints.HORIZONTAL;
-        gbc.insets = new Insets(5, 0, 5, 0);
+        private int addComponentSpecificProperties(GridBagConstraints gbc, int startRow) {
+            int row = startRow;
+
+            // Component-specific properties header
+            JLabel specificLabel = new JLabel("Component Properties");
+            specificLabel.setFont(specificLabel.getFont().deriveFont(Font.BOLD));
+            specificLabel.setForeground(new Color(150, 0, 0));
+            addPropertyRow("", specificLabel, gbc, row++);
+
+            // Only the properties the descriptor declares for this kind of component
+            Set<ComponentDescriptor.SpecificProperty> properties = descriptor.getSpecificProperties();
+            if (properties.contains(ComponentDescriptor.SpecificProperty.COLUMNS)) {
+                columnsSlider = new JSlider(1, 50, 10);
+                columnsSpinner = new JSpinner(new SpinnerNumberModel(10, 1, 50, 1));
+                addDynamicProperty("Columns:", columnsSlider, columnsSpinner,
+                        value -> submitEdit(component, "columns", c -> c.setColumns(value)), gbc, row++);
+            }
+            if (properties.contains(ComponentDescriptor.SpecificProperty.EDITABLE)) {
+                editableCheckBox = new JCheckBox("");
+                editableCheckBox.addActionListener(e -> {
+                    boolean editable = editableCheckBox.isSelected();
+                    submitEdit(component, "editable", c -> c.setEditable(editable));
+                });
+                addPropertyRow("Editable:", editableCheckBox, gbc, row++);
+            }
+            if (properties.contains(ComponentDescriptor.SpecificProperty.SELECTED)) {
+                selectedCheckBox = new JCheckBox("");
+                selectedCheckBox.addActionListener(e -> {
+                    boolean selected = selectedCheckBox.isSelected();
+                    submitEdit(component, "selected", c -> c.setSelected(selected));
+                });
+                addPropertyRow("Selected:", selectedCheckBox, gbc, row++);
+            }
+            return row;
+        }
 
-        JSeparator separator = new JSeparator();
-        propertyContainer.add(separator, gbc);
+        private int addBeanProperties(GridBagConstraints gbc, int startRow) {
+            int row = startRow;
 
-        // Reset constraints
-        gbc.gridwidth = 1;
-        gbc.insets = new Insets(3, 3, 3, 3);
-    }
+            JLabel beanLabel = new JLabel(componentType.getSimpleName() + " Properties");
+            beanLabel.setFont(beanLabel.getFont().deriveFont(Font.BOLD));
+            beanLabel.setForeground(new Color(100, 0, 100));
+            addPropertyRow("", beanLabel, gbc, row++);
 
-    private void addPropertyRow(String label, JComponent editor, GridBagConstraints gbc, int row) {
-        gbc.gridx = 0;
-        gbc.gridy = row;
-        gbc.weightx = 0;
-        gbc.gridwidth = 1;
-        gbc.fill = GridBagConstraints.NONE;
-
-        if (!label.isEmpty()) {
-            JLabel labelComponent = new JLabel(label);
-            labelComponent.setPreferredSize(new Dimension(80, 25));
-            propertyContainer.add(labelComponent, gbc);
-
-            gbc.gridx = 1;
-        } else {
+            for (Property property : PropertyIntrospector.getProperties(componentType)) {
+                JComponent editor = createBeanEditor(property);
+                editor.setToolTipText(property.propertyDescriptor.getShortDescription());
+                beanEditors.put(property, editor);
+                addPropertyRow(property.name + ":", editor, gbc, row++);
+            }
+            return row;
+        }
+
+        private JComponent createBeanEditor(Property property) {
+            if (property.type == boolean.class) {
+                JCheckBox checkBox = new JCheckBox("");
+                checkBox.addActionListener(e -> updateBeanProperty(property, checkBox.isSelected()));
+                return checkBox;
+            } else if (property.type == int.class) {
+                int defaultValue = property.value instanceof Integer ? (Integer) property.value : 0;
+                JSpinner spinner = new JSpinner(new SpinnerNumberModel(defaultValue, Integer.MIN_VALUE, Integer.MAX_VALUE, 1));
+                spinner.addChangeListener(e -> updateBeanProperty(property, spinner.getValue()));
+                return spinner;
+            } else {
+                JTextField field = new JTextField();
+                field.getDocument().addDocumentListener(new DocumentListener() {
+                    @Override
+                    public void insertUpdate(DocumentEvent e) { update(); }
+                    @Override
+                    public void removeUpdate(DocumentEvent e) { update(); }
+                    @Override
+                    public void changedUpdate(DocumentEvent e) { update(); }
+
+                    private void update() {
+                        String text = field.getText();
+                        updateBeanProperty(property, text.isEmpty() ? null : text);
+                    }
+                });
+                return field;
+            }
+        }
+
+        private void updateBeanProperty(Property property, Object value) {
+            // Values equal to the Swing default are not stored
+            Object storedValue = Objects.equals(value, property.value) ? null : value;
+            submitEdit(component, DesignComponent.BEAN_PREFIX + property.name, c -> c.setBeanProperty(property.name, storedValue));
+        }
+
+        private void addSeparator(GridBagConstraints gbc, int row) {
+            gbc.gridx = 0;
+            gbc.gridy = row;
             gbc.gridwidth = 2;
+            gbc.fill = GridBagConstraints.HORIZONTAL;
+            gbc.insets = new Insets(5, 0, 5, 0);
+
+            JSeparator separator = new JSeparator();
+            add(separator, gbc);
+
+            // Reset constraints
+            gbc.gridwidth = 1;
+            gbc.insets = new Insets(3, 3, 3, 3);
         }
 
-        gbc.weightx = 1;
-        gbc.fill = GridBagConstraints.HORIZONTAL;
-        editor.setPreferredSize(new Dimension(120, 25));
-        propertyContainer.add(editor, gbc);
+        private void addPropertyRow(String label, JComponent editor, GridBagConstraints gbc, int row) {
+            gbc.gridx = 0;
+            gbc.gridy = row;
+            gbc.weightx = 0;
+            gbc.gridwidth = 1;
+            gbc.fill = GridBagConstraints.NONE;
+
+            if (!label.isEmpty()) {
+                JLabel labelComponent = new JLabel(label);
+                labelComponent.setPreferredSize(new Dimension(80, 25));
+                add(labelComponent, gbc);
+
+                gbc.gridx = 1;
+            } else {
+                gbc.gridwidth = 2;
+            }
+
+            gbc.weightx = 1;
+            gbc.fill = GridBagConstraints.HORIZONTAL;
+            editor.setPreferredSize(new Dimension(120, 25));
+            add(editor, gbc);
+        }
     }
-}
\ No newline at end of file
+}
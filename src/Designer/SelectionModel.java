@@ -0,0 +1,150 @@
+package Designer;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Set of selected components on the canvas
+ * Membership is kept in a bit set indexed by component id,
+ * the primary component is the one whose handles and properties are shown
+ */
+public class SelectionModel {
+    private final BitSet selectedIds;
+    private DesignComponent primary;
+
+    public SelectionModel() {
+        selectedIds = new BitSet();
+    }
+
+    public boolean contains(DesignComponent component) {
+        return component != null && selectedIds.get(component.getId());
+    }
+
+    public boolean containsId(int componentId) {
+        return selectedIds.get(componentId);
+    }
+
+    public boolean isEmpty() {
+        return selectedIds.isEmpty();
+    }
+
+    public int size() {
+        return selectedIds.cardinality();
+    }
+
+    public DesignComponent getPrimary() {
+        return primary;
+    }
+
+    /**
+     * Replaces the selection with a single component, null clears it
+     */
+    public void select(DesignComponent component) {
+        selectedIds.clear();
+        primary = component;
+        if (component != null) {
+            selectedIds.set(component.getId());
+        }
+    }
+
+    public void add(DesignComponent component) {
+        selectedIds.set(component.getId());
+        primary = component;
+    }
+
+    public void remove(DesignComponent component) {
+        selectedIds.clear(component.getId());
+        if (primary == component) {
+            primary = null;
+        }
+    }
+
+    public void toggle(DesignComponent component) {
+        if (contains(component)) {
+            remove(component);
+        } else {
+            add(component);
+        }
+    }
+
+    public void clear() {
+        selectedIds.clear();
+        primary = null;
+    }
+
+    /**
+     * Replaces the selection with the given components, keeping the primary if still selected
+     */
+    public void setSelection(List<DesignComponent> components) {
+        selectedIds.clear();
+        for (DesignComponent component : components) {
+            selectedIds.set(component.getId());
+        }
+        if (!contains(primary)) {
+            primary = components.isEmpty() ? null : components.get(components.size() - 1);
+        }
+    }
+
+    /**
+     * Selected components in the order of the given list (z-order on the canvas),
+     * each container before its children
+     */
+    public List<DesignComponent> getSelected(List<DesignComponent> components) {
+        List<DesignComponent> selected = new ArrayList<>(size());
+        if (!selectedIds.isEmpty()) {
+            collectSelected(components, selected);
+        }
+        return selected;
+    }
+
+    private void collectSelected(List<DesignComponent> components, List<DesignComponent> selected) {
+        for (DesignComponent component : components) {
+            if (selectedIds.get(component.getId())) {
+                selected.add(component);
+            }
+            if (!component.getChildren().isEmpty()) {
+                collectSelected(component.getChildren(), selected);
+            }
+        }
+    }
+
+    /**
+     * Selected components without a selected container, the ones to move when dragging
+     */
+    public List<DesignComponent> getSelectedTopmost(List<DesignComponent> components) {
+        List<DesignComponent> topmost = new ArrayList<>();
+        for (DesignComponent component : getSelected(components)) {
+            boolean containerSelected = false;
+            for (DesignComponent container = component.getParent(); container != null; container = container.getParent()) {
+                if (contains(container)) {
+                    containerSelected = true;
+                    break;
+                }
+            }
+            if (!containerSelected) {
+                topmost.add(component);
+            }
+        }
+        return topmost;
+    }
+
+    /**
+     * Drops components that are no longer part of the list or the subtrees in it
+     */
+    public void retainAll(List<DesignComponent> components) {
+        BitSet present = new BitSet();
+        markPresent(components, present);
+        selectedIds.and(present);
+        if (primary != null && !selectedIds.get(primary.getId())) {
+            primary = null;
+        }
+    }
+
+    private static void markPresent(List<DesignComponent> components, BitSet present) {
+        for (DesignComponent component : components) {
+            present.set(component.getId());
+            markPresent(component.getChildren(), present);
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package Designer;
+
+import java.awt.*;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Sorted edge positions of the components on the canvas, used for smart guides
+ * Every component contributes its left, center and right edge on the x axis and
+ * its top, middle and bottom edge on the y axis. Lookups are binary searches,
+ * moved components are updated in place instead of rebuilding the index
+ */
+class SnapIndex {
+
+    /**
+     * Result of a snap lookup: the offset to apply and the guide line position
+     */
+    static class Snap {
+        final int delta;
+        final int guide;
+
+        Snap(int delta, int guide) {
+            this.delta = delta;
+            this.guide = guide;
+        }
+    }
+
+    private final Axis xEdges = new Axis();
+    private final Axis yEdges = new Axis();
+    private int componentCount;
+
+    static SnapIndex build(List<DesignComponent> components) {
+        SnapIndex index = new SnapIndex();
+        for (DesignComponent component : components) {
+            Rectangle bounds = component.getBounds();
+            index.xEdges.append(bounds.x, bounds.x + bounds.width / 2, bounds.x + bounds.width, component.getId());
+            index.yEdges.append(bounds.y, bounds.y + bounds.height / 2, bounds.y + bounds.height, component.getId());
+        }
+        index.xEdges.sort();
+        index.yEdges.sort();
+        index.componentCount = components.size();
+        return index;
+    }
+
+    int getComponentCount() {
+        return componentCount;
+    }
+
+    /**
+     * Moves the edges of a component from its previous bounds to its current bounds
+     */
+    void update(DesignComponent component, Rectangle oldBounds) {
+        Rectangle bounds = component.getBounds();
+        int id = component.getId();
+        xEdges.remove(oldBounds.x, id);
+        xEdges.remove(oldBounds.x + oldBounds.width / 2, id);
+        xEdges.remove(oldBounds.x + oldBounds.width, id);
+        yEdges.remove(oldBounds.y, id);
+        yEdges.remove(oldBounds.y + oldBounds.height / 2, id);
+        yEdges.remove(oldBounds.y + oldBounds.height, id);
+        xEdges.insert(bounds.x, id);
+        xEdges.insert(bounds.x + bounds.width / 2, id);
+        xEdges.insert(bounds.x + bounds.width, id);
+        yEdges.insert(bounds.y, id);
+        yEdges.insert(bounds.y + bounds.height / 2, id);
+        yEdges.insert(bounds.y + bounds.height, id);
+    }
+
+    /**
+     * Snaps the left, center or right edge of the area, whichever is closest to a guide
+     */
+    Snap snapX(Rectangle area, int tolerance, SelectionModel excluded) {
+        return closest(xEdges, tolerance, excluded, area.x, area.x + area.width / 2, area.x + area.width);
+    }
+
+    /**
+     * Snaps the top, middle or bottom edge of the area, whichever is closest to a guide
+     */
+    Snap snapY(Rectangle area, int tolerance, SelectionModel excluded) {
+        return closest(yEdges, tolerance, excluded, area.y, area.y + area.height / 2, area.y + area.height);
+    }
+
+    Snap snapEdgeX(int x, int tolerance, SelectionModel excluded) {
+        return closest(xEdges, tolerance, excluded, x);
+    }
+
+    Snap snapEdgeY(int y, int tolerance, SelectionModel excluded) {
+        return closest(yEdges, tolerance, excluded, y);
+    }
+
+    private static Snap closest(Axis axis, int tolerance, SelectionModel excluded, int... candidates) {
+        Snap best = null;
+        for (int candidate : candidates) {
+            int guide = axis.nearest(candidate, tolerance, excluded);
+            if (guide != Integer.MIN_VALUE && (best == null || Math.abs(guide - candidate) < Math.abs(best.delta))) {
+                best = new Snap(guide - candidate, guide);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Edge positions of one axis kept sorted, with the owning component id alongside
+     */
+    private static class Axis {
+        private int[] positions = new int[48];
+        private int[] owners = new int[48];
+        private int size;
+
+        void append(int first, int second, int third, int owner) {
+            ensureCapacity(size + 3);
+            positions[size] = first;
+            owners[size++] = owner;
+            positions[size] = second;
+            owners[size++] = owner;
+            positions[size] = third;
+            owners[size++] = owner;
+        }
+
+        void sort() {
+            // Sort position/owner pairs together by packing them into longs
+            long[] packed = new long[size];
+            for (int i = 0; i < size; i++) {
+                packed[i] = ((long) positions[i] << 32) | (owners[i] & 0xffffffffL);
+            }
+            Arrays.sort(packed);
+            for (int i = 0; i < size; i++) {
+                positions[i] = (int) (packed[i] >> 32);
+                owners[i] = (int) packed[i];
+            }
+        }
+
+        void insert(int position, int owner) {
+            ensureCapacity(size + 1);
+            int index = lowerBound(position);
+            System.arraycopy(positions, index, positions, index + 1, size - index);
+            System.arraycopy(owners, index, owners, index + 1, size - index);
+            positions[index] = position;
+            owners[index] = owner;
+            size++;
+        }
+
+        void remove(int position, int owner) {
+            for (int i = lowerBound(position); i < size && positions[i] == position; i++) {
+                if (owners[i] == owner) {
+                    System.arraycopy(positions, i + 1, positions, i, size - i - 1);
+                    System.arraycopy(owners, i + 1, owners, i, size - i - 1);
+                    size--;
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Closest edge within the tolerance that is not owned by an excluded component,
+         * Integer.MIN_VALUE if there is none
+         */
+        int nearest(int value, int tolerance, SelectionModel excluded) {
+            int start = lowerBound(value);
+            int left = start - 1;
+            int right = start;
+            while (left >= 0 || right < size) {
+                int leftDistance = left >= 0 ? value - positions[left] : Integer.MAX_VALUE;
+                int rightDistance = right < size ? positions[right] - value : Integer.MAX_VALUE;
+                if (Math.min(leftDistance, rightDistance) > tolerance) {
+                    break;
+                }
+                if (rightDistance <= leftDistance) {
+                    if (!excluded.containsId(owners[right])) {
+                        return positions[right];
+                    }
+                    right++;
+                } else {
+                    if (!excluded.containsId(owners[left])) {
+                        return positions[left];
+                    }
+                    left--;
+                }
+            }
+            return Integer.MIN_VALUE;
+        }
+
+        private int lowerBound(int position) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (positions[mid] < position) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity > positions.length) {
+                int newLength = Math.max(capacity, positions.length * 2);
+                positions = Arrays.copyOf(positions, newLength);
+                owners = Arrays.copyOf(owners, newLength);
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package Designer;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Uniform grid over component bounds for rectangle queries
+ * The index is a snapshot of the component list at build time,
+ * rebuild it after components were added, removed or moved
+ */
+class SpatialIndex {
+    private static final int CELL_SIZE = 64;
+
+    private final List<DesignComponent> components;
+    private final Map<Long, int[]> cells;
+
+    private SpatialIndex(List<DesignComponent> components) {
+        this.components = new ArrayList<>(components);
+        this.cells = new HashMap<>();
+    }
+
+    static SpatialIndex build(List<DesignComponent> components) {
+        SpatialIndex index = new SpatialIndex(components);
+        Map<Long, int[]> cellSizes = new HashMap<>();
+
+        for (int i = 0; i < index.components.size(); i++) {
+            Rectangle bounds = index.components.get(i).getBounds();
+            int minCellX = Math.floorDiv(bounds.x, CELL_SIZE);
+            int maxCellX = Math.floorDiv(bounds.x + bounds.width, CELL_SIZE);
+            int minCellY = Math.floorDiv(bounds.y, CELL_SIZE);
+            int maxCellY = Math.floorDiv(bounds.y + bounds.height, CELL_SIZE);
+
+            for (int cx = minCellX; cx <= maxCellX; cx++) {
+                for (int cy = minCellY; cy <= maxCellY; cy++) {
+                    index.addToCell(cellKey(cx, cy), i, cellSizes);
+                }
+            }
+        }
+
+        // Trim buckets to their final size
+        for (Map.Entry<Long, int[]> entry : index.cells.entrySet()) {
+            entry.setValue(Arrays.copyOf(entry.getValue(), cellSizes.get(entry.getKey())[0]));
+        }
+        return index;
+    }
+
+    private void addToCell(long key, int componentIndex, Map<Long, int[]> cellSizes) {
+        int[] bucket = cells.get(key);
+        int[] size = cellSizes.computeIfAbsent(key, k -> new int[1]);
+        if (bucket == null) {
+            bucket = new int[4];
+        } else if (size[0] == bucket.length) {
+            bucket = Arrays.copyOf(bucket, bucket.length * 2);
+        }
+        bucket[size[0]++] = componentIndex;
+        cells.put(key, bucket);
+    }
+
+    /**
+     * Components intersecting the area, in list (z-) order
+     */
+    List<DesignComponent> query(Rectangle area) {
+        BitSet hits = new BitSet(components.size());
+        int minCellX = Math.floorDiv(area.x, CELL_SIZE);
+        int maxCellX = Math.floorDiv(area.x + area.width, CELL_SIZE);
+        int minCellY = Math.floorDiv(area.y, CELL_SIZE);
+        int maxCellY = Math.floorDiv(area.y + area.height, CELL_SIZE);
+
+        for (int cx = minCellX; cx <= maxCellX; cx++) {
+            for (int cy = minCellY; cy <= maxCellY; cy++) {
+                int[] bucket = cells.get(cellKey(cx, cy));
+                if (bucket == null) {
+                    continue;
+                }
+                for (int componentIndex : bucket) {
+                    if (!hits.get(componentIndex)
+                            && components.get(componentIndex).getBounds().intersects(area)) {
+                        hits.set(componentIndex);
+                    }
+                }
+            }
+        }
+
+        List<DesignComponent> result = new ArrayList<>(hits.cardinality());
+        for (int i = hits.nextSetBit(0); i >= 0; i = hits.nextSetBit(i + 1)) {
+            result.add(components.get(i));
+        }
+        return result;
+    }
+
+    private static long cellKey(int cellX, int cellY) {
+        return ((long) cellX << 32) ^ (cellY & 0xffffffffL);
+    }
+}
@@ -0,0 +1,245 @@
+package Designer;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Descriptors of the Swing components the designer ships with
+ */
+final class SwingComponents {
+
+    private SwingComponents() {
+    }
+
+    static List<ComponentDescriptor> all() {
+        return List.of(
+                new SwingDescriptor("javax.swing.JButton", "Button", 10) {
+                    @Override
+                    public String getDefaultText() {
+                        return "Button";
+                    }
+
+                    @Override
+                    public JComponent createPreviewComponent(DesignComponent component) {
+                        return new JButton(component.getText());
+                    }
+                },
+                new SwingDescriptor("javax.swing.JLabel", "Label", 20) {
+                    @Override
+                    public String getDefaultText() {
+                        return "Label";
+                    }
+
+                    @Override
+                    public JComponent createPreviewComponent(DesignComponent component) {
+                        return new JLabel(component.getText());
+                    }
+                },
+                new SwingDescriptor("javax.swing.JTextField", "TextField", 30) {
+                    @Override
+                    public String getDefaultText() {
+                        return "TextField";
+                    }
+
+                    @Override
+                    public Dimension getDefaultSize() {
+                        return new Dimension(120, 25);
+                    }
+
+                    @Override
+                    public Set<SpecificProperty> getSpecificProperties() {
+                        return EnumSet.of(SpecificProperty.COLUMNS, SpecificProperty.EDITABLE);
+                    }
+
+                    @Override
+                    public List<String> getEventNames() {
+                        return List.of("Click", "Focus");
+                    }
+
+                    @Override
+                    public JComponent createPreviewComponent(DesignComponent component) {
+                        JTextField textField = new JTextField(component.getText());
+                        textField.setEditable(component.isEditable());
+                        textField.setColumns(component.getColumns());
+                        return textField;
+                    }
+
+                    @Override
+                    public void generateSpecificCode(StringBuilder code, DesignComponent component, String componentName) {
+                        if (!component.isEditable()) {
+                            code.append("        ").append(componentName).append(".setEditable(false);\n");
+                        }
+                        if (component.getColumns() != 10) {
+                            code.append("        ").append(componentName).append(".setColumns(")
+                                    .append(component.getColumns()).append(");\n");
+                        }
+                    }
+                },
+                new SwingDescriptor("javax.swing.JCheckBox", "CheckBox", 40) {
+                    @Override
+                    public String getDefaultText() {
+                        return "CheckBox";
+                    }
+
+                    @Override
+                    protected ComponentRenderer createRenderer() {
+                        return SwingComponents::paintCheckBox;
+                    }
+
+                    @Override
+                    public Set<SpecificProperty> getSpecificProperties() {
+                        return EnumSet.of(SpecificProperty.SELECTED);
+                    }
+
+                    @Override
+                    public List<String> getEventNames() {
+                        return List.of("Click", "Selection");
+                    }
+
+                    @Override
+                    public void appendSvgContent(StringBuilder svg, ComponentSnapshot component, String indent) {
+                        Rectangle bounds = component.getBounds();
+                        int checkY = bounds.y + (bounds.height - 12) / 2;
+                        svg.append(indent).append("<rect x=\"").append(bounds.x + 5).append("\" y=\"").append(checkY)
+                                .append("\" width=\"12\" height=\"12\" fill=\"#FFFFFF\" stroke=\"#000000\"/>\n");
+                        if (component.isSelected()) {
+                            svg.append(indent).append("<polyline points=\"")
+                                    .append(bounds.x + 7).append(",").append(checkY + 6).append(" ")
+                                    .append(bounds.x + 10).append(",").append(checkY + 9).append(" ")
+                                    .append(bounds.x + 15).append(",").append(checkY + 4)
+                                    .append("\" fill=\"none\" stroke=\"#000000\"/>\n");
+                        }
+                        appendSvgText(svg, component, indent, bounds.x + 20, "start");
+                    }
+
+                    @Override
+                    public JComponent createPreviewComponent(DesignComponent component) {
+                        JCheckBox checkBox = new JCheckBox(component.getText());
+                        checkBox.setSelected(component.isSelected());
+                        return checkBox;
+                    }
+
+                    @Override
+                    public void generateSpecificCode(StringBuilder code, DesignComponent component, String componentName) {
+                        if (component.isSelected()) {
+                            code.append("        ").append(componentName).append(".setSelected(true);\n");
+                        }
+                    }
+                },
+                new SwingDescriptor("javax.swing.JPanel", "Panel", 50) {
+                    @Override
+                    public boolean isContainer() {
+                        return true;
+                    }
+
+                    @Override
+                    public Dimension getDefaultSize() {
+                        return new Dimension(150, 100);
+                    }
+
+                    @Override
+                    public Color getDefaultBackground() {
+                        return Color.WHITE;
+                    }
+
+                    @Override
+                    public JComponent createPreviewComponent(DesignComponent component) {
+                        JPanel panel = new JPanel();
+                        panel.setBorder(BorderFactory.createTitledBorder("Panel"));
+                        return panel;
+                    }
+                },
+                new SwingDescriptor("javax.swing.JComboBox", "ComboBox", 60) {
+                    @Override
+                    public List<String> getEventNames() {
+                        return List.of("Click", "Selection");
+                    }
+
+                    @Override
+                    public JComponent createPreviewComponent(DesignComponent component) {
+                        return new JComboBox<>(new String[]{"Option 1", "Option 2", "Option 3"});
+                    }
+                },
+                new SwingDescriptor("javax.swing.JList", "List", 70) {
+                    @Override
+                    public List<String> getEventNames() {
+                        return List.of("Click", "Selection");
+                    }
+
+                    @Override
+                    public JComponent createPreviewComponent(DesignComponent component) {
+                        JList<String> list = new JList<>(new String[]{"Item 1", "Item 2", "Item 3", "Item 4"});
+                        list.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+                        return new JScrollPane(list);
+                    }
+                },
+                new SwingDescriptor("javax.swing.JTextArea", "TextArea", 80) {
+                    @Override
+                    public List<String> getEventNames() {
+                        return List.of("Click", "Focus");
+                    }
+
+                    @Override
+                    public JComponent createPreviewComponent(DesignComponent component) {
+                        JTextArea textArea = new JTextArea(component.getText());
+                        textArea.setRows(5);
+                        textArea.setColumns(20);
+                        return new JScrollPane(textArea);
+                    }
+                });
+    }
+
+    // Check square on the left, text after it
+    private static void paintCheckBox(Graphics2D g2d, DesignComponent component) {
+        Rectangle bounds = component.getBounds();
+        int checkSize = 12;
+        int checkX = bounds.x + 5;
+        int checkY = bounds.y + (bounds.height - checkSize) / 2;
+        g2d.setColor(Color.WHITE);
+        g2d.fillRect(checkX, checkY, checkSize, checkSize);
+        g2d.setColor(Color.BLACK);
+        g2d.drawRect(checkX, checkY, checkSize, checkSize);
+
+        if (component.isSelected()) {
+            g2d.drawLine(checkX + 2, checkY + 6, checkX + 5, checkY + 9);
+            g2d.drawLine(checkX + 5, checkY + 9, checkX + 10, checkY + 4);
+        }
+
+        String text = component.getText();
+        if (text != null && !text.isEmpty()) {
+            FontMetrics fm = g2d.getFontMetrics();
+            g2d.setColor(component.isEnabled() ? Color.BLACK : Color.GRAY);
+            g2d.drawString(text, bounds.x + 20, bounds.y + (bounds.height + fm.getAscent()) / 2);
+        }
+    }
+
+    private static class SwingDescriptor extends ComponentDescriptor {
+        private final String typeName;
+        private final String displayName;
+        private final int paletteOrder;
+
+        SwingDescriptor(String typeName, String displayName, int paletteOrder) {
+            this.typeName = typeName;
+            this.displayName = displayName;
+            this.paletteOrder = paletteOrder;
+        }
+
+        @Override
+        public String getTypeName() {
+            return typeName;
+        }
+
+        @Override
+        public String getDisplayName() {
+            return displayName;
+        }
+
+        @Override
+        public int getPaletteOrder() {
+            return paletteOrder;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package Designer;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Editor for the master of a custom component
+ * The master is the only top-level component of its own canvas, every edit inside it is
+ * propagated to the instances on all screens while the dialog is open
+ */
+public class SymbolEditorDialog extends JDialog implements ComponentSymbol.Listener {
+    private final ComponentSymbol symbol;
+    private DesignPanel canvas;
+    private JLabel statusLabel;
+
+    public SymbolEditorDialog(JFrame parent, ComponentSymbol symbol) {
+        super(parent, "Edit Custom Component - " + symbol.getName(), false);
+        this.symbol = symbol;
+
+        initializeDialog();
+        createComponents();
+        symbol.addListener(this);
+    }
+
+    private void initializeDialog() {
+        setSize(800, 600);
+        setLocationRelativeTo(getParent());
+        setDefaultCloseOperation(DISPOSE_ON_CLOSE);
+        setLayout(new BorderLayout());
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                symbol.removeListener(SymbolEditorDialog.this);
+            }
+        });
+    }
+
+    private void createComponents() {
+        canvas = new DesignPanel();
+        PropertyPanel propertyPanel = new PropertyPanel();
+        propertyPanel.setCanvas(canvas);
+        canvas.setPropertyPanel(propertyPanel);
+
+        List<DesignComponent> components = new ArrayList<>();
+        components.add(symbol.getMaster());
+        canvas.setDesignComponents(components);
+
+        JSplitPane splitPane = new JSplitPane(JSplitPane.HORIZONTAL_SPLIT,
+                new JScrollPane(canvas), new JScrollPane(propertyPanel));
+        splitPane.setResizeWeight(0.75);
+        add(splitPane, BorderLayout.CENTER);
+
+        JLabel hintLabel = new JLabel("Drop components from the palette inside the frame. "
+                + "Components outside it are not part of the custom component.");
+        hintLabel.setBorder(BorderFactory.createEmptyBorder(5, 10, 5, 10));
+        add(hintLabel, BorderLayout.NORTH);
+
+        statusLabel = new JLabel();
+        JButton closeButton = new JButton("Close");
+        closeButton.addActionListener(e -> dispose());
+
+        JPanel bottomPanel = new JPanel(new BorderLayout(5, 0));
+        bottomPanel.setBorder(BorderFactory.createEmptyBorder(5, 10, 10, 10));
+        bottomPanel.add(statusLabel, BorderLayout.CENTER);
+        bottomPanel.add(closeButton, BorderLayout.EAST);
+        add(bottomPanel, BorderLayout.SOUTH);
+        updateStatus();
+    }
+
+    @Override
+    public void symbolChanged(ComponentSymbol symbol) {
+        // Undo and redo reach the master without going through this canvas
+        canvas.repaint();
+        getOwner().repaint();
+        updateStatus();
+    }
+
+    private void updateStatus() {
+        statusLabel.setText(symbol.getInstanceCount() + " instances, version " + symbol.getVersion());
+    }
+}
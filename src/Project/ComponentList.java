@@ -0,0 +1,148 @@
+package Project;
+
+import Designer.DesignComponent;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Component list of a screen
+ * Attaches the owning screen as listener to every component it holds so that
+ * edits made through the canvas are reported back to the screen
+ */
+class ComponentList extends AbstractList<DesignComponent> {
+    private final DesignScreen owner;
+    private final List<DesignComponent> items;
+
+    ComponentList(DesignScreen owner) {
+        this.owner = owner;
+        this.items = new ArrayList<>();
+    }
+
+    @Override
+    public DesignComponent get(int index) {
+        return items.get(index);
+    }
+
+    @Override
+    public int size() {
+        return items.size();
+    }
+
+    @Override
+    public DesignComponent set(int index, DesignComponent component) {
+        DesignComponent old = items.set(index, component);
+        detach(old);
+        attach(component);
+        owner.componentListChanged(null);
+        owner.componentsRemoved(new int[]{index}, Collections.singletonList(old));
+        owner.componentsAdded(index, Collections.singletonList(component));
+        return old;
+    }
+
+    @Override
+    public void add(int index, DesignComponent component) {
+        items.add(index, component);
+        modCount++;
+        attach(component);
+        owner.componentListChanged(index == items.size() - 1 ? Collections.singletonList(component) : null);
+        owner.componentsAdded(index, Collections.singletonList(component));
+    }
+
+    /**
+     * Inserts all components with a single change notification
+     */
+    @Override
+    public boolean addAll(int index, Collection<? extends DesignComponent> components) {
+        if (components.isEmpty()) {
+            return false;
+        }
+        List<DesignComponent> added = new ArrayList<>(components);
+        boolean append = index == items.size();
+        items.addAll(index, added);
+        modCount++;
+        for (DesignComponent component : added) {
+            attach(component);
+        }
+        owner.componentListChanged(append ? added : null);
+        owner.componentsAdded(index, added);
+        return true;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends DesignComponent> components) {
+        return addAll(items.size(), components);
+    }
+
+    @Override
+    public DesignComponent remove(int index) {
+        DesignComponent old = items.remove(index);
+        modCount++;
+        detach(old);
+        owner.componentListChanged(null);
+        owner.componentsRemoved(new int[]{index}, Collections.singletonList(old));
+        return old;
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        List<DesignComponent> range = items.subList(fromIndex, toIndex);
+        List<DesignComponent> removed = new ArrayList<>(range);
+        int[] indices = new int[removed.size()];
+        for (int i = 0; i < indices.length; i++) {
+            detach(removed.get(i));
+            indices[i] = fromIndex + i;
+        }
+        range.clear();
+        modCount++;
+        owner.componentListChanged(null);
+        owner.componentsRemoved(indices, removed);
+    }
+
+    /**
+     * Removes all matching components with a single change notification
+     */
+    @Override
+    public boolean removeIf(Predicate<? super DesignComponent> filter) {
+        // Compact in place so that the removed positions can be reported
+        List<DesignComponent> removed = new ArrayList<>();
+        int[] indices = new int[8];
+        int kept = 0;
+        for (int i = 0; i < items.size(); i++) {
+            DesignComponent component = items.get(i);
+            if (filter.test(component)) {
+                detach(component);
+                if (removed.size() == indices.length) {
+                    indices = Arrays.copyOf(indices, indices.length * 2);
+                }
+                indices[removed.size()] = i;
+                removed.add(component);
+            } else {
+                items.set(kept++, component);
+            }
+        }
+        if (removed.isEmpty()) {
+            return false;
+        }
+        items.subList(kept, items.size()).clear();
+        modCount++;
+        owner.componentListChanged(null);
+        owner.componentsRemoved(Arrays.copyOf(indices, removed.size()), removed);
+        return true;
+    }
+
+    private void attach(DesignComponent component) {
+        component.setListener(owner);
+    }
+
+    private void detach(DesignComponent component) {
+        if (component.getListener() == owner) {
+            component.setListener(null);
+        }
+    }
+}
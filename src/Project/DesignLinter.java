@@ -0,0 +1,285 @@
+package Project;
+
+import Designer.ComponentSnapshot;
+
+import java.awt.*;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Checks the screens of a project for overlapping components, components outside the screen
+ * or their container, zero-size components and components sharing the same text
+ * Works on snapshots only and creates no Swing components, so it runs on worker threads
+ * and in a headless JVM. Screens are checked in parallel, one task per screen
+ */
+public class DesignLinter {
+
+    public interface ProgressListener {
+        /**
+         * Called from a worker thread after each screen was checked
+         */
+        void screenLinted(int completed, int total);
+    }
+
+    interface OverlapConsumer {
+        void overlap(int first, int second);
+    }
+
+    private DesignLinter() {
+    }
+
+    /**
+     * Checks all screens on worker threads and waits for the result, for headless use
+     */
+    public static List<LintIssue> lint(ProjectSnapshot project) {
+        return lintAsync(project, null).join();
+    }
+
+    /**
+     * Checks all screens on worker threads.
+     * Take the snapshot on the Event Dispatch Thread before calling
+     */
+    public static CompletableFuture<List<LintIssue>> lintAsync(ProjectSnapshot project, ProgressListener listener) {
+        List<ScreenSnapshot> screens = project.getScreens();
+        if (screens.isEmpty()) {
+            return CompletableFuture.completedFuture(new ArrayList<>());
+        }
+
+        int threads = Math.max(1, Math.min(screens.size(), Runtime.getRuntime().availableProcessors()));
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "design-lint");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        AtomicInteger completed = new AtomicInteger();
+        List<CompletableFuture<List<LintIssue>>> futures = new ArrayList<>(screens.size());
+        for (int i = 0; i < screens.size(); i++) {
+            int screenIndex = i;
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                List<LintIssue> issues = lintScreen(screenIndex, screens.get(screenIndex));
+                if (listener != null) {
+                    listener.screenLinted(completed.incrementAndGet(), screens.size());
+                }
+                return issues;
+            }, executor));
+        }
+
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+                .thenApply(ignored -> {
+                    List<LintIssue> issues = new ArrayList<>();
+                    for (CompletableFuture<List<LintIssue>> future : futures) {
+                        issues.addAll(future.join());
+                    }
+                    return issues;
+                })
+                .whenComplete((issues, error) -> executor.shutdown());
+    }
+
+    /**
+     * Checks one screen on the calling thread, including the components inside containers
+     */
+    public static List<LintIssue> lintScreen(int screenIndex, ScreenSnapshot screen) {
+        ScreenLint lint = new ScreenLint(screenIndex, screen.getName());
+        lint.checkLevel(screen.getComponents(), ScreenRenderer.getScreenWidth(screen),
+                ScreenRenderer.getScreenHeight(screen), null);
+
+        for (Map.Entry<String, List<Integer>> entry : lint.byText.entrySet()) {
+            List<Integer> ids = entry.getValue();
+            if (ids.size() > 1) {
+                int[] idArray = new int[ids.size()];
+                for (int i = 0; i < idArray.length; i++) {
+                    idArray[i] = ids.get(i);
+                }
+                lint.issues.add(new LintIssue(LintIssue.Kind.DUPLICATE_TEXT, screenIndex, lint.screenName, idArray,
+                        idArray.length + " components share the text \"" + entry.getKey() + "\""));
+            }
+        }
+        return lint.issues;
+    }
+
+    // Issues of one screen, collected level by level through its component tree
+    private static final class ScreenLint {
+        final int screenIndex;
+        final String screenName;
+        final List<LintIssue> issues = new ArrayList<>();
+        final Map<String, List<Integer>> byText = new LinkedHashMap<>();
+
+        ScreenLint(int screenIndex, String screenName) {
+            this.screenIndex = screenIndex;
+            this.screenName = screenName;
+        }
+
+        /**
+         * Checks the top-level components or the children of one container against the area
+         * they are drawn in. Overlaps are only reported between siblings, a child always lies
+         * on its container
+         */
+        void checkLevel(List<ComponentSnapshot> components, int width, int height, ComponentSnapshot container) {
+            String area = container == null ? "the " + width + "×" + height + " screen" : describe(container);
+            Rectangle[] boxes = new Rectangle[components.size()];
+            for (int i = 0; i < boxes.length; i++) {
+                ComponentSnapshot component = components.get(i);
+                Rectangle box = component.getBounds();
+                boxes[i] = box;
+
+                if (box.width <= 0 || box.height <= 0) {
+                    issues.add(new LintIssue(LintIssue.Kind.ZERO_SIZE, screenIndex, screenName,
+                            new int[]{component.getId()},
+                            describe(component) + " has zero size (" + box.width + "×" + box.height + ")"));
+                } else if (box.x < 0 || box.y < 0 || box.x + box.width > width || box.y + box.height > height) {
+                    boolean outside = box.x >= width || box.y >= height || box.x + box.width <= 0 || box.y + box.height <= 0;
+                    issues.add(new LintIssue(LintIssue.Kind.OUT_OF_BOUNDS, screenIndex, screenName,
+                            new int[]{component.getId()},
+                            describe(component) + (outside ? " lies outside " : " extends past ") + area));
+                }
+
+                String text = component.getText() != null ? component.getText().trim() : "";
+                if (!text.isEmpty()) {
+                    byText.computeIfAbsent(text, key -> new ArrayList<>(2)).add(component.getId());
+                }
+                if (!component.getChildren().isEmpty()) {
+                    checkLevel(component.getChildren(), box.width, box.height, component);
+                }
+            }
+
+            findOverlaps(boxes, (first, second) -> {
+                ComponentSnapshot a = components.get(first);
+                ComponentSnapshot b = components.get(second);
+                issues.add(new LintIssue(LintIssue.Kind.OVERLAP, screenIndex, screenName,
+                        new int[]{a.getId(), b.getId()}, describe(a) + " overlaps " + describe(b)));
+            });
+        }
+    }
+
+    /**
+     * Writes one line per issue followed by a summary, returns the number of issues
+     */
+    public static int printReport(List<LintIssue> issues, PrintStream out) {
+        int[] counts = new int[LintIssue.Kind.values().length];
+        for (LintIssue issue : issues) {
+            out.println(issue);
+            counts[issue.getKind().ordinal()]++;
+        }
+        StringBuilder summary = new StringBuilder().append(issues.size()).append(" issues");
+        for (LintIssue.Kind kind : LintIssue.Kind.values()) {
+            summary.append(", ").append(counts[kind.ordinal()]).append(' ').append(kind.getDisplayName().toLowerCase());
+        }
+        out.println(summary);
+        return issues.size();
+    }
+
+    /**
+     * Reports every pair of intersecting boxes once, boxes without area never intersect
+     * The boxes are swept by their left edge. Boxes whose horizontal range contains the
+     * sweep position are active and kept in a max tree over their bottom edges, ordered by
+     * their top edge, so each box only visits the active boxes it meets vertically.
+     * O((n + k) log n) for k reported pairs
+     */
+    static void findOverlaps(Rectangle[] boxes, OverlapConsumer consumer) {
+        int count = boxes.length;
+        if (count < 2) {
+            return;
+        }
+        int[] byLeft = sortedBy(boxes, box -> box.x);
+        int[] byRight = sortedBy(boxes, box -> box.x + box.width);
+        int[] byTop = sortedBy(boxes, box -> box.y);
+        int[] tops = new int[count];
+        int[] topRank = new int[count];
+        for (int rank = 0; rank < count; rank++) {
+            tops[rank] = boxes[byTop[rank]].y;
+            topRank[byTop[rank]] = rank;
+        }
+
+        int leaves = Integer.highestOneBit(count - 1) << 1;
+        int[] maxBottom = new int[2 * leaves];
+        Arrays.fill(maxBottom, Integer.MIN_VALUE);
+
+        int nextRight = 0;
+        for (int index : byLeft) {
+            Rectangle box = boxes[index];
+            if (box.width <= 0 || box.height <= 0) {
+                continue;
+            }
+            while (nextRight < count) {
+                Rectangle ending = boxes[byRight[nextRight]];
+                if (ending.x + ending.width > box.x) {
+                    break;
+                }
+                setBottom(maxBottom, leaves + topRank[byRight[nextRight]], Integer.MIN_VALUE);
+                nextRight++;
+            }
+
+            // Active boxes starting above this box's bottom and ending below its top
+            int limit = lowerBound(tops, box.y + box.height);
+            collect(maxBottom, 1, 0, leaves, limit, box.y, index, byTop, consumer);
+            setBottom(maxBottom, leaves + topRank[index], box.y + box.height);
+        }
+    }
+
+    private interface Key {
+        int of(Rectangle box);
+    }
+
+    private static int[] sortedBy(Rectangle[] boxes, Key key) {
+        long[] keys = new long[boxes.length];
+        for (int i = 0; i < boxes.length; i++) {
+            keys[i] = ((long) key.of(boxes[i]) << 32) | i;
+        }
+        Arrays.sort(keys);
+        int[] order = new int[boxes.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = (int) keys[i];
+        }
+        return order;
+    }
+
+    private static int lowerBound(int[] sorted, int value) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sorted[middle] < value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static void setBottom(int[] maxBottom, int node, int bottom) {
+        maxBottom[node] = bottom;
+        for (node >>= 1; node > 0; node >>= 1) {
+            maxBottom[node] = Math.max(maxBottom[2 * node], maxBottom[2 * node + 1]);
+        }
+    }
+
+    private static void collect(int[] maxBottom, int node, int from, int to, int limit, int top,
+                                int index, int[] byTop, OverlapConsumer consumer) {
+        if (from >= limit || maxBottom[node] <= top) {
+            return;
+        }
+        if (to - from == 1) {
+            consumer.overlap(byTop[from], index);
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        collect(maxBottom, 2 * node, from, middle, limit, top, index, byTop, consumer);
+        collect(maxBottom, 2 * node + 1, middle, to, limit, top, index, byTop, consumer);
+    }
+
+    private static String describe(ComponentSnapshot component) {
+        String text = component.getText();
+        return component.getComponentType().getSimpleName()
+                + (text == null || text.isEmpty() ? "" : " \"" + text + "\"");
+    }
+}
@@ -1,5 +1,8 @@
 package Project;
 
+import Designer.ComponentSymbol;
+import Utils.PersistentVector;
+
 import java.util.*; /**
  * Represents a design project containing multiple screens
  */
@@ -7,38 +10,96 @@ public class DesignProject {
     private String name;
     private String description;
     private List<DesignScreen> screens;
+    private List<ComponentSymbol> symbols;
     private DesignScreen activeScreen;
     private Map<String, Object> projectSettings;
     private Date createdDate;
     private Date lastModifiedDate;
+    private ProjectSnapshot snapshot;
 
     public DesignProject(String name) {
         this.name = name;
         this.description = "";
         this.screens = new ArrayList<>();
+        this.symbols = new ArrayList<>();
         this.projectSettings = new HashMap<>();
         this.createdDate = new Date();
         this.lastModifiedDate = new Date();
 
         // Default project settings
         projectSettings.put("targetResolution", "1920x1080");
+        projectSettings.put("targetResolutions", "1920x1080,1366x768,1280x720");
         projectSettings.put("theme", "Light");
         projectSettings.put("gridSize", 10);
         projectSettings.put("snapToGrid", true);
     }
 
     public void addScreen(DesignScreen screen) {
-        screens.add(screen);
+        addScreen(screens.size(), screen);
+    }
+
+    public void addScreen(int index, DesignScreen screen) {
+        screens.add(index, screen);
         screen.setProject(this);
         updateModifiedDate();
+        ProjectEventBus.getInstance().post(ProjectEvent.screenAdded(this, screen, index));
     }
 
     public void removeScreen(DesignScreen screen) {
-        screens.remove(screen);
+        int index = screens.indexOf(screen);
+        if (index < 0) {
+            return;
+        }
+        screens.remove(index);
         if (activeScreen == screen && !screens.isEmpty()) {
             activeScreen = screens.getFirst();
         }
         updateModifiedDate();
+        ProjectEventBus.getInstance().post(ProjectEvent.screenRemoved(this, screen, index));
+    }
+
+    /**
+     * Moves a screen to another position in the screen order
+     */
+    public void moveScreen(int fromIndex, int toIndex) {
+        if (fromIndex == toIndex) {
+            return;
+        }
+        DesignScreen screen = screens.remove(fromIndex);
+        screens.add(toIndex, screen);
+        updateModifiedDate();
+        ProjectEventBus.getInstance().post(ProjectEvent.screenMoved(this, screen, fromIndex, toIndex));
+    }
+
+    /**
+     * Adds a custom component to the project, names must be unique
+     */
+    public void addSymbol(ComponentSymbol symbol) {
+        if (getSymbol(symbol.getName()) != null) {
+            throw new IllegalArgumentException("A custom component named '" + symbol.getName() + "' already exists");
+        }
+        symbols.add(symbol);
+        updateModifiedDate();
+        ProjectEventBus.getInstance().post(ProjectEvent.symbolsChanged(this));
+    }
+
+    /**
+     * Removes a custom component from the project, instances already placed keep showing it
+     */
+    public void removeSymbol(ComponentSymbol symbol) {
+        if (symbols.remove(symbol)) {
+            updateModifiedDate();
+            ProjectEventBus.getInstance().post(ProjectEvent.symbolsChanged(this));
+        }
+    }
+
+    public ComponentSymbol getSymbol(String name) {
+        for (ComponentSymbol symbol : symbols) {
+            if (symbol.getName().equals(name)) {
+                return symbol;
+            }
+        }
+        return null;
     }
 
     public DesignScreen createNewScreen(String name, ScreenType type) {
@@ -47,16 +108,93 @@ public class DesignProject {
         return newScreen;
     }
 
+    /**
+     * Immutable snapshot of the project, sharing unchanged screens with the previous one
+     * Must be called on the thread that edits the project (the Event Dispatch Thread)
+     */
+    public ProjectSnapshot getSnapshot() {
+        PersistentVector<ScreenSnapshot> previous = snapshot != null ? snapshot.getScreenVector() : null;
+        PersistentVector<ScreenSnapshot> screenSnapshots;
+        boolean changed;
+        if (previous != null && previous.size() == screens.size()) {
+            screenSnapshots = previous;
+            changed = false;
+            for (int i = 0; i < screens.size(); i++) {
+                ScreenSnapshot screenSnapshot = screens.get(i).getSnapshot();
+                if (screenSnapshot != screenSnapshots.get(i)) {
+                    screenSnapshots = screenSnapshots.with(i, screenSnapshot);
+                    changed = true;
+                }
+            }
+        } else {
+            screenSnapshots = PersistentVector.empty();
+            for (DesignScreen screen : screens) {
+                screenSnapshots = screenSnapshots.append(screen.getSnapshot());
+            }
+            changed = true;
+        }
+
+        if (changed || !snapshot.isCurrent(this)) {
+            snapshot = new ProjectSnapshot(this, screenSnapshots);
+        }
+        return snapshot;
+    }
+
     public void updateModifiedDate() {
         lastModifiedDate = new Date();
     }
 
+    /**
+     * Resolutions the screens are previewed at, parsed from the comma separated
+     * "targetResolutions" setting, the single target resolution if none is valid
+     */
+    public List<java.awt.Dimension> getTargetResolutions() {
+        List<java.awt.Dimension> resolutions = new ArrayList<>();
+        Object setting = projectSettings.get("targetResolutions");
+        if (setting != null) {
+            for (String part : setting.toString().split(",")) {
+                java.awt.Dimension resolution = parseResolution(part);
+                if (resolution != null && !resolutions.contains(resolution)) {
+                    resolutions.add(resolution);
+                }
+            }
+        }
+        if (resolutions.isEmpty()) {
+            java.awt.Dimension resolution = parseResolution(String.valueOf(projectSettings.get("targetResolution")));
+            resolutions.add(resolution != null ? resolution : new java.awt.Dimension(1920, 1080));
+        }
+        return resolutions;
+    }
+
+    /**
+     * Parses "1920x1080", null if the text is not a valid resolution
+     */
+    public static java.awt.Dimension parseResolution(String text) {
+        String[] parts = text.trim().toLowerCase().split("[x×]");
+        if (parts.length != 2) {
+            return null;
+        }
+        try {
+            int width = Integer.parseInt(parts[0].trim());
+            int height = Integer.parseInt(parts[1].trim());
+            return width > 0 && height > 0 ? new java.awt.Dimension(width, height) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private void settingsChanged() {
+        updateModifiedDate();
+        ProjectEventBus.getInstance().post(ProjectEvent.settingsChanged(this, null));
+    }
+
     // Getters and setters
     public String getName() { return name; }
-    public void setName(String name) { this.name = name; updateModifiedDate(); }
+    public void setName(String name) { this.name = name; settingsChanged(); }
     public String getDescription() { return description; }
-    public void setDescription(String description) { this.description = description; updateModifiedDate(); }
+    public void setDescription(String description) { this.description = description; settingsChanged(); }
     public List<DesignScreen> getScreens() { return screens; }
+    public List<ComponentSymbol> getSymbols() { return Collections.unmodifiableList(symbols); }
     public DesignScreen getActiveScreen() { return activeScreen; }
     public void setActiveScreen(DesignScreen activeScreen) { this.activeScreen = activeScreen; }
     public Map<String, Object> getProjectSettings() { return projectSettings; }
@@ -1,14 +1,22 @@
 package Project;
 
+import Designer.ComponentSnapshot;
+import Designer.ConstraintLayout;
 import Designer.DesignComponent;
+import Utils.PersistentVector;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map; /**
+import java.util.Map;
+import java.util.Set; /**
  * Represents a single screen/page in a design project
  */
-public class DesignScreen {
+public class DesignScreen implements DesignComponent.Listener {
     private String name;
     private ScreenType type;
     private List<DesignComponent> components;
@@ -16,88 +24,280 @@ public class DesignScreen {
     private DesignProject project;
     private String description;
     private boolean isVisible;
+    private int modificationCount;
+    private final List<ScreenListener> listeners;
+    private ConstraintLayout constraintLayout;
+
+    // Incremental snapshot state, only maintained once a snapshot was requested
+    private ScreenSnapshot snapshot;
+    private PersistentVector<ComponentSnapshot> componentSnapshots;
+    private Map<DesignComponent, Integer> snapshotPositions;
+    private final Set<DesignComponent> changedSinceSnapshot;
+    private final List<DesignComponent> appendedSinceSnapshot;
+    private boolean structureChanged;
+
+    /**
+     * Notified when the content of the screen changes.
+     * The component is null for structural changes, screen setting updates and
+     * changes of several components at once
+     */
+    public interface ScreenListener {
+        void screenModified(DesignScreen screen, DesignComponent component);
+    }
 
     public DesignScreen(String name, ScreenType type) {
         this.name = name;
         this.type = type;
-        this.components = new ArrayList<>();
+        this.components = new ComponentList(this);
+        this.listeners = new ArrayList<>();
+        this.changedSinceSnapshot = Collections.newSetFromMap(new IdentityHashMap<>());
+        this.appendedSinceSnapshot = new ArrayList<>();
         this.screenSettings = new HashMap<>();
         this.description = "";
         this.isVisible = true;
 
         // Default screen settings based on type
         initializeDefaultSettings();
+        this.constraintLayout = new ConstraintLayout(ScreenRenderer.getScreenWidth(this), ScreenRenderer.getScreenHeight(this));
     }
 
     private void initializeDefaultSettings() {
-        screenSettings.put("backgroundColor", java.awt.Color.WHITE);
-        screenSettings.put("width", 800);
-        screenSettings.put("height", 600);
+        screenSettings.putAll(getDefaultSettings(type));
+    }
+
+    /**
+     * Settings a new screen of the given type starts with
+     */
+    public static Map<String, Object> getDefaultSettings(ScreenType type) {
+        Map<String, Object> defaults = new LinkedHashMap<>();
+        defaults.put("backgroundColor", java.awt.Color.WHITE);
+        defaults.put("width", 800);
+        defaults.put("height", 600);
 
         switch (type) {
             case MAIN:
-                screenSettings.put("showMenuBar", true);
-                screenSettings.put("showToolbar", true);
-                screenSettings.put("showStatusBar", true);
+                defaults.put("showMenuBar", true);
+                defaults.put("showToolbar", true);
+                defaults.put("showStatusBar", true);
                 break;
             case DIALOG:
-                screenSettings.put("modal", true);
-                screenSettings.put("resizable", false);
-                screenSettings.put("width", 400);
-                screenSettings.put("height", 300);
+                defaults.put("modal", true);
+                defaults.put("resizable", false);
+                defaults.put("width", 400);
+                defaults.put("height", 300);
                 break;
             case LOGIN:
-                screenSettings.put("centerOnScreen", true);
-                screenSettings.put("showTitleBar", true);
-                screenSettings.put("width", 350);
-                screenSettings.put("height", 250);
+                defaults.put("centerOnScreen", true);
+                defaults.put("showTitleBar", true);
+                defaults.put("width", 350);
+                defaults.put("height", 250);
                 break;
             case SPLASH:
-                screenSettings.put("undecorated", true);
-                screenSettings.put("centerOnScreen", true);
-                screenSettings.put("autoClose", true);
-                screenSettings.put("displayTime", 3000);
+                defaults.put("undecorated", true);
+                defaults.put("centerOnScreen", true);
+                defaults.put("autoClose", true);
+                defaults.put("displayTime", 3000);
                 break;
             case CUSTOM:
                 // Custom screens have flexible settings
                 break;
         }
+        return defaults;
+    }
+
+    /**
+     * Creates a copy of this screen with copies of all components and settings
+     * The copy is not added to any project
+     */
+    public DesignScreen duplicate(String newName) {
+        DesignScreen copy = new DesignScreen(newName, type);
+        copy.description = description;
+        copy.isVisible = isVisible;
+        copy.screenSettings.clear();
+        copy.screenSettings.putAll(screenSettings);
+
+        List<DesignComponent> copiedComponents = new ArrayList<>(components.size());
+        Map<DesignComponent, DesignComponent> mapping = new IdentityHashMap<>();
+        for (DesignComponent component : components) {
+            DesignComponent copiedComponent = component.copy();
+            copiedComponents.add(copiedComponent);
+            mapping.put(component, copiedComponent);
+        }
+        copy.components.addAll(copiedComponents);
+        copy.constraintLayout = constraintLayout.copy(mapping);
+        return copy;
     }
 
     public void addComponent(DesignComponent component) {
         components.add(component);
-        if (project != null) {
-            project.updateModifiedDate();
-        }
     }
 
     public void removeComponent(DesignComponent component) {
         components.remove(component);
+    }
+
+    public void clearComponents() {
+        components.clear();
+    }
+
+    @Override
+    public void componentChanged(DesignComponent component) {
+        contentChanged(component);
+    }
+
+    @Override
+    public void componentsChanged(Collection<DesignComponent> changed) {
+        if (changed.size() == 1) {
+            contentChanged(changed.iterator().next());
+            return;
+        }
+        if (componentSnapshots != null && !structureChanged) {
+            changedSinceSnapshot.addAll(changed);
+        }
+        modificationCount++;
         if (project != null) {
             project.updateModifiedDate();
+            ProjectEventBus.getInstance().componentsChanged(this, changed);
         }
+        fireScreenModified(null);
     }
 
-    public void clearComponents() {
-        components.clear();
+    /**
+     * Called by the component list after components were added, removed or reordered,
+     * appended holds the new components when the change only appended at the end
+     */
+    void componentListChanged(List<DesignComponent> appended) {
+        if (componentSnapshots != null && !structureChanged) {
+            if (appended != null) {
+                appendedSinceSnapshot.addAll(appended);
+            } else {
+                structureChanged = true;
+                appendedSinceSnapshot.clear();
+                changedSinceSnapshot.clear();
+            }
+        }
+        contentChanged(null);
+    }
+
+    /**
+     * Called by the component list after components were inserted starting at the index
+     */
+    void componentsAdded(int index, List<DesignComponent> added) {
+        if (project != null) {
+            ProjectEventBus.getInstance().post(ProjectEvent.componentsAdded(this, index, added));
+        }
+    }
+
+    /**
+     * Called by the component list after components were removed from the given positions
+     */
+    void componentsRemoved(int[] indices, List<DesignComponent> removed) {
+        constraintLayout.removeComponents(removed);
+        if (project != null) {
+            ProjectEventBus.getInstance().post(ProjectEvent.componentsRemoved(this, indices, removed));
+        }
+    }
+
+    void contentChanged(DesignComponent component) {
+        if (component != null && componentSnapshots != null && !structureChanged) {
+            changedSinceSnapshot.add(component);
+        }
+        modificationCount++;
         if (project != null) {
             project.updateModifiedDate();
+            if (component != null) {
+                ProjectEventBus.getInstance().componentChanged(this, component);
+            }
+        }
+        fireScreenModified(component);
+    }
+
+    private void settingsChanged() {
+        if (project != null) {
+            ProjectEventBus.getInstance().post(ProjectEvent.settingsChanged(project, this));
+        }
+    }
+
+    /**
+     * Incremented on every change to components or settings of this screen
+     */
+    public int getModificationCount() { return modificationCount; }
+
+    /**
+     * Immutable snapshot of the current state of the screen
+     * Only components changed since the previous snapshot are copied, appends and edits
+     * cost O(log n) per component, other structural changes rebuild the component vector.
+     * Must be called on the thread that edits the screen (the Event Dispatch Thread)
+     */
+    public ScreenSnapshot getSnapshot() {
+        if (componentSnapshots == null || structureChanged) {
+            rebuildComponentSnapshots();
+        } else {
+            for (DesignComponent component : appendedSinceSnapshot) {
+                snapshotPositions.put(component, componentSnapshots.size());
+                componentSnapshots = componentSnapshots.append(component.snapshot());
+            }
+            for (DesignComponent component : changedSinceSnapshot) {
+                Integer position = snapshotPositions.get(component);
+                if (position != null) {
+                    componentSnapshots = componentSnapshots.with(position, component.snapshot());
+                }
+            }
+        }
+        appendedSinceSnapshot.clear();
+        changedSinceSnapshot.clear();
+
+        if (snapshot == null || !snapshot.isCurrent(this, componentSnapshots)) {
+            snapshot = new ScreenSnapshot(this, componentSnapshots);
+        }
+        return snapshot;
+    }
+
+    private void rebuildComponentSnapshots() {
+        PersistentVector<ComponentSnapshot> vector = PersistentVector.empty();
+        snapshotPositions = new IdentityHashMap<>();
+        for (DesignComponent component : components) {
+            snapshotPositions.put(component, vector.size());
+            vector = vector.append(component.snapshot());
+        }
+        componentSnapshots = vector;
+        structureChanged = false;
+    }
+
+    public void addScreenListener(ScreenListener listener) {
+        if (!listeners.contains(listener)) {
+            listeners.add(listener);
+        }
+    }
+
+    public void removeScreenListener(ScreenListener listener) {
+        listeners.remove(listener);
+    }
+
+    private void fireScreenModified(DesignComponent component) {
+        for (ScreenListener listener : new ArrayList<>(listeners)) {
+            listener.screenModified(this, component);
         }
     }
 
     // Getters and setters
     public String getName() { return name; }
-    public void setName(String name) { this.name = name; }
+    public void setName(String name) {
+        this.name = name;
+        if (project != null) {
+            ProjectEventBus.getInstance().post(ProjectEvent.screenRenamed(this));
+        }
+    }
     public ScreenType getType() { return type; }
-    public void setType(ScreenType type) { this.type = type; initializeDefaultSettings(); }
+    public void setType(ScreenType type) { this.type = type; initializeDefaultSettings(); applyContainerSize(); settingsChanged(); }
     public List<DesignComponent> getComponents() { return components; }
     public Map<String, Object> getScreenSettings() { return screenSettings; }
     public DesignProject getProject() { return project; }
     public void setProject(DesignProject project) { this.project = project; }
     public String getDescription() { return description; }
-    public void setDescription(String description) { this.description = description; }
+    public void setDescription(String description) { this.description = description; settingsChanged(); }
     public boolean isVisible() { return isVisible; }
-    public void setVisible(boolean visible) { this.isVisible = visible; }
+    public void setVisible(boolean visible) { this.isVisible = visible; settingsChanged(); }
 
     public Object getScreenSetting(String key, Object defaultValue) {
         return screenSettings.getOrDefault(key, defaultValue);
@@ -105,8 +305,45 @@ public class DesignScreen {
 
     public void setScreenSetting(String key, Object value) {
         screenSettings.put(key, value);
-        if (project != null) {
-            project.updateModifiedDate();
+        if (key.equals("width") || key.equals("height")) {
+            applyContainerSize();
+        }
+        contentChanged(null);
+        settingsChanged();
+    }
+
+    /**
+     * Component with the id anywhere on the screen, also inside containers, null if there is none
+     */
+    public DesignComponent findComponent(int id) {
+        return findComponent(components, id);
+    }
+
+    private static DesignComponent findComponent(List<DesignComponent> components, int id) {
+        for (DesignComponent component : components) {
+            if (component.getId() == id) {
+                return component;
+            }
+            DesignComponent found = findComponent(component.getChildren(), id);
+            if (found != null) {
+                return found;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Layout constraints between the components of this screen and its edges
+     */
+    public ConstraintLayout getConstraintLayout() { return constraintLayout; }
+
+    // Moves anchored components after the screen was resized
+    private void applyContainerSize() {
+        Map<DesignComponent, java.awt.Rectangle> bounds = constraintLayout.setContainerSize(
+                ScreenRenderer.getScreenWidth(this), ScreenRenderer.getScreenHeight(this));
+        for (Map.Entry<DesignComponent, java.awt.Rectangle> entry : bounds.entrySet()) {
+            java.awt.Rectangle rectangle = entry.getValue();
+            entry.getKey().setBounds(rectangle.x, rectangle.y, rectangle.width, rectangle.height);
         }
     }
 }
@@ -0,0 +1,141 @@
+package Project;
+
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import java.awt.*;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Project-wide search over screens and components
+ * Results are updated while typing, Enter or a double-click navigates to the selected hit
+ */
+public class FindDialog extends JDialog {
+    private static final int MAX_RESULTS = 500;
+
+    private final ProjectSearchIndex searchIndex;
+    private final Consumer<ProjectSearchIndex.Hit> navigator;
+    private JTextField queryField;
+    private DefaultListModel<ProjectSearchIndex.Hit> resultsModel;
+    private JList<ProjectSearchIndex.Hit> resultsList;
+    private JLabel statusLabel;
+
+    public FindDialog(JFrame parent, ProjectSearchIndex searchIndex, Consumer<ProjectSearchIndex.Hit> navigator) {
+        super(parent, "Find in Project", false);
+        this.searchIndex = searchIndex;
+        this.navigator = navigator;
+        initializeDialog();
+        createComponents();
+    }
+
+    private void initializeDialog() {
+        setSize(480, 400);
+        setLocationRelativeTo(getParent());
+        setDefaultCloseOperation(HIDE_ON_CLOSE);
+        setLayout(new BorderLayout(5, 5));
+    }
+
+    private void createComponents() {
+        queryField = new JTextField();
+        queryField.setToolTipText("Words to find in component text and types, screen names, descriptions and settings");
+        queryField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) { runSearch(); }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) { runSearch(); }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) { runSearch(); }
+        });
+        queryField.addActionListener(e -> navigateToSelection());
+        queryField.getInputMap().put(KeyStroke.getKeyStroke(KeyEvent.VK_DOWN, 0), "nextResult");
+        queryField.getActionMap().put("nextResult", new AbstractAction() {
+            @Override
+            public void actionPerformed(java.awt.event.ActionEvent e) {
+                moveSelection(1);
+            }
+        });
+        queryField.getInputMap().put(KeyStroke.getKeyStroke(KeyEvent.VK_UP, 0), "previousResult");
+        queryField.getActionMap().put("previousResult", new AbstractAction() {
+            @Override
+            public void actionPerformed(java.awt.event.ActionEvent e) {
+                moveSelection(-1);
+            }
+        });
+
+        JPanel queryPanel = new JPanel(new BorderLayout(5, 0));
+        queryPanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 0, 10));
+        queryPanel.add(new JLabel("Find:"), BorderLayout.WEST);
+        queryPanel.add(queryField, BorderLayout.CENTER);
+        add(queryPanel, BorderLayout.NORTH);
+
+        resultsModel = new DefaultListModel<>();
+        resultsList = new JList<>(resultsModel);
+        resultsList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        resultsList.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                if (e.getClickCount() == 2) {
+                    navigateToSelection();
+                }
+            }
+        });
+        JScrollPane scrollPane = new JScrollPane(resultsList);
+        scrollPane.setBorder(BorderFactory.createCompoundBorder(
+                BorderFactory.createEmptyBorder(0, 10, 0, 10), scrollPane.getBorder()));
+        add(scrollPane, BorderLayout.CENTER);
+
+        statusLabel = new JLabel(" ");
+        statusLabel.setBorder(BorderFactory.createEmptyBorder(0, 10, 10, 10));
+        add(statusLabel, BorderLayout.SOUTH);
+    }
+
+    /**
+     * Shows the dialog with the query text selected, ready for a new search
+     */
+    public void showDialog() {
+        setVisible(true);
+        queryField.selectAll();
+        queryField.requestFocusInWindow();
+        runSearch();
+    }
+
+    private void runSearch() {
+        long start = System.nanoTime();
+        List<ProjectSearchIndex.Hit> hits = searchIndex.search(queryField.getText(), MAX_RESULTS + 1);
+        long micros = (System.nanoTime() - start) / 1000;
+
+        resultsModel.clear();
+        resultsModel.addAll(hits.subList(0, Math.min(hits.size(), MAX_RESULTS)));
+        if (!resultsModel.isEmpty()) {
+            resultsList.setSelectedIndex(0);
+        }
+
+        if (queryField.getText().isBlank()) {
+            statusLabel.setText(" ");
+        } else {
+            String count = hits.size() > MAX_RESULTS ? "More than " + MAX_RESULTS : String.valueOf(hits.size());
+            statusLabel.setText(count + " results (" + String.format("%.1f", micros / 1000.0) + " ms)");
+        }
+    }
+
+    private void moveSelection(int direction) {
+        int index = resultsList.getSelectedIndex() + direction;
+        if (index >= 0 && index < resultsModel.getSize()) {
+            resultsList.setSelectedIndex(index);
+            resultsList.ensureIndexIsVisible(index);
+        }
+    }
+
+    private void navigateToSelection() {
+        ProjectSearchIndex.Hit hit = resultsList.getSelectedValue();
+        if (hit != null) {
+            navigator.accept(hit);
+        }
+    }
+}
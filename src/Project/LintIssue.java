@@ -0,0 +1,56 @@
+package Project;
+
+/**
+ * A design problem found by {@link DesignLinter} on one screen
+ * Components are referred to by id so the issue can be resolved against the live screen later
+ */
+public final class LintIssue {
+
+    public enum Kind {
+        OVERLAP("Overlap"),
+        OUT_OF_BOUNDS("Outside screen"),
+        ZERO_SIZE("Zero size"),
+        DUPLICATE_TEXT("Duplicate text");
+
+        private final String displayName;
+
+        Kind(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() { return displayName; }
+    }
+
+    private final Kind kind;
+    private final int screenIndex;
+    private final String screenName;
+    private final int[] componentIds;
+    private final String message;
+
+    LintIssue(Kind kind, int screenIndex, String screenName, int[] componentIds, String message) {
+        this.kind = kind;
+        this.screenIndex = screenIndex;
+        this.screenName = screenName;
+        this.componentIds = componentIds;
+        this.message = message;
+    }
+
+    public Kind getKind() { return kind; }
+
+    /**
+     * Index of the screen in the linted snapshot
+     */
+    public int getScreenIndex() { return screenIndex; }
+    public String getScreenName() { return screenName; }
+
+    /**
+     * Ids of the components involved, see {@link Designer.DesignComponent#getId()}
+     */
+    public int[] getComponentIds() { return componentIds.clone(); }
+    public String getMessage() { return message; }
+
+    @Override
+    public String toString() {
+        return screenName + ": " + kind.getDisplayName() + " - " + message;
+    }
+}
@@ -0,0 +1,127 @@
+package Project;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Lists the issues found by {@link DesignLinter} for the current project
+ * Double-clicking an issue passes it to the navigator to show it on the canvas
+ */
+public class LintPanel extends JPanel {
+    private final Consumer<LintIssue> navigator;
+    private final IssueTableModel tableModel;
+    private JTable issueTable;
+    private JButton runButton;
+    private JProgressBar progress;
+    private JLabel summaryLabel;
+
+    public LintPanel(Consumer<LintIssue> navigator) {
+        super(new BorderLayout(0, 5));
+        this.navigator = navigator;
+        this.tableModel = new IssueTableModel();
+        createComponents();
+    }
+
+    private void createComponents() {
+        runButton = new JButton("Run Lint");
+        runButton.addActionListener(e -> runLint());
+        summaryLabel = new JLabel("Not run");
+        progress = new JProgressBar();
+        progress.setStringPainted(true);
+        progress.setVisible(false);
+
+        JPanel toolbar = new JPanel(new FlowLayout(FlowLayout.LEFT, 5, 2));
+        toolbar.add(runButton);
+        toolbar.add(summaryLabel);
+        toolbar.add(progress);
+        add(toolbar, BorderLayout.NORTH);
+
+        issueTable = new JTable(tableModel);
+        issueTable.setAutoCreateRowSorter(true);
+        issueTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        issueTable.getColumnModel().getColumn(0).setPreferredWidth(80);
+        issueTable.getColumnModel().getColumn(1).setPreferredWidth(80);
+        issueTable.getColumnModel().getColumn(2).setPreferredWidth(240);
+        issueTable.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int row = issueTable.getSelectedRow();
+                if (e.getClickCount() == 2 && row >= 0) {
+                    navigator.accept(tableModel.issues.get(issueTable.convertRowIndexToModel(row)));
+                }
+            }
+        });
+        add(new JScrollPane(issueTable), BorderLayout.CENTER);
+    }
+
+    /**
+     * Checks the current project on worker threads and shows the result when done
+     */
+    public void runLint() {
+        DesignProject project = ProjectManager.getInstance().getCurrentProject();
+        if (project == null || !runButton.isEnabled()) {
+            return;
+        }
+        runButton.setEnabled(false);
+        progress.setValue(0);
+        progress.setString("Checking...");
+        progress.setVisible(true);
+        revalidate();
+
+        long start = System.nanoTime();
+        DesignLinter.lintAsync(project.getSnapshot(),
+                        (completed, total) -> SwingUtilities.invokeLater(() -> {
+                            progress.setMaximum(total);
+                            progress.setValue(completed);
+                            progress.setString(completed + " / " + total);
+                        }))
+                .whenComplete((issues, error) -> SwingUtilities.invokeLater(() -> {
+                    runButton.setEnabled(true);
+                    progress.setVisible(false);
+                    if (error != null) {
+                        Throwable cause = error.getCause() != null ? error.getCause() : error;
+                        summaryLabel.setText("Lint failed: " + cause.getMessage());
+                        return;
+                    }
+                    tableModel.setIssues(issues);
+                    long millis = (System.nanoTime() - start) / 1_000_000;
+                    summaryLabel.setText(issues.size() + " issues (" + millis + " ms)");
+                }));
+    }
+
+    private static class IssueTableModel extends AbstractTableModel {
+        private static final String[] COLUMNS = {"Screen", "Kind", "Message"};
+
+        private List<LintIssue> issues = new ArrayList<>();
+
+        void setIssues(List<LintIssue> issues) {
+            this.issues = issues;
+            fireTableDataChanged();
+        }
+
+        @Override
+        public int getRowCount() { return issues.size(); }
+
+        @Override
+        public int getColumnCount() { return COLUMNS.length; }
+
+        @Override
+        public String getColumnName(int column) { return COLUMNS[column]; }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            LintIssue issue = issues.get(row);
+            switch (column) {
+                case 0: return issue.getScreenName();
+                case 1: return issue.getKind().getDisplayName();
+                default: return issue.getMessage();
+            }
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package Project;
+
+import Designer.DesignComponent;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Describes a single change to a project, delivered by the {@link ProjectEventBus}
+ * Indices refer to the list as it was when the event happened, so the events of a batch
+ * must be applied in order. Removed indices are the positions before the removal
+ */
+public final class ProjectEvent {
+
+    public enum Type {
+        SCREEN_ADDED,
+        SCREEN_REMOVED,
+        SCREEN_MOVED,
+        SCREEN_RENAMED,
+        COMPONENTS_ADDED,
+        COMPONENTS_REMOVED,
+        COMPONENTS_CHANGED,
+        SETTINGS_CHANGED,
+        SYMBOLS_CHANGED
+    }
+
+    private static final int[] NO_INDICES = new int[0];
+
+    private final Type type;
+    private final DesignProject project;
+    private final DesignScreen screen;
+    private final int index;
+    private final int previousIndex;
+    private final List<DesignComponent> components;
+    private final int[] componentIndices;
+
+    private ProjectEvent(Type type, DesignProject project, DesignScreen screen, int index, int previousIndex,
+                         List<DesignComponent> components, int[] componentIndices) {
+        this.type = type;
+        this.project = project;
+        this.screen = screen;
+        this.index = index;
+        this.previousIndex = previousIndex;
+        this.components = components;
+        this.componentIndices = componentIndices;
+    }
+
+    static ProjectEvent screenAdded(DesignProject project, DesignScreen screen, int index) {
+        return new ProjectEvent(Type.SCREEN_ADDED, project, screen, index, -1, Collections.emptyList(), NO_INDICES);
+    }
+
+    static ProjectEvent screenRemoved(DesignProject project, DesignScreen screen, int index) {
+        return new ProjectEvent(Type.SCREEN_REMOVED, project, screen, index, index, Collections.emptyList(), NO_INDICES);
+    }
+
+    static ProjectEvent screenMoved(DesignProject project, DesignScreen screen, int fromIndex, int toIndex) {
+        return new ProjectEvent(Type.SCREEN_MOVED, project, screen, toIndex, fromIndex, Collections.emptyList(), NO_INDICES);
+    }
+
+    static ProjectEvent screenRenamed(DesignScreen screen) {
+        return new ProjectEvent(Type.SCREEN_RENAMED, screen.getProject(), screen, -1, -1, Collections.emptyList(), NO_INDICES);
+    }
+
+    static ProjectEvent componentsAdded(DesignScreen screen, int index, List<DesignComponent> added) {
+        int[] indices = new int[added.size()];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = index + i;
+        }
+        return new ProjectEvent(Type.COMPONENTS_ADDED, screen.getProject(), screen, -1, -1,
+                Collections.unmodifiableList(added), indices);
+    }
+
+    static ProjectEvent componentsRemoved(DesignScreen screen, int[] indices, List<DesignComponent> removed) {
+        return new ProjectEvent(Type.COMPONENTS_REMOVED, screen.getProject(), screen, -1, -1,
+                Collections.unmodifiableList(removed), indices);
+    }
+
+    static ProjectEvent componentsChanged(DesignScreen screen, List<DesignComponent> changed) {
+        return new ProjectEvent(Type.COMPONENTS_CHANGED, screen.getProject(), screen, -1, -1,
+                Collections.unmodifiableList(changed), NO_INDICES);
+    }
+
+    /**
+     * Settings of a screen changed, or of the project itself when the screen is null
+     */
+    static ProjectEvent settingsChanged(DesignProject project, DesignScreen screen) {
+        return new ProjectEvent(Type.SETTINGS_CHANGED, project, screen, -1, -1, Collections.emptyList(), NO_INDICES);
+    }
+
+    /**
+     * Custom components were added to or removed from the project
+     */
+    static ProjectEvent symbolsChanged(DesignProject project) {
+        return new ProjectEvent(Type.SYMBOLS_CHANGED, project, null, -1, -1, Collections.emptyList(), NO_INDICES);
+    }
+
+    public Type getType() { return type; }
+    public DesignProject getProject() { return project; }
+    public DesignScreen getScreen() { return screen; }
+
+    /**
+     * Position of the screen for screen added, removed and moved events
+     */
+    public int getIndex() { return index; }
+
+    /**
+     * Position of the screen before a move
+     */
+    public int getPreviousIndex() { return previousIndex; }
+
+    public List<DesignComponent> getComponents() { return components; }
+
+    /**
+     * Positions of the added or removed components, ascending
+     */
+    public int[] getComponentIndices() { return componentIndices.clone(); }
+
+    @Override
+    public String toString() {
+        return type + "[" + (screen != null ? screen.getName() : project != null ? project.getName() : "")
+                + (components.isEmpty() ? "" : ", " + components.size() + " components") + "]";
+    }
+}
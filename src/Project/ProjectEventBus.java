@@ -0,0 +1,148 @@
+package Project;
+
+import Designer.DesignComponent;
+
+import javax.swing.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Typed change notifications for the screens and components of a project
+ * Events posted while handling one user action are collected and delivered as a single
+ * batch on the next Event Dispatch Thread cycle. Within a batch, repeated component edits,
+ * renames and settings changes of the same target are merged into one event, delivered
+ * after the structural events. Replacing the whole project is still reported through
+ * {@link ProjectManager.ProjectListener}
+ */
+public class ProjectEventBus {
+    private static ProjectEventBus instance;
+
+    private final List<Listener> listeners;
+    private final List<ProjectEvent> pendingStructural;
+    private final Map<DesignScreen, Set<DesignComponent>> pendingChanges;
+    private final Map<DesignScreen, ProjectEvent> pendingRenames;
+    private final Map<Object, ProjectEvent> pendingSettings;
+    private boolean flushScheduled;
+
+    /**
+     * Receives the events of one batch in the order they happened
+     */
+    public interface Listener {
+        void projectEventsDispatched(List<ProjectEvent> events);
+    }
+
+    private ProjectEventBus() {
+        listeners = new ArrayList<>();
+        pendingStructural = new ArrayList<>();
+        pendingChanges = new LinkedHashMap<>();
+        pendingRenames = new LinkedHashMap<>();
+        pendingSettings = new LinkedHashMap<>();
+    }
+
+    public static ProjectEventBus getInstance() {
+        if (instance == null) {
+            instance = new ProjectEventBus();
+        }
+        return instance;
+    }
+
+    public void addListener(Listener listener) {
+        if (!listeners.contains(listener)) {
+            listeners.add(listener);
+        }
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    synchronized void post(ProjectEvent event) {
+        switch (event.getType()) {
+            case COMPONENTS_CHANGED:
+                pendingChanges.computeIfAbsent(event.getScreen(), screen -> new LinkedHashSet<>())
+                        .addAll(event.getComponents());
+                break;
+            case SCREEN_RENAMED:
+                pendingRenames.put(event.getScreen(), event);
+                break;
+            case SETTINGS_CHANGED:
+                pendingSettings.put(event.getScreen() != null ? event.getScreen() : event.getProject(), event);
+                break;
+            default:
+                pendingStructural.add(event);
+                break;
+        }
+        scheduleFlush();
+    }
+
+    /**
+     * Records an edit of a single component, called for every property change
+     */
+    synchronized void componentChanged(DesignScreen screen, DesignComponent component) {
+        pendingChanges.computeIfAbsent(screen, key -> new LinkedHashSet<>()).add(component);
+        scheduleFlush();
+    }
+
+    /**
+     * Records an edit of several components at once, such as a move of the selection
+     */
+    synchronized void componentsChanged(DesignScreen screen, Collection<DesignComponent> components) {
+        pendingChanges.computeIfAbsent(screen, key -> new LinkedHashSet<>()).addAll(components);
+        scheduleFlush();
+    }
+
+    private void scheduleFlush() {
+        if (!flushScheduled) {
+            flushScheduled = true;
+            SwingUtilities.invokeLater(this::flush);
+        }
+    }
+
+    /**
+     * Delivers the pending events right away instead of waiting for the scheduled batch
+     */
+    public void flush() {
+        List<ProjectEvent> batch;
+        synchronized (this) {
+            flushScheduled = false;
+            if (pendingStructural.isEmpty() && pendingChanges.isEmpty()
+                    && pendingRenames.isEmpty() && pendingSettings.isEmpty()) {
+                return;
+            }
+            batch = new ArrayList<>(pendingStructural);
+            for (Map.Entry<DesignScreen, Set<DesignComponent>> entry : pendingChanges.entrySet()) {
+                DesignScreen screen = entry.getKey();
+                // Components removed later in the batch no longer report to the screen
+                List<DesignComponent> changed = new ArrayList<>(entry.getValue().size());
+                for (DesignComponent component : entry.getValue()) {
+                    if (component.getListener() == screen) {
+                        changed.add(component);
+                    }
+                }
+                if (!changed.isEmpty()) {
+                    batch.add(ProjectEvent.componentsChanged(screen, changed));
+                }
+            }
+            batch.addAll(pendingRenames.values());
+            batch.addAll(pendingSettings.values());
+            pendingStructural.clear();
+            pendingChanges.clear();
+            pendingRenames.clear();
+            pendingSettings.clear();
+        }
+
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<ProjectEvent> events = Collections.unmodifiableList(batch);
+        for (Listener listener : new ArrayList<>(listeners)) {
+            listener.projectEventsDispatched(events);
+        }
+    }
+}
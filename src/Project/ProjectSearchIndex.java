@@ -0,0 +1,408 @@
+package Project;
+
+import Designer.DesignComponent;
+
+import java.util.*;
+
+/**
+ * Inverted index over the current project for the Find dialog
+ * Screens (name, description, type and settings) and components (text, type and string
+ * bean properties) are documents. Every token maps to the bit set of documents containing it,
+ * kept in a sorted map so a query token matches all indexed tokens it is a prefix of.
+ * Components inside containers are documents of their own. The index is built on the first
+ * search and then kept up to date from {@link ProjectEventBus} batches, re-tokenizing only the
+ * screens and the top-level components, with everything inside them, that changed.
+ * Must be used on the Event Dispatch Thread
+ */
+public class ProjectSearchIndex implements ProjectEventBus.Listener, ProjectManager.ProjectListener {
+
+    /**
+     * A matching screen, or a matching component together with its screen
+     */
+    public static final class Hit {
+        private final DesignScreen screen;
+        private final DesignComponent component;
+
+        Hit(DesignScreen screen, DesignComponent component) {
+            this.screen = screen;
+            this.component = component;
+        }
+
+        public DesignScreen getScreen() { return screen; }
+
+        /**
+         * The matching component, null when the screen itself matched
+         */
+        public DesignComponent getComponent() { return component; }
+
+        @Override
+        public String toString() {
+            if (component == null) {
+                return "Screen: " + screen.getName();
+            }
+            String text = component.getText();
+            return screen.getName() + " › " + component.getComponentType().getSimpleName()
+                    + (text == null || text.isEmpty() ? "" : " \"" + text + "\"");
+        }
+    }
+
+    private static final String[] NO_TOKENS = new String[0];
+
+    private DesignProject project;
+    private boolean built;
+
+    // Documents by id, ids of removed documents are reused
+    private Object[] documents = new Object[64];
+    private DesignScreen[] documentScreens = new DesignScreen[64];
+    // Top-level component whose subtree holds the document, null for screens
+    private DesignComponent[] documentRoots = new DesignComponent[64];
+    private String[][] documentTokens = new String[64][];
+    private final Map<Object, Integer> documentIds = new IdentityHashMap<>();
+    private int[] freeIds = new int[16];
+    private int freeCount;
+    private int nextId;
+
+    private final NavigableMap<String, BitSet> postings = new TreeMap<>();
+    // Indexed components inside each top-level container
+    private final Map<DesignComponent, List<DesignComponent>> descendants = new IdentityHashMap<>();
+
+    public ProjectSearchIndex(ProjectManager projectManager) {
+        this.project = projectManager.getCurrentProject();
+        projectManager.addListener(this);
+        ProjectEventBus.getInstance().addListener(this);
+    }
+
+    /**
+     * Screens and components matching every word of the query, screens in project order
+     * and the screen itself before its components
+     */
+    public List<Hit> search(String query, int limit) {
+        ProjectEventBus.getInstance().flush();
+        if (!built) {
+            build();
+        }
+
+        Set<String> queryTokens = new LinkedHashSet<>();
+        tokenize(query, queryTokens, false);
+        if (queryTokens.isEmpty() || project == null) {
+            return Collections.emptyList();
+        }
+
+        BitSet matches = null;
+        for (String token : queryTokens) {
+            BitSet tokenMatches = new BitSet(nextId);
+            for (BitSet documentsWithPrefix : postings.subMap(token, true, token + Character.MAX_VALUE, true).values()) {
+                tokenMatches.or(documentsWithPrefix);
+            }
+            if (matches == null) {
+                matches = tokenMatches;
+            } else {
+                matches.and(tokenMatches);
+            }
+            if (matches.isEmpty()) {
+                return Collections.emptyList();
+            }
+        }
+
+        // Group by screen in project order
+        Map<DesignScreen, List<Hit>> hitsByScreen = new IdentityHashMap<>();
+        for (int id = matches.nextSetBit(0); id >= 0; id = matches.nextSetBit(id + 1)) {
+            DesignScreen screen = documentScreens[id];
+            DesignComponent component = documents[id] instanceof DesignComponent ? (DesignComponent) documents[id] : null;
+            List<Hit> hits = hitsByScreen.computeIfAbsent(screen, key -> new ArrayList<>());
+            if (component == null) {
+                hits.add(0, new Hit(screen, null));
+            } else {
+                hits.add(new Hit(screen, component));
+            }
+        }
+        List<Hit> result = new ArrayList<>();
+        for (DesignScreen screen : project.getScreens()) {
+            List<Hit> hits = hitsByScreen.get(screen);
+            if (hits != null) {
+                for (Hit hit : hits) {
+                    if (result.size() == limit) {
+                        return result;
+                    }
+                    result.add(hit);
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void projectChanged(DesignProject newProject) {
+        if (newProject != project) {
+            project = newProject;
+            clear();
+        }
+    }
+
+    @Override
+    public void projectEventsDispatched(List<ProjectEvent> events) {
+        if (!built) {
+            return;
+        }
+        for (ProjectEvent event : events) {
+            if (event.getProject() != project) {
+                continue;
+            }
+            switch (event.getType()) {
+                case SCREEN_ADDED:
+                    indexScreen(event.getScreen());
+                    break;
+                case SCREEN_REMOVED:
+                    removeScreen(event.getScreen());
+                    break;
+                case SCREEN_RENAMED:
+                case SETTINGS_CHANGED:
+                    if (event.getScreen() != null && documentIds.containsKey(event.getScreen())) {
+                        index(event.getScreen(), event.getScreen(), null, screenTokens(event.getScreen()));
+                    }
+                    break;
+                case COMPONENTS_ADDED:
+                case COMPONENTS_CHANGED:
+                    if (documentIds.containsKey(event.getScreen())) {
+                        for (DesignComponent component : event.getComponents()) {
+                            indexComponent(component, event.getScreen());
+                        }
+                    }
+                    break;
+                case COMPONENTS_REMOVED:
+                    for (DesignComponent component : event.getComponents()) {
+                        removeComponent(component);
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    // Building
+
+    private void build() {
+        clear();
+        if (project != null) {
+            for (DesignScreen screen : project.getScreens()) {
+                indexScreen(screen);
+            }
+        }
+        built = true;
+    }
+
+    private void clear() {
+        built = false;
+        postings.clear();
+        documentIds.clear();
+        descendants.clear();
+        Arrays.fill(documents, null);
+        Arrays.fill(documentScreens, null);
+        Arrays.fill(documentRoots, null);
+        Arrays.fill(documentTokens, null);
+        freeCount = 0;
+        nextId = 0;
+    }
+
+    private void indexScreen(DesignScreen screen) {
+        index(screen, screen, null, screenTokens(screen));
+        for (DesignComponent component : screen.getComponents()) {
+            indexComponent(component, screen);
+        }
+    }
+
+    private void removeScreen(DesignScreen screen) {
+        for (int id = 0; id < nextId; id++) {
+            if (documentScreens[id] == screen) {
+                descendants.remove(documents[id]);
+                remove(documents[id]);
+            }
+        }
+    }
+
+    /**
+     * Indexes a top-level component with everything inside it and drops the components
+     * that left its subtree, unless another top-level component took them over
+     */
+    private void indexComponent(DesignComponent root, DesignScreen screen) {
+        List<DesignComponent> inside = new ArrayList<>();
+        collectDescendants(root, inside);
+        index(root, screen, root, componentTokens(root));
+        for (DesignComponent component : inside) {
+            index(component, screen, root, componentTokens(component));
+        }
+        List<DesignComponent> previous = inside.isEmpty() ? descendants.remove(root) : descendants.put(root, inside);
+        if (previous != null) {
+            Set<DesignComponent> current = Collections.newSetFromMap(new IdentityHashMap<>());
+            current.addAll(inside);
+            for (DesignComponent component : previous) {
+                if (!current.contains(component)) {
+                    removeOwned(component, root);
+                }
+            }
+        }
+    }
+
+    private static void collectDescendants(DesignComponent container, List<DesignComponent> result) {
+        for (DesignComponent child : container.getChildren()) {
+            result.add(child);
+            collectDescendants(child, result);
+        }
+    }
+
+    private void removeComponent(DesignComponent root) {
+        removeOwned(root, root);
+        List<DesignComponent> inside = descendants.remove(root);
+        if (inside != null) {
+            for (DesignComponent component : inside) {
+                removeOwned(component, root);
+            }
+        }
+    }
+
+    // Components moved between containers in one batch are indexed under their new root first
+    private void removeOwned(DesignComponent component, DesignComponent root) {
+        Integer id = documentIds.get(component);
+        if (id != null && documentRoots[id] == root) {
+            remove(component);
+        }
+    }
+
+    private void index(Object document, DesignScreen screen, DesignComponent root, String[] tokens) {
+        Integer existing = documentIds.get(document);
+        int id;
+        if (existing != null) {
+            id = existing;
+            documentScreens[id] = screen;
+            documentRoots[id] = root;
+            if (Arrays.equals(documentTokens[id], tokens)) {
+                return;
+            }
+            removePostings(id);
+        } else {
+            id = allocateId();
+            documentIds.put(document, id);
+            documents[id] = document;
+        }
+        documentScreens[id] = screen;
+        documentRoots[id] = root;
+        documentTokens[id] = tokens;
+        for (String token : tokens) {
+            postings.computeIfAbsent(token, key -> new BitSet()).set(id);
+        }
+    }
+
+    private void remove(Object document) {
+        Integer id = documentIds.remove(document);
+        if (id == null) {
+            return;
+        }
+        removePostings(id);
+        documents[id] = null;
+        documentScreens[id] = null;
+        documentRoots[id] = null;
+        documentTokens[id] = null;
+        if (freeCount == freeIds.length) {
+            freeIds = Arrays.copyOf(freeIds, freeIds.length * 2);
+        }
+        freeIds[freeCount++] = id;
+    }
+
+    private void removePostings(int id) {
+        for (String token : documentTokens[id]) {
+            BitSet bits = postings.get(token);
+            bits.clear(id);
+            if (bits.isEmpty()) {
+                postings.remove(token);
+            }
+        }
+    }
+
+    private int allocateId() {
+        if (freeCount > 0) {
+            return freeIds[--freeCount];
+        }
+        if (nextId == documents.length) {
+            int length = documents.length * 2;
+            documents = Arrays.copyOf(documents, length);
+            documentScreens = Arrays.copyOf(documentScreens, length);
+            documentRoots = Arrays.copyOf(documentRoots, length);
+            documentTokens = Arrays.copyOf(documentTokens, length);
+        }
+        return nextId++;
+    }
+
+    // Tokens
+
+    private static String[] screenTokens(DesignScreen screen) {
+        Set<String> tokens = new TreeSet<>();
+        tokenize(screen.getName(), tokens, true);
+        tokenize(screen.getDescription(), tokens, true);
+        tokenize(screen.getType().getDisplayName(), tokens, true);
+        for (Map.Entry<String, Object> setting : screen.getScreenSettings().entrySet()) {
+            Object value = setting.getValue();
+            if (value instanceof CharSequence || value instanceof Number || value instanceof Boolean || value instanceof Enum) {
+                tokenize(setting.getKey(), tokens, true);
+                tokenize(String.valueOf(value), tokens, true);
+            }
+        }
+        return tokens.isEmpty() ? NO_TOKENS : tokens.toArray(NO_TOKENS);
+    }
+
+    private static String[] componentTokens(DesignComponent component) {
+        Set<String> tokens = new TreeSet<>();
+        tokenize(component.getText(), tokens, true);
+        tokenize(component.getComponentType().getSimpleName(), tokens, true);
+        for (Object value : component.getBeanProperties().values()) {
+            if (value instanceof CharSequence) {
+                tokenize(value.toString(), tokens, true);
+            }
+        }
+        return tokens.isEmpty() ? NO_TOKENS : tokens.toArray(NO_TOKENS);
+    }
+
+    /**
+     * Lower case words of letters and digits, optionally also the camel case parts
+     * of each word so that "JButton" is found by "button"
+     */
+    static void tokenize(String text, Set<String> tokens, boolean camelCaseParts) {
+        if (text == null) {
+            return;
+        }
+        int length = text.length();
+        int start = -1;
+        for (int i = 0; i <= length; i++) {
+            boolean wordChar = i < length && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                String word = text.substring(start, i);
+                tokens.add(word.toLowerCase());
+                if (camelCaseParts) {
+                    addCamelCaseParts(word, tokens);
+                }
+                start = -1;
+            }
+        }
+    }
+
+    private static void addCamelCaseParts(String word, Set<String> tokens) {
+        int partStart = 0;
+        for (int i = 1; i < word.length(); i++) {
+            char previous = word.charAt(i - 1);
+            char current = word.charAt(i);
+            boolean boundary = (Character.isLowerCase(previous) && Character.isUpperCase(current))
+                    || (Character.isLetter(previous) != Character.isLetter(current))
+                    || (Character.isUpperCase(previous) && Character.isUpperCase(current)
+                    && i + 1 < word.length() && Character.isLowerCase(word.charAt(i + 1)));
+            if (boundary) {
+                tokens.add(word.substring(partStart, i).toLowerCase());
+                partStart = i;
+            }
+        }
+        if (partStart > 0) {
+            tokens.add(word.substring(partStart).toLowerCase());
+        }
+    }
+}
@@ -10,6 +10,7 @@ public class ProjectSettingsDialog extends JDialog {
     private JTextField nameField;
     private JTextArea descriptionArea;
     private JComboBox<String> resolutionComboBox;
+    private JTextField previewResolutionsField;
     private JComboBox<String> themeComboBox;
     private JSpinner gridSizeSpinner;
     private JCheckBox snapToGridCheckBox;
@@ -42,6 +43,8 @@ public class ProjectSettingsDialog extends JDialog {
 
         String[] resolutions = {"1920x1080", "1366x768", "1280x720", "1024x768", "800x600", "Custom"};
         resolutionComboBox = new JComboBox<>(resolutions);
+        previewResolutionsField = new JTextField(20);
+        previewResolutionsField.setToolTipText("Comma separated, for example 1920x1080,1366x768,390x844");
 
         String[] themes = {"Light", "Dark", "System", "Custom"};
         themeComboBox = new JComboBox<>(themes);
@@ -122,6 +125,13 @@ public class ProjectSettingsDialog extends JDialog {
         panel.add(resolutionComboBox, gbc);
         row++;
 
+        // Preview Resolutions
+        gbc.gridx = 0; gbc.gridy = row; gbc.fill = GridBagConstraints.NONE; gbc.weightx = 0;
+        panel.add(new JLabel("Preview Resolutions:"), gbc);
+        gbc.gridx = 1; gbc.fill = GridBagConstraints.HORIZONTAL; gbc.weightx = 1.0;
+        panel.add(previewResolutionsField, gbc);
+        row++;
+
         // Description
         gbc.gridx = 0; gbc.gridy = row; gbc.anchor = GridBagConstraints.NORTHWEST;
         panel.add(new JLabel("Description:"), gbc);
@@ -246,6 +256,9 @@ public class ProjectSettingsDialog extends JDialog {
         String resolution = (String) project.getProjectSettings().getOrDefault("targetResolution", "1920x1080");
         resolutionComboBox.setSelectedItem(resolution);
 
+        String previewResolutions = (String) project.getProjectSettings().getOrDefault("targetResolutions", resolution);
+        previewResolutionsField.setText(previewResolutions);
+
         String theme = (String) project.getProjectSettings().getOrDefault("theme", "Light");
         themeComboBox.setSelectedItem(theme);
 
@@ -270,6 +283,7 @@ public class ProjectSettingsDialog extends JDialog {
 
     private void resetToDefaults() {
         resolutionComboBox.setSelectedItem("1920x1080");
+        previewResolutionsField.setText("1920x1080,1366x768,1280x720");
         themeComboBox.setSelectedItem("Light");
         gridSizeSpinner.setValue(10);
         snapToGridCheckBox.setSelected(true);
@@ -284,6 +298,7 @@ public class ProjectSettingsDialog extends JDialog {
         project.setDescription(descriptionArea.getText().trim());
 
         project.getProjectSettings().put("targetResolution", resolutionComboBox.getSelectedItem());
+        project.getProjectSettings().put("targetResolutions", previewResolutionsField.getText().trim());
         project.getProjectSettings().put("theme", themeComboBox.getSelectedItem());
         project.getProjectSettings().put("gridSize", gridSizeSpinner.getValue());
         project.getProjectSettings().put("snapToGrid", snapToGridCheckBox.isSelected());
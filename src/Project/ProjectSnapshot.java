@@ -0,0 +1,59 @@
+package Project;
+
+import Utils.PersistentVector;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable view of a {@link DesignProject} at one point in time
+ * Unchanged screens are shared with the previous snapshot, so snapshots are cheap
+ * enough to take after every edit and can be handed to background work such as
+ * export or autosave while the project keeps being edited
+ */
+public final class ProjectSnapshot {
+    private final String name;
+    private final String description;
+    private final Map<String, Object> projectSettings;
+    private final PersistentVector<ScreenSnapshot> screens;
+    private final int activeScreenIndex;
+    private final long timestamp;
+
+    ProjectSnapshot(DesignProject project, PersistentVector<ScreenSnapshot> screens) {
+        this.name = project.getName();
+        this.description = project.getDescription();
+        this.projectSettings = Collections.unmodifiableMap(new LinkedHashMap<>(project.getProjectSettings()));
+        this.screens = screens;
+        this.activeScreenIndex = project.getScreens().indexOf(project.getActiveScreen());
+        this.timestamp = System.currentTimeMillis();
+    }
+
+    /**
+     * Whether this snapshot still describes the project's own fields, screens are checked by the caller
+     */
+    boolean isCurrent(DesignProject project) {
+        return name.equals(project.getName())
+                && description.equals(project.getDescription())
+                && projectSettings.equals(project.getProjectSettings())
+                && activeScreenIndex == project.getScreens().indexOf(project.getActiveScreen());
+    }
+
+    public String getName() { return name; }
+    public String getDescription() { return description; }
+    public Map<String, Object> getProjectSettings() { return projectSettings; }
+    public List<ScreenSnapshot> getScreens() { return screens; }
+
+    PersistentVector<ScreenSnapshot> getScreenVector() { return screens; }
+
+    /**
+     * Index of the active screen, -1 if there was none
+     */
+    public int getActiveScreenIndex() { return activeScreenIndex; }
+
+    /**
+     * Time the snapshot was taken, in milliseconds since the epoch
+     */
+    public long getTimestamp() { return timestamp; }
+}
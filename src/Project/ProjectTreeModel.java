@@ -0,0 +1,483 @@
+package Project;
+
+import Designer.ComponentSymbol;
+import Designer.DesignComponent;
+
+import javax.swing.event.EventListenerList;
+import javax.swing.event.TreeExpansionEvent;
+import javax.swing.event.TreeExpansionListener;
+import javax.swing.event.TreeModelEvent;
+import javax.swing.event.TreeModelListener;
+import javax.swing.tree.TreeModel;
+import javax.swing.tree.TreePath;
+import java.util.*;
+
+/**
+ * Tree model of the project explorer, backed directly by the current project
+ * Nodes are the project objects themselves (DesignProject, DesignScreen, DesignComponent,
+ * ComponentSymbol) plus the fixed folders. {@link #refresh()} compares the screens with the last state
+ * shown and fires inserted, removed and changed events instead of reloading the tree.
+ * Components of a screen are read when the screen is expanded. Expanded screens keep
+ * the component list the tree has seen, which {@link ProjectEventBus} batches update
+ * with exact inserted, removed and changed events. Must be used on the Event Dispatch Thread
+ */
+public class ProjectTreeModel implements TreeModel, TreeExpansionListener, ProjectEventBus.Listener {
+
+    /**
+     * Fixed folder nodes below the project
+     */
+    public enum Folder {
+        SCREENS("Screens"),
+        RESOURCES("Resources"),
+        CUSTOM_COMPONENTS("Custom Components"),
+        IMAGES("Images"),
+        ICONS("Icons"),
+        FONTS("Fonts");
+
+        private final String displayName;
+
+        Folder(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+
+    private static final Object ROOT = "Projects";
+    private static final Folder[] PROJECT_FOLDERS = {Folder.SCREENS, Folder.RESOURCES, Folder.CUSTOM_COMPONENTS};
+    private static final Folder[] RESOURCE_FOLDERS = {Folder.IMAGES, Folder.ICONS, Folder.FONTS};
+
+    private final ProjectManager projectManager;
+    private final EventListenerList listenerList = new EventListenerList();
+
+    // State last reported to the listeners
+    private DesignProject project;
+    private String projectLabel;
+    private final List<DesignScreen> screens = new ArrayList<>();
+    private final List<String> screenLabels = new ArrayList<>();
+    private final List<ComponentSymbol> symbols = new ArrayList<>();
+
+    // Components of the expanded screens as last reported, with positions built on first lookup
+    private final Map<DesignScreen, List<DesignComponent>> expandedScreens = new IdentityHashMap<>();
+    private final Map<DesignScreen, Map<DesignComponent, Integer>> componentPositions = new IdentityHashMap<>();
+
+    public ProjectTreeModel(ProjectManager projectManager) {
+        this.projectManager = projectManager;
+        reset(projectManager.getCurrentProject());
+        ProjectEventBus.getInstance().addListener(this);
+    }
+
+    /**
+     * Brings the tree in line with the current project
+     * Returns true when the project was replaced and the whole tree was rebuilt
+     */
+    public boolean refresh() {
+        DesignProject current = projectManager.getCurrentProject();
+        if (current != project) {
+            reset(current);
+            fireTreeStructureChanged(new TreePath(ROOT));
+            return true;
+        }
+        if (project == null) {
+            return false;
+        }
+
+        if (!projectLabel.equals(project.getName())) {
+            projectLabel = project.getName();
+            fireTreeNodesChanged(new TreePath(ROOT), new int[]{0}, new Object[]{project});
+        }
+
+        int oldCount = screens.size();
+        TreePath screensPath = getScreensPath();
+        List<DesignScreen> currentScreens = project.getScreens();
+        Set<DesignScreen> present = identitySet(currentScreens);
+        Set<DesignScreen> known = identitySet(screens);
+
+        // Removed screens, reported at their old positions
+        int[] removedIndices = new int[screens.size()];
+        List<Object> removed = new ArrayList<>();
+        for (int i = 0; i < screens.size(); i++) {
+            DesignScreen screen = screens.get(i);
+            if (!present.contains(screen)) {
+                removedIndices[removed.size()] = i;
+                removed.add(screen);
+            }
+        }
+        if (!removed.isEmpty()) {
+            for (int i = removed.size() - 1; i >= 0; i--) {
+                DesignScreen screen = screens.remove(removedIndices[i]);
+                screenLabels.remove(removedIndices[i]);
+                stopListening(screen);
+            }
+            fireTreeNodesRemoved(screensPath, Arrays.copyOf(removedIndices, removed.size()), removed.toArray());
+        }
+
+        // Remaining screens must keep their order, otherwise the folder is rebuilt
+        List<DesignScreen> kept = new ArrayList<>(screens.size());
+        for (DesignScreen screen : currentScreens) {
+            if (known.contains(screen)) {
+                kept.add(screen);
+            }
+        }
+        if (!kept.equals(screens)) {
+            setScreens(currentScreens);
+            fireTreeStructureChanged(screensPath);
+        } else {
+            // Inserted screens, reported at their new positions
+            int[] insertedIndices = new int[currentScreens.size()];
+            List<Object> inserted = new ArrayList<>();
+            for (int i = 0; i < currentScreens.size(); i++) {
+                DesignScreen screen = currentScreens.get(i);
+                if (!known.contains(screen)) {
+                    screens.add(i, screen);
+                    screenLabels.add(i, labelOf(screen));
+                    insertedIndices[inserted.size()] = i;
+                    inserted.add(screen);
+                }
+            }
+            if (!inserted.isEmpty()) {
+                fireTreeNodesInserted(screensPath, Arrays.copyOf(insertedIndices, inserted.size()), inserted.toArray());
+            }
+
+            // Renamed or retyped screens
+            int[] changedIndices = new int[screens.size()];
+            List<Object> changed = new ArrayList<>();
+            for (int i = 0; i < screens.size(); i++) {
+                String label = labelOf(screens.get(i));
+                if (!label.equals(screenLabels.get(i))) {
+                    screenLabels.set(i, label);
+                    changedIndices[changed.size()] = i;
+                    changed.add(screens.get(i));
+                }
+            }
+            if (!changed.isEmpty()) {
+                fireTreeNodesChanged(screensPath, Arrays.copyOf(changedIndices, changed.size()), changed.toArray());
+            }
+        }
+
+        if (screens.size() != oldCount) {
+            // The folder label shows the screen count
+            fireTreeNodesChanged(screensPath.getParentPath(), new int[]{0}, new Object[]{Folder.SCREENS});
+        }
+
+        // Custom components change rarely, the folder is rebuilt
+        if (!symbols.equals(project.getSymbols())) {
+            symbols.clear();
+            symbols.addAll(project.getSymbols());
+            fireTreeStructureChanged(screensPath.getParentPath().pathByAddingChild(Folder.CUSTOM_COMPONENTS));
+        }
+        return false;
+    }
+
+    public TreePath getScreensPath() {
+        return new TreePath(new Object[]{ROOT, project, Folder.SCREENS});
+    }
+
+    /**
+     * Text shown for a node of this model
+     */
+    public String getLabel(Object node) {
+        if (node instanceof DesignProject) {
+            return ((DesignProject) node).getName();
+        } else if (node == Folder.SCREENS) {
+            return Folder.SCREENS.getDisplayName() + " (" + screens.size() + ")";
+        } else if (node instanceof Folder) {
+            return ((Folder) node).getDisplayName();
+        } else if (node instanceof DesignScreen) {
+            return labelOf((DesignScreen) node);
+        } else if (node instanceof ComponentSymbol) {
+            return ((ComponentSymbol) node).getName();
+        } else if (node instanceof DesignComponent) {
+            DesignComponent component = (DesignComponent) node;
+            String text = component.getText();
+            String typeName = component.getComponentType().getSimpleName();
+            return text == null || text.isEmpty() ? typeName : typeName + " \"" + text + "\"";
+        }
+        return String.valueOf(node);
+    }
+
+    private static String labelOf(DesignScreen screen) {
+        return screen.getName() + " (" + screen.getType().getDisplayName() + ")";
+    }
+
+    private void reset(DesignProject newProject) {
+        for (DesignScreen screen : new ArrayList<>(expandedScreens.keySet())) {
+            stopListening(screen);
+        }
+        project = newProject;
+        projectLabel = newProject != null ? newProject.getName() : null;
+        setScreens(newProject != null ? newProject.getScreens() : Collections.emptyList());
+        symbols.clear();
+        if (newProject != null) {
+            symbols.addAll(newProject.getSymbols());
+        }
+    }
+
+    private void setScreens(List<DesignScreen> newScreens) {
+        Set<DesignScreen> present = identitySet(newScreens);
+        for (DesignScreen screen : new ArrayList<>(expandedScreens.keySet())) {
+            if (!present.contains(screen)) {
+                stopListening(screen);
+            }
+        }
+        screens.clear();
+        screenLabels.clear();
+        for (DesignScreen screen : newScreens) {
+            screens.add(screen);
+            screenLabels.add(labelOf(screen));
+        }
+    }
+
+    private static Set<DesignScreen> identitySet(List<DesignScreen> screens) {
+        Set<DesignScreen> set = Collections.newSetFromMap(new IdentityHashMap<>());
+        set.addAll(screens);
+        return set;
+    }
+
+    // Lazy component nodes
+
+    @Override
+    public void treeExpanded(TreeExpansionEvent event) {
+        Object node = event.getPath().getLastPathComponent();
+        if (node instanceof DesignScreen && !expandedScreens.containsKey(node)) {
+            // Deliver older changes first, they are already part of the list copied here
+            ProjectEventBus.getInstance().flush();
+            DesignScreen screen = (DesignScreen) node;
+            expandedScreens.put(screen, new ArrayList<>(screen.getComponents()));
+        }
+    }
+
+    @Override
+    public void treeCollapsed(TreeExpansionEvent event) {
+        Object node = event.getPath().getLastPathComponent();
+        if (node instanceof DesignScreen) {
+            stopListening((DesignScreen) node);
+        }
+    }
+
+    private void stopListening(DesignScreen screen) {
+        expandedScreens.remove(screen);
+        componentPositions.remove(screen);
+    }
+
+    @Override
+    public void projectEventsDispatched(List<ProjectEvent> events) {
+        boolean screensChanged = false;
+        for (ProjectEvent event : events) {
+            if (event.getProject() != project) {
+                continue;
+            }
+            switch (event.getType()) {
+                case COMPONENTS_ADDED:
+                    componentsAdded(event);
+                    break;
+                case COMPONENTS_REMOVED:
+                    componentsRemoved(event);
+                    break;
+                case COMPONENTS_CHANGED:
+                    componentsChanged(event);
+                    break;
+                default:
+                    screensChanged = true;
+                    break;
+            }
+        }
+        if (screensChanged) {
+            refresh();
+        }
+    }
+
+    private void componentsAdded(ProjectEvent event) {
+        List<DesignComponent> children = expandedScreens.get(event.getScreen());
+        if (children == null) {
+            return;
+        }
+        int[] indices = event.getComponentIndices();
+        children.addAll(indices[0], event.getComponents());
+        componentPositions.remove(event.getScreen());
+        fireTreeNodesInserted(getScreensPath().pathByAddingChild(event.getScreen()),
+                indices, event.getComponents().toArray());
+    }
+
+    private void componentsRemoved(ProjectEvent event) {
+        List<DesignComponent> children = expandedScreens.get(event.getScreen());
+        if (children == null) {
+            return;
+        }
+        int[] indices = event.getComponentIndices();
+        for (int i = indices.length - 1; i >= 0; i--) {
+            children.remove(indices[i]);
+        }
+        componentPositions.remove(event.getScreen());
+        fireTreeNodesRemoved(getScreensPath().pathByAddingChild(event.getScreen()),
+                indices, event.getComponents().toArray());
+    }
+
+    private void componentsChanged(ProjectEvent event) {
+        if (!expandedScreens.containsKey(event.getScreen())) {
+            return;
+        }
+        Map<DesignComponent, Integer> positions = componentPositions(event.getScreen());
+        int[] indices = new int[event.getComponents().size()];
+        int count = 0;
+        for (DesignComponent component : event.getComponents()) {
+            Integer index = positions.get(component);
+            if (index != null) {
+                indices[count++] = index;
+            }
+        }
+        if (count == 0) {
+            return;
+        }
+        indices = Arrays.copyOf(indices, count);
+        Arrays.sort(indices);
+        List<DesignComponent> children = expandedScreens.get(event.getScreen());
+        Object[] changed = new Object[count];
+        for (int i = 0; i < count; i++) {
+            changed[i] = children.get(indices[i]);
+        }
+        fireTreeNodesChanged(getScreensPath().pathByAddingChild(event.getScreen()), indices, changed);
+    }
+
+    private Map<DesignComponent, Integer> componentPositions(DesignScreen screen) {
+        Map<DesignComponent, Integer> positions = componentPositions.get(screen);
+        if (positions == null) {
+            List<DesignComponent> components = expandedScreens.get(screen);
+            positions = new IdentityHashMap<>(components.size() * 2);
+            for (int i = 0; i < components.size(); i++) {
+                positions.put(components.get(i), i);
+            }
+            componentPositions.put(screen, positions);
+        }
+        return positions;
+    }
+
+    private List<DesignComponent> componentsOf(DesignScreen screen) {
+        List<DesignComponent> children = expandedScreens.get(screen);
+        return children != null ? children : screen.getComponents();
+    }
+
+    // TreeModel
+
+    @Override
+    public Object getRoot() {
+        return ROOT;
+    }
+
+    @Override
+    public Object getChild(Object parent, int index) {
+        if (parent == ROOT) {
+            return project;
+        } else if (parent instanceof DesignProject) {
+            return PROJECT_FOLDERS[index];
+        } else if (parent == Folder.SCREENS) {
+            return screens.get(index);
+        } else if (parent == Folder.RESOURCES) {
+            return RESOURCE_FOLDERS[index];
+        } else if (parent == Folder.CUSTOM_COMPONENTS) {
+            return symbols.get(index);
+        } else if (parent instanceof DesignScreen) {
+            return componentsOf((DesignScreen) parent).get(index);
+        }
+        return null;
+    }
+
+    @Override
+    public int getChildCount(Object parent) {
+        if (parent == ROOT) {
+            return project != null ? 1 : 0;
+        } else if (parent instanceof DesignProject) {
+            return PROJECT_FOLDERS.length;
+        } else if (parent == Folder.SCREENS) {
+            return screens.size();
+        } else if (parent == Folder.RESOURCES) {
+            return RESOURCE_FOLDERS.length;
+        } else if (parent == Folder.CUSTOM_COMPONENTS) {
+            return symbols.size();
+        } else if (parent instanceof DesignScreen) {
+            return componentsOf((DesignScreen) parent).size();
+        }
+        return 0;
+    }
+
+    @Override
+    public boolean isLeaf(Object node) {
+        return node instanceof DesignComponent || node instanceof ComponentSymbol
+                || node == Folder.IMAGES || node == Folder.ICONS || node == Folder.FONTS;
+    }
+
+    @Override
+    public int getIndexOfChild(Object parent, Object child) {
+        if (parent == null || child == null) {
+            return -1;
+        }
+        if (parent == ROOT) {
+            return child == project ? 0 : -1;
+        } else if (parent instanceof DesignProject) {
+            return Arrays.asList(PROJECT_FOLDERS).indexOf(child);
+        } else if (parent == Folder.SCREENS) {
+            for (int i = 0; i < screens.size(); i++) {
+                if (screens.get(i) == child) {
+                    return i;
+                }
+            }
+        } else if (parent == Folder.RESOURCES) {
+            return Arrays.asList(RESOURCE_FOLDERS).indexOf(child);
+        } else if (parent == Folder.CUSTOM_COMPONENTS) {
+            return symbols.indexOf(child);
+        } else if (parent instanceof DesignScreen && child instanceof DesignComponent) {
+            DesignScreen screen = (DesignScreen) parent;
+            if (expandedScreens.containsKey(screen)) {
+                Integer index = componentPositions(screen).get(child);
+                return index != null ? index : -1;
+            }
+            return componentsOf(screen).indexOf(child);
+        }
+        return -1;
+    }
+
+    @Override
+    public void valueForPathChanged(TreePath path, Object newValue) {
+        // Nodes are renamed through the screen and project dialogs
+    }
+
+    @Override
+    public void addTreeModelListener(TreeModelListener listener) {
+        listenerList.add(TreeModelListener.class, listener);
+    }
+
+    @Override
+    public void removeTreeModelListener(TreeModelListener listener) {
+        listenerList.remove(TreeModelListener.class, listener);
+    }
+
+    private void fireTreeNodesChanged(TreePath parentPath, int[] indices, Object[] children) {
+        TreeModelEvent event = new TreeModelEvent(this, parentPath, indices, children);
+        for (TreeModelListener listener : listenerList.getListeners(TreeModelListener.class)) {
+            listener.treeNodesChanged(event);
+        }
+    }
+
+    private void fireTreeNodesInserted(TreePath parentPath, int[] indices, Object[] children) {
+        TreeModelEvent event = new TreeModelEvent(this, parentPath, indices, children);
+        for (TreeModelListener listener : listenerList.getListeners(TreeModelListener.class)) {
+            listener.treeNodesInserted(event);
+        }
+    }
+
+    private void fireTreeNodesRemoved(TreePath parentPath, int[] indices, Object[] children) {
+        TreeModelEvent event = new TreeModelEvent(this, parentPath, indices, children);
+        for (TreeModelListener listener : listenerList.getListeners(TreeModelListener.class)) {
+            listener.treeNodesRemoved(event);
+        }
+    }
+
+    private void fireTreeStructureChanged(TreePath path) {
+        TreeModelEvent event = new TreeModelEvent(this, path);
+        for (TreeModelListener listener : listenerList.getListeners(TreeModelListener.class)) {
+            listener.treeStructureChanged(event);
+        }
+    }
+}
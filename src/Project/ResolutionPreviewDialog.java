@@ -0,0 +1,134 @@
+package Project;
+
+import Designer.DesignComponent;
+
+import javax.swing.*;
+import javax.swing.Timer;
+import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.*;
+import java.util.List;
+
+/**
+ * Side-by-side view of one screen at all target resolutions of the project
+ * Viewports come from {@link ResolutionPreviewService} and are refreshed shortly after the
+ * screen changed, re-evaluating only the resolutions whose cached layer is stale
+ */
+public class ResolutionPreviewDialog extends JDialog implements DesignScreen.ScreenListener {
+    private static final int PREVIEW_HEIGHT = 240;
+    private static final int REFRESH_DELAY = 300;
+
+    private DesignScreen screen;
+    private List<Dimension> resolutions;
+    private JPanel viewportPanel;
+    private JLabel statusLabel;
+    private final Timer refreshTimer;
+    private int generation;
+
+    public ResolutionPreviewDialog(JFrame parent) {
+        super(parent, "Resolution Preview", false);
+        refreshTimer = new Timer(REFRESH_DELAY, e -> refresh());
+        refreshTimer.setRepeats(false);
+        initializeDialog();
+        createComponents();
+    }
+
+    private void initializeDialog() {
+        setSize(900, 380);
+        setLocationRelativeTo(getParent());
+        setDefaultCloseOperation(HIDE_ON_CLOSE);
+        setLayout(new BorderLayout(5, 5));
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                setScreen(null);
+            }
+        });
+    }
+
+    private void createComponents() {
+        viewportPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 15, 10));
+        add(new JScrollPane(viewportPanel), BorderLayout.CENTER);
+
+        JButton refreshButton = new JButton("Refresh");
+        refreshButton.addActionListener(e -> refresh());
+        statusLabel = new JLabel(" ");
+
+        JPanel bottomPanel = new JPanel(new BorderLayout(5, 0));
+        bottomPanel.setBorder(BorderFactory.createEmptyBorder(0, 10, 10, 10));
+        bottomPanel.add(statusLabel, BorderLayout.CENTER);
+        bottomPanel.add(refreshButton, BorderLayout.EAST);
+        add(bottomPanel, BorderLayout.SOUTH);
+    }
+
+    /**
+     * Shows the screen at the given resolutions
+     */
+    public void showScreen(DesignScreen screen, List<Dimension> resolutions) {
+        this.resolutions = new ArrayList<>(resolutions);
+        setScreen(screen);
+        setTitle("Resolution Preview - " + screen.getName());
+        refresh();
+        setVisible(true);
+    }
+
+    private void setScreen(DesignScreen newScreen) {
+        if (screen != null) {
+            screen.removeScreenListener(this);
+        }
+        screen = newScreen;
+        refreshTimer.stop();
+        if (screen != null) {
+            screen.addScreenListener(this);
+        }
+    }
+
+    @Override
+    public void screenModified(DesignScreen screen, DesignComponent component) {
+        refreshTimer.restart();
+    }
+
+    private void refresh() {
+        if (screen == null) {
+            return;
+        }
+        int current = ++generation;
+        long start = System.nanoTime();
+        statusLabel.setText("Evaluating " + resolutions.size() + " resolutions...");
+        ResolutionPreviewService.getInstance().render(screen, resolutions, PREVIEW_HEIGHT)
+                .whenComplete((viewports, error) -> {
+                    if (current != generation) {
+                        return;
+                    }
+                    if (error != null) {
+                        statusLabel.setText("Preview failed: " + error.getMessage());
+                        return;
+                    }
+                    showViewports(viewports);
+                    statusLabel.setText(viewports.size() + " resolutions ("
+                            + (System.nanoTime() - start) / 1_000_000 + " ms)");
+                });
+    }
+
+    private void showViewports(List<ResolutionPreviewService.Viewport> viewports) {
+        viewportPanel.removeAll();
+        for (ResolutionPreviewService.Viewport viewport : viewports) {
+            Dimension resolution = viewport.getResolution();
+            String caption = resolution.width + "×" + resolution.height;
+            if (viewport.getOutsideCount() > 0) {
+                caption += " - " + viewport.getOutsideCount() + " outside";
+            }
+            JLabel label = new JLabel(caption, new ImageIcon(viewport.getImage()), SwingConstants.CENTER);
+            label.setVerticalTextPosition(SwingConstants.BOTTOM);
+            label.setHorizontalTextPosition(SwingConstants.CENTER);
+            label.setBorder(BorderFactory.createLineBorder(Color.GRAY));
+            if (viewport.getOutsideCount() > 0) {
+                label.setForeground(new Color(200, 100, 0));
+            }
+            viewportPanel.add(label);
+        }
+        viewportPanel.revalidate();
+        viewportPanel.repaint();
+    }
+}
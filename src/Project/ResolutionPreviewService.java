@@ -0,0 +1,180 @@
+package Project;
+
+import Designer.ComponentSnapshot;
+import Designer.ConstraintLayout;
+import Designer.DesignComponent;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.*;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Evaluates the layout of a screen for several target resolutions at once
+ * For every resolution the constraint layout is resolved and the screen rendered on its own
+ * worker thread, all from a snapshot and a frozen copy of the layout taken on the Event Dispatch
+ * Thread. Rendered viewports are cached per screen and resolution and reused until the screen
+ * or its layout changes, so only the resolutions that are stale are evaluated again.
+ * All public methods must be called on the Event Dispatch Thread
+ */
+public class ResolutionPreviewService {
+    private static ResolutionPreviewService instance;
+
+    private final ExecutorService renderExecutor;
+    private final Map<DesignScreen, Map<Dimension, Viewport>> cache;
+
+    /**
+     * One screen rendered at one target resolution
+     */
+    public static final class Viewport {
+        private final Dimension resolution;
+        private final BufferedImage image;
+        private final int outsideCount;
+        private final int modificationCount;
+        private final int layoutVersion;
+        private final double scale;
+
+        Viewport(Dimension resolution, BufferedImage image, int outsideCount,
+                 int modificationCount, int layoutVersion, double scale) {
+            this.resolution = resolution;
+            this.image = image;
+            this.outsideCount = outsideCount;
+            this.modificationCount = modificationCount;
+            this.layoutVersion = layoutVersion;
+            this.scale = scale;
+        }
+
+        public Dimension getResolution() { return new Dimension(resolution); }
+        public BufferedImage getImage() { return image; }
+
+        /**
+         * Number of components that do not fit completely inside the viewport
+         */
+        public int getOutsideCount() { return outsideCount; }
+
+        public double getScale() { return scale; }
+
+        boolean isCurrent(DesignScreen screen, double scale) {
+            return modificationCount == screen.getModificationCount()
+                    && layoutVersion == screen.getConstraintLayout().getVersion()
+                    && this.scale == scale;
+        }
+    }
+
+    private ResolutionPreviewService() {
+        int threads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        renderExecutor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "resolution-preview");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        cache = new WeakHashMap<>();
+    }
+
+    public static ResolutionPreviewService getInstance() {
+        if (instance == null) {
+            instance = new ResolutionPreviewService();
+        }
+        return instance;
+    }
+
+    /**
+     * Viewports of the screen for the resolutions, in the same order, each scaled to fit the
+     * preview height. Cached viewports are returned as they are, the others are evaluated in parallel.
+     * The future completes on the Event Dispatch Thread
+     */
+    public CompletableFuture<List<Viewport>> render(DesignScreen screen, List<Dimension> resolutions, int previewHeight) {
+        Map<Dimension, Viewport> screenCache = cache.computeIfAbsent(screen, key -> new HashMap<>());
+        List<CompletableFuture<Viewport>> viewports = new ArrayList<>(resolutions.size());
+        Evaluation evaluation = null;
+        for (Dimension resolution : resolutions) {
+            double scale = Math.min(1.0, (double) previewHeight / resolution.height);
+            Viewport cached = screenCache.get(resolution);
+            if (cached != null && cached.isCurrent(screen, scale)) {
+                viewports.add(CompletableFuture.completedFuture(cached));
+                continue;
+            }
+            if (evaluation == null) {
+                evaluation = new Evaluation(screen);
+            }
+            Evaluation captured = evaluation;
+            Dimension target = new Dimension(resolution);
+            viewports.add(CompletableFuture.supplyAsync(() -> captured.render(target, scale), renderExecutor));
+        }
+
+        CompletableFuture<List<Viewport>> result = new CompletableFuture<>();
+        CompletableFuture.allOf(viewports.toArray(new CompletableFuture<?>[0])).whenComplete((ignored, error) ->
+                SwingUtilities.invokeLater(() -> {
+                    if (error != null) {
+                        result.completeExceptionally(error);
+                        return;
+                    }
+                    List<Viewport> rendered = new ArrayList<>(viewports.size());
+                    for (CompletableFuture<Viewport> viewport : viewports) {
+                        Viewport value = viewport.join();
+                        screenCache.put(value.resolution, value);
+                        rendered.add(value);
+                    }
+                    result.complete(rendered);
+                }));
+        return result;
+    }
+
+    /**
+     * Drops the cached viewports of the screen
+     */
+    public void invalidate(DesignScreen screen) {
+        cache.remove(screen);
+    }
+
+    // Everything the workers need, captured on the EDT so they never read the live model
+    private static final class Evaluation {
+        final ScreenSnapshot snapshot;
+        final List<DesignComponent> components;
+        final ConstraintLayout layout;
+        final Map<DesignComponent, Rectangle> designBounds;
+        final Color background;
+        final int layoutVersion;
+
+        Evaluation(DesignScreen screen) {
+            snapshot = screen.getSnapshot();
+            components = new ArrayList<>(screen.getComponents());
+            designBounds = new IdentityHashMap<>();
+            Map<DesignComponent, DesignComponent> identity = new IdentityHashMap<>();
+            for (DesignComponent component : components) {
+                designBounds.put(component, new Rectangle(component.getBounds()));
+                identity.put(component, component);
+            }
+            layout = screen.getConstraintLayout().copy(identity);
+            background = ScreenRenderer.getBackgroundColor(snapshot);
+            layoutVersion = screen.getConstraintLayout().getVersion();
+        }
+
+        Viewport render(Dimension resolution, double scale) {
+            Map<DesignComponent, Rectangle> resolved = layout.resolve(resolution.width, resolution.height, designBounds);
+            List<ComponentSnapshot> rendered = snapshot.getComponents();
+            Rectangle[] bounds = new Rectangle[rendered.size()];
+            Rectangle viewport = new Rectangle(0, 0, resolution.width, resolution.height);
+            int outside = 0;
+            for (int i = 0; i < bounds.length; i++) {
+                Rectangle resolvedBounds = resolved.get(components.get(i));
+                bounds[i] = resolvedBounds != null ? resolvedBounds : rendered.get(i).getBounds();
+                if (!viewport.contains(bounds[i])) {
+                    outside++;
+                }
+            }
+            // Drawn straight from the snapshot, so previews create no components
+            BufferedImage image = ScreenRenderer.render(resolution.width, resolution.height, background, scale, g2d -> {
+                for (int i = 0; i < bounds.length; i++) {
+                    rendered.get(i).draw(g2d, bounds[i]);
+                }
+            });
+            return new Viewport(resolution, image, outside, snapshot.getModificationCount(), layoutVersion, scale);
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package Project;
+
+import Designer.ComponentRegistry;
+import Designer.ComponentSnapshot;
+import Designer.ComponentSymbol;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Exports every screen of a project to PNG and optionally SVG files
+ * Screens are rendered off-screen in parallel, no Swing component is created
+ * so the exporter also works with -Djava.awt.headless=true
+ */
+public class ScreenExporter {
+    private final File outputDirectory;
+    private final double scale;
+    private final boolean exportSvg;
+
+    public interface ProgressListener {
+        /**
+         * Called from a worker thread after each screen was written
+         */
+        void screenExported(DesignScreen screen, int completed, int total);
+    }
+
+    /**
+     * Snapshot of a screen taken on the caller so that workers never touch the live model
+     */
+    private static class ExportJob {
+        final DesignScreen screen;
+        final String fileName;
+        final ScreenSnapshot snapshot;
+        final int width;
+        final int height;
+        final Color background;
+
+        ExportJob(DesignScreen screen, ScreenSnapshot snapshot, String fileName) {
+            this.screen = screen;
+            this.fileName = fileName;
+            this.snapshot = snapshot;
+            this.width = ScreenRenderer.getScreenWidth(snapshot);
+            this.height = ScreenRenderer.getScreenHeight(snapshot);
+            this.background = ScreenRenderer.getBackgroundColor(snapshot);
+        }
+    }
+
+    public ScreenExporter(File outputDirectory, double scale, boolean exportSvg) {
+        if (scale <= 0) {
+            throw new IllegalArgumentException("Scale must be positive: " + scale);
+        }
+        this.outputDirectory = outputDirectory;
+        this.scale = scale;
+        this.exportSvg = exportSvg;
+    }
+
+    /**
+     * Exports all screens and blocks until every file is written
+     */
+    public List<File> export(DesignProject project) throws IOException {
+        try {
+            return exportAsync(project, null).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Takes a project snapshot on the calling thread and renders its screens in parallel.
+     * Call from the Event Dispatch Thread when the project is shown in the designer
+     */
+    public CompletableFuture<List<File>> exportAsync(DesignProject project, ProgressListener listener) {
+        List<ExportJob> jobs = new ArrayList<>();
+        List<DesignScreen> screens = project.getScreens();
+        List<ScreenSnapshot> snapshots = project.getSnapshot().getScreens();
+        for (int i = 0; i < screens.size(); i++) {
+            jobs.add(new ExportJob(screens.get(i), snapshots.get(i), createFileName(i, screens.get(i))));
+        }
+
+        if (!outputDirectory.isDirectory() && !outputDirectory.mkdirs()) {
+            return CompletableFuture.failedFuture(
+                    new UncheckedIOException(new IOException("Cannot create directory " + outputDirectory)));
+        }
+
+        int threads = Math.max(1, Math.min(jobs.size(), Runtime.getRuntime().availableProcessors()));
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "screen-export");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        AtomicInteger completed = new AtomicInteger();
+        List<CompletableFuture<List<File>>> futures = new ArrayList<>();
+        for (ExportJob job : jobs) {
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                List<File> files = exportScreen(job);
+                if (listener != null) {
+                    listener.screenExported(job.screen, completed.incrementAndGet(), jobs.size());
+                }
+                return files;
+            }, executor));
+        }
+
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+                .thenApply(ignored -> {
+                    List<File> files = new ArrayList<>();
+                    for (CompletableFuture<List<File>> future : futures) {
+                        files.addAll(future.join());
+                    }
+                    return files;
+                })
+                .whenComplete((files, error) -> executor.shutdown());
+    }
+
+    private List<File> exportScreen(ExportJob job) {
+        List<File> files = new ArrayList<>();
+        try {
+            BufferedImage image = ScreenRenderer.renderSnapshots(job.snapshot.getComponents(),
+                    job.width, job.height, job.background, scale);
+            File pngFile = new File(outputDirectory, job.fileName + ".png");
+            ImageIO.write(image, "png", pngFile);
+            files.add(pngFile);
+
+            if (exportSvg) {
+                File svgFile = new File(outputDirectory, job.fileName + ".svg");
+                writeSvg(job, svgFile);
+                files.add(svgFile);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return files;
+    }
+
+    private void writeSvg(ExportJob job, File file) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            writer.write("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"" + Math.round(job.width * scale)
+                    + "\" height=\"" + Math.round(job.height * scale)
+                    + "\" viewBox=\"0 0 " + job.width + " " + job.height + "\">\n");
+            writer.write("  <rect width=\"100%\" height=\"100%\" fill=\"" + toHex(job.background) + "\"/>\n");
+
+            int[] nextClipId = new int[1];
+            for (ComponentSnapshot comp : job.snapshot.getComponents()) {
+                writeSvgComponent(writer, comp, "  ", nextClipId);
+            }
+            writer.write("</svg>\n");
+        }
+    }
+
+    /**
+     * Mirrors DesignComponent.draw with SVG primitives, in the coordinates of the parent
+     * Children are written in a group moved to their container and clipped to it, symbol
+     * instances write the master of their symbol clipped to the instance
+     */
+    private void writeSvgComponent(BufferedWriter writer, ComponentSnapshot comp, String indent,
+                                   int[] nextClipId) throws IOException {
+        if (!comp.isVisible()) {
+            return;
+        }
+        Rectangle bounds = comp.getBounds();
+        ComponentSymbol.Rendering rendering = comp.getSymbolRendering();
+        if (rendering != null) {
+            ComponentSnapshot master = rendering.getMaster();
+            Rectangle masterBounds = master.getBounds();
+            String clipId = writeSvgClip(writer, indent, nextClipId, masterBounds.x, masterBounds.y,
+                    bounds.width + 1, bounds.height + 1);
+            writer.write(indent + "<g transform=\"translate(" + (bounds.x - masterBounds.x) + ","
+                    + (bounds.y - masterBounds.y) + ")\" clip-path=\"url(#" + clipId + ")\">\n");
+            writeSvgComponent(writer, master, indent + "  ", nextClipId);
+            writer.write(indent + "</g>\n");
+            writer.write(indent + "<rect x=\"" + bounds.x + "\" y=\"" + bounds.y + "\" width=\"" + bounds.width
+                    + "\" height=\"" + bounds.height + "\" fill=\"none\" stroke=\""
+                    + toHex(ComponentSymbol.INSTANCE_OUTLINE) + "\"/>\n");
+            return;
+        }
+        writeSvgContent(writer, comp, indent);
+
+        if (!comp.getChildren().isEmpty()) {
+            String clipId = writeSvgClip(writer, indent, nextClipId, 0, 0, bounds.width, bounds.height);
+            writer.write(indent + "<g transform=\"translate(" + bounds.x + "," + bounds.y
+                    + ")\" clip-path=\"url(#" + clipId + ")\">\n");
+            for (ComponentSnapshot child : comp.getChildren()) {
+                writeSvgComponent(writer, child, indent + "  ", nextClipId);
+            }
+            writer.write(indent + "</g>\n");
+        }
+    }
+
+    // Clip path in the coordinates of the group that refers to it, returns its id
+    private static String writeSvgClip(BufferedWriter writer, String indent, int[] nextClipId,
+                                       int x, int y, int width, int height) throws IOException {
+        String id = "clip" + nextClipId[0]++;
+        writer.write(indent + "<clipPath id=\"" + id + "\"><rect x=\"" + x + "\" y=\"" + y + "\" width=\""
+                + width + "\" height=\"" + height + "\"/></clipPath>\n");
+        return id;
+    }
+
+    // Frame, content and disabled overlay of one component, like DesignComponent.drawComponent
+    private void writeSvgContent(BufferedWriter writer, ComponentSnapshot comp, String indent) throws IOException {
+        Rectangle bounds = comp.getBounds();
+        Color fill = comp.isEnabled() ? comp.getBackgroundColor() : comp.getBackgroundColor().darker();
+        writer.write(indent + "<rect x=\"" + bounds.x + "\" y=\"" + bounds.y + "\" width=\"" + bounds.width
+                + "\" height=\"" + bounds.height + "\" fill=\"" + toHex(fill) + "\" stroke=\"#000000\"/>\n");
+
+        // Content as the descriptor of the component draws it
+        StringBuilder content = new StringBuilder();
+        ComponentRegistry.getInstance().getDescriptor(comp.getComponentType()).appendSvgContent(content, comp, indent);
+        writer.write(content.toString());
+
+        if (!comp.isEnabled()) {
+            writer.write(indent + "<rect x=\"" + bounds.x + "\" y=\"" + bounds.y + "\" width=\"" + bounds.width
+                    + "\" height=\"" + bounds.height + "\" fill=\"#808080\" fill-opacity=\"0.39\"/>\n");
+        }
+    }
+
+    private static String createFileName(int index, DesignScreen screen) {
+        String safeName = screen.getName().replaceAll("[^A-Za-z0-9._-]+", "_");
+        return String.format("%03d-%s", index + 1, safeName);
+    }
+
+    private static String toHex(Color color) {
+        return String.format("#%02X%02X%02X", color.getRed(), color.getGreen(), color.getBlue());
+    }
+}
@@ -0,0 +1,83 @@
+package Project;
+
+import Base.UndoableCommand;
+
+/**
+ * Addition or removal of a screen in a project
+ */
+public class ScreenListCommand implements UndoableCommand {
+    private final DesignProject project;
+    private final DesignScreen screen;
+    private final int index;
+    private final boolean removal;
+    // Taken once, the history subtracts the same size it added when the command is dropped
+    private final long sizeInBytes;
+
+    private ScreenListCommand(DesignProject project, DesignScreen screen, int index, boolean removal) {
+        this.project = project;
+        this.screen = screen;
+        this.index = index;
+        this.removal = removal;
+        // A removed screen is only reachable through this command
+        this.sizeInBytes = removal ? 64 + screen.getComponents().size() * 256L : 64;
+    }
+
+    /**
+     * Records a screen that was just added to the project
+     */
+    public static ScreenListCommand added(DesignProject project, DesignScreen screen) {
+        return new ScreenListCommand(project, screen, project.getScreens().indexOf(screen), false);
+    }
+
+    /**
+     * Records a screen about to be removed from the project, call before removing it
+     */
+    public static ScreenListCommand removed(DesignProject project, DesignScreen screen) {
+        return new ScreenListCommand(project, screen, project.getScreens().indexOf(screen), true);
+    }
+
+    @Override
+    public void undo() {
+        if (removal) {
+            insert();
+        } else {
+            remove();
+        }
+    }
+
+    @Override
+    public void redo() {
+        if (removal) {
+            remove();
+        } else {
+            insert();
+        }
+    }
+
+    private void insert() {
+        project.addScreen(Math.min(index, project.getScreens().size()), screen);
+        notifyProjectChanged();
+    }
+
+    private void remove() {
+        project.removeScreen(screen);
+        notifyProjectChanged();
+    }
+
+    private void notifyProjectChanged() {
+        ProjectManager manager = ProjectManager.getInstance();
+        if (manager.getCurrentProject() == project) {
+            manager.loadProject(project);
+        }
+    }
+
+    @Override
+    public String getPresentationName() {
+        return removal ? "Remove Screen" : "Add Screen";
+    }
+
+    @Override
+    public long getSizeInBytes() {
+        return sizeInBytes;
+    }
+}
@@ -0,0 +1,318 @@
+package Project;
+
+import Designer.ComponentSnapshot;
+
+import java.awt.*;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Writes the screen list of a project with per-screen component statistics
+ * Rows are streamed through a buffered writer one screen at a time on a background thread,
+ * working from a project snapshot so the live model is never touched. The report is written
+ * to a temporary file next to the target and moved into place once complete
+ */
+public class ScreenListExporter {
+
+    public enum Format {
+        TEXT("Text report", "txt"),
+        CSV("CSV", "csv"),
+        JSON_LINES("JSON lines", "jsonl");
+
+        private final String displayName;
+        private final String extension;
+
+        Format(String displayName, String extension) {
+            this.displayName = displayName;
+            this.extension = extension;
+        }
+
+        public String getDisplayName() { return displayName; }
+        public String getExtension() { return extension; }
+
+        /**
+         * Format matching the extension of the file, null if none matches
+         */
+        public static Format forFile(File file) {
+            String name = file.getName().toLowerCase();
+            for (Format format : values()) {
+                if (name.endsWith("." + format.extension)) {
+                    return format;
+                }
+            }
+            return null;
+        }
+    }
+
+    public interface ProgressListener {
+        /**
+         * Called from the export thread after each screen was written
+         */
+        void screenWritten(int completed, int total);
+    }
+
+    /**
+     * Component statistics of one screen
+     */
+    public static final class ScreenStatistics {
+        private final int componentCount;
+        private final Map<String, Integer> countsByType;
+        private final Rectangle bounds;
+        private final int overlaps;
+
+        ScreenStatistics(int componentCount, Map<String, Integer> countsByType, Rectangle bounds, int overlaps) {
+            this.componentCount = componentCount;
+            this.countsByType = countsByType;
+            this.bounds = bounds;
+            this.overlaps = overlaps;
+        }
+
+        public int getComponentCount() { return componentCount; }
+
+        /**
+         * Component counts by simple class name, sorted by name, nested components included
+         */
+        public Map<String, Integer> getCountsByType() { return countsByType; }
+
+        /**
+         * Union of all component bounds on the screen, null for an empty screen
+         */
+        public Rectangle getBounds() { return bounds != null ? new Rectangle(bounds) : null; }
+
+        /**
+         * Number of sibling component pairs whose bounds intersect
+         */
+        public int getOverlaps() { return overlaps; }
+    }
+
+    private final Format format;
+
+    public ScreenListExporter(Format format) {
+        this.format = format;
+    }
+
+    /**
+     * Computes the statistics of a screen, including the components inside containers
+     * Bounds are united on the screen, overlapping pairs are counted among siblings
+     * with the sweep of {@link DesignLinter}
+     */
+    public static ScreenStatistics computeStatistics(ScreenSnapshot screen) {
+        StatisticsCollector collector = new StatisticsCollector();
+        collector.collect(screen.getComponents(), 0, 0);
+        return new ScreenStatistics(collector.componentCount, collector.countsByType, collector.union,
+                collector.overlaps);
+    }
+
+    // Totals of one screen, collected level by level through its component tree
+    private static final class StatisticsCollector {
+        int componentCount;
+        final Map<String, Integer> countsByType = new TreeMap<>();
+        Rectangle union;
+        int overlaps;
+
+        void collect(List<ComponentSnapshot> components, int originX, int originY) {
+            Rectangle[] boxes = new Rectangle[components.size()];
+            for (int i = 0; i < boxes.length; i++) {
+                ComponentSnapshot component = components.get(i);
+                countsByType.merge(component.getComponentType().getSimpleName(), 1, Integer::sum);
+                boxes[i] = component.getBounds();
+                Rectangle absolute = new Rectangle(boxes[i]);
+                absolute.translate(originX, originY);
+                union = union == null ? absolute : union.union(absolute);
+                if (!component.getChildren().isEmpty()) {
+                    collect(component.getChildren(), absolute.x, absolute.y);
+                }
+            }
+            componentCount += boxes.length;
+            DesignLinter.findOverlaps(boxes, (first, second) -> overlaps++);
+        }
+    }
+
+    /**
+     * Writes the report on a background thread.
+     * Take the snapshot on the Event Dispatch Thread before calling
+     */
+    public CompletableFuture<File> exportAsync(ProjectSnapshot project, File file, ProgressListener listener) {
+        CompletableFuture<File> result = new CompletableFuture<>();
+        Thread thread = new Thread(() -> {
+            try {
+                export(project, file, listener);
+                result.complete(file);
+            } catch (IOException e) {
+                result.completeExceptionally(new UncheckedIOException(e));
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        }, "screen-list-export");
+        thread.setDaemon(true);
+        thread.start();
+        return result;
+    }
+
+    /**
+     * Writes the report on the calling thread
+     */
+    public void export(ProjectSnapshot project, File file, ProgressListener listener) throws IOException {
+        Path target = file.toPath().toAbsolutePath();
+        Path temp = Files.createTempFile(target.getParent(), ".export-", ".tmp");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                writeHeader(writer, project);
+                List<ScreenSnapshot> screens = project.getScreens();
+                for (int i = 0; i < screens.size(); i++) {
+                    ScreenSnapshot screen = screens.get(i);
+                    writeScreen(writer, i, screen, computeStatistics(screen));
+                    if (listener != null) {
+                        listener.screenWritten(i + 1, screens.size());
+                    }
+                }
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private void writeHeader(Writer writer, ProjectSnapshot project) throws IOException {
+        switch (format) {
+            case TEXT:
+                writer.write("Screen List for Project: " + project.getName() + "\n");
+                writer.write("Generated: " + new Date(project.getTimestamp()) + "\n\n");
+                break;
+            case CSV:
+                writer.write("index,name,type,visible,width,height,components,components_by_type,"
+                        + "bounds_x,bounds_y,bounds_width,bounds_height,overlaps,description\r\n");
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void writeScreen(Writer writer, int index, ScreenSnapshot screen, ScreenStatistics statistics)
+            throws IOException {
+        Rectangle bounds = statistics.bounds;
+        switch (format) {
+            case TEXT:
+                writer.write("Screen: " + screen.getName() + "\n");
+                writer.write("Type: " + screen.getType().getDisplayName() + "\n");
+                writer.write("Components: " + statistics.componentCount);
+                if (!statistics.countsByType.isEmpty()) {
+                    writer.write(" (" + joinCounts(statistics.countsByType, ", ", " ") + ")");
+                }
+                writer.write("\n");
+                if (bounds != null) {
+                    writer.write("Bounds: " + bounds.x + "," + bounds.y + " " + bounds.width + "×" + bounds.height + "\n");
+                }
+                writer.write("Overlapping pairs: " + statistics.overlaps + "\n");
+                writer.write("Visible: " + screen.isVisible() + "\n");
+                writer.write("Description: " + screen.getDescription() + "\n\n");
+                break;
+
+            case CSV:
+                writer.write(String.valueOf(index + 1));
+                writer.write(',');
+                writer.write(csv(screen.getName()));
+                writer.write(',');
+                writer.write(csv(screen.getType().getDisplayName()));
+                writer.write(',');
+                writer.write(String.valueOf(screen.isVisible()));
+                writer.write(',');
+                writer.write(String.valueOf(ScreenRenderer.getScreenWidth(screen)));
+                writer.write(',');
+                writer.write(String.valueOf(ScreenRenderer.getScreenHeight(screen)));
+                writer.write(',');
+                writer.write(String.valueOf(statistics.componentCount));
+                writer.write(',');
+                writer.write(csv(joinCounts(statistics.countsByType, ";", ":")));
+                writer.write(',');
+                writer.write(bounds != null ? bounds.x + "," + bounds.y + "," + bounds.width + "," + bounds.height : ",,,");
+                writer.write(',');
+                writer.write(String.valueOf(statistics.overlaps));
+                writer.write(',');
+                writer.write(csv(screen.getDescription()));
+                writer.write("\r\n");
+                break;
+
+            case JSON_LINES:
+                writer.write("{\"index\":" + (index + 1));
+                writer.write(",\"name\":" + json(screen.getName()));
+                writer.write(",\"type\":" + json(screen.getType().getDisplayName()));
+                writer.write(",\"visible\":" + screen.isVisible());
+                writer.write(",\"width\":" + ScreenRenderer.getScreenWidth(screen));
+                writer.write(",\"height\":" + ScreenRenderer.getScreenHeight(screen));
+                writer.write(",\"components\":" + statistics.componentCount);
+                writer.write(",\"componentsByType\":{");
+                boolean first = true;
+                for (Map.Entry<String, Integer> entry : statistics.countsByType.entrySet()) {
+                    writer.write((first ? "" : ",") + json(entry.getKey()) + ":" + entry.getValue());
+                    first = false;
+                }
+                writer.write("},\"bounds\":");
+                writer.write(bounds != null
+                        ? "{\"x\":" + bounds.x + ",\"y\":" + bounds.y + ",\"width\":" + bounds.width
+                        + ",\"height\":" + bounds.height + "}"
+                        : "null");
+                writer.write(",\"overlaps\":" + statistics.overlaps);
+                writer.write(",\"description\":" + json(screen.getDescription()));
+                writer.write("}\n");
+                break;
+        }
+    }
+
+    private static String joinCounts(Map<String, Integer> counts, String separator, String assignment) {
+        StringBuilder builder = new StringBuilder();
+        for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+            if (builder.length() > 0) {
+                builder.append(separator);
+            }
+            builder.append(entry.getKey()).append(assignment).append(entry.getValue());
+        }
+        return builder.toString();
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    private static String json(String value) {
+        if (value == null) {
+            return "null";
+        }
+        StringBuilder builder = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': builder.append("\\\""); break;
+                case '\\': builder.append("\\\\"); break;
+                case '\n': builder.append("\\n"); break;
+                case '\r': builder.append("\\r"); break;
+                case '\t': builder.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        builder.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        builder.append(c);
+                    }
+            }
+        }
+        return builder.append('"').toString();
+    }
+}
@@ -1,24 +1,26 @@
 package Project;
 
-import Designer.DesignComponent;
+import Base.CommandHistory;
 import Designer.FormPreview;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import javax.swing.table.TableCellRenderer;
 import javax.swing.table.TableColumnModel;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Comprehensive dialog for managing all screens in a project
  * Provides overview, bulk operations, and detailed management capabilities
  */
-public class ScreenManagementDialog extends JDialog {
+public class ScreenManagementDialog extends JDialog implements ScreenThumbnailService.ThumbnailListener {
     private DesignProject project;
-    private DefaultTableModel tableModel;
+    private ScreenTableModel tableModel;
     private JTable screensTable;
     private JButton addButton;
     private JButton duplicateButton;
@@ -29,6 +31,9 @@ public class ScreenManagementDialog extends JDialog {
     private JButton previewButton;
     private JLabel projectInfoLabel;
     private JProgressBar screenCountProgress;
+    private JTextField filterField;
+    private JButton exportButton;
+    private JProgressBar exportProgress;
 
     public ScreenManagementDialog(JFrame parent, DesignProject project) {
         super(parent, "Manage Screens - " + project.getName(), true);
@@ -37,7 +42,9 @@ public class ScreenManagementDialog extends JDialog {
         createComponents();
         layoutComponents();
         setupEvents();
-        loadScreenData();
+        ScreenThumbnailService.getInstance().addListener(this);
+        updateProjectInfo();
+        updateButtonStates();
     }
 
     private void initializeDialog() {
@@ -47,32 +54,21 @@ public class ScreenManagementDialog extends JDialog {
     }
 
     private void createComponents() {
-        // Table model with custom columns
-        String[] columnNames = {"", "Screen Name", "Type", "Size", "Components", "Visible", "Description"};
-        tableModel = new DefaultTableModel(columnNames, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return column == 1 || column == 5; // Name and Visible columns editable
-            }
-
-            @Override
-            public Class<?> getColumnClass(int column) {
-                switch (column) {
-                    case 0: return Icon.class;
-                    case 5: return Boolean.class;
-                    default: return String.class;
-                }
-            }
-        };
+        // Table model reading the screens of the project, sorted and filtered through its own index
+        tableModel = new ScreenTableModel(project, this::getScreenIcon);
 
         screensTable = new JTable(tableModel);
         screensTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
-        screensTable.setRowHeight(25);
+        screensTable.setRowHeight(Math.max(25, ScreenThumbnailService.THUMBNAIL_HEIGHT + 4));
         screensTable.getTableHeader().setReorderingAllowed(false);
+        screensTable.getTableHeader().setToolTipText("Click to sort, click again to reverse or restore the project order");
+
+        filterField = new JTextField(20);
+        filterField.setToolTipText("Show only screens whose name or description contains the text");
 
         // Set column widths
         TableColumnModel columnModel = screensTable.getColumnModel();
-        columnModel.getColumn(0).setMaxWidth(30); // Icon
+        columnModel.getColumn(0).setMaxWidth(ScreenThumbnailService.THUMBNAIL_WIDTH + 8); // Thumbnail
         columnModel.getColumn(1).setPreferredWidth(150); // Name
         columnModel.getColumn(2).setPreferredWidth(100); // Type
         columnModel.getColumn(3).setPreferredWidth(80);  // Size
@@ -125,6 +121,11 @@ public class ScreenManagementDialog extends JDialog {
         JPanel centerPanel = new JPanel(new BorderLayout());
         centerPanel.setBorder(BorderFactory.createTitledBorder("Project Screens"));
 
+        JPanel filterPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 5, 2));
+        filterPanel.add(new JLabel("Filter:"));
+        filterPanel.add(filterField);
+        centerPanel.add(filterPanel, BorderLayout.NORTH);
+
         JScrollPane tableScrollPane = new JScrollPane(screensTable);
         tableScrollPane.setPreferredSize(new Dimension(600, 400));
         centerPanel.add(tableScrollPane, BorderLayout.CENTER);
@@ -258,13 +259,18 @@ public class ScreenManagementDialog extends JDialog {
         JPanel panel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
         panel.setBorder(BorderFactory.createEmptyBorder(5, 10, 10, 10));
 
-        JButton exportButton = new JButton("Export List");
-        exportButton.setToolTipText("Export screen list to file");
+        exportButton = new JButton("Export List");
+        exportButton.setToolTipText("Export the screen list with component statistics as text, CSV or JSON lines");
         exportButton.addActionListener(e -> exportScreenList());
 
+        exportProgress = new JProgressBar();
+        exportProgress.setStringPainted(true);
+        exportProgress.setVisible(false);
+
         JButton closeButton = new JButton("Close");
         closeButton.addActionListener(e -> dispose());
 
+        panel.add(exportProgress);
         panel.add(exportButton);
         panel.add(closeButton);
 
@@ -298,50 +304,82 @@ public class ScreenManagementDialog extends JDialog {
         settingsButton.addActionListener(e -> editSelectedScreen());
         previewButton.addActionListener(e -> previewSelectedScreen());
 
-        // Table model listener for live updates
-        tableModel.addTableModelListener(e -> {
-            if (e.getColumn() == 1) { // Name column changed
-                int row = e.getFirstRow();
-                if (row >= 0 && row < project.getScreens().size()) {
-                    String newName = (String) tableModel.getValueAt(row, 1);
-                    project.getScreens().get(row).setName(newName);
-                }
-            } else if (e.getColumn() == 5) { // Visible column changed
-                int row = e.getFirstRow();
-                if (row >= 0 && row < project.getScreens().size()) {
-                    Boolean visible = (Boolean) tableModel.getValueAt(row, 5);
-                    project.getScreens().get(row).setVisible(visible);
+        // Header clicks sort through the model index
+        screensTable.getTableHeader().addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int column = screensTable.columnAtPoint(e.getPoint());
+                if (column >= 0) {
+                    DesignScreen selected = getSelectedScreen();
+                    tableModel.toggleSort(screensTable.convertColumnIndexToModel(column));
+                    updateColumnHeaders();
+                    selectScreen(selected);
                 }
             }
+        });
+
+        filterField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) { applyFilter(); }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) { applyFilter(); }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) { applyFilter(); }
+        });
+
+        // Row level updates from the model
+        tableModel.addTableModelListener(e -> {
             updateProjectInfo();
+            updateButtonStates();
         });
     }
 
-    private void loadScreenData() {
-        tableModel.setRowCount(0);
+    private void applyFilter() {
+        DesignScreen selected = getSelectedScreen();
+        tableModel.setFilter(filterField.getText());
+        selectScreen(selected);
+    }
 
-        for (DesignScreen screen : project.getScreens()) {
-            Object[] rowData = {
-                    getIconForScreenType(screen.getType()),
-                    screen.getName(),
-                    screen.getType().getDisplayName(),
-                    screen.getScreenSetting("width", 800) + "×" + screen.getScreenSetting("height", 600),
-                    screen.getComponents().size(),
-                    screen.isVisible(),
-                    truncateDescription(screen.getDescription())
-            };
-            tableModel.addRow(rowData);
+    private void updateColumnHeaders() {
+        TableColumnModel columnModel = screensTable.getColumnModel();
+        for (int i = 0; i < columnModel.getColumnCount(); i++) {
+            columnModel.getColumn(i).setHeaderValue(tableModel.getColumnName(columnModel.getColumn(i).getModelIndex()));
         }
+        screensTable.getTableHeader().repaint();
+    }
 
-        updateProjectInfo();
-        updateButtonStates();
+    private DesignScreen getSelectedScreen() {
+        int selectedRow = screensTable.getSelectedRow();
+        return selectedRow >= 0 ? tableModel.getScreenAt(selectedRow) : null;
     }
 
-    private String truncateDescription(String description) {
-        if (description == null || description.length() <= 50) {
-            return description;
+    private void selectScreen(DesignScreen screen) {
+        int row = screen != null ? tableModel.rowOf(screen) : -1;
+        if (row >= 0) {
+            screensTable.setRowSelectionInterval(row, row);
+            screensTable.scrollRectToVisible(screensTable.getCellRect(row, 0, true));
+        } else {
+            screensTable.clearSelection();
         }
-        return description.substring(0, 47) + "...";
+    }
+
+    private Icon getScreenIcon(DesignScreen screen) {
+        Icon thumbnail = ScreenThumbnailService.getInstance().getThumbnail(screen);
+        return thumbnail != null ? thumbnail : getIconForScreenType(screen.getType());
+    }
+
+    @Override
+    public void thumbnailUpdated(DesignScreen screen, Icon thumbnail) {
+        tableModel.iconChanged(screen);
+    }
+
+    @Override
+    public void dispose() {
+        ScreenThumbnailService.getInstance().removeListener(this);
+        tableModel.dispose();
+        super.dispose();
     }
 
     private Icon getIconForScreenType(ScreenType type) {
@@ -378,14 +416,17 @@ public class ScreenManagementDialog extends JDialog {
     }
 
     private void updateButtonStates() {
-        int selectedRow = screensTable.getSelectedRow();
-        boolean hasSelection = selectedRow >= 0;
+        DesignScreen selected = getSelectedScreen();
+        boolean hasSelection = selected != null;
         boolean hasMultipleScreens = project.getScreens().size() > 1;
+        // Moving changes the project order, which is only what the table shows when unsorted
+        boolean canMove = hasSelection && !tableModel.isSorted() && !tableModel.isFiltered();
+        int index = project.getScreens().indexOf(selected);
 
         duplicateButton.setEnabled(hasSelection);
         removeButton.setEnabled(hasSelection && hasMultipleScreens);
-        moveUpButton.setEnabled(hasSelection && selectedRow > 0);
-        moveDownButton.setEnabled(hasSelection && selectedRow < project.getScreens().size() - 1);
+        moveUpButton.setEnabled(canMove && index > 0);
+        moveDownButton.setEnabled(canMove && index < project.getScreens().size() - 1);
         settingsButton.setEnabled(hasSelection);
         previewButton.setEnabled(hasSelection);
     }
@@ -397,65 +438,47 @@ public class ScreenManagementDialog extends JDialog {
         if (data != null) {
             DesignScreen newScreen = project.createNewScreen(data.name, data.type);
             newScreen.setDescription(data.description);
-            loadScreenData();
+            CommandHistory.getInstance().addCommand(ScreenListCommand.added(project, newScreen));
+            ProjectEventBus.getInstance().flush();
 
             // Select the new screen
-            int newIndex = project.getScreens().size() - 1;
-            screensTable.setRowSelectionInterval(newIndex, newIndex);
+            selectScreen(newScreen);
         }
     }
 
     private void duplicateSelectedScreen() {
-        int selectedRow = screensTable.getSelectedRow();
-        if (selectedRow >= 0) {
-            DesignScreen originalScreen = project.getScreens().get(selectedRow);
-            DesignScreen newScreen = new DesignScreen(originalScreen.getName() + " Copy", originalScreen.getType());
-            newScreen.setDescription(originalScreen.getDescription());
-
-            // Copy components (simplified)
-            for (DesignComponent comp : originalScreen.getComponents()) {
-                // Create copy with offset
-                DesignComponent newComp;
-                newComp = new DesignComponent(comp.getComponentType(),
-                        comp.getBounds().x + 20, comp.getBounds().y + 20);
-                // Copy basic properties
-                newComp.setText(comp.getText());
-                newComp.setSize(comp.getBounds().width, comp.getBounds().height);
-                newComp.setBackgroundColor(comp.getBackgroundColor());
-                newComp.setVisible(comp.isVisible());
-                newComp.setEnabled(comp.isEnabled());
-
-                newScreen.addComponent(newComp);
-            }
+        DesignScreen originalScreen = getSelectedScreen();
+        if (originalScreen != null) {
+            DesignScreen newScreen = originalScreen.duplicate(originalScreen.getName() + " Copy");
 
             project.addScreen(newScreen);
-            loadScreenData();
+            CommandHistory.getInstance().addCommand(ScreenListCommand.added(project, newScreen));
+            ProjectEventBus.getInstance().flush();
 
             // Select the new screen
-            int newIndex = project.getScreens().size() - 1;
-            screensTable.setRowSelectionInterval(newIndex, newIndex);
+            selectScreen(newScreen);
         }
     }
 
     private void removeSelectedScreen() {
         int selectedRow = screensTable.getSelectedRow();
         if (selectedRow >= 0 && project.getScreens().size() > 1) {
-            DesignScreen screen = project.getScreens().get(selectedRow);
+            DesignScreen screen = tableModel.getScreenAt(selectedRow);
 
             int result = JOptionPane.showConfirmDialog(this,
-                    "Are you sure you want to remove the screen '" + screen.getName() + "'?\n" +
-                            "This action cannot be undone.",
+                    "Are you sure you want to remove the screen '" + screen.getName() + "'?",
                     "Remove Screen",
                     JOptionPane.YES_NO_OPTION,
                     JOptionPane.WARNING_MESSAGE);
 
             if (result == JOptionPane.YES_OPTION) {
+                CommandHistory.getInstance().addCommand(ScreenListCommand.removed(project, screen));
                 project.removeScreen(screen);
-                loadScreenData();
+                ProjectEventBus.getInstance().flush();
 
                 // Select next available row
-                if (selectedRow >= project.getScreens().size()) {
-                    selectedRow = project.getScreens().size() - 1;
+                if (selectedRow >= tableModel.getRowCount()) {
+                    selectedRow = tableModel.getRowCount() - 1;
                 }
                 if (selectedRow >= 0) {
                     screensTable.setRowSelectionInterval(selectedRow, selectedRow);
@@ -465,34 +488,30 @@ public class ScreenManagementDialog extends JDialog {
     }
 
     private void moveSelectedScreen(int direction) {
-        int selectedRow = screensTable.getSelectedRow();
-        if (selectedRow >= 0) {
-            int newIndex = selectedRow + direction;
+        DesignScreen screen = getSelectedScreen();
+        if (screen != null) {
+            int index = project.getScreens().indexOf(screen);
+            int newIndex = index + direction;
             if (newIndex >= 0 && newIndex < project.getScreens().size()) {
-                List<DesignScreen> screens = project.getScreens();
-                DesignScreen screen = screens.remove(selectedRow);
-                screens.add(newIndex, screen);
-
-                loadScreenData();
-                screensTable.setRowSelectionInterval(newIndex, newIndex);
+                project.moveScreen(index, newIndex);
+                ProjectEventBus.getInstance().flush();
+                selectScreen(screen);
             }
         }
     }
 
     private void editSelectedScreen() {
-        int selectedRow = screensTable.getSelectedRow();
-        if (selectedRow >= 0) {
-            DesignScreen screen = project.getScreens().get(selectedRow);
+        DesignScreen screen = getSelectedScreen();
+        if (screen != null) {
             ScreenSettingsDialog dialog = new ScreenSettingsDialog((JFrame) getParent(), screen);
             dialog.setVisible(true);
-            loadScreenData(); // Refresh data after editing
+            ProjectEventBus.getInstance().flush(); // Refresh the edited row
         }
     }
 
     private void previewSelectedScreen() {
-        int selectedRow = screensTable.getSelectedRow();
-        if (selectedRow >= 0) {
-            DesignScreen screen = project.getScreens().get(selectedRow);
+        DesignScreen screen = getSelectedScreen();
+        if (screen != null) {
             FormPreview preview = new FormPreview();
             JFrame previewFrame = preview.createPreviewFrame(screen.getComponents());
             previewFrame.setTitle("Preview: " + screen.getName());
@@ -503,28 +522,53 @@ public class ScreenManagementDialog extends JDialog {
 
     private void exportScreenList() {
         JFileChooser fileChooser = new JFileChooser();
-        fileChooser.setSelectedFile(new java.io.File(project.getName() + "_screens.txt"));
-
-        if (fileChooser.showSaveDialog(this) == JFileChooser.APPROVE_OPTION) {
-            try {
-                java.io.FileWriter writer = new java.io.FileWriter(fileChooser.getSelectedFile());
-                writer.write("Screen List for Project: " + project.getName() + "\n");
-                writer.write("Generated: " + new java.util.Date() + "\n\n");
-
-                for (DesignScreen screen : project.getScreens()) {
-                    writer.write("Screen: " + screen.getName() + "\n");
-                    writer.write("Type: " + screen.getType().getDisplayName() + "\n");
-                    writer.write("Components: " + screen.getComponents().size() + "\n");
-                    writer.write("Visible: " + screen.isVisible() + "\n");
-                    writer.write("Description: " + screen.getDescription() + "\n\n");
-                }
+        fileChooser.setAcceptAllFileFilterUsed(false);
+        Map<javax.swing.filechooser.FileFilter, ScreenListExporter.Format> filterFormats = new HashMap<>();
+        for (ScreenListExporter.Format format : ScreenListExporter.Format.values()) {
+            javax.swing.filechooser.FileFilter filter = new javax.swing.filechooser.FileNameExtensionFilter(
+                    format.getDisplayName() + " (*." + format.getExtension() + ")", format.getExtension());
+            filterFormats.put(filter, format);
+            fileChooser.addChoosableFileFilter(filter);
+        }
+        // No extension in the suggested name, so the chosen filter decides
+        fileChooser.setSelectedFile(new java.io.File(project.getName() + "_screens"));
 
-                writer.close();
-                JOptionPane.showMessageDialog(this, "Screen list exported successfully!");
-            } catch (Exception e) {
-                JOptionPane.showMessageDialog(this, "Error exporting screen list: " + e.getMessage());
-            }
+        if (fileChooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
         }
+
+        // The chosen filter decides the format unless the file name already ends in a known extension
+        java.io.File file = fileChooser.getSelectedFile();
+        ScreenListExporter.Format format = ScreenListExporter.Format.forFile(file);
+        if (format == null) {
+            format = filterFormats.get(fileChooser.getFileFilter());
+            file = new java.io.File(file.getParentFile(), file.getName() + "." + format.getExtension());
+        }
+
+        java.io.File target = file;
+        exportButton.setEnabled(false);
+        exportProgress.setValue(0);
+        exportProgress.setString("Exporting...");
+        exportProgress.setVisible(true);
+        revalidate();
+
+        new ScreenListExporter(format).exportAsync(project.getSnapshot(), target,
+                        (completed, total) -> SwingUtilities.invokeLater(() -> {
+                            exportProgress.setMaximum(total);
+                            exportProgress.setValue(completed);
+                            exportProgress.setString(completed + " / " + total);
+                        }))
+                .whenComplete((result, error) -> SwingUtilities.invokeLater(() -> {
+                    exportButton.setEnabled(true);
+                    exportProgress.setVisible(false);
+                    if (error != null) {
+                        Throwable cause = error.getCause() != null ? error.getCause() : error;
+                        JOptionPane.showMessageDialog(this, "Error exporting screen list: " + cause.getMessage(),
+                                "Export Failed", JOptionPane.ERROR_MESSAGE);
+                    } else {
+                        JOptionPane.showMessageDialog(this, "Screen list exported to:\n" + target);
+                    }
+                }));
     }
 }
 
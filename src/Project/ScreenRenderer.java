@@ -0,0 +1,123 @@
+package Project;
+
+import Designer.ComponentSnapshot;
+import Designer.DesignComponent;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Renders screens into off-screen images without any Swing component
+ * Safe to use from background threads and in headless mode
+ */
+public class ScreenRenderer {
+
+    private ScreenRenderer() {
+    }
+
+    public static int getScreenWidth(DesignScreen screen) {
+        return getScreenWidth(screen.getScreenSettings());
+    }
+
+    public static int getScreenHeight(DesignScreen screen) {
+        return getScreenHeight(screen.getScreenSettings());
+    }
+
+    public static Color getBackgroundColor(DesignScreen screen) {
+        return getBackgroundColor(screen.getScreenSettings());
+    }
+
+    public static int getScreenWidth(ScreenSnapshot screen) {
+        return getScreenWidth(screen.getScreenSettings());
+    }
+
+    public static int getScreenHeight(ScreenSnapshot screen) {
+        return getScreenHeight(screen.getScreenSettings());
+    }
+
+    public static Color getBackgroundColor(ScreenSnapshot screen) {
+        return getBackgroundColor(screen.getScreenSettings());
+    }
+
+    static int getScreenWidth(Map<String, Object> settings) {
+        return toInt(settings.getOrDefault("width", 800), 800);
+    }
+
+    static int getScreenHeight(Map<String, Object> settings) {
+        return toInt(settings.getOrDefault("height", 600), 600);
+    }
+
+    private static Color getBackgroundColor(Map<String, Object> settings) {
+        Object color = settings.getOrDefault("backgroundColor", Color.WHITE);
+        return color instanceof Color ? (Color) color : Color.WHITE;
+    }
+
+    /**
+     * Renders the screen at the given scale (1.0 = design size)
+     */
+    public static BufferedImage render(DesignScreen screen, double scale) {
+        return render(screen.getComponents(), getScreenWidth(screen), getScreenHeight(screen),
+                getBackgroundColor(screen), scale);
+    }
+
+    /**
+     * Renders a screen snapshot, safe to call from any thread
+     */
+    public static BufferedImage render(ScreenSnapshot screen, double scale) {
+        return renderSnapshots(screen.getComponents(), getScreenWidth(screen), getScreenHeight(screen),
+                getBackgroundColor(screen), scale);
+    }
+
+    /**
+     * Renders a component list onto an image of the given design size
+     */
+    public static BufferedImage render(List<DesignComponent> components, int width, int height,
+                                       Color background, double scale) {
+        return render(width, height, background, scale, g2d -> {
+            for (DesignComponent comp : components) {
+                comp.draw(g2d);
+            }
+        });
+    }
+
+    /**
+     * Renders component snapshots onto an image of the given design size, safe to call from any thread
+     */
+    public static BufferedImage renderSnapshots(List<ComponentSnapshot> components, int width, int height,
+                                                Color background, double scale) {
+        return render(width, height, background, scale, g2d -> {
+            for (ComponentSnapshot comp : components) {
+                comp.draw(g2d);
+            }
+        });
+    }
+
+    // The painter draws in design coordinates, clipped to the design size
+    static BufferedImage render(int width, int height, Color background, double scale,
+                                Consumer<Graphics2D> painter) {
+        int imageWidth = Math.max(1, (int) Math.round(width * scale));
+        int imageHeight = Math.max(1, (int) Math.round(height * scale));
+        BufferedImage image = new BufferedImage(imageWidth, imageHeight, BufferedImage.TYPE_INT_RGB);
+
+        Graphics2D g2d = image.createGraphics();
+        try {
+            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g2d.setColor(background);
+            g2d.fillRect(0, 0, imageWidth, imageHeight);
+            g2d.scale(scale, scale);
+            g2d.clipRect(0, 0, width, height);
+            painter.accept(g2d);
+        } finally {
+            g2d.dispose();
+        }
+        return image;
+    }
+
+    private static int toInt(Object value, int defaultValue) {
+        return value instanceof Number ? ((Number) value).intValue() : defaultValue;
+    }
+}
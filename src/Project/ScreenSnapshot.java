@@ -0,0 +1,58 @@
+package Project;
+
+import Designer.ComponentSnapshot;
+import Utils.PersistentVector;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable view of a {@link DesignScreen} at one point in time
+ * Component snapshots are held in a persistent vector that shares all unchanged
+ * entries with earlier snapshots of the same screen
+ */
+public final class ScreenSnapshot {
+    private final String name;
+    private final ScreenType type;
+    private final String description;
+    private final boolean visible;
+    private final Map<String, Object> screenSettings;
+    private final PersistentVector<ComponentSnapshot> components;
+    private final int modificationCount;
+
+    ScreenSnapshot(DesignScreen screen, PersistentVector<ComponentSnapshot> components) {
+        this.name = screen.getName();
+        this.type = screen.getType();
+        this.description = screen.getDescription();
+        this.visible = screen.isVisible();
+        this.screenSettings = Collections.unmodifiableMap(new LinkedHashMap<>(screen.getScreenSettings()));
+        this.components = components;
+        this.modificationCount = screen.getModificationCount();
+    }
+
+    /**
+     * Whether this snapshot still describes the screen's name, settings and components
+     */
+    boolean isCurrent(DesignScreen screen, PersistentVector<ComponentSnapshot> components) {
+        return this.components == components
+                && modificationCount == screen.getModificationCount()
+                && name.equals(screen.getName())
+                && type == screen.getType()
+                && description.equals(screen.getDescription())
+                && visible == screen.isVisible();
+    }
+
+    public String getName() { return name; }
+    public ScreenType getType() { return type; }
+    public String getDescription() { return description; }
+    public boolean isVisible() { return visible; }
+    public Map<String, Object> getScreenSettings() { return screenSettings; }
+    public List<ComponentSnapshot> getComponents() { return components; }
+    public int getModificationCount() { return modificationCount; }
+
+    public Object getScreenSetting(String key, Object defaultValue) {
+        return screenSettings.getOrDefault(key, defaultValue);
+    }
+}
@@ -0,0 +1,467 @@
+package Project;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Table model for the screens of a project, used by the screen management dialog
+ * Rows are read from the screens on demand, computed columns are cached per screen until
+ * the screen is modified. Sorting and filtering go through an index of screen positions and
+ * its inverse, updated row by row from {@link ProjectEventBus} batches. An edit of one screen
+ * is found with a hash lookup and placed with one binary search instead of a full sort or
+ * filter pass, the rows after it are shifted in plain int arrays
+ */
+class ScreenTableModel extends AbstractTableModel implements ProjectEventBus.Listener {
+    static final int ICON_COLUMN = 0;
+    static final int NAME_COLUMN = 1;
+    static final int TYPE_COLUMN = 2;
+    static final int SIZE_COLUMN = 3;
+    static final int COMPONENTS_COLUMN = 4;
+    static final int VISIBLE_COLUMN = 5;
+    static final int DESCRIPTION_COLUMN = 6;
+
+    private static final String[] COLUMN_NAMES = {"", "Screen Name", "Type", "Size", "Components", "Visible", "Description"};
+
+    private final DesignProject project;
+    private final Function<DesignScreen, Icon> iconProvider;
+
+    // Screens as last reported by the event bus, in project order
+    private final List<DesignScreen> screens;
+    private final Map<DesignScreen, Integer> positions;
+    private final Map<DesignScreen, Row> rowCache;
+
+    // Shown rows as positions in the screen list, sorted and filtered
+    private int[] rows;
+    private int rowCount;
+    // Inverse of rows, the row of each position or -1 while it is filtered out
+    private int[] rowByPosition;
+    private int sortColumn = -1;
+    private boolean ascending = true;
+    private String filter = "";
+
+    /**
+     * Computed column values of one screen
+     */
+    private static class Row {
+        int modificationCount;
+        String descriptionSource;
+        String size;
+        int components;
+        String description;
+    }
+
+    ScreenTableModel(DesignProject project, Function<DesignScreen, Icon> iconProvider) {
+        this.project = project;
+        this.iconProvider = iconProvider;
+        this.screens = new ArrayList<>(project.getScreens());
+        this.positions = new IdentityHashMap<>();
+        this.rowCache = new IdentityHashMap<>();
+        for (int i = 0; i < screens.size(); i++) {
+            positions.put(screens.get(i), i);
+        }
+        rebuildIndex();
+        ProjectEventBus.getInstance().addListener(this);
+    }
+
+    /**
+     * Stops following project changes, called when the dialog is closed
+     */
+    void dispose() {
+        ProjectEventBus.getInstance().removeListener(this);
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMN_NAMES.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        String name = COLUMN_NAMES[column];
+        if (column == sortColumn) {
+            name += ascending ? " ▲" : " ▼";
+        }
+        return name;
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        switch (column) {
+            case ICON_COLUMN: return Icon.class;
+            case COMPONENTS_COLUMN: return Integer.class;
+            case VISIBLE_COLUMN: return Boolean.class;
+            default: return String.class;
+        }
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return column == NAME_COLUMN || column == VISIBLE_COLUMN;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        DesignScreen screen = getScreenAt(row);
+        switch (column) {
+            case ICON_COLUMN: return iconProvider.apply(screen);
+            case NAME_COLUMN: return screen.getName();
+            case TYPE_COLUMN: return screen.getType().getDisplayName();
+            case SIZE_COLUMN: return row(screen).size;
+            case COMPONENTS_COLUMN: return row(screen).components;
+            case VISIBLE_COLUMN: return screen.isVisible();
+            case DESCRIPTION_COLUMN: return row(screen).description;
+            default: return null;
+        }
+    }
+
+    @Override
+    public void setValueAt(Object value, int row, int column) {
+        DesignScreen screen = getScreenAt(row);
+        if (column == NAME_COLUMN) {
+            String name = ((String) value).trim();
+            if (!name.isEmpty()) {
+                screen.setName(name);
+            }
+        } else if (column == VISIBLE_COLUMN) {
+            screen.setVisible((Boolean) value);
+        }
+        ProjectEventBus.getInstance().flush();
+    }
+
+    DesignScreen getScreenAt(int row) {
+        if (row < 0 || row >= rowCount) {
+            throw new IndexOutOfBoundsException("Row: " + row + ", Rows: " + rowCount);
+        }
+        return screens.get(rows[row]);
+    }
+
+    /**
+     * Row showing the screen, -1 if it is filtered out
+     */
+    int rowOf(DesignScreen screen) {
+        int position = positionOf(screen);
+        return position >= 0 ? rowOfPosition(position) : -1;
+    }
+
+    boolean isSorted() {
+        return sortColumn >= 0;
+    }
+
+    boolean isFiltered() {
+        return !filter.isEmpty();
+    }
+
+    /**
+     * Sorts by the column, a second call on the same column reverses the order
+     * and a third one restores the project order
+     */
+    void toggleSort(int column) {
+        if (column == ICON_COLUMN) {
+            return;
+        }
+        if (column != sortColumn) {
+            sortColumn = column;
+            ascending = true;
+        } else if (ascending) {
+            ascending = false;
+        } else {
+            sortColumn = -1;
+        }
+        rebuildIndex();
+        fireTableDataChanged();
+    }
+
+    /**
+     * Shows only screens whose name or description contains the text, ignoring case
+     */
+    void setFilter(String text) {
+        String newFilter = text == null ? "" : text.trim().toLowerCase();
+        if (newFilter.equals(filter)) {
+            return;
+        }
+        filter = newFilter;
+        rebuildIndex();
+        fireTableDataChanged();
+    }
+
+    void iconChanged(DesignScreen screen) {
+        int row = rowOf(screen);
+        if (row >= 0) {
+            fireTableCellUpdated(row, ICON_COLUMN);
+        }
+    }
+
+    // Event handling, positions in the events refer to the screen list as it was at the time
+
+    @Override
+    public void projectEventsDispatched(List<ProjectEvent> events) {
+        Set<DesignScreen> updated = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (ProjectEvent event : events) {
+            if (event.getProject() != project) {
+                continue;
+            }
+            switch (event.getType()) {
+                case SCREEN_ADDED:
+                    screenInserted(event.getIndex(), event.getScreen());
+                    break;
+                case SCREEN_REMOVED:
+                    screenRemoved(event.getIndex());
+                    break;
+                case SCREEN_MOVED:
+                    screenRemoved(event.getPreviousIndex());
+                    screenInserted(event.getIndex(), event.getScreen());
+                    break;
+                case SCREEN_RENAMED:
+                case SETTINGS_CHANGED:
+                case COMPONENTS_ADDED:
+                case COMPONENTS_REMOVED:
+                    if (event.getScreen() != null) {
+                        updated.add(event.getScreen());
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        if (!updated.isEmpty()) {
+            screensUpdated(updated);
+        }
+    }
+
+    private void screenInserted(int position, DesignScreen screen) {
+        screens.add(position, screen);
+        renumber(position);
+        if (screens.size() > rowByPosition.length) {
+            rowByPosition = Arrays.copyOf(rowByPosition, rowByPosition.length * 2);
+        }
+        System.arraycopy(rowByPosition, position, rowByPosition, position + 1, screens.size() - position - 1);
+        rowByPosition[position] = -1;
+        for (int i = 0; i < rowCount; i++) {
+            if (rows[i] >= position) {
+                rows[i]++;
+            }
+        }
+        showPosition(position);
+    }
+
+    private void screenRemoved(int position) {
+        hidePosition(position);
+        DesignScreen screen = screens.remove(position);
+        rowCache.remove(screen);
+        positions.remove(screen);
+        renumber(position);
+        System.arraycopy(rowByPosition, position + 1, rowByPosition, position, screens.size() - position);
+        for (int i = 0; i < rowCount; i++) {
+            if (rows[i] > position) {
+                rows[i]--;
+            }
+        }
+    }
+
+    // Screens from the position on moved by one in the list
+    private void renumber(int position) {
+        for (int i = position; i < screens.size(); i++) {
+            positions.put(screens.get(i), i);
+        }
+    }
+
+    private void screensUpdated(Set<DesignScreen> updated) {
+        List<Integer> positions = new ArrayList<>(updated.size());
+        for (DesignScreen screen : updated) {
+            int position = positionOf(screen);
+            if (position >= 0) {
+                rowCache.remove(screen);
+                positions.add(position);
+            }
+        }
+
+        // Take out rows whose filter state or sort position changed until the rest is in order,
+        // then put them back with a binary search each
+        List<Integer> moved = new ArrayList<>();
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (Iterator<Integer> it = positions.iterator(); it.hasNext(); ) {
+                int position = it.next();
+                int row = rowOfPosition(position);
+                if (row < 0 || !matchesFilter(screens.get(position)) || !isInOrder(row)) {
+                    hidePosition(position);
+                    moved.add(position);
+                    it.remove();
+                    changed = true;
+                }
+            }
+        }
+        for (int position : positions) {
+            int row = rowOfPosition(position);
+            fireTableRowsUpdated(row, row);
+        }
+        for (int position : moved) {
+            showPosition(position);
+        }
+    }
+
+    private void showPosition(int position) {
+        if (!matchesFilter(screens.get(position))) {
+            return;
+        }
+        int row = insertionRow(position);
+        if (rowCount == rows.length) {
+            rows = Arrays.copyOf(rows, rows.length * 2);
+        }
+        System.arraycopy(rows, row, rows, row + 1, rowCount - row);
+        rows[row] = position;
+        rowCount++;
+        updateRowsFrom(row);
+        fireTableRowsInserted(row, row);
+    }
+
+    private void hidePosition(int position) {
+        int row = rowOfPosition(position);
+        if (row >= 0) {
+            System.arraycopy(rows, row + 1, rows, row, rowCount - row - 1);
+            rowCount--;
+            rowByPosition[position] = -1;
+            updateRowsFrom(row);
+            fireTableRowsDeleted(row, row);
+        }
+    }
+
+    private void updateRowsFrom(int row) {
+        for (int i = row; i < rowCount; i++) {
+            rowByPosition[rows[i]] = i;
+        }
+    }
+
+    // Index
+
+    private void rebuildIndex() {
+        Integer[] order = new Integer[screens.size()];
+        int count = 0;
+        for (int i = 0; i < screens.size(); i++) {
+            if (matchesFilter(screens.get(i))) {
+                order[count++] = i;
+            }
+        }
+        if (sortColumn >= 0) {
+            Arrays.sort(order, 0, count, rowOrder());
+        }
+        rows = new int[Math.max(16, screens.size())];
+        rowByPosition = new int[rows.length];
+        Arrays.fill(rowByPosition, -1);
+        for (int i = 0; i < count; i++) {
+            rows[i] = order[i];
+            rowByPosition[order[i]] = i;
+        }
+        rowCount = count;
+    }
+
+    private int insertionRow(int position) {
+        if (sortColumn < 0) {
+            // Unsorted rows are in ascending position order
+            return lowerBound(position, Comparator.naturalOrder());
+        }
+        return lowerBound(position, rowOrder());
+    }
+
+    private int lowerBound(int position, Comparator<Integer> order) {
+        int low = 0;
+        int high = rowCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (order.compare(rows[mid], position) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int rowOfPosition(int position) {
+        return rowByPosition[position];
+    }
+
+    private boolean isInOrder(int row) {
+        if (sortColumn < 0) {
+            return true;
+        }
+        Comparator<Integer> order = rowOrder();
+        return (row == 0 || order.compare(rows[row - 1], rows[row]) < 0)
+                && (row == rowCount - 1 || order.compare(rows[row], rows[row + 1]) < 0);
+    }
+
+    private int positionOf(DesignScreen screen) {
+        Integer position = positions.get(screen);
+        return position != null ? position : -1;
+    }
+
+    private boolean matchesFilter(DesignScreen screen) {
+        if (filter.isEmpty()) {
+            return true;
+        }
+        return screen.getName().toLowerCase().contains(filter)
+                || screen.getDescription().toLowerCase().contains(filter);
+    }
+
+    /**
+     * Order of screen positions by the sort column, ties keep the project order
+     */
+    private Comparator<Integer> rowOrder() {
+        Comparator<Integer> byColumn = (a, b) -> compareColumn(screens.get(a), screens.get(b));
+        Comparator<Integer> order = ascending ? byColumn : byColumn.reversed();
+        return order.thenComparing(Comparator.naturalOrder());
+    }
+
+    private int compareColumn(DesignScreen a, DesignScreen b) {
+        switch (sortColumn) {
+            case NAME_COLUMN: return String.CASE_INSENSITIVE_ORDER.compare(a.getName(), b.getName());
+            case TYPE_COLUMN: return a.getType().getDisplayName().compareTo(b.getType().getDisplayName());
+            case SIZE_COLUMN: return row(a).size.compareTo(row(b).size);
+            case COMPONENTS_COLUMN: return Integer.compare(row(a).components, row(b).components);
+            case VISIBLE_COLUMN: return Boolean.compare(a.isVisible(), b.isVisible());
+            case DESCRIPTION_COLUMN: return String.CASE_INSENSITIVE_ORDER.compare(row(a).description, row(b).description);
+            default: return 0;
+        }
+    }
+
+    private Row row(DesignScreen screen) {
+        Row row = rowCache.get(screen);
+        if (row == null || row.modificationCount != screen.getModificationCount()
+                || row.descriptionSource != screen.getDescription()) {
+            row = new Row();
+            row.modificationCount = screen.getModificationCount();
+            row.descriptionSource = screen.getDescription();
+            row.size = screen.getScreenSetting("width", 800) + "×" + screen.getScreenSetting("height", 600);
+            row.components = screen.getComponents().size();
+            row.description = truncateDescription(screen.getDescription());
+            rowCache.put(screen, row);
+        }
+        return row;
+    }
+
+    private static String truncateDescription(String description) {
+        if (description == null) {
+            return "";
+        }
+        if (description.length() <= 50) {
+            return description;
+        }
+        return description.substring(0, 47) + "...";
+    }
+}
@@ -0,0 +1,86 @@
+package Project;
+
+import Designer.DesignComponent;
+
+import javax.swing.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Default components for new screens of a given type
+ * Each template is built once; screens receive copies of the template components,
+ * which share their property values with the template until they are edited
+ */
+public class ScreenTemplates {
+    private static final Map<ScreenType, List<DesignComponent>> TEMPLATES = new EnumMap<>(ScreenType.class);
+
+    private ScreenTemplates() {
+    }
+
+    /**
+     * Adds the default components of the screen type to the screen
+     */
+    public static void applyTemplate(DesignScreen screen, ScreenType type) {
+        List<DesignComponent> template = getTemplate(type);
+        if (template.isEmpty()) {
+            return;
+        }
+        List<DesignComponent> components = new ArrayList<>(template.size());
+        for (DesignComponent component : template) {
+            components.add(component.copy());
+        }
+        screen.getComponents().addAll(components);
+    }
+
+    /**
+     * Template components of the screen type, these instances must not be edited
+     */
+    public static List<DesignComponent> getTemplate(ScreenType type) {
+        return TEMPLATES.computeIfAbsent(type, t -> Collections.unmodifiableList(createTemplate(t)));
+    }
+
+    private static List<DesignComponent> createTemplate(ScreenType type) {
+        List<DesignComponent> components = new ArrayList<>();
+        switch (type) {
+            case LOGIN:
+                // Add default login components
+                addLoginComponents(components);
+                break;
+            case SPLASH:
+                // Add splash screen components
+                addSplashComponents(components);
+                break;
+            case DASHBOARD:
+                // Add dashboard components
+                addDashboardComponents(components);
+                break;
+            // Add more default layouts as needed
+        }
+        return components;
+    }
+
+    private static void addLoginComponents(List<DesignComponent> components) {
+        // Add a login panel with default components
+
+    }
+
+    private static void addSplashComponents(List<DesignComponent> components) {
+        // Add splash screen components (logo, progress bar, etc.)
+        DesignComponent logoLabel = new DesignComponent(JLabel.class, 100, 50);
+        logoLabel.setText("Application Logo");
+        logoLabel.setSize(200, 50);
+        components.add(logoLabel);
+
+        DesignComponent progressBar = new DesignComponent(JProgressBar.class, 100, 150);
+        progressBar.setSize(200, 25);
+        components.add(progressBar);
+    }
+
+    private static void addDashboardComponents(List<DesignComponent> components) {
+        // Add dashboard components (charts, data grids, etc.)
+
+    }
+}
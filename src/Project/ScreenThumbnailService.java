@@ -0,0 +1,152 @@
+package Project;
+
+import Designer.DesignComponent;
+
+import javax.swing.*;
+import javax.swing.Timer;
+import java.awt.image.BufferedImage;
+import java.util.*;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Renders small preview images of screens on a background thread
+ * Thumbnails are cached per screen and re-rendered only after the screen changed.
+ * All public methods must be called on the Event Dispatch Thread
+ */
+public class ScreenThumbnailService implements DesignScreen.ScreenListener {
+    public static final int THUMBNAIL_WIDTH = 48;
+    public static final int THUMBNAIL_HEIGHT = 36;
+    private static final int INVALIDATION_DELAY = 300;
+
+    private static ScreenThumbnailService instance;
+
+    private final ExecutorService renderExecutor;
+    private final Map<DesignScreen, Thumbnail> cache;
+    private final Set<DesignScreen> rendering;
+    private final Set<DesignScreen> invalidated;
+    private final List<ThumbnailListener> listeners;
+    private final Timer invalidationTimer;
+
+    public interface ThumbnailListener {
+        void thumbnailUpdated(DesignScreen screen, Icon thumbnail);
+    }
+
+    private static class Thumbnail {
+        final ImageIcon icon;
+        final int modificationCount;
+
+        Thumbnail(BufferedImage image, int modificationCount) {
+            this.icon = new ImageIcon(image);
+            this.modificationCount = modificationCount;
+        }
+    }
+
+    private ScreenThumbnailService() {
+        renderExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "screen-thumbnails");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        cache = new WeakHashMap<>();
+        rendering = Collections.newSetFromMap(new WeakHashMap<>());
+        invalidated = Collections.newSetFromMap(new WeakHashMap<>());
+        listeners = new ArrayList<>();
+
+        // Coalesce bursts of edits (dragging, typing) into one render per screen
+        invalidationTimer = new Timer(INVALIDATION_DELAY, e -> renderInvalidated());
+        invalidationTimer.setRepeats(false);
+    }
+
+    public static ScreenThumbnailService getInstance() {
+        if (instance == null) {
+            instance = new ScreenThumbnailService();
+        }
+        return instance;
+    }
+
+    public void addListener(ThumbnailListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(ThumbnailListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Returns the cached thumbnail of the screen, which may be stale or null.
+     * A fresh thumbnail is rendered in the background when needed and
+     * announced through {@link ThumbnailListener}
+     */
+    public Icon getThumbnail(DesignScreen screen) {
+        screen.addScreenListener(this);
+
+        Thumbnail thumbnail = cache.get(screen);
+        if (thumbnail == null || thumbnail.modificationCount != screen.getModificationCount()) {
+            scheduleRender(screen);
+        }
+        return thumbnail != null ? thumbnail.icon : null;
+    }
+
+    public void invalidate(DesignScreen screen) {
+        invalidated.add(screen);
+        invalidationTimer.restart();
+    }
+
+    @Override
+    public void screenModified(DesignScreen screen, DesignComponent component) {
+        invalidate(screen);
+    }
+
+    private void renderInvalidated() {
+        List<DesignScreen> screens = new ArrayList<>(invalidated);
+        invalidated.clear();
+        for (DesignScreen screen : screens) {
+            scheduleRender(screen);
+        }
+    }
+
+    private void scheduleRender(DesignScreen screen) {
+        if (!rendering.add(screen)) {
+            return;
+        }
+
+        // Capture an immutable snapshot on the EDT, the worker never reads the live model
+        ScreenSnapshot snapshot = screen.getSnapshot();
+        int width = Math.max(1, ScreenRenderer.getScreenWidth(snapshot));
+        int height = Math.max(1, ScreenRenderer.getScreenHeight(snapshot));
+        int modificationCount = snapshot.getModificationCount();
+        double scale = Math.min((double) THUMBNAIL_WIDTH / width, (double) THUMBNAIL_HEIGHT / height);
+
+        renderExecutor.execute(() -> {
+            BufferedImage image = null;
+            try {
+                image = ScreenRenderer.render(snapshot, scale);
+            } finally {
+                // A failed render is retried after the next change of the screen
+                BufferedImage rendered = image;
+                SwingUtilities.invokeLater(() -> thumbnailRendered(screen, rendered, modificationCount));
+            }
+        });
+    }
+
+    private void thumbnailRendered(DesignScreen screen, BufferedImage image, int modificationCount) {
+        rendering.remove(screen);
+        if (image == null) {
+            return;
+        }
+        Thumbnail thumbnail = new Thumbnail(image, modificationCount);
+        cache.put(screen, thumbnail);
+
+        for (ThumbnailListener listener : new ArrayList<>(listeners)) {
+            listener.thumbnailUpdated(screen, thumbnail.icon);
+        }
+
+        // The screen changed while it was rendering
+        if (modificationCount != screen.getModificationCount()) {
+            invalidate(screen);
+        }
+    }
+}
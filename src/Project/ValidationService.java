@@ -0,0 +1,478 @@
+package Project;
+
+import Designer.ComponentSnapshot;
+import Designer.DesignComponent;
+
+import javax.swing.*;
+import javax.swing.Timer;
+import java.awt.*;
+import java.util.*;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Keeps overlap, off-screen and settings warnings for every screen of the current project
+ * Changes arrive through {@link ProjectEventBus} and are collected until editing pauses.
+ * Only the changed top-level components, with everything inside them, are then snapshotted
+ * and re-checked on a low-priority worker, which keeps a grid of component bounds per screen
+ * so a change is compared with its neighbours only. Components inside a container are
+ * checked against the container and its other children
+ * All public methods must be called on the Event Dispatch Thread
+ */
+public class ValidationService implements ProjectEventBus.Listener, ProjectManager.ProjectListener {
+    private static final int VALIDATION_DELAY = 250;
+    private static final int CELL_SIZE = 64;
+    private static final int MAX_LISTED_OVERLAPS = 3;
+
+    private static ValidationService instance;
+
+    private final ExecutorService validationExecutor;
+    private final Map<DesignScreen, PendingCheck> pending;
+    private final Map<DesignScreen, Result> results;
+    private final List<ValidationListener> listeners;
+    private final Timer validationTimer;
+    private DesignProject project;
+    // Incremented when the project is replaced, results of older checks are dropped
+    private int generation;
+
+    // Only used on the validation thread
+    private final Map<DesignScreen, ScreenState> states;
+
+    public interface ValidationListener {
+        void validationUpdated(DesignScreen screen);
+    }
+
+    // Changes of one screen collected on the Event Dispatch Thread
+    private static class PendingCheck {
+        boolean full;
+        boolean settings;
+        final Set<DesignComponent> changed = new LinkedHashSet<>();
+        final Set<Integer> removed = new HashSet<>();
+    }
+
+    private static class Result {
+        final Map<Integer, List<String>> componentWarnings;
+        final List<String> screenWarnings;
+
+        Result(Map<Integer, List<String>> componentWarnings, List<String> screenWarnings) {
+            this.componentWarnings = componentWarnings;
+            this.screenWarnings = screenWarnings;
+        }
+    }
+
+    private ValidationService() {
+        validationExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "screen-validation");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        pending = new LinkedHashMap<>();
+        results = new WeakHashMap<>();
+        listeners = new ArrayList<>();
+        states = new IdentityHashMap<>();
+
+        // Dragging and typing only record what changed, checks start once editing pauses
+        validationTimer = new Timer(VALIDATION_DELAY, e -> submitPending());
+        validationTimer.setRepeats(false);
+    }
+
+    public static ValidationService getInstance() {
+        if (instance == null) {
+            instance = new ValidationService();
+            ProjectManager.getInstance().addListener(instance);
+            ProjectEventBus.getInstance().addListener(instance);
+            instance.projectChanged(ProjectManager.getInstance().getCurrentProject());
+        }
+        return instance;
+    }
+
+    public void addListener(ValidationListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(ValidationListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Warnings of the last check by component, components removed since are left out
+     */
+    public Map<DesignComponent, List<String>> getComponentWarnings(DesignScreen screen) {
+        Result result = results.get(screen);
+        if (result == null || result.componentWarnings.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<DesignComponent, List<String>> warnings = new IdentityHashMap<>();
+        collectWarnings(screen.getComponents(), result, warnings);
+        return warnings;
+    }
+
+    private static void collectWarnings(List<DesignComponent> components, Result result,
+                                        Map<DesignComponent, List<String>> warnings) {
+        for (DesignComponent component : components) {
+            List<String> messages = result.componentWarnings.get(component.getId());
+            if (messages != null) {
+                warnings.put(component, messages);
+            }
+            collectWarnings(component.getChildren(), result, warnings);
+        }
+    }
+
+    /**
+     * Warnings about the screen's settings from the last check
+     */
+    public List<String> getScreenWarnings(DesignScreen screen) {
+        Result result = results.get(screen);
+        return result != null ? result.screenWarnings : Collections.emptyList();
+    }
+
+    @Override
+    public void projectChanged(DesignProject newProject) {
+        if (newProject == project) {
+            return;
+        }
+        project = newProject;
+        generation++;
+        pending.clear();
+        results.clear();
+        validationExecutor.execute(states::clear);
+        if (project != null) {
+            for (DesignScreen screen : project.getScreens()) {
+                pendingCheck(screen).full = true;
+            }
+            validationTimer.restart();
+        }
+    }
+
+    @Override
+    public void projectEventsDispatched(List<ProjectEvent> events) {
+        for (ProjectEvent event : events) {
+            if (event.getProject() != project || event.getScreen() == null) {
+                continue;
+            }
+            DesignScreen screen = event.getScreen();
+            switch (event.getType()) {
+                case SCREEN_ADDED:
+                    pendingCheck(screen).full = true;
+                    break;
+                case SCREEN_REMOVED:
+                    pending.remove(screen);
+                    results.remove(screen);
+                    validationExecutor.execute(() -> states.remove(screen));
+                    break;
+                case COMPONENTS_ADDED:
+                case COMPONENTS_CHANGED: {
+                    PendingCheck check = pendingCheck(screen);
+                    for (DesignComponent component : event.getComponents()) {
+                        check.changed.add(component);
+                        check.removed.remove(component.getId());
+                    }
+                    break;
+                }
+                case COMPONENTS_REMOVED: {
+                    PendingCheck check = pendingCheck(screen);
+                    for (DesignComponent component : event.getComponents()) {
+                        check.changed.remove(component);
+                        check.removed.add(component.getId());
+                    }
+                    break;
+                }
+                case SETTINGS_CHANGED:
+                    pendingCheck(screen).settings = true;
+                    break;
+                default:
+                    break;
+            }
+        }
+        if (!pending.isEmpty()) {
+            validationTimer.restart();
+        }
+    }
+
+    private PendingCheck pendingCheck(DesignScreen screen) {
+        return pending.computeIfAbsent(screen, key -> new PendingCheck());
+    }
+
+    private void submitPending() {
+        int submittedGeneration = generation;
+        for (Map.Entry<DesignScreen, PendingCheck> entry : pending.entrySet()) {
+            DesignScreen screen = entry.getKey();
+            PendingCheck check = entry.getValue();
+            if (screen.getProject() != project) {
+                continue;
+            }
+
+            // Capture immutable copies here, the worker never reads the live model
+            ScreenSnapshot snapshot = check.full ? screen.getSnapshot() : null;
+            List<ComponentSnapshot> changed = new ArrayList<>(check.changed.size());
+            if (!check.full) {
+                for (DesignComponent component : check.changed) {
+                    if (component.getListener() == screen) {
+                        changed.add(component.snapshot());
+                    }
+                }
+            }
+            Set<Integer> removed = new HashSet<>(check.removed);
+            ScreenType type = screen.getType();
+            Map<String, Object> settings = check.settings && !check.full
+                    ? new HashMap<>(screen.getScreenSettings()) : null;
+
+            validationExecutor.execute(() -> {
+                ScreenState state;
+                if (snapshot != null) {
+                    state = new ScreenState();
+                    states.put(screen, state);
+                    state.setSettings(snapshot.getType(), snapshot.getScreenSettings());
+                    for (ComponentSnapshot component : snapshot.getComponents()) {
+                        state.put(component);
+                    }
+                } else {
+                    state = states.get(screen);
+                    if (state == null) {
+                        return;
+                    }
+                    if (settings != null) {
+                        state.setSettings(type, settings);
+                    }
+                    for (Integer id : removed) {
+                        state.removeTree(id);
+                    }
+                    for (ComponentSnapshot component : changed) {
+                        state.put(component);
+                    }
+                }
+                Result result = state.createResult();
+                SwingUtilities.invokeLater(() -> validated(screen, result, submittedGeneration));
+            });
+        }
+        pending.clear();
+    }
+
+    private void validated(DesignScreen screen, Result result, int resultGeneration) {
+        if (resultGeneration != generation || screen.getProject() != project) {
+            return;
+        }
+        results.put(screen, result);
+        for (ValidationListener listener : new ArrayList<>(listeners)) {
+            listener.validationUpdated(screen);
+        }
+    }
+
+    /**
+     * Settings of the screen that contradict the defaults of its type
+     */
+    static List<String> checkSettings(ScreenType type, Map<String, Object> settings) {
+        List<String> warnings = new ArrayList<>();
+        Map<String, Object> defaults = DesignScreen.getDefaultSettings(type);
+        for (Map.Entry<String, Object> entry : defaults.entrySet()) {
+            Object value = settings.get(entry.getKey());
+            if (value == null) {
+                warnings.add("Missing setting " + entry.getKey() + " of " + type.getDisplayName() + " screens");
+            } else if (!entry.getValue().getClass().isInstance(value)) {
+                warnings.add("Setting " + entry.getKey() + " should be "
+                        + entry.getValue().getClass().getSimpleName() + ", not " + value.getClass().getSimpleName());
+            }
+        }
+
+        for (String key : new String[]{"width", "height"}) {
+            if (settings.get(key) instanceof Integer && (Integer) settings.get(key) <= 0) {
+                warnings.add("Setting " + key + " must be positive");
+            }
+        }
+        if (Boolean.TRUE.equals(settings.get("autoClose"))
+                && settings.get("displayTime") instanceof Integer && (Integer) settings.get("displayTime") <= 0) {
+            warnings.add("autoClose is set but displayTime is not positive");
+        }
+        return warnings;
+    }
+
+    // Component bounds of one screen in a uniform grid with the overlapping pairs, nested
+    // components are kept with absolute bounds and the container and top-level component they belong to
+    private static class ScreenState {
+        private int width;
+        private int height;
+        private List<String> settingsWarnings = Collections.emptyList();
+        private final Map<Integer, Rectangle> bounds = new HashMap<>();
+        private final Map<Integer, String> names = new HashMap<>();
+        private final Map<Long, Set<Integer>> cells = new HashMap<>();
+        private final Map<Integer, Set<Integer>> overlaps = new HashMap<>();
+        private final Set<Integer> offScreen = new HashSet<>();
+        private final Set<Integer> outsideContainer = new HashSet<>();
+        private final Map<Integer, Integer> containers = new HashMap<>();
+        private final Map<Integer, Integer> roots = new HashMap<>();
+        private final Map<Integer, List<Integer>> subtrees = new HashMap<>();
+
+        void setSettings(ScreenType type, Map<String, Object> settings) {
+            settingsWarnings = checkSettings(type, settings);
+            int newWidth = ScreenRenderer.getScreenWidth(settings);
+            int newHeight = ScreenRenderer.getScreenHeight(settings);
+            if (newWidth != width || newHeight != height) {
+                width = newWidth;
+                height = newHeight;
+                offScreen.clear();
+                for (Map.Entry<Integer, Rectangle> entry : bounds.entrySet()) {
+                    if (!containers.containsKey(entry.getKey()) && isOffScreen(entry.getValue())) {
+                        offScreen.add(entry.getKey());
+                    }
+                }
+            }
+        }
+
+        /**
+         * Replaces a top-level component and everything inside it
+         */
+        void put(ComponentSnapshot root) {
+            removeTree(root.getId());
+            List<Integer> inside = new ArrayList<>();
+            put(root, root.getId(), null, root.getBounds(), inside);
+            if (!inside.isEmpty()) {
+                subtrees.put(root.getId(), inside);
+            }
+        }
+
+        private void put(ComponentSnapshot component, int root, ComponentSnapshot container,
+                         Rectangle box, List<Integer> inside) {
+            int id = component.getId();
+            remove(id);
+            bounds.put(id, box);
+            String text = component.getText();
+            names.put(id, component.getComponentType().getSimpleName()
+                    + (text == null || text.isEmpty() ? "" : " \"" + text + "\""));
+            if (container == null) {
+                if (isOffScreen(box)) {
+                    offScreen.add(id);
+                }
+            } else {
+                inside.add(id);
+                containers.put(id, container.getId());
+                roots.put(id, root);
+                Rectangle area = container.getBounds();
+                Rectangle relative = component.getBounds();
+                if (relative.x < 0 || relative.y < 0 || relative.x + relative.width > area.width
+                        || relative.y + relative.height > area.height) {
+                    outsideContainer.add(id);
+                }
+            }
+            if (box.width > 0 && box.height > 0) {
+                addToGrid(id, box);
+            }
+            for (ComponentSnapshot child : component.getChildren()) {
+                Rectangle childBox = child.getBounds();
+                childBox.translate(box.x, box.y);
+                put(child, root, component, childBox, inside);
+            }
+        }
+
+        private void addToGrid(int id, Rectangle box) {
+            Integer container = containers.get(id);
+            Set<Integer> candidates = new HashSet<>();
+            forEachCell(box, key -> {
+                Set<Integer> cell = cells.computeIfAbsent(key, k -> new HashSet<>());
+                candidates.addAll(cell);
+                cell.add(id);
+            });
+            for (Integer other : candidates) {
+                // Only siblings can overlap, a child always lies on its container
+                if (Objects.equals(containers.get(other), container) && bounds.get(other).intersects(box)) {
+                    overlaps.computeIfAbsent(id, k -> new HashSet<>()).add(other);
+                    overlaps.computeIfAbsent(other, k -> new HashSet<>()).add(id);
+                }
+            }
+        }
+
+        /**
+         * Removes a top-level component with the components inside it that were not
+         * moved to another top-level component since
+         */
+        void removeTree(int root) {
+            remove(root);
+            List<Integer> inside = subtrees.remove(root);
+            if (inside != null) {
+                for (Integer id : inside) {
+                    if (Objects.equals(roots.get(id), root)) {
+                        remove(id);
+                    }
+                }
+            }
+        }
+
+        private void remove(int id) {
+            Rectangle box = bounds.remove(id);
+            if (box == null) {
+                return;
+            }
+            names.remove(id);
+            offScreen.remove(id);
+            outsideContainer.remove(id);
+            containers.remove(id);
+            roots.remove(id);
+            if (box.width > 0 && box.height > 0) {
+                forEachCell(box, key -> {
+                    Set<Integer> cell = cells.get(key);
+                    cell.remove(id);
+                    if (cell.isEmpty()) {
+                        cells.remove(key);
+                    }
+                });
+            }
+            Set<Integer> others = overlaps.remove(id);
+            if (others != null) {
+                for (Integer other : others) {
+                    Set<Integer> otherOverlaps = overlaps.get(other);
+                    otherOverlaps.remove(id);
+                    if (otherOverlaps.isEmpty()) {
+                        overlaps.remove(other);
+                    }
+                }
+            }
+        }
+
+        private boolean isOffScreen(Rectangle box) {
+            return box.x < 0 || box.y < 0 || box.x + box.width > width || box.y + box.height > height;
+        }
+
+        private interface CellVisitor {
+            void visit(long key);
+        }
+
+        private static void forEachCell(Rectangle box, CellVisitor visitor) {
+            int minCellX = Math.floorDiv(box.x, CELL_SIZE);
+            int maxCellX = Math.floorDiv(box.x + box.width - 1, CELL_SIZE);
+            int minCellY = Math.floorDiv(box.y, CELL_SIZE);
+            int maxCellY = Math.floorDiv(box.y + box.height - 1, CELL_SIZE);
+            for (int cx = minCellX; cx <= maxCellX; cx++) {
+                for (int cy = minCellY; cy <= maxCellY; cy++) {
+                    visitor.visit(((long) cx << 32) | (cy & 0xffffffffL));
+                }
+            }
+        }
+
+        Result createResult() {
+            Map<Integer, List<String>> warnings = new HashMap<>();
+            for (Integer id : offScreen) {
+                warnings.computeIfAbsent(id, k -> new ArrayList<>(2))
+                        .add("Outside the " + width + "×" + height + " screen");
+            }
+            for (Integer id : outsideContainer) {
+                warnings.computeIfAbsent(id, k -> new ArrayList<>(2))
+                        .add("Outside its container " + names.get(containers.get(id)));
+            }
+            for (Map.Entry<Integer, Set<Integer>> entry : overlaps.entrySet()) {
+                StringBuilder message = new StringBuilder("Overlaps ");
+                int listed = 0;
+                for (Integer other : entry.getValue()) {
+                    if (listed == MAX_LISTED_OVERLAPS) {
+                        message.append(" and ").append(entry.getValue().size() - listed).append(" more");
+                        break;
+                    }
+                    message.append(listed > 0 ? ", " : "").append(names.get(other));
+                    listed++;
+                }
+                warnings.computeIfAbsent(entry.getKey(), k -> new ArrayList<>(1)).add(message.toString());
+            }
+            return new Result(warnings, settingsWarnings);
+        }
+    }
+}
@@ -1,8 +1,13 @@
 import javax.swing.*;
 import javax.swing.border.BevelBorder;
-import javax.swing.tree.DefaultMutableTreeNode;
-import javax.swing.tree.DefaultTreeModel;
+import javax.swing.tree.TreePath;
 import java.awt.*;
+import Actions.CopyAction;
+import Actions.CutAction;
+import Actions.PasteAction;
+import Actions.RedoAction;
+import Actions.UndoAction;
+import Base.CommandHistory;
 import Designer.*;
 import Project.*;
 /**
@@ -14,7 +19,18 @@ public class ScreenDesignerApp extends JFrame {
     private ComponentPalette palette;
     private PropertyPanel propertyPanel;
     private ScreenTabsPanel screenTabsPanel;
+    private UndoAction undoAction;
+    private RedoAction redoAction;
+    private CutAction cutAction;
+    private CopyAction copyAction;
+    private PasteAction pasteAction;
     private JTree projectTree;
+    private ProjectTreeModel projectTreeModel;
+    private ProjectSearchIndex searchIndex;
+    private FindDialog findDialog;
+    private ResolutionPreviewDialog resolutionPreviewDialog;
+    private LintPanel lintPanel;
+    private JTabbedPane rightTabs;
     private JTable propertyTable;
     private JPanel statusBar;
 
@@ -46,6 +62,13 @@ public class ScreenDesignerApp extends JFrame {
         propertyPanel.setCanvas(canvas);
         canvas.setPropertyPanel(propertyPanel);
         screenTabsPanel.setDesignCanvas(canvas);
+        undoAction = new UndoAction(canvas);
+        redoAction = new RedoAction(canvas);
+        cutAction = new CutAction(canvas);
+        copyAction = new CopyAction(canvas);
+        pasteAction = new PasteAction(canvas);
+        searchIndex = new ProjectSearchIndex(ProjectManager.getInstance());
+        lintPanel = new LintPanel(this::navigateToLintIssue);
 
         // Create project tree
         createProjectTree();
@@ -58,45 +81,27 @@ public class ScreenDesignerApp extends JFrame {
     }
 
     private void createProjectTree() {
-        // Create project tree similar to IDE project explorer
-        DefaultMutableTreeNode root = new DefaultMutableTreeNode("Projects");
-        DefaultMutableTreeNode currentProject = new DefaultMutableTreeNode("Untitled Project");
-
-        DefaultMutableTreeNode screensNode = new DefaultMutableTreeNode("Screens");
-        screensNode.add(new DefaultMutableTreeNode("Main Screen"));
-
-        DefaultMutableTreeNode resourcesNode = new DefaultMutableTreeNode("Resources");
-        resourcesNode.add(new DefaultMutableTreeNode("Images"));
-        resourcesNode.add(new DefaultMutableTreeNode("Icons"));
-
-        DefaultMutableTreeNode componentsNode = new DefaultMutableTreeNode("Custom Components");
-
-        currentProject.add(screensNode);
-        currentProject.add(resourcesNode);
-        currentProject.add(componentsNode);
-        root.add(currentProject);
-
-        projectTree = new JTree(root);
-        projectTree.setRootVisible(true);
-        projectTree.expandRow(0);
-        projectTree.expandRow(1);
-
-        // Add tree selection listener for opening screens
-        projectTree.addTreeSelectionListener(e -> {
-            DefaultMutableTreeNode selectedNode = (DefaultMutableTreeNode) projectTree.getLastSelectedPathComponent();
-            if (selectedNode != null) {
-                handleTreeSelection(selectedNode);
+        // Create project tree similar to IDE project explorer, backed by the current project
+        projectTreeModel = new ProjectTreeModel(ProjectManager.getInstance());
+        projectTree = new JTree(projectTreeModel) {
+            @Override
+            public String convertValueToText(Object value, boolean selected, boolean expanded,
+                                             boolean leaf, int row, boolean hasFocus) {
+                return projectTreeModel.getLabel(value);
             }
-        });
+        };
+        projectTree.setRootVisible(true);
+        projectTree.addTreeExpansionListener(projectTreeModel);
+        projectTree.expandPath(projectTreeModel.getScreensPath());
 
-        // Add double-click listener for better UX
+        // Add double-click listener for better UX, single clicks only select the node
         projectTree.addMouseListener(new java.awt.event.MouseAdapter() {
             @Override
             public void mouseClicked(java.awt.event.MouseEvent e) {
                 if (e.getClickCount() == 2) {
-                    DefaultMutableTreeNode selectedNode = (DefaultMutableTreeNode) projectTree.getLastSelectedPathComponent();
-                    if (selectedNode != null) {
-                        handleTreeDoubleClick(selectedNode);
+                    TreePath selectedPath = projectTree.getSelectionPath();
+                    if (selectedPath != null) {
+                        handleTreeDoubleClick(selectedPath);
                     }
                 }
             }
@@ -118,57 +123,37 @@ public class ScreenDesignerApp extends JFrame {
 
         // Register for project changes to update tree
         ProjectManager.getInstance().addListener(project -> updateProjectTree());
+        ProjectEventBus.getInstance().addListener(events -> updateStatusBar());
     }
 
-    private void handleTreeSelection(DefaultMutableTreeNode selectedNode) {
-        Object userObject = selectedNode.getUserObject();
-        if (userObject instanceof String) {
-            String nodeName = (String) userObject;
+    private void handleTreeDoubleClick(TreePath selectedPath) {
+        Object node = selectedPath.getLastPathComponent();
+        Object parent = selectedPath.getParentPath() != null ? selectedPath.getParentPath().getLastPathComponent() : null;
 
-            // Check if this is a screen node by looking at its parent
-            DefaultMutableTreeNode parent = (DefaultMutableTreeNode) selectedNode.getParent();
-            if (parent != null && parent.getUserObject().toString().startsWith("Screens")) {
-                // Just select the screen in the tree - don't open it yet
-                // Opening happens on double-click for better UX
-                projectTree.setSelectionPath(new javax.swing.tree.TreePath(selectedNode.getPath()));
-            }
-        }
-    }
+        if (node instanceof DesignScreen) {
+            // Double-click on screen - OPEN the screen in tabs
+            openScreenInTabPanel(((DesignScreen) node).getName());
 
-    private void handleTreeDoubleClick(DefaultMutableTreeNode selectedNode) {
-        Object userObject = selectedNode.getUserObject();
-        if (userObject instanceof String) {
-            String nodeName = (String) userObject;
+        } else if (node instanceof DesignComponent && parent instanceof DesignScreen) {
+            // Double-click on component - open its screen and select it
+            openScreenInTabPanel(((DesignScreen) parent).getName());
+            canvas.setSelectedComponents(java.util.List.of((DesignComponent) node));
 
-            // Handle different types of double-clicks
-            DefaultMutableTreeNode parent = (DefaultMutableTreeNode) selectedNode.getParent();
-            if (parent != null) {
-                String parentName = parent.getUserObject().toString();
+        } else if (parent == ProjectTreeModel.Folder.RESOURCES) {
+            // Double-click on resource folder - open resource manager (future feature)
+            openResourceManager(((ProjectTreeModel.Folder) node).getDisplayName());
 
-                if (parentName.startsWith("Screens")) {
-                    // Double-click on screen - OPEN the screen in tabs
-                    String screenName = nodeName;
-                    int parenIndex = screenName.indexOf(" (");
-                    if (parenIndex > 0) {
-                        screenName = screenName.substring(0, parenIndex);
-                    }
-                    openScreenInTabPanel(screenName);
+        } else if (node == ProjectTreeModel.Folder.SCREENS) {
+            // Double-click on Screens folder - add new screen
+            addNewScreen();
 
-                } else if (parentName.equals("Custom Components")) {
-                    // Double-click on custom component - open component editor (future feature)
-                    editCustomComponent(nodeName);
+        } else if (node == ProjectTreeModel.Folder.CUSTOM_COMPONENTS) {
+            // Double-click on Custom Components folder - create new component
+            createCustomComponent();
 
-                } else if (parentName.equals("Resources")) {
-                    // Double-click on resource folder - open resource manager (future feature)
-                    openResourceManager(nodeName);
-                }
-            } else if (nodeName.startsWith("Screens")) {
-                // Double-click on Screens folder - add new screen
-                addNewScreen();
-            } else if (nodeName.equals("Custom Components")) {
-                // Double-click on Custom Components folder - create new component
-                createCustomComponent();
-            }
+        } else if (node instanceof ComponentSymbol) {
+            // Double-click on custom component - edit its master
+            editCustomComponent(((ComponentSymbol) node).getName());
         }
     }
 
@@ -186,11 +171,7 @@ public class ScreenDesignerApp extends JFrame {
                     screenTabsPanel.selectScreen(i);
 
                     // Update the canvas to show this screen's components
-                    canvas.getDesignComponents().clear();
-                    for (DesignComponent comp : screen.getComponents()) {
-                        canvas.getDesignComponents().add(comp);
-                    }
-                    canvas.repaint();
+                    canvas.setDesignComponents(screen.getComponents());
 
                     // Update status
                     updateStatusBar();
@@ -200,6 +181,53 @@ public class ScreenDesignerApp extends JFrame {
         }
     }
 
+    private void showFindDialog() {
+        if (findDialog == null) {
+            findDialog = new FindDialog(this, searchIndex, this::navigateToSearchHit);
+        }
+        findDialog.showDialog();
+    }
+
+    private void navigateToSearchHit(ProjectSearchIndex.Hit hit) {
+        DesignProject project = ProjectManager.getInstance().getCurrentProject();
+        int index = project.getScreens().indexOf(hit.getScreen());
+        if (index < 0) {
+            return;
+        }
+        project.setActiveScreen(hit.getScreen());
+        screenTabsPanel.selectScreen(index);
+        if (hit.getComponent() != null) {
+            canvas.revealComponent(hit.getComponent());
+        }
+        updateStatusBar();
+    }
+
+    private void runDesignLint() {
+        rightTabs.setSelectedComponent(lintPanel);
+        lintPanel.runLint();
+    }
+
+    private void navigateToLintIssue(LintIssue issue) {
+        DesignProject project = ProjectManager.getInstance().getCurrentProject();
+        if (issue.getScreenIndex() >= project.getScreens().size()) {
+            return;
+        }
+        DesignScreen screen = project.getScreens().get(issue.getScreenIndex());
+        project.setActiveScreen(screen);
+        screenTabsPanel.selectScreen(issue.getScreenIndex());
+
+        // The screen may have changed since the lint run, select whatever is still there
+        java.util.List<DesignComponent> involved = new java.util.ArrayList<>();
+        for (int id : issue.getComponentIds()) {
+            DesignComponent component = screen.findComponent(id);
+            if (component != null) {
+                involved.add(component);
+            }
+        }
+        canvas.revealComponents(involved);
+        updateStatusBar();
+    }
+
     private void openScreenSettings(String screenName) {
         DesignProject project = ProjectManager.getInstance().getCurrentProject();
         if (project != null) {
@@ -215,12 +243,18 @@ public class ScreenDesignerApp extends JFrame {
     }
 
     private void editCustomComponent(String componentName) {
-        // Future feature: Open custom component editor
-        JOptionPane.showMessageDialog(this,
-                "Custom component editor for '" + componentName + "' not yet implemented.\n" +
-                        "This will allow editing custom component properties and behavior.",
-                "Feature Coming Soon",
-                JOptionPane.INFORMATION_MESSAGE);
+        ComponentSymbol symbol = ProjectManager.getInstance().getCurrentProject().getSymbol(componentName);
+        if (symbol != null) {
+            new SymbolEditorDialog(this, symbol).setVisible(true);
+        }
+    }
+
+    private void insertCustomComponent(String componentName) {
+        DesignProject project = ProjectManager.getInstance().getCurrentProject();
+        ComponentSymbol symbol = project.getSymbol(componentName);
+        if (symbol != null && project.getActiveScreen() != null) {
+            canvas.insertSymbolInstance(symbol);
+        }
     }
 
     private void openResourceManager(String resourceType) {
@@ -239,74 +273,76 @@ public class ScreenDesignerApp extends JFrame {
             projectTree.setSelectionRow(row);
         }
 
-        DefaultMutableTreeNode selectedNode = (DefaultMutableTreeNode) projectTree.getLastSelectedPathComponent();
+        Object selectedNode = projectTree.getLastSelectedPathComponent();
         if (selectedNode == null) return;
 
-        Object userObject = selectedNode.getUserObject();
-        if (userObject instanceof String) {
-            String nodeName = (String) userObject;
-            DefaultMutableTreeNode parent = (DefaultMutableTreeNode) selectedNode.getParent();
+        JPopupMenu contextMenu = new JPopupMenu();
 
-            JPopupMenu contextMenu = new JPopupMenu();
+        if (selectedNode instanceof DesignScreen) {
+            // Screen context menu
+            String screenName = ((DesignScreen) selectedNode).getName();
 
-            if (parent != null && parent.getUserObject().toString().startsWith("Screens")) {
-                // Screen context menu
-                String screenName = nodeName;
-                int parenIndex = screenName.indexOf(" (");
-                if (parenIndex > 0) {
-                    screenName = screenName.substring(0, parenIndex);
-                }
+            JMenuItem openItem = new JMenuItem("Open Screen");
+            openItem.addActionListener(event -> openScreenInTabPanel(screenName));
+            contextMenu.add(openItem);
 
-                JMenuItem openItem = new JMenuItem("Open Screen");
-//                openItem.addActionListener(event -> openScreenInTabPanel(screenName));
-                contextMenu.add(openItem);
+            JMenuItem settingsItem = new JMenuItem("Screen Settings...");
+            settingsItem.addActionListener(event -> openScreenSettings(screenName));
+            contextMenu.add(settingsItem);
 
-                JMenuItem settingsItem = new JMenuItem("Screen Settings...");
-                contextMenu.add(settingsItem);
+            contextMenu.addSeparator();
 
-                contextMenu.addSeparator();
+            JMenuItem duplicateItem = new JMenuItem("Duplicate Screen");
+            duplicateItem.addActionListener(event -> duplicateScreen(screenName));
+            contextMenu.add(duplicateItem);
 
-                JMenuItem duplicateItem = new JMenuItem("Duplicate Screen");
-                contextMenu.add(duplicateItem);
+            JMenuItem renameItem = new JMenuItem("Rename Screen...");
+            renameItem.addActionListener(event -> renameScreen(screenName));
+            contextMenu.add(renameItem);
 
-                JMenuItem renameItem = new JMenuItem("Rename Screen...");
-                contextMenu.add(renameItem);
+            contextMenu.addSeparator();
 
-                contextMenu.addSeparator();
+            JMenuItem removeItem = new JMenuItem("Remove Screen");
+            removeItem.addActionListener(event -> removeScreen(screenName));
+            contextMenu.add(removeItem);
 
-                JMenuItem removeItem = new JMenuItem("Remove Screen");
-                contextMenu.add(removeItem);
+        } else if (selectedNode == ProjectTreeModel.Folder.SCREENS) {
+            // Screens folder context menu
+            JMenuItem addScreenItem = new JMenuItem("Add New Screen...");
+            addScreenItem.addActionListener(event -> addNewScreen());
+            contextMenu.add(addScreenItem);
 
-            } else if (nodeName.startsWith("Screens")) {
-                // Screens folder context menu
-                JMenuItem addScreenItem = new JMenuItem("Add New Screen...");
-                addScreenItem.addActionListener(event -> addNewScreen());
-                contextMenu.add(addScreenItem);
+            JMenuItem manageScreensItem = new JMenuItem("Manage Screens...");
+            manageScreensItem.addActionListener(event -> manageScreens());
+            contextMenu.add(manageScreensItem);
 
-                JMenuItem manageScreensItem = new JMenuItem("Manage Screens...");
-                manageScreensItem.addActionListener(event -> manageScreens());
-                contextMenu.add(manageScreensItem);
+        } else if (selectedNode == ProjectTreeModel.Folder.CUSTOM_COMPONENTS) {
+            // Custom Components folder context menu
+            JMenuItem createComponentItem = new JMenuItem("Create Custom Component...");
+            createComponentItem.addActionListener(event -> createCustomComponent());
+            contextMenu.add(createComponentItem);
 
-            } else if (nodeName.equals("Custom Components")) {
-                // Custom Components folder context menu
-                JMenuItem createComponentItem = new JMenuItem("Create Custom Component...");
-                createComponentItem.addActionListener(event -> createCustomComponent());
-                contextMenu.add(createComponentItem);
+        } else if (selectedNode instanceof ComponentSymbol) {
+            // Custom component context menu
+            String componentName = ((ComponentSymbol) selectedNode).getName();
 
-            } else if (parent != null && parent.getUserObject().toString().equals("Custom Components")) {
-                // Custom component context menu
-                JMenuItem editItem = new JMenuItem("Edit Component...");
-                editItem.addActionListener(event -> editCustomComponent(nodeName));
-                contextMenu.add(editItem);
+            JMenuItem insertItem = new JMenuItem("Insert Instance");
+            insertItem.addActionListener(event -> insertCustomComponent(componentName));
+            contextMenu.add(insertItem);
 
-                JMenuItem removeItem = new JMenuItem("Remove Component");
-                removeItem.addActionListener(event -> removeCustomComponent(nodeName));
-                contextMenu.add(removeItem);
-            }
+            JMenuItem editItem = new JMenuItem("Edit Custom Component...");
+            editItem.addActionListener(event -> editCustomComponent(componentName));
+            contextMenu.add(editItem);
 
-            if (contextMenu.getComponentCount() > 0) {
-                contextMenu.show(projectTree, e.getX(), e.getY());
-            }
+            contextMenu.addSeparator();
+
+            JMenuItem removeItem = new JMenuItem("Remove Custom Component");
+            removeItem.addActionListener(event -> removeCustomComponent(componentName));
+            contextMenu.add(removeItem);
+        }
+
+        if (contextMenu.getComponentCount() > 0) {
+            contextMenu.show(projectTree, e.getX(), e.getY());
         }
     }
 
@@ -315,26 +351,10 @@ public class ScreenDesignerApp extends JFrame {
         if (project != null) {
             for (DesignScreen screen : project.getScreens()) {
                 if (screen.getName().equals(screenName)) {
-                    DesignScreen newScreen = new DesignScreen(screen.getName() + " Copy", screen.getType());
-                    newScreen.setDescription(screen.getDescription());
-
-                    // Copy components (simplified)
-                    for (DesignComponent comp : screen.getComponents()) {
-                        DesignComponent newComp;
-                        newComp = new DesignComponent(comp.getComponentType(),
-                                comp.getBounds().x + 20, comp.getBounds().y + 20);
-
-                        // Copy properties
-                        newComp.setText(comp.getText());
-                        newComp.setSize(comp.getBounds().width, comp.getBounds().height);
-                        newComp.setBackgroundColor(comp.getBackgroundColor());
-                        newComp.setVisible(comp.isVisible());
-                        newComp.setEnabled(comp.isEnabled());
-
-                        newScreen.addComponent(newComp);
-                    }
+                    DesignScreen newScreen = screen.duplicate(screen.getName() + " Copy");
 
                     project.addScreen(newScreen);
+                    CommandHistory.getInstance().addCommand(ScreenListCommand.added(project, newScreen));
                     ProjectManager.getInstance().loadProject(project);
                     break;
                 }
@@ -362,8 +382,7 @@ public class ScreenDesignerApp extends JFrame {
         DesignProject project = ProjectManager.getInstance().getCurrentProject();
         if (project != null && project.getScreens().size() > 1) {
             int result = JOptionPane.showConfirmDialog(this,
-                    "Are you sure you want to remove the screen '" + screenName + "'?\n" +
-                            "This action cannot be undone.",
+                    "Are you sure you want to remove the screen '" + screenName + "'?",
                     "Remove Screen",
                     JOptionPane.YES_NO_OPTION,
                     JOptionPane.WARNING_MESSAGE);
@@ -371,6 +390,7 @@ public class ScreenDesignerApp extends JFrame {
             if (result == JOptionPane.YES_OPTION) {
                 for (DesignScreen screen : project.getScreens()) {
                     if (screen.getName().equals(screenName)) {
+                        CommandHistory.getInstance().addCommand(ScreenListCommand.removed(project, screen));
                         project.removeScreen(screen);
                         ProjectManager.getInstance().loadProject(project);
                         break;
@@ -386,85 +406,58 @@ public class ScreenDesignerApp extends JFrame {
     }
 
     private void createCustomComponent() {
-//        CustomComponentCreator creator = new CustomComponentCreator(this);
-//        CustomComponentDefinition newComponent = creator.showDialog();
-//
-//        if (newComponent != null) {
-//            CustomComponentManager.getInstance().addCustomComponent(newComponent);
-//            updateProjectTree();
-//            JOptionPane.showMessageDialog(this,
-//                    "Custom component '" + newComponent.getDisplayName() + "' created successfully!",
-//                    "Success",
-//                    JOptionPane.INFORMATION_MESSAGE);
-//        }
+        DesignProject project = ProjectManager.getInstance().getCurrentProject();
+        if (canvas.getSelectedComponents().isEmpty()) {
+            JOptionPane.showMessageDialog(this,
+                    "Select the components to turn into a custom component first.",
+                    "Create Custom Component",
+                    JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+
+        String name = JOptionPane.showInputDialog(this, "Custom component name:", "Create Custom Component",
+                JOptionPane.QUESTION_MESSAGE);
+        if (name == null || name.trim().isEmpty()) {
+            return;
+        }
+        name = name.trim();
+        if (project.getSymbol(name) != null) {
+            JOptionPane.showMessageDialog(this,
+                    "A custom component named '" + name + "' already exists.",
+                    "Create Custom Component",
+                    JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+
+        canvas.createSymbolFromSelection(name, project::addSymbol, project::removeSymbol);
     }
 
     private void removeCustomComponent(String componentName) {
-//        int result = JOptionPane.showConfirmDialog(this,
-//                "Are you sure you want to remove the custom component '" + componentName + "'?\n" +
-//                        "This action cannot be undone.",
-//                "Remove Custom Component",
-//                JOptionPane.YES_NO_OPTION,
-//                JOptionPane.WARNING_MESSAGE);
-//
-//        if (result == JOptionPane.YES_OPTION) {
-//            CustomComponentManager.getInstance().removeCustomComponent(componentName);
-//            updateProjectTree();
-//        }
+        DesignProject project = ProjectManager.getInstance().getCurrentProject();
+        ComponentSymbol symbol = project.getSymbol(componentName);
+        if (symbol == null) {
+            return;
+        }
+        int result = JOptionPane.showConfirmDialog(this,
+                "Are you sure you want to remove the custom component '" + componentName + "'?\n" +
+                        "Instances already placed on screens are kept.",
+                "Remove Custom Component",
+                JOptionPane.YES_NO_OPTION,
+                JOptionPane.WARNING_MESSAGE);
+
+        if (result == JOptionPane.YES_OPTION) {
+            project.removeSymbol(symbol);
+        }
     }
 
     private void updateProjectTree() {
-        SwingUtilities.invokeLater(() -> {
-            DefaultTreeModel treeModel = (DefaultTreeModel) projectTree.getModel();
-            DefaultMutableTreeNode root = (DefaultMutableTreeNode) treeModel.getRoot();
-
-            // Clear existing project nodes
-            root.removeAllChildren();
-
-            // Get current project
-            DesignProject currentProject = ProjectManager.getInstance().getCurrentProject();
-            if (currentProject != null) {
-                DefaultMutableTreeNode projectNode = new DefaultMutableTreeNode(currentProject.getName());
-
-                // Add Screens node
-                DefaultMutableTreeNode screensNode = new DefaultMutableTreeNode("Screens (" + currentProject.getScreens().size() + ")");
-                for (DesignScreen screen : currentProject.getScreens()) {
-                    DefaultMutableTreeNode screenNode = new DefaultMutableTreeNode(
-                            screen.getName() + " (" + screen.getType().getDisplayName() + ")"
-                    );
-                    screensNode.add(screenNode);
-                }
-                projectNode.add(screensNode);
-
-                // Add Resources node
-                DefaultMutableTreeNode resourcesNode = new DefaultMutableTreeNode("Resources");
-                resourcesNode.add(new DefaultMutableTreeNode("Images"));
-                resourcesNode.add(new DefaultMutableTreeNode("Icons"));
-                resourcesNode.add(new DefaultMutableTreeNode("Fonts"));
-                projectNode.add(resourcesNode);
-
-                // Add Custom Components node
-                DefaultMutableTreeNode componentsNode = new DefaultMutableTreeNode("Custom Components");
-                // Add custom components from CustomComponentManager
-//                for (String componentName : CustomComponentManager.getInstance().getAllCustomComponents().keySet()) {
-//                    componentsNode.add(new DefaultMutableTreeNode(componentName));
-//                }
-                projectNode.add(componentsNode);
-
-                root.add(projectNode);
-
-                // Notify tree model of changes
-                treeModel.reload();
-
-                // Expand the project and screens nodes
-                projectTree.expandRow(0); // Root
-                projectTree.expandRow(1); // Project
-                projectTree.expandRow(2); // Screens
-            }
+        // Only the differences to the last shown state are sent to the tree
+        if (projectTreeModel.refresh()) {
+            projectTree.expandPath(projectTreeModel.getScreensPath());
+        }
 
-            // Update status bar project name
-            updateStatusBar();
-        });
+        // Update status bar project name
+        updateStatusBar();
     }
 
     private void updateStatusBar() {
@@ -594,7 +587,7 @@ public class ScreenDesignerApp extends JFrame {
         JPanel rightPanel = new JPanel(new BorderLayout());
 
         // Create tabbed pane for right side
-        JTabbedPane rightTabs = new JTabbedPane(JTabbedPane.BOTTOM);
+        rightTabs = new JTabbedPane(JTabbedPane.BOTTOM);
 
         // Properties tab
         JScrollPane propScroll = new JScrollPane(propertyPanel);
@@ -611,6 +604,9 @@ public class ScreenDesignerApp extends JFrame {
         structurePanel.add(new JLabel("Component hierarchy will be shown here"));
         rightTabs.addTab("Structure", structurePanel);
 
+        // Lint tab
+        rightTabs.addTab("Lint", lintPanel);
+
         rightPanel.add(rightTabs, BorderLayout.CENTER);
 
         return rightPanel;
@@ -627,21 +623,21 @@ public class ScreenDesignerApp extends JFrame {
         toolbar.add(createToolbarSeparator());
 
         // Edit operations
-        toolbar.add(createToolbarButton("↶", "Undo", e -> {}));
-        toolbar.add(createToolbarButton("↷", "Redo", e -> {}));
+        toolbar.add(createToolbarButton("↶", "Undo", undoAction));
+        toolbar.add(createToolbarButton("↷", "Redo", redoAction));
         toolbar.add(createToolbarSeparator());
 
         // Component operations
-        toolbar.add(createToolbarButton("📋", "Copy", e -> {}));
-        toolbar.add(createToolbarButton("📄", "Paste", e -> {}));
-        toolbar.add(createToolbarButton("🗑️", "Delete", e -> {}));
+        toolbar.add(createToolbarButton("📋", "Copy", copyAction));
+        toolbar.add(createToolbarButton("📄", "Paste", pasteAction));
+        toolbar.add(createToolbarButton("🗑️", "Delete", e -> canvas.deleteSelection()));
         toolbar.add(createToolbarSeparator());
 
         // Alignment tools
-        toolbar.add(createToolbarButton("⬅️", "Align Left", e -> {}));
-        toolbar.add(createToolbarButton("➡️", "Align Right", e -> {}));
-        toolbar.add(createToolbarButton("⬆️", "Align Top", e -> {}));
-        toolbar.add(createToolbarButton("⬇️", "Align Bottom", e -> {}));
+        toolbar.add(createToolbarButton("⬅️", "Align Left", e -> constrainSelection(LayoutConstraint.Type.ALIGN_LEFT)));
+        toolbar.add(createToolbarButton("➡️", "Align Right", e -> constrainSelection(LayoutConstraint.Type.ALIGN_RIGHT)));
+        toolbar.add(createToolbarButton("⬆️", "Align Top", e -> constrainSelection(LayoutConstraint.Type.ALIGN_TOP)));
+        toolbar.add(createToolbarButton("⬇️", "Align Bottom", e -> constrainSelection(LayoutConstraint.Type.ALIGN_BOTTOM)));
         toolbar.add(createToolbarSeparator());
 
         // Preview and generate
@@ -773,7 +769,7 @@ public class ScreenDesignerApp extends JFrame {
         fileMenu.add(createMenuItem("Save Project As...", "Ctrl+Shift+S", e -> saveProjectAs()));
         fileMenu.addSeparator();
         fileMenu.add(createMenuItem("Import...", null, e -> {}));
-        fileMenu.add(createMenuItem("Export...", null, e -> {}));
+        fileMenu.add(createMenuItem("Export...", null, e -> exportScreens()));
         fileMenu.addSeparator();
         fileMenu.add(createMenuItem("Recent Projects", null, e -> {}));
         fileMenu.addSeparator();
@@ -781,16 +777,16 @@ public class ScreenDesignerApp extends JFrame {
 
         // Edit Menu
         JMenu editMenu = new JMenu("Edit");
-        editMenu.add(createMenuItem("Undo", "Ctrl+Z", e -> {}));
-        editMenu.add(createMenuItem("Redo", "Ctrl+Y", e -> {}));
+        editMenu.add(new JMenuItem(undoAction));
+        editMenu.add(new JMenuItem(redoAction));
         editMenu.addSeparator();
-        editMenu.add(createMenuItem("Cut", "Ctrl+X", e -> {}));
-        editMenu.add(createMenuItem("Copy", "Ctrl+C", e -> {}));
-        editMenu.add(createMenuItem("Paste", "Ctrl+V", e -> {}));
-        editMenu.add(createMenuItem("Delete", "Del", e -> {}));
+        editMenu.add(new JMenuItem(cutAction));
+        editMenu.add(new JMenuItem(copyAction));
+        editMenu.add(new JMenuItem(pasteAction));
+        editMenu.add(createMenuItem("Delete", "Del", e -> canvas.deleteSelection()));
         editMenu.addSeparator();
-        editMenu.add(createMenuItem("Select All", "Ctrl+A", e -> {}));
-        editMenu.add(createMenuItem("Find...", "Ctrl+F", e -> {}));
+        editMenu.add(createMenuItem("Select All", "Ctrl+A", e -> canvas.selectAll()));
+        editMenu.add(createMenuItem("Find...", "Ctrl+F", e -> showFindDialog()));
 
         // View Menu
         JMenu viewMenu = new JMenu("View");
@@ -799,6 +795,7 @@ public class ScreenDesignerApp extends JFrame {
         viewMenu.add(createMenuItem("Zoom to Fit", "Ctrl+0", e -> fitCanvasToWindow()));
         viewMenu.add(createMenuItem("Actual Size", "Ctrl+1", e -> canvas.resetZoom()));
         viewMenu.addSeparator();
+        viewMenu.add(createMenuItem("Collapse/Expand Container", null, e -> canvas.toggleCollapsedSelection()));
      
         viewMenu.addSeparator();
         viewMenu.add(createCheckMenuItem("Project View", true, e -> {}));
@@ -817,9 +814,32 @@ public class ScreenDesignerApp extends JFrame {
         });
         viewMenu.add(snapToGridItem);
 
+        JCheckBoxMenuItem smartGuidesItem = createCheckMenuItem("Smart Guides", canvas.isSmartGuides(), e -> {
+            canvas.setSmartGuides(((JCheckBoxMenuItem) e.getSource()).isSelected());
+        });
+        viewMenu.add(smartGuidesItem);
+
         JCheckBoxMenuItem showRulersItem = createCheckMenuItem("Show Rulers", canvas.isShowRulers(), e -> {
             canvas.setShowRulers(((JCheckBoxMenuItem) e.getSource()).isSelected());
         });
+        // Layout Menu
+        JMenu layoutMenu = new JMenu("Layout");
+        LayoutConstraint.Type[][] layoutGroups = {
+                {LayoutConstraint.Type.ALIGN_LEFT, LayoutConstraint.Type.ALIGN_RIGHT, LayoutConstraint.Type.ALIGN_CENTER_X,
+                        LayoutConstraint.Type.ALIGN_TOP, LayoutConstraint.Type.ALIGN_BOTTOM, LayoutConstraint.Type.ALIGN_CENTER_Y},
+                {LayoutConstraint.Type.ANCHOR_LEFT, LayoutConstraint.Type.ANCHOR_RIGHT,
+                        LayoutConstraint.Type.ANCHOR_TOP, LayoutConstraint.Type.ANCHOR_BOTTOM},
+                {LayoutConstraint.Type.EQUAL_WIDTH, LayoutConstraint.Type.EQUAL_HEIGHT,
+                        LayoutConstraint.Type.SPACING_HORIZONTAL, LayoutConstraint.Type.SPACING_VERTICAL}
+        };
+        for (LayoutConstraint.Type[] group : layoutGroups) {
+            for (LayoutConstraint.Type type : group) {
+                layoutMenu.add(createMenuItem(type.getDisplayName(), null, e -> constrainSelection(type)));
+            }
+            layoutMenu.addSeparator();
+        }
+        layoutMenu.add(createMenuItem("Remove Constraints", null, e -> canvas.removeSelectionConstraints()));
+
         // Project Menu
         JMenu projectMenu = new JMenu("Project");
         projectMenu.add(createMenuItem("Project Settings...", null, e -> showProjectSettings()));
@@ -834,8 +854,10 @@ public class ScreenDesignerApp extends JFrame {
         JMenu toolsMenu = new JMenu("Tools");
         toolsMenu.add(createMenuItem("Generate Code...", "F5", e -> generateCode()));
         toolsMenu.add(createMenuItem("Preview Form", "F6", e -> previewForm()));
+        toolsMenu.add(createMenuItem("Preview Resolutions", "shift F6", e -> previewResolutions()));
+        toolsMenu.add(createMenuItem("Run Design Lint", "F8", e -> runDesignLint()));
         toolsMenu.addSeparator();
-        toolsMenu.add(createMenuItem("Custom Components...", null, e -> {}));
+        toolsMenu.add(createMenuItem("Create Custom Component...", null, e -> createCustomComponent()));
         toolsMenu.add(createMenuItem("Import Components...", null, e -> {}));
         toolsMenu.addSeparator();
         toolsMenu.add(createMenuItem("Options...", null, e -> {}));
@@ -851,6 +873,7 @@ public class ScreenDesignerApp extends JFrame {
         menuBar.add(fileMenu);
         menuBar.add(editMenu);
         menuBar.add(viewMenu);
+        menuBar.add(layoutMenu);
         menuBar.add(projectMenu);
         menuBar.add(toolsMenu);
         menuBar.add(helpMenu);
@@ -918,6 +941,7 @@ public class ScreenDesignerApp extends JFrame {
 
         if (result == JOptionPane.YES_OPTION) {
             ProjectManager.getInstance().createNewProject();
+            CommandHistory.getInstance().clear();
             setTitle("Screen Designer Professional - " + ProjectManager.getInstance().getCurrentProject().getName());
             updateProjectTree(); // Ensure tree is updated
         }
@@ -945,6 +969,53 @@ public class ScreenDesignerApp extends JFrame {
         }
     }
 
+    private void exportScreens() {
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle("Export Screens To Folder");
+        fileChooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
+        if (fileChooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+
+        JComboBox<String> scaleComboBox = new JComboBox<>(new String[]{"50%", "100%", "200%", "300%"});
+        scaleComboBox.setSelectedItem("100%");
+        JCheckBox svgCheckBox = new JCheckBox("Also export SVG");
+        JPanel optionsPanel = new JPanel(new GridLayout(0, 1, 5, 5));
+        optionsPanel.add(new JLabel("Scale:"));
+        optionsPanel.add(scaleComboBox);
+        optionsPanel.add(svgCheckBox);
+
+        int result = JOptionPane.showConfirmDialog(this, optionsPanel, "Export Options",
+                JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+        if (result != JOptionPane.OK_OPTION) {
+            return;
+        }
+
+        String scaleText = (String) scaleComboBox.getSelectedItem();
+        double scale = Integer.parseInt(scaleText.substring(0, scaleText.length() - 1)) / 100.0;
+        ScreenExporter exporter = new ScreenExporter(fileChooser.getSelectedFile(), scale, svgCheckBox.isSelected());
+
+        JLabel statusLabel = (JLabel) ((JPanel) statusBar.getComponent(0)).getComponent(0);
+        exporter.exportAsync(ProjectManager.getInstance().getCurrentProject(),
+                        (screen, completed, total) -> SwingUtilities.invokeLater(() ->
+                                statusLabel.setText("Exporting " + completed + "/" + total)))
+                .whenComplete((files, error) -> SwingUtilities.invokeLater(() -> {
+                    statusLabel.setText("Ready");
+                    if (error != null) {
+                        Throwable cause = error.getCause() != null ? error.getCause() : error;
+                        JOptionPane.showMessageDialog(this,
+                                "Error exporting screens:\n" + cause.getMessage(),
+                                "Export Failed",
+                                JOptionPane.ERROR_MESSAGE);
+                    } else {
+                        JOptionPane.showMessageDialog(this,
+                                files.size() + " files exported to:\n" + fileChooser.getSelectedFile(),
+                                "Export Complete",
+                                JOptionPane.INFORMATION_MESSAGE);
+                    }
+                }));
+    }
+
     private void showProjectSettings() {
         ProjectSettingsDialog dialog = new ProjectSettingsDialog(this, ProjectManager.getInstance().getCurrentProject());
         dialog.setVisible(true);
@@ -961,6 +1032,7 @@ public class ScreenDesignerApp extends JFrame {
             DesignProject project = ProjectManager.getInstance().getCurrentProject();
             DesignScreen newScreen = project.createNewScreen(data.name, data.type);
             newScreen.setDescription(data.description);
+            CommandHistory.getInstance().addCommand(ScreenListCommand.added(project, newScreen));
 
             // Trigger project change notification which will update tree
             ProjectManager.getInstance().loadProject(project);
@@ -975,9 +1047,30 @@ public class ScreenDesignerApp extends JFrame {
         updateProjectTree();
     }
 
+    private void constrainSelection(LayoutConstraint.Type type) {
+        try {
+            canvas.constrainSelection(type);
+        } catch (IllegalArgumentException e) {
+            JOptionPane.showMessageDialog(this, e.getMessage(), "Layout", JOptionPane.WARNING_MESSAGE);
+        }
+    }
+
     private void generateCode() {
         CodeGenerator generator = new CodeGenerator();
-        String code = generator.generateCode(canvas.getDesignComponents());
+        ConstraintLayout layout = canvas.getConstraintLayout();
+        CodeGenerator.LayoutStyle style = CodeGenerator.LayoutStyle.ABSOLUTE;
+        if (layout != null && !layout.isEmpty()) {
+            String[] options = {"GroupLayout", "Absolute Bounds"};
+            int choice = JOptionPane.showOptionDialog(this,
+                    "The screen has layout constraints. Generate a GroupLayout that keeps the anchors\n"
+                            + "and equal sizes when the window is resized, or the solved absolute bounds?",
+                    "Generate Code", JOptionPane.DEFAULT_OPTION, JOptionPane.QUESTION_MESSAGE, null, options, options[0]);
+            if (choice < 0) {
+                return;
+            }
+            style = choice == 0 ? CodeGenerator.LayoutStyle.GROUP_LAYOUT : CodeGenerator.LayoutStyle.ABSOLUTE;
+        }
+        String code = generator.generateCode(canvas.getDesignComponents(), layout, style);
         CodeViewDialog codeDialog = new CodeViewDialog(this, code);
         codeDialog.setVisible(true);
     }
@@ -989,6 +1082,17 @@ public class ScreenDesignerApp extends JFrame {
         previewFrame.setVisible(true);
     }
 
+    private void previewResolutions() {
+        DesignProject project = ProjectManager.getInstance().getCurrentProject();
+        if (project.getActiveScreen() == null) {
+            return;
+        }
+        if (resolutionPreviewDialog == null) {
+            resolutionPreviewDialog = new ResolutionPreviewDialog(this);
+        }
+        resolutionPreviewDialog.showScreen(project.getActiveScreen(), project.getTargetResolutions());
+    }
+
     private void showAboutDialog() {
         String aboutText = "<html><center>" +
                 "<h2>Screen Designer Professional</h2>" +
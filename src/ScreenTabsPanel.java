@@ -1,3 +1,4 @@
+import Base.CommandHistory;
 import Project.*;
 import Designer.*;
 import javax.swing.*;
@@ -6,14 +7,24 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
 
 /**
  * Panel for managing and navigating between multiple screens in a project
  * Provides tabs for each screen and controls for adding/removing screens
  */
-public class ScreenTabsPanel extends JPanel implements ProjectManager.ProjectListener {
+public class ScreenTabsPanel extends JPanel implements ProjectManager.ProjectListener,
+        ProjectEventBus.Listener, ScreenThumbnailService.ThumbnailListener, ValidationService.ValidationListener {
     private JTabbedPane screenTabs;
+    // Screen shown by each tab, in tab order
+    private final List<DesignScreen> tabScreens = new ArrayList<>();
+    // Screen whose components are on the canvas
+    private DesignScreen canvasScreen;
+    private boolean updatingTabs;
     private JButton addScreenButton;
     private JButton removeScreenButton;
     private JButton duplicateScreenButton;
@@ -28,6 +39,9 @@ public class ScreenTabsPanel extends JPanel implements ProjectManager.ProjectLis
 
         // Register with project manager
         ProjectManager.getInstance().addListener(this);
+        ProjectEventBus.getInstance().addListener(this);
+        ScreenThumbnailService.getInstance().addListener(this);
+        ValidationService.getInstance().addListener(this);
 
         // Load current project
         projectChanged(ProjectManager.getInstance().getCurrentProject());
@@ -98,8 +112,8 @@ public class ScreenTabsPanel extends JPanel implements ProjectManager.ProjectLis
         duplicateScreenButton.addActionListener(e -> duplicateCurrentScreen());
 
         screenTabs.addChangeListener(e -> {
-            if (currentProject != null && screenTabs.getSelectedIndex() >= 0) {
-                DesignScreen selectedScreen = currentProject.getScreens().get(screenTabs.getSelectedIndex());
+            if (!updatingTabs && currentProject != null && screenTabs.getSelectedIndex() >= 0) {
+                DesignScreen selectedScreen = tabScreens.get(screenTabs.getSelectedIndex());
                 currentProject.setActiveScreen(selectedScreen);
                 updateCanvasForScreen(selectedScreen);
             }
@@ -127,57 +141,21 @@ public class ScreenTabsPanel extends JPanel implements ProjectManager.ProjectLis
         if (data != null) {
             DesignScreen newScreen = currentProject.createNewScreen(data.name, data.type);
             newScreen.setDescription(data.description);
+            CommandHistory.getInstance().addCommand(ScreenListCommand.added(currentProject, newScreen));
 
             // Apply screen type specific settings
             applyScreenTypeSettings(newScreen, data.type);
 
-            refreshScreenTabs();
+            syncScreenTabs();
 
             // Switch to the new screen
-            int newIndex = currentProject.getScreens().size() - 1;
-            screenTabs.setSelectedIndex(newIndex);
+            screenTabs.setSelectedIndex(tabScreens.indexOf(newScreen));
         }
     }
 
     private void applyScreenTypeSettings(DesignScreen screen, ScreenType type) {
         // Apply default components based on screen type
-        switch (type) {
-            case LOGIN:
-                // Add default login components
-                addLoginComponents(screen);
-                break;
-            case SPLASH:
-                // Add splash screen components
-                addSplashComponents(screen);
-                break;
-            case DASHBOARD:
-                // Add dashboard components
-                addDashboardComponents(screen);
-                break;
-            // Add more default layouts as needed
-        }
-    }
-
-    private void addLoginComponents(DesignScreen screen) {
-        // Add a login panel with default components
-
-    }
-
-    private void addSplashComponents(DesignScreen screen) {
-        // Add splash screen components (logo, progress bar, etc.)
-        DesignComponent logoLabel = new DesignComponent(JLabel.class, 100, 50);
-        logoLabel.setText("Application Logo");
-        logoLabel.setSize(200, 50);
-        screen.addComponent(logoLabel);
-
-        DesignComponent progressBar = new DesignComponent(JProgressBar.class, 100, 150);
-        progressBar.setSize(200, 25);
-        screen.addComponent(progressBar);
-    }
-
-    private void addDashboardComponents(DesignScreen screen) {
-        // Add dashboard components (charts, data grids, etc.)
-
+        ScreenTemplates.applyTemplate(screen, type);
     }
 
     private void removeCurrentScreen() {
@@ -196,45 +174,23 @@ public class ScreenTabsPanel extends JPanel implements ProjectManager.ProjectLis
 
         if (confirm == JOptionPane.YES_OPTION) {
             DesignScreen currentScreen = currentProject.getActiveScreen();
+            CommandHistory.getInstance().addCommand(ScreenListCommand.removed(currentProject, currentScreen));
             currentProject.removeScreen(currentScreen);
-            refreshScreenTabs();
+            syncScreenTabs();
         }
     }
 
     private void duplicateCurrentScreen() {
         DesignScreen currentScreen = currentProject.getActiveScreen();
         if (currentScreen != null) {
-            DesignScreen newScreen = new DesignScreen(currentScreen.getName() + " Copy", currentScreen.getType());
-            newScreen.setDescription(currentScreen.getDescription());
-
-            // Copy all components
-            for (DesignComponent comp : currentScreen.getComponents()) {
-                // Create a copy of the component (simplified - you might want deep copy)
-                DesignComponent newComp;
-                newComp = new DesignComponent(comp.getComponentType(),
-                        comp.getBounds().x + 20, comp.getBounds().y + 20);
-
-                // Copy properties
-                newComp.setText(comp.getText());
-                newComp.setSize(comp.getBounds().width, comp.getBounds().height);
-                newComp.setBackgroundColor(comp.getBackgroundColor());
-                newComp.setVisible(comp.isVisible());
-                newComp.setEnabled(comp.isEnabled());
-
-                newScreen.addComponent(newComp);
-            }
-
-            // Copy screen settings
-            for (Map.Entry<String, Object> entry : currentScreen.getScreenSettings().entrySet()) {
-                newScreen.setScreenSetting(entry.getKey(), entry.getValue());
-            }
+            DesignScreen newScreen = currentScreen.duplicate(currentScreen.getName() + " Copy");
 
             currentProject.addScreen(newScreen);
-            refreshScreenTabs();
+            CommandHistory.getInstance().addCommand(ScreenListCommand.added(currentProject, newScreen));
+            syncScreenTabs();
 
             // Switch to the new screen
-            int newIndex = currentProject.getScreens().size() - 1;
-            screenTabs.setSelectedIndex(newIndex);
+            screenTabs.setSelectedIndex(tabScreens.indexOf(newScreen));
         }
     }
 
@@ -271,17 +227,17 @@ public class ScreenTabsPanel extends JPanel implements ProjectManager.ProjectLis
     }
 
     private void renameScreen(int tabIndex) {
-        DesignScreen screen = currentProject.getScreens().get(tabIndex);
+        DesignScreen screen = tabScreens.get(tabIndex);
         String newName = JOptionPane.showInputDialog(this, "Enter new screen name:", screen.getName());
 
         if (newName != null && !newName.trim().isEmpty()) {
             screen.setName(newName.trim());
-            refreshScreenTabs();
+            updateTab(tabIndex, screen);
         }
     }
 
     private void showScreenSettings(int tabIndex) {
-        DesignScreen screen = currentProject.getScreens().get(tabIndex);
+        DesignScreen screen = tabScreens.get(tabIndex);
         ScreenSettingsDialog dialog = new ScreenSettingsDialog((JFrame) SwingUtilities.getWindowAncestor(this), screen);
         dialog.setVisible(true);
     }
@@ -296,6 +252,10 @@ public class ScreenTabsPanel extends JPanel implements ProjectManager.ProjectLis
 
     public void setDesignCanvas(DesignPanel canvas) {
         this.designCanvas = canvas;
+        canvasScreen = null;
+        if (currentProject != null && currentProject.getActiveScreen() != null) {
+            updateCanvasForScreen(currentProject.getActiveScreen());
+        }
     }
 
     public void selectScreen(int screenIndex) {
@@ -316,56 +276,127 @@ public class ScreenTabsPanel extends JPanel implements ProjectManager.ProjectLis
     }
 
     private void updateCanvasForScreen(DesignScreen screen) {
-        if (designCanvas != null) {
-            // Clear current canvas
-            designCanvas.getDesignComponents().clear();
+        if (designCanvas != null && screen != canvasScreen) {
+            canvasScreen = screen;
+            // Edit the screen's own component list on the canvas
+            designCanvas.setDesignComponents(screen.getComponents());
+            designCanvas.setConstraintLayout(screen.getConstraintLayout());
+            showWarnings(screen);
+        }
+    }
 
-            // Add components from the selected screen
-            for (DesignComponent comp : screen.getComponents()) {
-                designCanvas.getDesignComponents().add(comp);
-            }
+    private void showWarnings(DesignScreen screen) {
+        ValidationService validation = ValidationService.getInstance();
+        designCanvas.setWarnings(validation.getComponentWarnings(screen), validation.getScreenWarnings(screen));
+    }
 
-            designCanvas.repaint();
+    @Override
+    public void validationUpdated(DesignScreen screen) {
+        if (designCanvas != null && screen == canvasScreen) {
+            showWarnings(screen);
+        }
+    }
+
+    @Override
+    public void thumbnailUpdated(DesignScreen screen, Icon thumbnail) {
+        if (currentProject != null) {
+            int index = tabScreens.indexOf(screen);
+            if (index >= 0 && index < screenTabs.getTabCount()) {
+                screenTabs.setIconAt(index, thumbnail);
+            }
         }
     }
 
     @Override
     public void projectChanged(DesignProject project) {
-        this.currentProject = project;
-        refreshScreenTabs();
+        if (project != currentProject) {
+            this.currentProject = project;
+            screenTabs.removeAll();
+            tabScreens.clear();
+            canvasScreen = null;
+        }
+        syncScreenTabs();
         refreshProjectInfo();
     }
 
-    private void refreshScreenTabs() {
-        screenTabs.removeAll();
-
-        if (currentProject != null) {
-            for (int i = 0; i < currentProject.getScreens().size(); i++) {
-                DesignScreen screen = currentProject.getScreens().get(i);
+    @Override
+    public void projectEventsDispatched(List<ProjectEvent> events) {
+        boolean structureChanged = false;
+        for (ProjectEvent event : events) {
+            if (event.getProject() != currentProject) {
+                continue;
+            }
+            switch (event.getType()) {
+                case SCREEN_ADDED:
+                case SCREEN_REMOVED:
+                case SCREEN_MOVED:
+                    structureChanged = true;
+                    break;
+                case SCREEN_RENAMED:
+                case SETTINGS_CHANGED:
+                    int index = tabScreens.indexOf(event.getScreen());
+                    if (index >= 0) {
+                        updateTab(index, event.getScreen());
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        if (structureChanged) {
+            syncScreenTabs();
+        }
+    }
 
-                // Create tab with screen type icon
-                String tabTitle = screen.getName();
-                String tooltip = screen.getType().getDescription();
-                if (!screen.getDescription().isEmpty()) {
-                    tooltip += ": " + screen.getDescription();
+    /**
+     * Inserts and removes only the tabs of screens that were added, removed or moved
+     * since the last call, then selects the active screen
+     */
+    private void syncScreenTabs() {
+        List<DesignScreen> screens = currentProject != null ? currentProject.getScreens() : List.of();
+        updatingTabs = true;
+        try {
+            Set<DesignScreen> present = Collections.newSetFromMap(new IdentityHashMap<>());
+            present.addAll(screens);
+            for (int i = tabScreens.size() - 1; i >= 0; i--) {
+                if (!present.contains(tabScreens.get(i))) {
+                    tabScreens.remove(i);
+                    screenTabs.removeTabAt(i);
                 }
+            }
 
-                JPanel tabContent = new JPanel();
-                screenTabs.addTab(tabTitle, tabContent);
-                screenTabs.setToolTipTextAt(i, tooltip);
-
-                // Set different colors for different screen types
-                Color tabColor = getScreenTypeColor(screen.getType());
-                screenTabs.setBackgroundAt(i, tabColor);
+            // Walk both lists, moving or inserting tabs where they differ
+            for (int i = 0; i < screens.size(); i++) {
+                DesignScreen screen = screens.get(i);
+                if (i < tabScreens.size() && tabScreens.get(i) == screen) {
+                    continue;
+                }
+                int existing = indexOfTab(screen, i + 1);
+                Component tabContent;
+                if (existing >= 0) {
+                    tabContent = screenTabs.getComponentAt(existing);
+                    tabScreens.remove(existing);
+                    screenTabs.removeTabAt(existing);
+                } else {
+                    tabContent = new JPanel();
+                }
+                tabScreens.add(i, screen);
+                screenTabs.insertTab(screen.getName(), ScreenThumbnailService.getInstance().getThumbnail(screen),
+                        tabContent, null, i);
+                updateTab(i, screen);
             }
+        } finally {
+            updatingTabs = false;
+        }
 
-            // Select active screen
-            if (currentProject.getActiveScreen() != null) {
-                int activeIndex = currentProject.getScreens().indexOf(currentProject.getActiveScreen());
-                if (activeIndex >= 0) {
+        // Select active screen, the canvas is only reloaded when it changed
+        if (currentProject != null && currentProject.getActiveScreen() != null) {
+            int activeIndex = tabScreens.indexOf(currentProject.getActiveScreen());
+            if (activeIndex >= 0) {
+                if (screenTabs.getSelectedIndex() != activeIndex) {
                     screenTabs.setSelectedIndex(activeIndex);
-                    updateCanvasForScreen(currentProject.getActiveScreen());
                 }
+                updateCanvasForScreen(currentProject.getActiveScreen());
             }
         }
 
@@ -374,6 +405,27 @@ public class ScreenTabsPanel extends JPanel implements ProjectManager.ProjectLis
         duplicateScreenButton.setEnabled(currentProject != null && currentProject.getActiveScreen() != null);
     }
 
+    private int indexOfTab(DesignScreen screen, int fromIndex) {
+        for (int i = fromIndex; i < tabScreens.size(); i++) {
+            if (tabScreens.get(i) == screen) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void updateTab(int index, DesignScreen screen) {
+        String tooltip = screen.getType().getDescription();
+        if (!screen.getDescription().isEmpty()) {
+            tooltip += ": " + screen.getDescription();
+        }
+        screenTabs.setTitleAt(index, screen.getName());
+        screenTabs.setToolTipTextAt(index, tooltip);
+
+        // Set different colors for different screen types
+        screenTabs.setBackgroundAt(index, getScreenTypeColor(screen.getType()));
+    }
+
     private void refreshProjectInfo() {
 
     }